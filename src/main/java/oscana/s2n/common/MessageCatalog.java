@@ -0,0 +1,192 @@
+package oscana.s2n.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+import nablarch.core.message.MessageNotFoundException;
+import nablarch.core.message.StringResource;
+
+/**
+ * メッセージの一覧を保持する変更できないクラス。<br>
+ * <br>
+ * メッセージIDは昇順に並べた配列に保持し、二分探索で検索する。
+ * メッセージIDは{@link String#intern()}した文字列を保持し、同じ文言は言語をまたいで1つのインスタンスを共有する。
+ * メッセージの文言は言語単位の配列に保持する。
+ *
+ * @see MessageCatalogHolder
+ */
+public final class MessageCatalog {
+
+    /** 空のメッセージの一覧 */
+    static final MessageCatalog EMPTY = new MessageCatalog(new String[0], new String[0], new String[0][]);
+
+    /** メッセージID（昇順） */
+    private final String[] ids;
+
+    /** 言語（先頭はデフォルトの言語） */
+    private final String[] languages;
+
+    /** 言語、メッセージID単位の文言（[言語][メッセージID]。存在しない場合はnull） */
+    private final String[][] values;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param ids メッセージID（昇順）
+     * @param languages 言語（先頭はデフォルトの言語）
+     * @param values 言語、メッセージID単位の文言
+     */
+    private MessageCatalog(String[] ids, String[] languages, String[][] values) {
+        this.ids = ids;
+        this.languages = languages;
+        this.values = values;
+    }
+
+    /**
+     * メッセージの一覧を生成する。
+     *
+     * @param defaultLanguage デフォルトの言語
+     * @param messages 言語単位のメッセージIDと文言（デフォルトの言語の要素を含むこと）
+     * @return メッセージの一覧
+     * @throws IllegalArgumentException デフォルトの言語のメッセージが含まれていない場合
+     */
+    public static MessageCatalog create(String defaultLanguage, Map<String, ? extends Map<String, String>> messages) {
+        if (!messages.containsKey(defaultLanguage)) {
+            throw new IllegalArgumentException("messages of default language not found. language=[" + defaultLanguage + "]");
+        }
+        final List<String> languages = new ArrayList<String>(messages.keySet());
+        languages.remove(defaultLanguage);
+        languages.add(0, defaultLanguage);
+
+        final TreeSet<String> sorted = new TreeSet<String>();
+        for (Map<String, String> values : messages.values()) {
+            sorted.addAll(values.keySet());
+        }
+        final String[] ids = new String[sorted.size()];
+        int index = 0;
+        for (String id : sorted) {
+            ids[index++] = id.intern();
+        }
+
+        final Map<String, String> texts = new HashMap<String, String>();
+        final String[][] values = new String[languages.size()][];
+        for (int i = 0; i < values.length; i++) {
+            final Map<String, String> source = messages.get(languages.get(i));
+            values[i] = new String[ids.length];
+            for (int j = 0; j < ids.length; j++) {
+                final String text = source.get(ids[j]);
+                if (text != null) {
+                    final String shared = texts.putIfAbsent(text, text);
+                    values[i][j] = shared == null ? text : shared;
+                }
+            }
+        }
+        for (int i = 0; i < languages.size(); i++) {
+            languages.set(i, languages.get(i).intern());
+        }
+        return new MessageCatalog(ids, languages.toArray(new String[languages.size()]), values);
+    }
+
+    /**
+     * メッセージを検索する。
+     *
+     * @param messageId メッセージID
+     * @return メッセージ。存在しない場合はnull
+     */
+    public StringResource find(String messageId) {
+        if (messageId == null) {
+            return null;
+        }
+        final int index = Arrays.binarySearch(ids, messageId);
+        return index < 0 ? null : new Entry(index);
+    }
+
+    /**
+     * 指定したメッセージの一覧のメッセージIDのうち、本一覧に存在しないものを検索する。
+     *
+     * @param other メッセージの一覧
+     * @return 存在しないメッセージID。すべて存在する場合はnull
+     */
+    public String findMissingId(MessageCatalog other) {
+        int index = 0;
+        for (String id : other.ids) {
+            while (index < ids.length && ids[index].compareTo(id) < 0) {
+                index++;
+            }
+            if (index == ids.length || !ids[index].equals(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * メッセージの件数を取得する。
+     * @return メッセージの件数
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * 言語に対応する文言を取得する。<br>
+     * <br>
+     * 言語の文言が存在しない場合はデフォルトの言語の文言を返す。
+     *
+     * @param index メッセージIDの位置
+     * @param locale 言語
+     * @return 文言
+     * @throws MessageNotFoundException 言語、デフォルトの言語のいずれにも文言が存在しない場合
+     */
+    private String getValue(int index, Locale locale) {
+        if (locale != null) {
+            final String language = locale.getLanguage();
+            for (int i = 1; i < languages.length; i++) {
+                if (languages[i].equals(language)) {
+                    if (values[i][index] != null) {
+                        return values[i][index];
+                    }
+                    break;
+                }
+            }
+        }
+        final String value = values[0][index];
+        if (value == null) {
+            throw new MessageNotFoundException("message was not found. message id = " + ids[index]
+                    + ", language = " + (locale == null ? languages[0] : locale.getLanguage()));
+        }
+        return value;
+    }
+
+    /**
+     * メッセージの一覧の要素を参照する{@link StringResource}。
+     */
+    private final class Entry implements StringResource {
+
+        /** メッセージIDの位置 */
+        private final int index;
+
+        /**
+         * コンストラクタ。
+         * @param index メッセージIDの位置
+         */
+        private Entry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getId() {
+            return ids[index];
+        }
+
+        @Override
+        public String getValue(Locale locale) {
+            return MessageCatalog.this.getValue(index, locale);
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package oscana.s2n.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.core.message.MessageNotFoundException;
+import nablarch.core.message.StringResource;
+import nablarch.core.message.StringResourceHolder;
+import nablarch.core.repository.disposal.Disposable;
+import nablarch.core.repository.initialization.Initializable;
+
+/**
+ * {@link MessageCatalog}からメッセージを取得する{@link StringResourceHolder}。<br>
+ * <br>
+ * 初期化時にメッセージファイルをすべて読み込み、{@link MessageCatalog}として保持する。
+ * {@code nablarch.core.message.MessageUtil}を使用する処理（{@code MessageResources}、{@code ActionMessages#add}など）は、
+ * 本クラスを"stringResourceHolder"という名前で登録することで{@link MessageCatalog}からメッセージを取得する。<br>
+ * <br>
+ * メッセージファイルはクラスパス上の「ベース名.properties」（デフォルトの言語）と「ベース名_言語.properties」で、
+ * 文字コードはUTF-8とする。{@link #setDirectory(String)}を指定した場合はそのディレクトリから読み込む。<br>
+ * {@link #setWatch(boolean)}がtrueの場合は、メッセージファイルのディレクトリの変更をファイルシステムから通知を受けて検知し、
+ * メッセージファイルを読み直して{@link MessageCatalog}を置き換える。
+ * 書き込み中のファイルを読まないよう、変更の通知が{@link #setDebounceInterval(long)}の間途絶えてから読み直す。
+ * 読み直しに失敗した場合、読み直したメッセージに現在のメッセージIDが存在しない場合（書き込み途中のファイルを読んだ場合など）は置き換えない。
+ * メッセージを削除した場合はアプリケーションを再起動すること。
+ * メッセージの取得は置き換え中も排他されない。
+ * 置き換えた場合は{@link MessageTemplateCache}が保持するテンプレートを破棄する。
+ * <pre>
+ * &lt;component name="stringResourceHolder" class="oscana.s2n.common.MessageCatalogHolder"&gt;
+ *   &lt;property name="locales"&gt;
+ *     &lt;list&gt;
+ *       &lt;value&gt;ja&lt;/value&gt;
+ *       &lt;value&gt;en&lt;/value&gt;
+ *     &lt;/list&gt;
+ *   &lt;/property&gt;
+ *   &lt;property name="watch" value="true" /&gt;
+ * &lt;/component&gt;
+ * </pre>
+ * 本クラスは初期化が必要なため、初期化対象のリストに追加すること。
+ * 変更を検知する場合は、変更を検知するスレッドを終了するため、廃棄対象のリスト（{@code disposableList}）にも追加すること。
+ */
+public class MessageCatalogHolder extends StringResourceHolder implements Initializable, Disposable {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(MessageCatalogHolder.class);
+
+    /** メッセージファイルの拡張子 */
+    private static final String SUFFIX = ".properties";
+
+    /** 変更を検知するスレッドの終了を待つ時間（ミリ秒） */
+    private static final long JOIN_TIMEOUT = 5000L;
+
+    /** メッセージの一覧 */
+    private final AtomicReference<MessageCatalog> catalog = new AtomicReference<MessageCatalog>(MessageCatalog.EMPTY);
+
+    /** メッセージファイルのベース名 */
+    private String baseName = "messages";
+
+    /** メッセージファイルのディレクトリ（nullの場合はクラスパス） */
+    private String directory;
+
+    /** デフォルトの言語 */
+    private String defaultLocale = Locale.getDefault().getLanguage();
+
+    /** サポートする言語 */
+    private List<String> locales = new ArrayList<String>();
+
+    /** メッセージファイルの変更を検知するか否か */
+    private boolean watch;
+
+    /** 変更の通知が途絶えてから読み直すまでの時間（ミリ秒） */
+    private long debounceInterval = 500L;
+
+    /** メッセージファイルの変更の通知を受けるサービス */
+    private WatchService watchService;
+
+    /** メッセージファイルの変更を検知するスレッド */
+    private Thread watcher;
+
+    /**
+     * メッセージファイルを読み込み、{@link #setWatch(boolean)}がtrueの場合は変更の検知を開始する。
+     *
+     * @throws IllegalStateException メッセージファイルが読み込めない場合
+     */
+    @Override
+    public void initialize() {
+        catalog.set(load());
+        MessageTemplateCache.clear();
+        LOGGER.logInfo("message catalog loaded. messages=[" + catalog.get().size() + "]");
+        if (watch) {
+            startWatching();
+        }
+    }
+
+    /**
+     * メッセージを取得する。
+     *
+     * @param messageId メッセージID
+     * @return メッセージ
+     * @throws MessageNotFoundException メッセージが存在しない場合
+     */
+    @Override
+    public StringResource get(String messageId) {
+        final StringResource resource = catalog.get().find(messageId);
+        if (resource == null) {
+            throw new MessageNotFoundException("message was not found. message id = " + messageId);
+        }
+        return resource;
+    }
+
+    /**
+     * 保持している{@link MessageCatalog}を取得する。
+     * @return {@link MessageCatalog}
+     */
+    public MessageCatalog getCatalog() {
+        return catalog.get();
+    }
+
+    /**
+     * メッセージファイルを読み直し、{@link MessageCatalog}を置き換える。<br>
+     * <br>
+     * 読み直したメッセージに現在のメッセージIDが存在しない場合は置き換えない。
+     *
+     * @return 置き換えた場合はtrue、読み直しに失敗した場合、置き換えなかった場合はfalse
+     */
+    public boolean reload() {
+        final MessageCatalog loaded;
+        try {
+            loaded = load();
+        } catch (RuntimeException e) {
+            LOGGER.logWarn("failed to reload message catalog. the current messages are kept.", e);
+            return false;
+        }
+        final String missingId = loaded.findMissingId(catalog.get());
+        if (missingId != null) {
+            LOGGER.logWarn("reloaded message catalog lacks a current message. the current messages are kept."
+                    + " message id=[" + missingId + "]");
+            return false;
+        }
+        // 置き換えてからテンプレートを破棄する。MessageTemplateCacheは破棄の前に取得したテンプレートを使用しないため、
+        // 置き換え前のメッセージから取得したテンプレートが残らない
+        catalog.set(loaded);
+        MessageTemplateCache.clear();
+        LOGGER.logInfo("message catalog reloaded. messages=[" + loaded.size() + "]");
+        return true;
+    }
+
+    /**
+     * メッセージファイルの変更の検知を終了する。<br>
+     * <br>
+     * 変更を検知するスレッドの終了を待つ。
+     *
+     * @throws InterruptedException 終了を待つ間に割り込まれた場合
+     */
+    @Override
+    public void dispose() throws InterruptedException {
+        final Thread thread;
+        synchronized (this) {
+            thread = watcher;
+            stopWatching();
+        }
+        if (thread != null) {
+            thread.join(JOIN_TIMEOUT);
+        }
+    }
+
+    /**
+     * メッセージファイルの変更の検知を終了する。変更を検知するスレッドの終了は待たない。
+     */
+    public synchronized void stopWatching() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOGGER.logWarn("failed to close watch service.", e);
+        }
+        watchService = null;
+        watcher = null;
+    }
+
+    /**
+     * メッセージファイルを読み込む。
+     *
+     * @return メッセージの一覧
+     * @throws IllegalStateException デフォルトの言語のメッセージファイルが存在しない場合、読み込めない場合
+     */
+    private MessageCatalog load() {
+        final Map<String, Map<String, String>> messages = new LinkedHashMap<String, Map<String, String>>();
+        final Map<String, String> defaults = read(baseName + SUFFIX);
+        if (defaults == null) {
+            throw new IllegalStateException("message file not found. file=[" + baseName + SUFFIX + "]");
+        }
+        messages.put(defaultLocale, defaults);
+        for (String locale : locales) {
+            final Map<String, String> values = read(baseName + '_' + locale + SUFFIX);
+            if (values != null) {
+                if (locale.equals(defaultLocale)) {
+                    defaults.putAll(values);
+                } else {
+                    messages.put(locale, values);
+                }
+            }
+        }
+        return MessageCatalog.create(defaultLocale, messages);
+    }
+
+    /**
+     * メッセージファイルを読み込む。
+     *
+     * @param fileName ファイル名
+     * @return メッセージIDと文言。ファイルが存在しない場合はnull
+     * @throws IllegalStateException ファイルが読み込めない場合
+     */
+    private Map<String, String> read(String fileName) {
+        final Properties properties = new Properties();
+        try (InputStream in = open(fileName)) {
+            if (in == null) {
+                return null;
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to read message file. file=[" + fileName + "]", e);
+        }
+        final Map<String, String> values = new HashMap<String, String>(properties.size() * 2);
+        for (String name : properties.stringPropertyNames()) {
+            values.put(name, properties.getProperty(name));
+        }
+        return values;
+    }
+
+    /**
+     * メッセージファイルを開く。
+     *
+     * @param fileName ファイル名
+     * @return 入力ストリーム。ファイルが存在しない場合はnull
+     * @throws IOException ファイルが開けない場合
+     */
+    private InputStream open(String fileName) throws IOException {
+        if (directory != null) {
+            final Path path = Paths.get(directory, fileName);
+            return Files.isRegularFile(path) ? Files.newInputStream(path) : null;
+        }
+        return Thread.currentThread().getContextClassLoader().getResourceAsStream(fileName);
+    }
+
+    /**
+     * メッセージファイルのディレクトリを取得する。
+     *
+     * @return ディレクトリ。ファイルシステム上にない場合はnull
+     */
+    private Path resolveDirectory() {
+        if (directory != null) {
+            return Paths.get(directory);
+        }
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(baseName + SUFFIX);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI()).getParent();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * メッセージファイルの変更の検知を開始する。
+     */
+    private synchronized void startWatching() {
+        if (watchService != null) {
+            return;
+        }
+        final Path dir = resolveDirectory();
+        if (dir == null) {
+            LOGGER.logWarn("message files are not on the file system. changes are not watched. baseName=[" + baseName + "]");
+            return;
+        }
+        final WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to watch message files. directory=[" + dir + "]", e);
+        }
+        watchService = service;
+
+        watcher = new Thread(() -> watch(service), "message-catalog-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * メッセージファイルの変更の通知を待ち、変更された場合は通知が途絶えてから読み直す。
+     *
+     * @param service メッセージファイルの変更の通知を受けるサービス
+     */
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                if (!isChanged(service.take())) {
+                    continue;
+                }
+                // 書き込み中の変更が続けて通知される間は読み直さない
+                WatchKey key;
+                while ((key = service.poll(debounceInterval, TimeUnit.MILLISECONDS)) != null) {
+                    isChanged(key);
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 検知の終了
+        }
+    }
+
+    /**
+     * 通知された変更にメッセージファイルの変更が含まれるか否かを判定する。
+     *
+     * @param key 通知された変更
+     * @return メッセージファイルの変更が含まれる場合はtrue
+     */
+    private boolean isChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            final Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || context instanceof Path && isMessageFile(((Path) context).getFileName().toString())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * メッセージファイルか否かを判定する。
+     *
+     * @param fileName ファイル名
+     * @return メッセージファイルの場合はtrue
+     */
+    private boolean isMessageFile(String fileName) {
+        return fileName.startsWith(baseName) && fileName.endsWith(SUFFIX);
+    }
+
+    /**
+     * メッセージファイルのベース名を設定する。デフォルトは"messages"。
+     *
+     * @param baseName ベース名
+     */
+    public void setBaseName(String baseName) {
+        this.baseName = baseName;
+    }
+
+    /**
+     * メッセージファイルのディレクトリを設定する。<br>
+     * <br>
+     * 指定しない場合はクラスパスから読み込む。
+     *
+     * @param directory ディレクトリ
+     */
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * デフォルトの言語を設定する。<br>
+     * <br>
+     * 「ベース名.properties」はこの言語のメッセージとして扱う。
+     * デフォルトは{@link Locale#getDefault()}の言語。
+     *
+     * @param defaultLocale デフォルトの言語
+     */
+    public void setDefaultLocale(String defaultLocale) {
+        this.defaultLocale = defaultLocale;
+    }
+
+    /**
+     * サポートする言語を設定する。
+     *
+     * @param locales サポートする言語
+     */
+    public void setLocales(List<String> locales) {
+        this.locales = locales;
+    }
+
+    /**
+     * メッセージファイルの変更を検知するか否かを設定する。デフォルトはfalse。
+     *
+     * @param watch 検知する場合はtrue
+     */
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    /**
+     * 変更の通知が途絶えてから読み直すまでの時間（ミリ秒）を設定する。デフォルトは500。
+     *
+     * @param debounceInterval 読み直すまでの時間（ミリ秒）
+     */
+    public void setDebounceInterval(long debounceInterval) {
+        this.debounceInterval = debounceInterval;
+    }
+}
@@ -0,0 +1,303 @@
+package oscana.s2n.common;
+
+import java.text.FieldPosition;
+import java.text.MessageFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import nablarch.core.ThreadContext;
+import nablarch.core.message.Message;
+import nablarch.core.message.MessageLevel;
+import nablarch.core.message.MessageUtil;
+import nablarch.core.message.StringResource;
+import nablarch.core.repository.SystemRepository;
+
+/**
+ * 解析済みのメッセージテンプレートを保持し、メッセージを生成するクラス。<br>
+ * <br>
+ * {@link MessageUtil#createMessage(MessageLevel, String, Object...)}によるメッセージの生成は、
+ * 呼び出し毎にメッセージテンプレートを取得し、{@link MessageFormat}のパターンを解析する。
+ * 本クラスはメッセージIDと言語の組み合わせ単位に解析済みの{@link MessageFormat}を保持し、
+ * 同じメッセージを繰り返し生成する場合の解析を省略する。<br>
+ * 保持するテンプレートは{@link S2NConfig#getMessageTemplateCacheSize()}件までとし、
+ * 超えた場合は最も長く使用されていないテンプレートを破棄する。
+ * 0以下の場合（デフォルト）、またはメッセージのフォーマッタ（"messageFormatter"）がコンポーネント定義に登録されている場合は、
+ * 本クラスを使用せずに{@link MessageUtil}でメッセージを生成する。
+ * これらの設定は最初のメッセージの生成時に読み込み、{@link #clear()}を呼び出すまで読み込み直さない。<br>
+ * <br>
+ * 保持したテンプレートはメッセージが変更されても更新されないため、メッセージを変更した場合は{@link #clear()}を呼び出すこと。
+ * {@link #clear()}はテンプレートを保持する領域ごと破棄するため、
+ * {@link #clear()}の前に取得したテンプレートが{@link #clear()}の後に保持されることはない。<br>
+ * <br>
+ * {@link MessageFormat}はスレッドセーフではないため、解析済みの{@link MessageFormat}を複製元として保持し、
+ * メッセージの生成毎に複製して使用する。複製はパターンの解析より軽量であり、スレッド単位の状態を持たない。
+ */
+public final class MessageTemplateCache {
+
+    /** メッセージのフォーマッタのコンポーネント名 */
+    private static final String MESSAGE_FORMATTER_NAME = "messageFormatter";
+
+    /** 言語が指定されていない場合のキャッシュのキー */
+    private static final Locale NO_LANGUAGE = new Locale("");
+
+    /** テンプレートを保持しない場合の{@link Templates} */
+    private static final Templates DISABLED = new Templates(0);
+
+    /** 解析済みテンプレートを保持する領域（設定を読み込んでいない場合はnull） */
+    private static final AtomicReference<Templates> TEMPLATES = new AtomicReference<Templates>();
+
+    /** キャッシュから取得できた回数 */
+    private static final LongAdder HITS = new LongAdder();
+
+    /** キャッシュから取得できなかった回数 */
+    private static final LongAdder MISSES = new LongAdder();
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private MessageTemplateCache() {
+    }
+
+    /**
+     * メッセージを生成する。<br>
+     * <br>
+     * {@code MessageUtil.createMessage(MessageLevel.ERROR, messageId, args).formatMessage(locale)}と同じ結果を返す。
+     *
+     * @param locale 言語。nullの場合はスレッドコンテキストの言語
+     * @param messageId メッセージID
+     * @param args メッセージの埋め込み値
+     * @return メッセージ
+     * @throws nablarch.core.message.MessageNotFoundException メッセージが存在しない場合
+     */
+    public static String format(Locale locale, String messageId, Object... args) {
+        final Templates templates = getTemplates();
+        if (templates == DISABLED || messageId == null) {
+            return locale == null
+                    ? MessageUtil.createMessage(MessageLevel.ERROR, messageId, args).formatMessage()
+                    : MessageUtil.createMessage(MessageLevel.ERROR, messageId, args).formatMessage(locale);
+        }
+
+        final Locale language = locale == null ? ThreadContext.getLanguage() : locale;
+        final Key key = new Key(messageId, language == null ? NO_LANGUAGE : language);
+        final Template cached = templates.get(key);
+        if (cached != null) {
+            HITS.increment();
+            return cached.format(args, language);
+        }
+
+        MISSES.increment();
+        final StringResource resource = MessageUtil.getStringResource(messageId);
+        final Template template = new Template(resource.getValue(language));
+        templates.put(key, template);
+        return template.format(args, language);
+    }
+
+    /**
+     * 保持しているテンプレートを破棄する。統計値は初期化しない。<br>
+     * <br>
+     * テンプレートを保持する領域ごと破棄し、次回の{@link #format(Locale, String, Object...)}で設定を読み込み直す。
+     * 実行中の{@link #format(Locale, String, Object...)}が本メソッドの前に取得したテンプレートは、
+     * 破棄した領域に保持されるため使用されない。
+     */
+    public static void clear() {
+        TEMPLATES.set(null);
+    }
+
+    /**
+     * 保持しているテンプレートの件数を取得する。
+     * @return テンプレートの件数
+     */
+    public static int size() {
+        final Templates templates = TEMPLATES.get();
+        return templates == null ? 0 : templates.size();
+    }
+
+    /**
+     * キャッシュから取得できた回数を取得する。
+     * @return キャッシュから取得できた回数
+     */
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * キャッシュから取得できなかった回数を取得する。
+     * @return キャッシュから取得できなかった回数
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * 統計値を初期化する。
+     */
+    public static void resetStatistics() {
+        HITS.reset();
+        MISSES.reset();
+    }
+
+    /**
+     * テンプレートを保持する領域を取得する。設定を読み込んでいない場合は読み込む。
+     *
+     * @return テンプレートを保持する領域。保持しない設定の場合は{@link #DISABLED}
+     */
+    private static Templates getTemplates() {
+        final Templates current = TEMPLATES.get();
+        if (current != null) {
+            return current;
+        }
+        final int maxSize = S2NConfigFinder.getConfig().getMessageTemplateCacheSize();
+        final Templates created = maxSize <= 0 || SystemRepository.getObject(MESSAGE_FORMATTER_NAME) != null
+                ? DISABLED : new Templates(maxSize);
+        if (TEMPLATES.compareAndSet(null, created)) {
+            return created;
+        }
+        // 他のスレッドが先に設定した場合はそれを使用する（その間にclear()された場合は作成したものを使用する）
+        final Templates other = TEMPLATES.get();
+        return other == null ? created : other;
+    }
+
+    /**
+     * 解析済みテンプレートを保持する領域。<br>
+     * <br>
+     * 保持する件数を超えた場合は、最も長く使用されていないテンプレートを破棄する。
+     */
+    private static final class Templates {
+
+        /** 解析済みテンプレート（使用された順） */
+        private final LinkedHashMap<Key, Template> templates;
+
+        /**
+         * コンストラクタ。
+         * @param maxSize 保持する件数
+         */
+        private Templates(final int maxSize) {
+            templates = new LinkedHashMap<Key, Template>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Template> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        /**
+         * テンプレートを取得する。
+         * @param key キー
+         * @return テンプレート。保持していない場合はnull
+         */
+        synchronized Template get(Key key) {
+            return templates.get(key);
+        }
+
+        /**
+         * テンプレートを保持する。
+         * @param key キー
+         * @param template テンプレート
+         */
+        synchronized void put(Key key, Template template) {
+            templates.put(key, template);
+        }
+
+        /**
+         * 保持しているテンプレートの件数を取得する。
+         * @return テンプレートの件数
+         */
+        synchronized int size() {
+            return templates.size();
+        }
+    }
+
+    /**
+     * 解析済みのメッセージテンプレート。
+     */
+    private static final class Template {
+
+        /** メッセージテンプレート */
+        private final String pattern;
+
+        /** 解析済みのテンプレート（埋め込み値を使用する時点で解析する。書式設定には使用せず、複製元とする） */
+        private volatile MessageFormat prototype;
+
+        /**
+         * コンストラクタ。
+         * @param pattern メッセージテンプレート
+         */
+        private Template(String pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * メッセージを生成する。<br>
+         * <br>
+         * 埋め込み値の{@link Message}、{@link StringResource}は{@link Message}と同様に指定された言語で文字列に変換する。
+         * 埋め込み値がない場合はテンプレートをそのまま返す。
+         *
+         * @param args 埋め込み値
+         * @param language 言語
+         * @return メッセージ
+         */
+        private String format(Object[] args, Locale language) {
+            if (args == null || args.length == 0) {
+                return pattern;
+            }
+            final Object[] values = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                final Object arg = args[i];
+                if (arg instanceof Message) {
+                    values[i] = ((Message) arg).formatMessage(language);
+                } else if (arg instanceof StringResource) {
+                    values[i] = ((StringResource) arg).getValue(language);
+                } else {
+                    values[i] = arg;
+                }
+            }
+
+            MessageFormat parsed = prototype;
+            if (parsed == null) {
+                parsed = new MessageFormat(pattern);
+                prototype = parsed;
+            }
+            return ((MessageFormat) parsed.clone()).format(values, new StringBuffer(pattern.length() + 16),
+                    new FieldPosition(0)).toString();
+        }
+    }
+
+    /**
+     * テンプレートのキャッシュのキー。
+     */
+    private static final class Key {
+
+        /** メッセージID */
+        private final String messageId;
+
+        /** 言語 */
+        private final Locale language;
+
+        /**
+         * コンストラクタ。
+         * @param messageId メッセージID
+         * @param language 言語
+         */
+        private Key(String messageId, Locale language) {
+            this.messageId = messageId;
+            this.language = language;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return messageId.equals(other.messageId) && language.equals(other.language);
+        }
+
+        @Override
+        public int hashCode() {
+            return messageId.hashCode() * 31 + language.hashCode();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package oscana.s2n.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import nablarch.core.repository.SystemRepository;
+import oscana.s2n.handler.S2NRoutesMapping;
+
+/**
+ * 互換ライブラリの設定を保持するクラス。<br>
+ * <br>
+ * 設定を変更する場合は、本クラスを"s2nConfig"という名前でコンポーネント定義に登録する。
+ * 登録がない場合はデフォルト値が使用される。
+ * <pre>
+ * &lt;component name="s2nConfig" class="oscana.s2n.common.S2NConfig"&gt;
+ *   &lt;property name="maxGridIndex" value="5000" /&gt;
+ *   &lt;property name="directForward" value="true" /&gt;
+ *   &lt;property name="shareInterceptors" value="true" /&gt;
+ *   &lt;property name="messageTemplateCacheSize" value="1024" /&gt;
+ * &lt;/component&gt;
+ * </pre>
+ * ルーティング定義ファイル、更新を確認する間隔、アクションクラスのパッケージは、
+ * コンポーネント定義に登録された{@link S2NRoutesMapping}から取得する。
+ * {@link S2NRoutesMapping}以外が登録されている場合、ルーティング定義の索引（oscana.s2n.handler.RouteIndex）は使用不可となる。
+ *
+ * @see S2NConfigFinder
+ */
+public class S2NConfig {
+
+    /** インデックス付きのリクエストパラメータ（"rows[0].name"など）で許容するインデックスの最大値 */
+    private int maxGridIndex = 10000;
+
+    /** ルーティング定義ファイルのデフォルトのパス */
+    private static final String DEFAULT_ROUTES = "routes.xml";
+
+    /** ルーティングを行うハンドラ（{@link S2NRoutesMapping}）のコンポーネント名 */
+    private String routesMappingName = "packageMapping";
+
+    /** アクションへの内部フォーワードをハンドラキューを経由せずに直接呼び出すか否か */
+    private boolean directForward = false;
+
+    /** アプリケーションのインターセプタを適用したハンドラを複数のリクエストで共有するか否か */
+    private boolean shareInterceptors = false;
+
+    /** リクエストの処理を別スレッドで継続する場合に引き継ぐ{@link nablarch.core.ThreadContext}のキー */
+    private List<String> threadContextKeys = Collections.emptyList();
+
+    /** 解析済みのメッセージテンプレートを保持する件数 */
+    private int messageTemplateCacheSize = 0;
+
+    /**
+     * インデックス付きのリクエストパラメータで許容するインデックスの最大値を取得する。
+     * @return インデックスの最大値
+     */
+    public int getMaxGridIndex() {
+        return maxGridIndex;
+    }
+
+    /**
+     * インデックス付きのリクエストパラメータで許容するインデックスの最大値を設定する。<br>
+     * <br>
+     * 最大値を超えるインデックスが送信された場合は、リクエスト不正として扱う。
+     * デフォルトは10000。
+     *
+     * @param maxGridIndex インデックスの最大値
+     */
+    public void setMaxGridIndex(int maxGridIndex) {
+        this.maxGridIndex = maxGridIndex;
+    }
+
+    /**
+     * ルーティング定義ファイルのパスを取得する。<br>
+     * <br>
+     * {@link S2NRoutesMapping}が登録されていない場合は"routes.xml"。
+     * {@link S2NRoutesMapping}以外が登録されている場合も"routes.xml"となるため、
+     * 設定を参照できるか否かは{@link #isRoutesMappingSupported()}で判定する。
+     *
+     * @return ルーティング定義ファイルのパス（クラスパス上のパス）
+     */
+    public String getRoutes() {
+        final S2NRoutesMapping mapping = getRoutesMapping();
+        return mapping == null ? DEFAULT_ROUTES : mapping.getRoutes();
+    }
+
+    /**
+     * ルーティング定義ファイルの更新を確認する間隔（ミリ秒）を取得する。<br>
+     * <br>
+     * ルーティング定義の索引（oscana.s2n.handler.RouteIndex）は、この間隔でルーティング定義ファイルの更新を確認し、
+     * 更新されている場合は再構築する。0以下の場合は更新を確認しない。
+     * {@link S2NRoutesMapping}が登録されていない場合は0。
+     *
+     * @return 更新を確認する間隔
+     */
+    public long getRoutesCheckInterval() {
+        final S2NRoutesMapping mapping = getRoutesMapping();
+        return mapping == null ? 0 : mapping.getCheckInterval();
+    }
+
+    /**
+     * アクションへの内部フォーワードをハンドラキューを経由せずに直接呼び出すか否かを取得する。
+     * @return 直接呼び出す場合はtrue
+     */
+    public boolean isDirectForward() {
+        return directForward;
+    }
+
+    /**
+     * アクションへの内部フォーワードをハンドラキューを経由せずに直接呼び出すか否かを設定する。<br>
+     * <br>
+     * trueの場合、アクションが返した内部フォーワード（"forward://"）のパスがルーティング定義に存在し、
+     * フォーワード先のアクションを解決できる場合は、ハンドラキューを再実行せずにフォーワード先のアクションメソッドを呼び出す。
+     * ルーティングハンドラより後、アクションより前のハンドラはフォーワード時に再実行されないため、
+     * それらのハンドラがフォーワード時に再実行される必要がないことを確認した上で使用すること。
+     * デフォルトはfalse。
+     *
+     * @param directForward 直接呼び出す場合はtrue
+     * @see oscana.s2n.handler.S2NRoutesMethodBinder
+     */
+    public void setDirectForward(boolean directForward) {
+        this.directForward = directForward;
+    }
+
+    /**
+     * アプリケーションのインターセプタを適用したハンドラを複数のリクエストで共有するか否かを取得する。
+     * @return 共有する場合はtrue
+     */
+    public boolean isShareInterceptors() {
+        return shareInterceptors;
+    }
+
+    /**
+     * アプリケーションのインターセプタを適用したハンドラを複数のリクエストで共有するか否かを設定する。<br>
+     * <br>
+     * アクションメソッドに付与されたインターセプタの実装クラスがすべてNablarch、互換ライブラリのものの場合は、
+     * 本設定に関わらずインターセプタを適用したハンドラを共有する。
+     * それ以外のインターセプタが付与されている場合、falseではリクエストごとにインターセプタを生成し、
+     * trueでは初回のリクエストで生成したインターセプタを以降のリクエストで共有する。
+     * trueにする場合は、アプリケーションのインターセプタ（Interceptor.Implの実装クラス）が
+     * フィールドにリクエスト単位の状態を保持しないことを確認すること。
+     * デフォルトはfalse。
+     *
+     * @param shareInterceptors 共有する場合はtrue
+     * @see oscana.s2n.handler.ActionPipeline
+     */
+    public void setShareInterceptors(boolean shareInterceptors) {
+        this.shareInterceptors = shareInterceptors;
+    }
+
+    /**
+     * リクエストの処理を別スレッドで継続する場合に引き継ぐ{@link nablarch.core.ThreadContext}のキーを取得する。
+     * @return 引き継ぐキー
+     */
+    public List<String> getThreadContextKeys() {
+        return threadContextKeys;
+    }
+
+    /**
+     * リクエストの処理を別スレッドで継続する場合に引き継ぐ{@link nablarch.core.ThreadContext}のキーを設定する。<br>
+     * <br>
+     * 非同期アクションの完了時の処理（oscana.s2n.handler.ActionPipeline）、
+     * 仮想スレッドで実行する後続のハンドラ（oscana.s2n.handler.VirtualThreadHandler）は、
+     * 言語、タイムゾーン、ユーザID、リクエストID、実行時IDと互換ライブラリが使用するキーの値を引き継ぐ。
+     * アプリケーションが独自のキーで値を設定している場合は、本プロパティにキーを設定する。
+     * デフォルトは空（追加のキーなし）。
+     *
+     * @param threadContextKeys 引き継ぐキー
+     */
+    public void setThreadContextKeys(List<String> threadContextKeys) {
+        this.threadContextKeys = Collections.unmodifiableList(new ArrayList<String>(threadContextKeys));
+    }
+
+    /**
+     * アクションクラスのパッケージを取得する。<br>
+     * <br>
+     * {@link S2NRoutesMapping}が登録されていない場合はnull。
+     *
+     * @return アクションクラスのパッケージ
+     */
+    public String getBasePackage() {
+        final S2NRoutesMapping mapping = getRoutesMapping();
+        return mapping == null ? null : mapping.getBasePackage();
+    }
+
+    /**
+     * ルーティング定義のパスの前に付与するベースURIを取得する。<br>
+     * <br>
+     * {@link S2NRoutesMapping}が登録されていない場合は空文字。
+     *
+     * @return ベースURI
+     */
+    public String getRoutesBaseUri() {
+        final S2NRoutesMapping mapping = getRoutesMapping();
+        return mapping == null ? "" : mapping.getBaseUri();
+    }
+
+    /**
+     * ルーティングを行うハンドラのコンポーネント名を設定する。デフォルトは"packageMapping"。
+     *
+     * @param routesMappingName コンポーネント名
+     */
+    public void setRoutesMappingName(String routesMappingName) {
+        this.routesMappingName = routesMappingName;
+    }
+
+    /**
+     * ルーティングを行うハンドラの設定を参照できるか否かを判定する。<br>
+     * <br>
+     * ルーティングを行うハンドラが登録されていない場合、{@link S2NRoutesMapping}が登録されている場合はtrue。
+     * {@link S2NRoutesMapping}以外（nablarch.integration.router.RoutesMappingなど）が登録されている場合は、
+     * ルーティング定義ファイルなどの設定を参照できないためfalse。
+     *
+     * @return 参照できる場合はtrue
+     */
+    public boolean isRoutesMappingSupported() {
+        final Object mapping = SystemRepository.getObject(routesMappingName);
+        return mapping == null || mapping instanceof S2NRoutesMapping;
+    }
+
+    /**
+     * コンポーネント定義に登録された{@link S2NRoutesMapping}を取得する。
+     *
+     * @return {@link S2NRoutesMapping}。登録されていない場合、{@link S2NRoutesMapping}以外が登録されている場合はnull
+     */
+    private S2NRoutesMapping getRoutesMapping() {
+        final Object mapping = SystemRepository.getObject(routesMappingName);
+        return mapping instanceof S2NRoutesMapping ? (S2NRoutesMapping) mapping : null;
+    }
+
+    /**
+     * 解析済みのメッセージテンプレートを保持する件数を取得する。
+     * @return 保持する件数
+     */
+    public int getMessageTemplateCacheSize() {
+        return messageTemplateCacheSize;
+    }
+
+    /**
+     * 解析済みのメッセージテンプレートを保持する件数を設定する。<br>
+     * <br>
+     * 1以上の場合、oscana.s2n.struts.util.MessageResourcesなどのメッセージの生成に
+     * {@link MessageTemplateCache}を使用し、メッセージIDと言語の組み合わせ単位にこの件数までテンプレートを保持する。
+     * 件数を超えた場合は、最も長く使用されていないテンプレートを破棄する。
+     * 保持したテンプレートはメッセージが変更されても更新されない。
+     * 本設定は最初のメッセージの生成時に読み込まれ、{@link MessageTemplateCache#clear()}を呼び出すまで読み込み直されない。
+     * デフォルトは0（保持しない）。
+     *
+     * @param messageTemplateCacheSize 保持する件数
+     */
+    public void setMessageTemplateCacheSize(int messageTemplateCacheSize) {
+        this.messageTemplateCacheSize = messageTemplateCacheSize;
+    }
+}
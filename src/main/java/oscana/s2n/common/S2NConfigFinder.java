@@ -0,0 +1,34 @@
+package oscana.s2n.common;
+
+import nablarch.core.repository.SystemRepository;
+
+/**
+ * {@link S2NConfig}を取得するクラス。
+ */
+public final class S2NConfigFinder {
+
+    /** {@link S2NConfig}のコンポーネント名 */
+    private static final String CONFIG_NAME = "s2nConfig";
+
+    /** デフォルトの{@link S2NConfig} */
+    private static final S2NConfig DEFAULT_CONFIG = new S2NConfig();
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private S2NConfigFinder() {
+    }
+
+    /**
+     * {@link S2NConfig}を取得する。<br>
+     * <br>
+     * システムリポジトリに"s2nConfig"という名前で登録されている場合はそれを返し、
+     * 登録されていない場合はデフォルト値の{@link S2NConfig}を返す。
+     *
+     * @return {@link S2NConfig}
+     */
+    public static S2NConfig getConfig() {
+        S2NConfig config = SystemRepository.get(CONFIG_NAME);
+        return config == null ? DEFAULT_CONFIG : config;
+    }
+}
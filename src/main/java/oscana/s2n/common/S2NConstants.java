@@ -20,6 +20,18 @@ public class S2NConstants {
     /** アクションメソッドをリクエストスコープに格納する際に使用する名前 */
     public static final String REQUEST_SCOPED_KEY_CALL_METHOD = "oscana.s2n.common.S2NConstants.Key.CallMethod";
 
+    /** アクションをリクエストスコープに格納する際に使用する名前 */
+    public static final String REQUEST_SCOPED_KEY_ACTION = "oscana.s2n.common.S2NConstants.Key.Action";
+
+    /** 非同期アクションにより応答を保留したことをリクエストスコープに格納する際に使用する名前 */
+    public static final String REQUEST_SCOPED_KEY_ASYNC_SUSPENDED = "oscana.s2n.common.S2NConstants.Key.AsyncSuspended";
+
     /** アクションメソッドの名前をスレッドコンテキストに格納する際に使用する名前 */
     public static final String THREAD_CONTEXT_KEY_CALL_METHOD_NAME = "oscana.s2n.common.S2NConstants.Key.CallMethodName";
+
+    /** アクションメソッドの名前の番号をスレッドコンテキストに格納する際に使用する名前 */
+    public static final String THREAD_CONTEXT_KEY_CALL_METHOD_ID = "oscana.s2n.common.S2NConstants.Key.CallMethodId";
+
+    /** 遅延評価するアクション、フォームのプロパティをリクエストスコープに格納する際に使用する名前 */
+    public static final String REQUEST_SCOPED_KEY_LAZY_PROPERTIES = "oscana.s2n.common.S2NConstants.Key.LazyProperties";
 }
@@ -0,0 +1,122 @@
+package oscana.s2n.common.web.el;
+
+import java.beans.FeatureDescriptor;
+import java.util.Iterator;
+
+import javax.el.ELContext;
+import javax.el.ELResolver;
+import javax.el.PropertyNotWritableException;
+import javax.servlet.jsp.JspContext;
+import javax.servlet.jsp.PageContext;
+
+import oscana.s2n.common.S2NConstants;
+import oscana.s2n.common.web.interceptor.LazyProperties;
+
+/**
+ * 遅延評価で設定されたアクション、フォームの値をEL式から参照する{@link ELResolver}。<br>
+ * <br>
+ * {@link oscana.s2n.common.web.interceptor.Execute#lazyExport()}がtrueの場合にリクエストスコープに設定された
+ * {@link LazyProperties}から、EL式の最上位の変数（例：${name}の"name"）を解決する。
+ * {@link LazyProperties}に登録されていない変数は解決せず、後続の{@link ELResolver}に処理を委譲する。<br>
+ * <br>
+ * 本クラスはページスコープ、リクエストスコープの変数を解決するELResolverより前に登録されるため、
+ * 同じ名前の変数がページスコープ（c:forEachのvar属性など）、リクエストスコープ（c:setなど）に存在する場合は解決せず、
+ * 後続の{@link ELResolver}に処理を委譲する。リクエストスコープに値を設定した場合（遅延評価しない場合）と同様に、
+ * ページスコープ、リクエストスコープの変数が優先される。<br>
+ * <br>
+ * 遅延評価で設定された変数は参照専用であり、{@link #isReadOnly(ELContext, Object, Object)}はtrueを返す。
+ * アクション、フォームに値が反映されないため、EL式から値を設定した場合は{@link PropertyNotWritableException}を送出する。<br>
+ * <br>
+ * getterメソッドはJSPの描画中に呼び出されるため、トランザクション、データベース接続のハンドラの処理は終了している。
+ * getterメソッドでデータベースにアクセスするアクション、フォームは本クラスの対象外であり、遅延評価を使用しないこと。
+ */
+public class LazyPropertyELResolver extends ELResolver {
+
+    @Override
+    public Object getValue(ELContext context, Object base, Object property) {
+        LazyProperties properties = getLazyProperties(context, base, property);
+        if (properties == null) {
+            return null;
+        }
+        context.setPropertyResolved(true);
+        return properties.get((String) property);
+    }
+
+    @Override
+    public Class<?> getType(ELContext context, Object base, Object property) {
+        if (isLazyProperty(context, base, property)) {
+            context.setPropertyResolved(true);
+        }
+        return null;
+    }
+
+    @Override
+    public void setValue(ELContext context, Object base, Object property, Object value) {
+        if (isLazyProperty(context, base, property)) {
+            context.setPropertyResolved(true);
+            throw new PropertyNotWritableException("lazily exported property is read-only. property=[" + property + "]");
+        }
+        // 遅延評価で設定された変数以外は後続のELResolverに委譲する
+    }
+
+    @Override
+    public boolean isReadOnly(ELContext context, Object base, Object property) {
+        if (isLazyProperty(context, base, property)) {
+            context.setPropertyResolved(true);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<FeatureDescriptor> getFeatureDescriptors(ELContext context, Object base) {
+        return null;
+    }
+
+    @Override
+    public Class<?> getCommonPropertyType(ELContext context, Object base) {
+        return base == null ? String.class : null;
+    }
+
+    /**
+     * 遅延評価で設定された変数か否かを判定する。
+     *
+     * @param context ELコンテキスト
+     * @param base 解決対象のオブジェクト
+     * @param property 解決対象のプロパティ
+     * @return 遅延評価で設定された変数の場合はtrue
+     */
+    private static boolean isLazyProperty(ELContext context, Object base, Object property) {
+        return getLazyProperties(context, base, property) != null;
+    }
+
+    /**
+     * 解決対象の変数を保持する{@link LazyProperties}をリクエストスコープから取得する。
+     *
+     * @param context ELコンテキスト
+     * @param base 解決対象のオブジェクト
+     * @param property 解決対象のプロパティ
+     * @return {@link LazyProperties}。解決対象外の場合、リクエストスコープに存在しない場合、変数が登録されていない場合、
+     *         同じ名前の変数がページスコープ、リクエストスコープに存在する場合はnull
+     */
+    private static LazyProperties getLazyProperties(ELContext context, Object base, Object property) {
+        if (base != null || !(property instanceof String)) {
+            return null;
+        }
+        Object pageContext = context.getContext(JspContext.class);
+        if (!(pageContext instanceof PageContext)) {
+            return null;
+        }
+        PageContext page = (PageContext) pageContext;
+        Object properties = page.getRequest().getAttribute(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+        if (!(properties instanceof LazyProperties) || !((LazyProperties) properties).contains((String) property)) {
+            return null;
+        }
+        if (page.getAttribute((String) property, PageContext.PAGE_SCOPE) != null
+                || page.getRequest().getAttribute((String) property) != null) {
+            // ページスコープ、リクエストスコープの変数を優先する
+            return null;
+        }
+        return (LazyProperties) properties;
+    }
+}
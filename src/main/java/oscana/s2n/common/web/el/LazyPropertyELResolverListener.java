@@ -0,0 +1,31 @@
+package oscana.s2n.common.web.el;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.jsp.JspApplicationContext;
+import javax.servlet.jsp.JspFactory;
+
+/**
+ * {@link LazyPropertyELResolver}をJSPのELResolverに登録する{@link ServletContextListener}。<br>
+ * <br>
+ * {@link oscana.s2n.common.web.interceptor.Execute#lazyExport()}を使用する場合、web.xmlに以下のように登録する。
+ * <pre>
+ * &lt;listener&gt;
+ *   &lt;listener-class&gt;oscana.s2n.common.web.el.LazyPropertyELResolverListener&lt;/listener-class&gt;
+ * &lt;/listener&gt;
+ * </pre>
+ */
+public class LazyPropertyELResolverListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        JspApplicationContext jspContext = JspFactory.getDefaultFactory()
+                .getJspApplicationContext(sce.getServletContext());
+        jspContext.addELResolver(new LazyPropertyELResolver());
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        // 何もしない
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * JSPのEL式からOscanaの値を参照するための拡張。
+ */
+ package oscana.s2n.common.web.el;
@@ -0,0 +1,373 @@
+package oscana.s2n.common.web.interceptor;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import nablarch.core.util.StringUtil;
+import oscana.s2n.common.OscanaActionForm;
+import oscana.s2n.struts.action.ActionMessages;
+
+/**
+ * {@link Execute}インターセプタの処理に必要なアクションのメタ情報を保持するクラス。<br>
+ * <br>
+ * アクションメソッドと{@link Execute}アノテーションの組み合わせ単位に一度だけ構築し、以降のリクエストで再利用する。<br>
+ * 本クラスは以下の情報を保持する。
+ * <ul>
+ * <li>{@link OscanaActionForm}アノテーションで指定されたフォームのクラス</li>
+ * <li>フォームのリセットメソッド</li>
+ * <li>{@link Execute#validate()}で指定されたバリデーションの実行順序</li>
+ * <li>アクション、フォームの値をリクエストスコープに設定する{@link PropertyExporter}</li>
+ * <li>リクエストパラメータをフォームに設定する{@link FormBinder}</li>
+ * <li>単項目バリデーション用のフォームを作成する{@link FormCopier}</li>
+ * </ul>
+ * 本クラスは不変であり、スレッドセーフである。
+ */
+public final class ActionDescriptor {
+
+    /** 単項目バリデーションを表す文字列 */
+    private static final String BEAN_VALIDATION = "@";
+
+    /** デフォルトのリセットメソッド名 */
+    private static final String DEFAULT_RESET = "reset";
+
+    /** アクションクラス単位の{@link ActionDescriptor}のキャッシュ */
+    private static final ClassValue<ConcurrentMap<Method, ActionDescriptor>> DESCRIPTORS =
+            new ClassValue<ConcurrentMap<Method, ActionDescriptor>>() {
+                @Override
+                protected ConcurrentMap<Method, ActionDescriptor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /** アクションクラス */
+    private final Class<?> actionClass;
+
+    /** フォームクラス（フォームが存在しない場合はnull） */
+    private final Class<? extends Serializable> formClass;
+
+    /** リセットメソッド名 */
+    private final String resetMethodName;
+
+    /** リセットメソッド（呼び出さない場合はnull） */
+    private final MethodHandle resetMethod;
+
+    /** リセットメソッドが存在しない場合にエラーとするか否か */
+    private final boolean resetMethodRequired;
+
+    /** バリデーションの実行順序 */
+    private final List<ValidationStep> validationSteps;
+
+    /** アクションの値をリクエストスコープに設定する{@link PropertyExporter} */
+    private final PropertyExporter actionExporter;
+
+    /** フォームの値をリクエストスコープに設定する{@link PropertyExporter}（フォームが存在しない場合はnull） */
+    private final PropertyExporter formExporter;
+
+    /** リクエストパラメータをフォームに設定する{@link FormBinder}（フォームが存在しない場合はnull） */
+    private final FormBinder formBinder;
+
+    /** 単項目バリデーション用のフォームを作成する{@link FormCopier}（フォームが存在しない場合はnull） */
+    private final FormCopier formCopier;
+
+    /**
+     * コンストラクタ。
+     * @param actionMethod アクションメソッド
+     * @param execute {@link Execute}アノテーション
+     */
+    private ActionDescriptor(Method actionMethod, Execute execute) {
+        this.actionClass = actionMethod.getDeclaringClass();
+        this.formClass = findFormClass(actionClass);
+        this.actionExporter = PropertyExporter.of(actionClass);
+        this.formExporter = formClass == null ? null : PropertyExporter.of(formClass);
+        this.formBinder = formClass == null ? null : FormBinder.of(formClass);
+        this.formCopier = formClass == null ? null : FormCopier.of(formClass);
+
+        this.resetMethodName = execute.reset();
+        if (formClass != null && StringUtil.hasValue(resetMethodName)) {
+            this.resetMethod = findMethod(formClass, resetMethodName);
+            this.resetMethodRequired = !DEFAULT_RESET.equals(resetMethodName);
+        } else {
+            this.resetMethod = null;
+            this.resetMethodRequired = false;
+        }
+
+        this.validationSteps = formClass == null
+                ? Collections.<ValidationStep> emptyList()
+                : createValidationSteps(formClass, actionClass, execute.validate());
+    }
+
+    /**
+     * アクションメソッドに対応する{@link ActionDescriptor}を取得する。<br>
+     * <br>
+     * 初回呼び出し時に構築し、以降はキャッシュしたものを返す。
+     *
+     * @param actionMethod アクションメソッド
+     * @param execute アクションメソッドに付与された{@link Execute}アノテーション
+     * @return {@link ActionDescriptor}
+     */
+    public static ActionDescriptor get(final Method actionMethod, final Execute execute) {
+        ConcurrentMap<Method, ActionDescriptor> descriptors = DESCRIPTORS.get(actionMethod.getDeclaringClass());
+        ActionDescriptor descriptor = descriptors.get(actionMethod);
+        if (descriptor == null) {
+            descriptor = new ActionDescriptor(actionMethod, execute);
+            ActionDescriptor existing = descriptors.putIfAbsent(actionMethod, descriptor);
+            if (existing != null) {
+                descriptor = existing;
+            }
+        }
+        return descriptor;
+    }
+
+    /**
+     * アクションクラスを取得する。
+     * @return アクションクラス
+     */
+    public Class<?> getActionClass() {
+        return actionClass;
+    }
+
+    /**
+     * フォームクラスを取得する。
+     * @return フォームクラス。フォームが存在しない場合はnull
+     */
+    public Class<? extends Serializable> getFormClass() {
+        return formClass;
+    }
+
+    /**
+     * バリデーションの実行順序を取得する。
+     * @return バリデーションの実行順序
+     */
+    public List<ValidationStep> getValidationSteps() {
+        return validationSteps;
+    }
+
+    /**
+     * アクションの値をリクエストスコープに設定する{@link PropertyExporter}を取得する。
+     * @return {@link PropertyExporter}
+     */
+    public PropertyExporter getActionExporter() {
+        return actionExporter;
+    }
+
+    /**
+     * フォームの値をリクエストスコープに設定する{@link PropertyExporter}を取得する。
+     * @return {@link PropertyExporter}。フォームが存在しない場合はnull
+     */
+    public PropertyExporter getFormExporter() {
+        return formExporter;
+    }
+
+    /**
+     * リクエストパラメータをフォームに設定する{@link FormBinder}を取得する。
+     * @return {@link FormBinder}。フォームが存在しない場合はnull
+     */
+    public FormBinder getFormBinder() {
+        return formBinder;
+    }
+
+    /**
+     * 単項目バリデーション用のフォームを作成する{@link FormCopier}を取得する。
+     * @return {@link FormCopier}。フォームが存在しない場合はnull
+     */
+    public FormCopier getFormCopier() {
+        return formCopier;
+    }
+
+    /**
+     * フォームのリセットメソッドを呼び出す。<br>
+     * <br>
+     * リセットメソッド名が空文字の場合、デフォルトのリセットメソッドがフォームに存在しない場合は何もしない。
+     *
+     * @param form フォーム
+     */
+    public void reset(Object form) {
+        if (resetMethod != null) {
+            invoke(resetMethod, form);
+        } else if (resetMethodRequired) {
+            throw new RuntimeException(
+                    new NoSuchMethodException(formClass.getName() + "." + resetMethodName + "()"));
+        }
+    }
+
+    /**
+     * バリデーションの実行順序を作成する。<br>
+     * <br>
+     * 「@」の指定がない場合は単項目バリデーションを先頭に追加する。
+     *
+     * @param formClass フォームクラス
+     * @param actionClass アクションクラス
+     * @param validate {@link Execute#validate()}の値
+     * @return バリデーションの実行順序
+     */
+    private static List<ValidationStep> createValidationSteps(Class<?> formClass, Class<?> actionClass,
+            String validate) {
+        String[] validates = validate.trim().equals("") ? new String[] {} : validate.split(",");
+        List<String> names = new ArrayList<String>();
+        if (!Arrays.asList(validates).contains(BEAN_VALIDATION)) {
+            names.add(BEAN_VALIDATION);
+        }
+        names.addAll(Arrays.asList(validates));
+
+        List<ValidationStep> steps = new ArrayList<ValidationStep>();
+        for (String name : names) {
+            if (BEAN_VALIDATION.equals(name)) {
+                steps.add(new ValidationStep(name, ValidationStep.Kind.BEAN, null));
+                continue;
+            }
+            MethodHandle handle = findMethod(formClass, name);
+            if (handle != null) {
+                steps.add(new ValidationStep(name, ValidationStep.Kind.FORM, handle));
+                continue;
+            }
+            handle = findMethod(actionClass, name);
+            if (handle != null) {
+                steps.add(new ValidationStep(name, ValidationStep.Kind.ACTION, handle));
+            } else {
+                steps.add(new ValidationStep(name, ValidationStep.Kind.NOT_FOUND, null));
+            }
+        }
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * アクションクラスからフォームのクラスを取得する。
+     * @param actionClass アクションクラス
+     * @return フォームクラス。{@link OscanaActionForm}アノテーションが付与されたフィールドがない場合はnull
+     */
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Serializable> findFormClass(Class<?> actionClass) {
+        for (Field field : actionClass.getDeclaredFields()) {
+            if (field.isAnnotationPresent(OscanaActionForm.class)) {
+                return (Class<? extends Serializable>) field.getType();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 引数なしのpublicメソッドを検索し、{@link MethodHandle}に変換する。
+     * @param clazz 検索対象のクラス
+     * @param methodName メソッド名
+     * @return {@link MethodHandle}（引数はObject、戻り値はObject）。メソッドが存在しない場合はnull
+     */
+    private static MethodHandle findMethod(Class<?> clazz, String methodName) {
+        final Method method;
+        try {
+            method = clazz.getMethod(methodName);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * {@link MethodHandle}を呼び出す。
+     * @param handle {@link MethodHandle}
+     * @param target 呼び出し対象のオブジェクト
+     * @return 戻り値
+     */
+    private static Object invoke(MethodHandle handle, Object target) {
+        try {
+            return handle.invokeExact(target);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * {@link Execute#validate()}に指定されたバリデーションの一つを表すクラス。
+     */
+    public static final class ValidationStep {
+
+        /**
+         * バリデーションの種類。
+         */
+        public enum Kind {
+            /** 単項目バリデーション */
+            BEAN,
+            /** フォームに定義されたバリデーションメソッド */
+            FORM,
+            /** アクションに定義されたバリデーションメソッド */
+            ACTION,
+            /** バリデーションメソッドが存在しない */
+            NOT_FOUND
+        }
+
+        /** バリデーション名 */
+        private final String name;
+
+        /** バリデーションの種類 */
+        private final Kind kind;
+
+        /** バリデーションメソッド */
+        private final MethodHandle method;
+
+        /**
+         * コンストラクタ。
+         * @param name バリデーション名
+         * @param kind バリデーションの種類
+         * @param method バリデーションメソッド
+         */
+        private ValidationStep(String name, Kind kind, MethodHandle method) {
+            this.name = name;
+            this.kind = kind;
+            this.method = method;
+        }
+
+        /**
+         * バリデーション名を取得する。
+         * @return バリデーション名
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * バリデーションの種類を取得する。
+         * @return バリデーションの種類
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * バリデーションメソッドを呼び出す。
+         * @param action アクション
+         * @param form フォーム
+         * @return バリデーションメソッドの戻り値
+         */
+        public ActionMessages invoke(Object action, Object form) {
+            switch (kind) {
+            case FORM:
+                return (ActionMessages) ActionDescriptor.invoke(method, form);
+            case ACTION:
+                return (ActionMessages) ActionDescriptor.invoke(method, action);
+            default:
+                throw new IllegalStateException(
+                        String.format("method not found. method=[%s] form=[%s] action=[%s]",
+                                name, form.getClass().getName(), action.getClass().getName()));
+            }
+        }
+    }
+}
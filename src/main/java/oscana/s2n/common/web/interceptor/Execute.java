@@ -6,32 +6,24 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
-import nablarch.core.beans.BeanUtil;
-import nablarch.core.beans.CopyOptions;
+import nablarch.core.ThreadContext;
 import nablarch.core.message.ApplicationException;
 import nablarch.core.message.Message;
 import nablarch.core.util.StringUtil;
-import nablarch.core.validation.ee.ValidatorUtil;
 import nablarch.fw.ExecutionContext;
 import nablarch.fw.Interceptor;
 import nablarch.fw.dicontainer.nablarch.Containers;
 import nablarch.fw.web.HttpRequest;
 import nablarch.fw.web.HttpResponse;
 import nablarch.fw.web.upload.PartInfo;
-import oscana.s2n.common.OscanaActionForm;
 import oscana.s2n.common.S2NConstants;
-import oscana.s2n.struts.action.ActionMessages;
 import oscana.s2n.struts.upload.FormFile;
 
 /**
@@ -107,6 +99,20 @@ public @interface Execute {
      */
     boolean stopOnValidationError() default true;
 
+    /**
+     * アクション、フォームの値をリクエストスコープに遅延評価で設定するか否か。デフォルトはfalse
+     * <p/>
+     * trueの場合はアクション終了時にgetterメソッドを呼び出さず、
+     * JSPのEL式で参照された時点で初めて呼び出し、その結果をリクエスト内で再利用する。
+     * 遅延評価した値はEL式からのみ参照可能なため、
+     * {@link oscana.s2n.common.web.el.LazyPropertyELResolverListener}をweb.xmlに登録すること。
+     * <p/>
+     * getterメソッドはJSPの描画中に呼び出されるため、トランザクション、データベース接続のハンドラの処理は終了している。
+     * getterメソッドでデータベースにアクセスする場合は、trueを指定しないこと。
+     * また、遅延評価した値は参照専用であり、EL式から値を設定することはできない。
+     */
+    boolean lazyExport() default false;
+
     /**
      * {@link Execute}アノテーションのインターセプタクラス。
      *
@@ -116,16 +122,6 @@ public @interface Execute {
     @SuppressWarnings("unchecked")
     public static class Impl extends Interceptor.Impl<HttpRequest, HttpResponse, Execute> {
 
-        /** 空の{@link CopyOptions} */
-        private static final CopyOptions EMPTY = CopyOptions.options().build();
-
-        /** ブリッジメソッド  */
-        private static final Method IS_BRIDGE_METHOD = getIsBridgeMethod();
-
-        /** 合成メソッド  */
-        private static final Method IS_SYNTHETIC_METHOD = getIsSyntheticMethod();
-
-
         /**
          * フォームを生成し、リクエストスコープに設定する。<br>
          * S2NRouteMthodBinderにForm情報を引き渡すためにrequestにForm情報を登録する。
@@ -138,27 +134,27 @@ public @interface Execute {
 
             final Execute execute = getInterceptor();
             final Method actionMethod = context.getRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_CALL_METHOD);
-            final Class<?> actionClazz = actionMethod.getDeclaringClass();
-            final Class<? extends Serializable> formClazz = getActionForm(actionClazz);
+            final ActionDescriptor descriptor = ActionDescriptor.get(actionMethod, execute);
+            final Class<? extends Serializable> formClazz = descriptor.getFormClass();
 
             try {
                 if(formClazz != null) {
                     final Serializable form = Containers.get().getComponent(formClazz);
-                    if (StringUtil.hasValue(execute.reset())) {
-                        if (!"reset".equals(execute.reset()) || hasMethod(form, execute.reset())) {
-                            invoke(form, execute.reset());
-                        }
-                    }
+                    descriptor.reset(form);
 
-                    BeanUtil.copy(formClazz, form, request.getParamMap(), EMPTY);
-                    copyFormFile(request, form);
+                    final FormBinder binder = descriptor.getFormBinder();
+                    final Map<String, String[]> parameters = request.getParamMap();
+                    binder.bind(form, parameters);
+                    copyFormFile(request, form, binder);
                     if (execute.validator()) {
-                        Serializable formForValid = BeanUtil.createAndCopy(formClazz, form);
-                        BeanUtil.copy(formClazz, formForValid, normalize(request.getParamMap()), EMPTY);
-                        copyFormFile(request, formForValid);
+                        Serializable formForValid = descriptor.getFormCopier().copy(form);
+                        final Map<String, String[]> normalizedParameters = normalize(parameters);
+                        if (!normalizedParameters.isEmpty()) {
+                            binder.bind(formForValid, normalizedParameters);
+                        }
 
-                        validate(Containers.get().getComponent(actionClazz), formForValid, form,
-                                execute.validate(), execute.stopOnValidationError());
+                        validate(Containers.get().getComponent(descriptor.getActionClass()), formForValid, form,
+                                descriptor.getValidationSteps(), execute.stopOnValidationError());
                     }
 
                     context.setRequestScopedVar(S2NConstants.FORM, form);
@@ -174,79 +170,61 @@ public @interface Execute {
 
                 return response;
             } finally {
-                setFieldsToRequestScopedVar(actionClazz, context);
-                setFieldsToRequestScopedVar(formClazz, context);
+                setFieldsToRequestScopedVar(descriptor.getActionExporter(), context, execute.lazyExport());
+                setFieldsToRequestScopedVar(descriptor.getFormExporter(), context, execute.lazyExport());
             }
         }
 
-        private void setFieldsToRequestScopedVar(Class<?> targetClass, ExecutionContext context) {
-            if(targetClass == null) {
+        /**
+         * アクション、フォームのフィールド値をリクエストスコープに設定する。
+         * @param exporter {@link PropertyExporter}
+         * @param context 実行コンテキスト
+         * @param lazy 遅延評価で設定するか否か
+         */
+        private void setFieldsToRequestScopedVar(PropertyExporter exporter, ExecutionContext context, boolean lazy) {
+            if (exporter == null) {
                 return;
             }
-            List<Field> fieldList = new ArrayList<>();
-            List<Method> methodList = new ArrayList<>();
-            Object target = Containers.get().getComponent(targetClass);
-            try {
-                Class<?> clazz = targetClass;
-                while (clazz != null) {
-                    fieldList.addAll(Arrays.asList(clazz.getDeclaredFields()));
-                    methodList.addAll(Arrays.asList(clazz.getMethods()));
-                    clazz = clazz.getSuperclass();
-                }
-                for (Field field : fieldList) {
-                    if(!isPublicField(field)) {
-                       continue;
-                    }
-                    field.setAccessible(true);
-                    context.setRequestScopedVar(field.getName(), field.get(target));
-                }
-
-                for(Method method : methodList) {
-                    if (isBridgeMethod(method) || isSyntheticMethod(method)) {
-                        continue;
-                    }
-                   if (method.getName().startsWith("get")) {
-                        if (method.getParameterTypes().length != 0
-                                || method.getName().equals("getClass")
-                                || method.getReturnType() == void.class) {
-                            continue;
-                        }
-                        method.setAccessible(true);
-                        context.setRequestScopedVar(decapitalizePropertyName(method.getName()
-                                .substring(3)), method.invoke(target));
-                    } else if(method.getName().startsWith("is")
-                            && method.getReturnType().equals(Boolean.TYPE)
-                            && method.getParameterTypes().length == 0) {
-                        method.setAccessible(true);
-                        context.setRequestScopedVar(decapitalizePropertyName(method.getName().substring(2)), (boolean) method.invoke(target));
-                   }
-                }
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+            Object target = Containers.get().getComponent(exporter.getTargetClass());
+            if (lazy) {
+                exporter.exportLazily(target, context);
+            } else {
+                exporter.export(target, context);
             }
         }
 
         /**
-         * リクエストパラメータの値をノーマライズする。
+         * リクエストパラメータの値をノーマライズする。<br>
+         * <br>
+         * リクエストパラメータの値はノーマライズした値で置き換える。
+         * 戻り値はノーマライズにより値が変わったリクエストパラメータのみとする。
          *
          * @param parameters リクエストパラメータ
-         * @return ノーマライズしたリクエストパラメータの値
+         * @return ノーマライズにより値が変わったリクエストパラメータ
          */
         private Map<String, String[]> normalize(final Map<String, String[]> parameters) {
-            final Map<String, String[]> normalizeParameters = new HashMap<String, String[]>();
+            Map<String, String[]> normalizeParameters = null;
             for (final Map.Entry<String, String[]> entry : parameters.entrySet()) {
-                final String key = entry.getKey();
-                String[] value = entry.getValue();
-
+                final String[] value = entry.getValue();
+                boolean changed = false;
                 for (int i = 0; i < value.length; i++) {
-                    value[i] = trimWhiteSpace(value[i]);
+                    if (value[i] == null) {
+                        continue;
+                    }
+                    final String trimmed = trimWhiteSpace(value[i]);
+                    if (!value[i].equals(trimmed)) {
+                        value[i] = trimmed;
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    if (normalizeParameters == null) {
+                        normalizeParameters = new HashMap<String, String[]>();
+                    }
+                    normalizeParameters.put(entry.getKey(), value);
                 }
-
-                normalizeParameters.put(key, value);
-
             }
-            return normalizeParameters;
-
+            return normalizeParameters == null ? Collections.<String, String[]> emptyMap() : normalizeParameters;
         }
 
         /**
@@ -275,60 +253,21 @@ public @interface Execute {
             return StringUtil.isNullOrEmpty(trimmed) ? null : trimmed;
         }
 
-        private <T> T invoke(Object target, String methodName) {
-            try {
-                return (T) target.getClass().getMethod(methodName).invoke(target);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        private boolean hasMethod(Object target, String methodName) {
-            try {
-                target.getClass().getMethod(methodName);
-                return true;
-            } catch (NoSuchMethodException e) {
-                return false;
-            }
-        }
-
-        private Class<? extends Serializable> getActionForm(Class<?> actionClazz) {
-            for (Field field : actionClazz.getDeclaredFields()) {
-                if (field.isAnnotationPresent(OscanaActionForm.class)) {
-                    return (Class<? extends Serializable>) field.getType();
-                }
-            }
-            return null;
-        }
-
         /**
          * 全てのバリデーションを行う。
          */
-        private void validate(Object action, Serializable normalizeform, Serializable originalform, String validate,
-                boolean stopOnValidationError) {
+        private void validate(Object action, Serializable normalizeform, Serializable originalform,
+                List<ActionDescriptor.ValidationStep> validationSteps, boolean stopOnValidationError) {
             List<Message> messages = new ArrayList<Message>();
 
-            List<String> validateList = new ArrayList<String>();
-            String[] validates = validate.trim().equals("") ? new String[] {} : validate.split(",");
-            if(!Arrays.asList(validates).contains("@")) {
-                validateList.add("@");
-            }
-            validateList.addAll(Arrays.asList(validates));
-
-            for (String method : validateList) {
+            for (ActionDescriptor.ValidationStep step : validationSteps) {
                 if (!messages.isEmpty() && stopOnValidationError) {
                     break;
                 }
-                if ("@".equals(method)) {
+                if (step.getKind() == ActionDescriptor.ValidationStep.Kind.BEAN) {
                     messages.addAll(validate(normalizeform));
-                } else if (hasMethod(originalform, method)) {
-                    messages.addAll(((ActionMessages) invoke(originalform, method)).getMessages());
-                } else if (hasMethod(action, method)) {
-                    messages.addAll(((ActionMessages) invoke(action, method)).getMessages());
                 } else {
-                    throw new IllegalStateException(
-                            String.format("method not found. method=[%s] form=[%s] action=[%s]",
-                                    method, originalform.getClass().getName(), action.getClass().getName()));
+                    messages.addAll(step.invoke(action, originalform).getMessages());
                 }
             }
             if (!messages.isEmpty()) {
@@ -338,21 +277,19 @@ public @interface Execute {
         }
 
         /**
-         * 単項目バリデーションを行う。
+         * 単項目バリデーションを行う。<br>
+         * <br>
+         * アクションメソッドで検証されない制約のみを持つプロパティは検証しない（{@link ValidationPlan}）。
          */
         private List<Message> validate(Object bean) {
-            try {
-                ValidatorUtil.validate(bean);
-                return Collections.emptyList();
-            } catch (ApplicationException e) {
-                return e.getMessages();
-            }
+            final String methodName = (String) ThreadContext.getObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME);
+            return ValidationPlan.get(bean.getClass(), methodName).validate(bean);
         }
 
         /**
          * アップロードされたファイルをフォームのFormFileフィールドに設定する。
          */
-        private void copyFormFile(HttpRequest request, Serializable form) {
+        private void copyFormFile(HttpRequest request, Serializable form, FormBinder binder) {
             Map<String, List<PartInfo>> multipart = request.getMultipart();
             for (Map.Entry<String, List<PartInfo>> entry : multipart.entrySet()) {
                 List<PartInfo> partInfos = entry.getValue();
@@ -361,9 +298,9 @@ public @interface Execute {
                     propertyValue = toFormFile(partInfos.get(0));
                 } else {
                     propertyValue = partInfos.stream().map(partInfo -> toFormFile(partInfo))
-                            .collect(Collectors.toList()).toArray(new PartInfo[partInfos.size()]);
+                            .toArray(FormFile[]::new);
                 }
-                BeanUtil.setProperty(form, entry.getKey(), propertyValue);
+                binder.setProperty(form, entry.getKey(), propertyValue);
             }
         }
 
@@ -375,95 +312,5 @@ public @interface Execute {
             return formFile;
         }
 
-      /**
-       * フィールド名を作成する。
-       * @param name パラメータ名
-       * @return フィールド名
-       */
-      private static String decapitalizePropertyName(String name) {
-        if (StringUtil.isNullOrEmpty(name)) {
-            return name;
-        }
-        if (name.length() > 1 && Character.isUpperCase(name.charAt(1))
-                && Character.isUpperCase(name.charAt(0))) {
-            return name;
-        }
-        char chars[] = name.toCharArray();
-        chars[0] = Character.toLowerCase(chars[0]);
-        return new String(chars);
-      }
-
-      /**
-       * パブリックフィールドかどうか返却する。
-       *
-       * @param field フィールド
-       * @return パブリックフィールドかどうか
-       */
-      private static boolean isPublicField(Field field) {
-          int mod = field.getModifiers();
-          return Modifier.isPublic(mod);
-      }
-
-        /**
-         * 合成メソッドかどうかを返す。
-         *
-         * @param method
-         * @return 合成メソッドかどうか
-         */
-      private static boolean isSyntheticMethod(final Method method) {
-            if (IS_SYNTHETIC_METHOD == null) {
-                return false;
-            }
-            try {
-                return ((Boolean) IS_SYNTHETIC_METHOD.invoke(method, (Object[]) null)).booleanValue();
-            } catch (Exception e) {
-                throw new RuntimeException(IS_SYNTHETIC_METHOD.getDeclaringClass().getName(),
-                        e);
-
-            }
-        }
-
-        /**
-         * ブリッジメソッドかどうか返す。
-         * @param method メソッド
-         * @return ブリッジメソッドかどうか
-         */
-      private static boolean isBridgeMethod(final Method method) {
-            if (IS_BRIDGE_METHOD == null) {
-                return false;
-            }
-            try {
-                return ((Boolean) IS_BRIDGE_METHOD.invoke(method, (Object[]) null)).booleanValue();
-            } catch (Exception e) {
-                throw new RuntimeException(IS_BRIDGE_METHOD.getDeclaringClass().getName(),
-                        e);
-
-            }
-        }
-
-        /**
-         * ブリッジメソッドを返す。
-         * @return ブリッジメソッド
-         */
-        private static Method getIsBridgeMethod() {
-            try {
-                return Method.class.getMethod("isBridge", (Class<?>) null);
-            } catch (final NoSuchMethodException e) {
-                return null;
-            }
-        }
-
-        /**
-         * 合成メソッドを返す。
-         * @return 合成メソッド
-         */
-        private static Method getIsSyntheticMethod() {
-            try {
-                return Method.class.getMethod("isSynthetic", (Class<?>) null);
-            } catch (final NoSuchMethodException e) {
-                return null;
-            }
-        }
-
     }
 }
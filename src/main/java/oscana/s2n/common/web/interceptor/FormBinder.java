@@ -0,0 +1,625 @@
+package oscana.s2n.common.web.interceptor;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import nablarch.core.beans.BeanUtil;
+import nablarch.core.beans.CopyOptions;
+import nablarch.fw.results.BadRequest;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConfigFinder;
+import oscana.s2n.struts.upload.FormFile;
+
+/**
+ * リクエストパラメータをフォームに設定するクラス。<br>
+ * <br>
+ * フォームのクラス単位に、プロパティ名とsetterメソッド、値の変換処理の対応を初回使用時に一度だけ作成し、
+ * 以降は作成した対応を再利用してリクエストパラメータをフォームに設定する。<br>
+ * 変換処理を事前に決定できる型は以下の通り。
+ * <ul>
+ * <li>String、String[]</li>
+ * <li>プリミティブ型、およびそのラッパー型（charを除く）</li>
+ * <li>BigDecimal</li>
+ * <li>{@link FormFile}、{@link FormFile}の配列（アップロードファイルの場合のみ）</li>
+ * </ul>
+ * また、要素がBeanのListまたは配列のプロパティに対するインデックス付きのリクエストパラメータ（"rows[0].name"など）は、
+ * プロパティ単位にまとめ、Listまたは配列を一度だけ必要なサイズで作成した上で、要素ごとに設定する。
+ * インデックスの最大値は{@link S2NConfig#getMaxGridIndex()}で制限し、超えた場合は{@link BadRequest}を送出する。<br>
+ * <br>
+ * 上記以外の型のプロパティ、ネストしたプロパティ（"a.b"）、上記以外のインデックス付きのプロパティ（"a[0]"）、
+ * 上記の変換処理で変換できない値（空文字、数値として解釈できない文字列など）は、{@link BeanUtil}で設定する。
+ * そのため、設定結果は{@link BeanUtil}を使用した場合と同じとなる。
+ */
+public final class FormBinder {
+
+    /** 空の{@link CopyOptions} */
+    private static final CopyOptions EMPTY = CopyOptions.options().build();
+
+    /** 変換できないことを表す値 */
+    private static final Object UNCONVERTIBLE = new Object();
+
+    /** クラス単位の{@link FormBinder} */
+    private static final ClassValue<FormBinder> BINDERS = new ClassValue<FormBinder>() {
+        @Override
+        protected FormBinder computeValue(Class<?> type) {
+            return new FormBinder(type);
+        }
+    };
+
+    /** 値の変換処理 */
+    private static final Map<Class<?>, Converter> CONVERTERS;
+
+    static {
+        Map<Class<?>, Converter> converters = new HashMap<Class<?>, Converter>();
+        Converter integerConverter = new Converter() {
+            @Override
+            public Object convert(String value) {
+                return Integer.valueOf(value);
+            }
+        };
+        converters.put(Integer.class, integerConverter);
+        converters.put(int.class, integerConverter);
+        Converter longConverter = new Converter() {
+            @Override
+            public Object convert(String value) {
+                return Long.valueOf(value);
+            }
+        };
+        converters.put(Long.class, longConverter);
+        converters.put(long.class, longConverter);
+        Converter shortConverter = new Converter() {
+            @Override
+            public Object convert(String value) {
+                return Short.valueOf(value);
+            }
+        };
+        converters.put(Short.class, shortConverter);
+        converters.put(short.class, shortConverter);
+        Converter byteConverter = new Converter() {
+            @Override
+            public Object convert(String value) {
+                return Byte.valueOf(value);
+            }
+        };
+        converters.put(Byte.class, byteConverter);
+        converters.put(byte.class, byteConverter);
+        Converter doubleConverter = new Converter() {
+            @Override
+            public Object convert(String value) {
+                return Double.valueOf(new BigDecimal(value).doubleValue());
+            }
+        };
+        converters.put(Double.class, doubleConverter);
+        converters.put(double.class, doubleConverter);
+        Converter floatConverter = new Converter() {
+            @Override
+            public Object convert(String value) {
+                return Float.valueOf(new BigDecimal(value).floatValue());
+            }
+        };
+        converters.put(Float.class, floatConverter);
+        converters.put(float.class, floatConverter);
+        Converter booleanConverter = new Converter() {
+            @Override
+            public Object convert(String value) {
+                if ("true".equals(value)) {
+                    return Boolean.TRUE;
+                }
+                if ("false".equals(value)) {
+                    return Boolean.FALSE;
+                }
+                return UNCONVERTIBLE;
+            }
+        };
+        converters.put(Boolean.class, booleanConverter);
+        converters.put(boolean.class, booleanConverter);
+        converters.put(BigDecimal.class, new Converter() {
+            @Override
+            public Object convert(String value) {
+                return new BigDecimal(value);
+            }
+        });
+        CONVERTERS = Collections.unmodifiableMap(converters);
+    }
+
+    /** フォームのクラス */
+    private final Class<?> formClass;
+
+    /** プロパティ名と{@link Property}の対応 */
+    private final Map<String, Property> properties;
+
+    /** プロパティ名と{@link GridProperty}の対応 */
+    private final Map<String, GridProperty> gridProperties;
+
+    /**
+     * コンストラクタ。
+     * @param formClass フォームのクラス
+     */
+    private FormBinder(Class<?> formClass) {
+        this.formClass = formClass;
+        final BeanInfo beanInfo;
+        try {
+            beanInfo = Introspector.getBeanInfo(formClass);
+        } catch (IntrospectionException e) {
+            throw new RuntimeException(e);
+        }
+        Map<String, Property> map = new HashMap<String, Property>();
+        Map<String, GridProperty> gridMap = new HashMap<String, GridProperty>();
+        for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+            Method writeMethod = descriptor.getWriteMethod();
+            if (writeMethod == null || descriptor.getPropertyType() == null) {
+                continue;
+            }
+            Property property = new Property(descriptor.getPropertyType(), toHandle(writeMethod));
+            map.put(descriptor.getName(), property);
+
+            Class<?> elementType = getGridElementType(descriptor);
+            if (elementType != null) {
+                Method readMethod = descriptor.getReadMethod();
+                gridMap.put(descriptor.getName(), new GridProperty(property,
+                        readMethod == null ? null : toGetterHandle(readMethod), elementType));
+            }
+        }
+        this.properties = Collections.unmodifiableMap(map);
+        this.gridProperties = Collections.unmodifiableMap(gridMap);
+    }
+
+    /**
+     * クラスに対応する{@link FormBinder}を取得する。
+     * @param formClass フォームのクラス
+     * @return {@link FormBinder}
+     */
+    public static FormBinder of(Class<?> formClass) {
+        return BINDERS.get(formClass);
+    }
+
+    /**
+     * リクエストパラメータをフォームに設定する。
+     *
+     * @param form フォーム
+     * @param parameters リクエストパラメータ
+     */
+    public void bind(Object form, Map<String, String[]> parameters) {
+        Map<String, String[]> fallback = null;
+        Map<GridProperty, GridRows> grids = null;
+        int maxGridIndex = -1;
+        for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+            final String name = entry.getKey();
+            final Property property = properties.get(name);
+            if (property != null && property.set(form, entry.getValue())) {
+                continue;
+            }
+            if (property == null) {
+                if (!isPropertyPath(name)) {
+                    // 設定先のプロパティが存在しない
+                    continue;
+                }
+                final int bracket = name.indexOf('[');
+                final GridProperty gridProperty = bracket > 0 ? gridProperties.get(name.substring(0, bracket)) : null;
+                if (gridProperty != null) {
+                    final int close = name.indexOf(']', bracket + 1);
+                    final int index = parseIndex(name, bracket + 1, close);
+                    if (index >= 0 && close + 2 < name.length() && name.charAt(close + 1) == '.') {
+                        if (maxGridIndex < 0) {
+                            maxGridIndex = S2NConfigFinder.getConfig().getMaxGridIndex();
+                        }
+                        if (index > maxGridIndex) {
+                            throw new BadRequest(String.format(
+                                    "index of request parameter exceeds the maximum. parameter=[%s] max=[%d]",
+                                    name, maxGridIndex));
+                        }
+                        if (grids == null) {
+                            grids = new HashMap<GridProperty, GridRows>();
+                        }
+                        GridRows rows = grids.get(gridProperty);
+                        if (rows == null) {
+                            rows = new GridRows();
+                            grids.put(gridProperty, rows);
+                        }
+                        rows.put(index, name.substring(close + 2), entry.getValue());
+                        continue;
+                    }
+                }
+            }
+            if (fallback == null) {
+                fallback = new HashMap<String, String[]>();
+            }
+            fallback.put(name, entry.getValue());
+        }
+        if (grids != null) {
+            for (Map.Entry<GridProperty, GridRows> entry : grids.entrySet()) {
+                entry.getKey().bind(form, entry.getValue());
+            }
+        }
+        if (fallback != null) {
+            BeanUtil.copy(formClass, form, fallback, EMPTY);
+        }
+    }
+
+    /**
+     * 値をフォームのプロパティに設定する。<br>
+     * <br>
+     * 値がプロパティの型と一致しない場合は{@link BeanUtil#setProperty(Object, String, Object)}で設定する。
+     *
+     * @param form フォーム
+     * @param name プロパティ名
+     * @param value 値
+     */
+    public void setProperty(Object form, String name, Object value) {
+        final Property property = properties.get(name);
+        if (property != null && property.type.isInstance(value)) {
+            property.invoke(form, value);
+        } else {
+            BeanUtil.setProperty(form, name, value);
+        }
+    }
+
+    /**
+     * ネスト、インデックスを含むプロパティ名か否かを判定する。
+     *
+     * @param name プロパティ名
+     * @return ネスト、インデックスを含む場合はtrue
+     */
+    private static boolean isPropertyPath(String name) {
+        return name.indexOf('.') >= 0 || name.indexOf('[') >= 0;
+    }
+
+    /**
+     * インデックスを解析する。
+     *
+     * @param name プロパティ名
+     * @param start インデックスの開始位置
+     * @param end インデックスの終了位置（"]"の位置）
+     * @return インデックス。数値でない場合は-1
+     */
+    private static int parseIndex(String name, int start, int end) {
+        if (end <= start || end - start > 9) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            final char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    /**
+     * インデックス付きのリクエストパラメータをまとめて設定できるプロパティの場合、要素の型を取得する。<br>
+     * <br>
+     * 要素の型がBean（引数なしのpublicコンストラクタを持つ具象クラスで、変換処理を事前に決定できる型、String以外）の
+     * 配列、またはListのプロパティが対象となる。
+     *
+     * @param descriptor プロパティ
+     * @return 要素の型。対象外のプロパティの場合はnull
+     */
+    private static Class<?> getGridElementType(PropertyDescriptor descriptor) {
+        final Class<?> type = descriptor.getPropertyType();
+        final Class<?> elementType;
+        if (type.isArray()) {
+            elementType = type.getComponentType();
+        } else if (type == List.class || type == ArrayList.class) {
+            Type genericType = descriptor.getWriteMethod().getGenericParameterTypes()[0];
+            if (!(genericType instanceof ParameterizedType)) {
+                return null;
+            }
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (!(argument instanceof Class)) {
+                return null;
+            }
+            elementType = (Class<?>) argument;
+        } else {
+            return null;
+        }
+        if (elementType.isPrimitive() || elementType.isArray() || elementType.isInterface()
+                || Modifier.isAbstract(elementType.getModifiers())
+                || !Modifier.isPublic(elementType.getModifiers())
+                || elementType == String.class || elementType == FormFile.class
+                || CONVERTERS.containsKey(elementType) || elementType.getName().startsWith("java.")) {
+            return null;
+        }
+        try {
+            elementType.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        return elementType;
+    }
+
+    /**
+     * setterメソッドを{@link MethodHandle}に変換する。
+     *
+     * @param method setterメソッド
+     * @return {@link MethodHandle}（引数はObject、Object）
+     */
+    private static MethodHandle toHandle(Method method) {
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * getterメソッドを{@link MethodHandle}に変換する。
+     *
+     * @param method getterメソッド
+     * @return {@link MethodHandle}（引数はObject、戻り値はObject）
+     */
+    private static MethodHandle toGetterHandle(Method method) {
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 文字列を変換する処理。
+     */
+    private interface Converter {
+
+        /**
+         * 文字列を変換する。
+         * @param value 文字列
+         * @return 変換後の値。変換できない場合は{@link FormBinder#UNCONVERTIBLE}
+         * @throws NumberFormatException 数値として解釈できない場合
+         */
+        Object convert(String value);
+    }
+
+    /**
+     * フォームのプロパティを表すクラス。
+     */
+    private static final class Property {
+
+        /** プロパティの型 */
+        private final Class<?> type;
+
+        /** setterメソッド */
+        private final MethodHandle setter;
+
+        /** 値の変換処理（String、String[]の場合、事前に決定できない場合はnull） */
+        private final Converter converter;
+
+        /**
+         * コンストラクタ。
+         * @param type プロパティの型
+         * @param setter setterメソッド
+         */
+        private Property(Class<?> type, MethodHandle setter) {
+            this.type = type;
+            this.setter = setter;
+            this.converter = CONVERTERS.get(type);
+        }
+
+        /**
+         * リクエストパラメータの値を変換し、プロパティに設定する。
+         *
+         * @param form フォーム
+         * @param values リクエストパラメータの値
+         * @return 設定した場合はtrue。変換処理を事前に決定できない場合、変換できない値の場合はfalse
+         */
+        private boolean set(Object form, String[] values) {
+            if (type == String[].class) {
+                invoke(form, values.clone());
+                return true;
+            }
+            if (values.length != 1 || values[0] == null) {
+                return false;
+            }
+            if (type == String.class) {
+                invoke(form, values[0]);
+                return true;
+            }
+            if (converter == null || values[0].isEmpty()) {
+                return false;
+            }
+            final Object value;
+            try {
+                value = converter.convert(values[0]);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (value == UNCONVERTIBLE) {
+                return false;
+            }
+            invoke(form, value);
+            return true;
+        }
+
+        /**
+         * setterメソッドを呼び出す。
+         *
+         * @param form フォーム
+         * @param value 値
+         */
+        private void invoke(Object form, Object value) {
+            try {
+                setter.invokeExact(form, value);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * インデックス付きのリクエストパラメータを要素ごとにまとめたもの。
+     */
+    private static final class GridRows {
+
+        /** 要素ごとのリクエストパラメータ（リクエストパラメータがない要素はnull） */
+        private final List<Map<String, String[]>> rows = new ArrayList<Map<String, String[]>>();
+
+        /**
+         * リクエストパラメータを追加する。
+         *
+         * @param index インデックス
+         * @param name 要素のプロパティ名
+         * @param values リクエストパラメータの値
+         */
+        private void put(int index, String name, String[] values) {
+            while (rows.size() <= index) {
+                rows.add(null);
+            }
+            Map<String, String[]> row = rows.get(index);
+            if (row == null) {
+                row = new HashMap<String, String[]>();
+                rows.set(index, row);
+            }
+            row.put(name, values);
+        }
+    }
+
+    /**
+     * 要素がBeanのListまたは配列のプロパティを表すクラス。
+     */
+    private static final class GridProperty {
+
+        /** プロパティ */
+        private final Property property;
+
+        /** getterメソッド（存在しない場合はnull） */
+        private final MethodHandle getter;
+
+        /** 要素の型 */
+        private final Class<?> elementType;
+
+        /** 要素のコンストラクタ（戻り値はObject） */
+        private final MethodHandle elementConstructor;
+
+        /**
+         * コンストラクタ。
+         * @param property プロパティ
+         * @param getter getterメソッド
+         * @param elementType 要素の型
+         */
+        private GridProperty(Property property, MethodHandle getter, Class<?> elementType) {
+            this.property = property;
+            this.getter = getter;
+            this.elementType = elementType;
+            try {
+                this.elementConstructor = MethodHandles.lookup()
+                        .unreflectConstructor(elementType.getConstructor())
+                        .asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * 要素ごとにリクエストパラメータを設定する。<br>
+         * <br>
+         * 既存の要素がある場合は既存の要素に設定し、要素が不足する場合は要素を作成する。
+         *
+         * @param form フォーム
+         * @param gridRows 要素ごとのリクエストパラメータ
+         */
+        @SuppressWarnings("unchecked")
+        private void bind(Object form, GridRows gridRows) {
+            final List<Map<String, String[]>> rows = gridRows.rows;
+            final FormBinder elementBinder = FormBinder.of(elementType);
+            final Object current = getter == null ? null : invoke(getter, form);
+
+            if (property.type.isArray()) {
+                final int currentLength = current == null ? 0 : Array.getLength(current);
+                final Object[] array = (Object[]) Array.newInstance(elementType, Math.max(rows.size(), currentLength));
+                if (current != null) {
+                    System.arraycopy(current, 0, array, 0, currentLength);
+                }
+                for (int i = 0; i < array.length; i++) {
+                    if (array[i] == null) {
+                        array[i] = invoke(elementConstructor);
+                    }
+                    if (i < rows.size() && rows.get(i) != null) {
+                        elementBinder.bind(array[i], rows.get(i));
+                    }
+                }
+                property.invoke(form, array);
+            } else {
+                final List<Object> currentList = (List<Object>) current;
+                final int currentSize = currentList == null ? 0 : currentList.size();
+                final List<Object> list = new ArrayList<Object>(Math.max(rows.size(), currentSize));
+                if (currentList != null) {
+                    list.addAll(currentList);
+                }
+                for (int i = 0; i < rows.size() || i < currentSize; i++) {
+                    if (i >= list.size()) {
+                        list.add(null);
+                    }
+                    if (list.get(i) == null) {
+                        list.set(i, invoke(elementConstructor));
+                    }
+                    if (i < rows.size() && rows.get(i) != null) {
+                        elementBinder.bind(list.get(i), rows.get(i));
+                    }
+                }
+                property.invoke(form, list);
+            }
+        }
+
+        /**
+         * 引数のない{@link MethodHandle}を呼び出す。
+         * @param handle {@link MethodHandle}（戻り値はObject）
+         * @return 戻り値
+         */
+        private static Object invoke(MethodHandle handle) {
+            try {
+                return handle.invokeExact();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * 引数が一つの{@link MethodHandle}を呼び出す。
+         * @param handle {@link MethodHandle}（引数はObject、戻り値はObject）
+         * @param target 引数
+         * @return 戻り値
+         */
+        private static Object invoke(MethodHandle handle, Object target) {
+            try {
+                return handle.invokeExact(target);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package oscana.s2n.common.web.interceptor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * フォームのコピーを作成するクラス。<br>
+ * <br>
+ * 単項目バリデーション用のフォームを作成するために使用する。
+ * コピー対象のフィールドはクラス単位に一度だけ解析し、以降は解析結果を再利用する。<br>
+ * プロパティ単位の変換を行わず、インスタンスフィールドの値をそのまま新しいインスタンスに設定する。
+ * static、finalのフィールドはコピーしない。<br>
+ * <br>
+ * 要素がBeanの配列、List（ArrayList）のフィールド（一覧の行など）は、配列、Listと各要素もコピーする。
+ * コピーしたフォームにリクエストパラメータを設定した場合に、コピー元のフォームの要素が変更されないようにするため。
+ * それ以外のフィールドはコピー元と同じインスタンスを参照する。
+ */
+public final class FormCopier {
+
+    /** クラス単位の{@link FormCopier} */
+    private static final ClassValue<FormCopier> COPIERS = new ClassValue<FormCopier>() {
+        @Override
+        protected FormCopier computeValue(Class<?> type) {
+            return new FormCopier(type);
+        }
+    };
+
+    /** コンストラクタ（戻り値はObject） */
+    private final MethodHandle constructor;
+
+    /** フィールドのgetter（引数はObject、戻り値はObject） */
+    private final MethodHandle[] getters;
+
+    /** フィールドのsetter（引数はObject、Object） */
+    private final MethodHandle[] setters;
+
+    /** フィールドの値のコピー方法 */
+    private final Kind[] kinds;
+
+    /**
+     * コンストラクタ。
+     * @param formClass フォームのクラス
+     */
+    private FormCopier(Class<?> formClass) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Constructor<?> defaultConstructor = formClass.getDeclaredConstructor();
+            defaultConstructor.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(defaultConstructor)
+                    .asType(MethodType.methodType(Object.class));
+
+            List<MethodHandle> getterList = new ArrayList<MethodHandle>();
+            List<MethodHandle> setterList = new ArrayList<MethodHandle>();
+            List<Kind> kindList = new ArrayList<Kind>();
+            for (Class<?> clazz = formClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    getterList.add(lookup.unreflectGetter(field)
+                            .asType(MethodType.methodType(Object.class, Object.class)));
+                    setterList.add(lookup.unreflectSetter(field)
+                            .asType(MethodType.methodType(void.class, Object.class, Object.class)));
+                    kindList.add(getKind(field));
+                }
+            }
+            this.getters = getterList.toArray(new MethodHandle[getterList.size()]);
+            this.setters = setterList.toArray(new MethodHandle[setterList.size()]);
+            this.kinds = kindList.toArray(new Kind[kindList.size()]);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * クラスに対応する{@link FormCopier}を取得する。
+     * @param formClass フォームのクラス
+     * @return {@link FormCopier}
+     */
+    public static FormCopier of(Class<?> formClass) {
+        return COPIERS.get(formClass);
+    }
+
+    /**
+     * フォームのコピーを作成する。
+     *
+     * @param <T> フォームの型
+     * @param form コピー元のフォーム
+     * @return コピーしたフォーム
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T copy(T form) {
+        try {
+            Object copy = constructor.invokeExact();
+            for (int i = 0; i < getters.length; i++) {
+                Object value = getters[i].invokeExact(form);
+                if (value != null) {
+                    if (kinds[i] == Kind.ARRAY) {
+                        value = copyArray((Object[]) value);
+                    } else if (kinds[i] == Kind.LIST) {
+                        value = copyList((List<Object>) value);
+                    }
+                }
+                setters[i].invokeExact(copy, value);
+            }
+            return (T) copy;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 配列と要素をコピーする。
+     *
+     * @param array コピー元の配列
+     * @return コピーした配列
+     */
+    private static Object[] copyArray(Object[] array) {
+        final Object[] copy = (Object[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+        for (int i = 0; i < array.length; i++) {
+            copy[i] = copyElement(array[i]);
+        }
+        return copy;
+    }
+
+    /**
+     * Listと要素をコピーする。
+     *
+     * @param list コピー元のList
+     * @return コピーしたList
+     */
+    private static List<Object> copyList(List<Object> list) {
+        final List<Object> copy = new ArrayList<Object>(list.size());
+        for (Object element : list) {
+            copy.add(copyElement(element));
+        }
+        return copy;
+    }
+
+    /**
+     * 要素をコピーする。コピーできない要素（Beanでない要素）はそのまま返す。
+     *
+     * @param element 要素
+     * @return コピーした要素
+     */
+    private static Object copyElement(Object element) {
+        if (element == null || !isBean(element.getClass())) {
+            return element;
+        }
+        return of(element.getClass()).copy(element);
+    }
+
+    /**
+     * フィールドの値のコピー方法を取得する。
+     *
+     * @param field フィールド
+     * @return コピー方法
+     */
+    private static Kind getKind(Field field) {
+        final Class<?> type = field.getType();
+        if (type.isArray()) {
+            return isBean(type.getComponentType()) ? Kind.ARRAY : Kind.REFERENCE;
+        }
+        if (type != List.class && type != ArrayList.class) {
+            return Kind.REFERENCE;
+        }
+        final Type genericType = field.getGenericType();
+        if (!(genericType instanceof ParameterizedType)) {
+            return Kind.REFERENCE;
+        }
+        final Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+        return argument instanceof Class && isBean((Class<?>) argument) ? Kind.LIST : Kind.REFERENCE;
+    }
+
+    /**
+     * 要素をコピーするBeanのクラスか否かを判定する。<br>
+     * <br>
+     * 引数なしのコンストラクタを持つ具象クラスで、Javaの標準ライブラリのクラス以外を対象とする。
+     *
+     * @param type クラス
+     * @return Beanの場合はtrue
+     */
+    private static boolean isBean(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers()) || type.getName().startsWith("java.")) {
+            return false;
+        }
+        try {
+            type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * フィールドの値のコピー方法。
+     */
+    private enum Kind {
+        /** 同じインスタンスを参照する */
+        REFERENCE,
+        /** 要素がBeanの配列 */
+        ARRAY,
+        /** 要素がBeanのList */
+        LIST
+    }
+}
@@ -0,0 +1,103 @@
+package oscana.s2n.common.web.interceptor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * アクション、フォームの値を遅延評価で保持するクラス。<br>
+ * <br>
+ * 変数名ごとに値の取得処理を保持し、{@link #get(String)}で初めて参照された時点で取得処理を実行する。
+ * 取得した値は保持し、以降の参照では取得処理を実行しない。<br>
+ * 同じ変数名が複数登録された場合は、後から登録したものが有効となる。<br>
+ * <br>
+ * 本クラスは1リクエスト内で使用することを前提としており、スレッドセーフではない。
+ */
+public final class LazyProperties {
+
+    /** 変数名と値の対応 */
+    private final Map<String, Property> properties = new HashMap<String, Property>();
+
+    /**
+     * 値の取得処理を登録する。
+     *
+     * @param name 変数名
+     * @param accessor 値の取得処理
+     * @param target 値の取得対象のオブジェクト
+     */
+    void register(String name, Function<Object, Object> accessor, Object target) {
+        properties.put(name, new Property(accessor, target));
+    }
+
+    /**
+     * 変数名が登録されているか否かを判定する。
+     *
+     * @param name 変数名
+     * @return 登録されている場合はtrue
+     */
+    public boolean contains(String name) {
+        return properties.containsKey(name);
+    }
+
+    /**
+     * 変数名に対応する値を取得する。<br>
+     * <br>
+     * 初回の参照時のみ値の取得処理を実行する。
+     *
+     * @param name 変数名
+     * @return 値。変数名が登録されていない場合はnull
+     */
+    public Object get(String name) {
+        Property property = properties.get(name);
+        return property == null ? null : property.getValue();
+    }
+
+    /**
+     * 登録されている変数名を取得する。
+     *
+     * @return 変数名
+     */
+    public Set<String> names() {
+        return Collections.unmodifiableSet(properties.keySet());
+    }
+
+    /**
+     * 遅延評価する値を表すクラス。
+     */
+    private static final class Property {
+
+        /** 値の取得処理（取得済みの場合はnull） */
+        private Function<Object, Object> accessor;
+
+        /** 値の取得対象のオブジェクト（取得済みの場合はnull） */
+        private Object target;
+
+        /** 取得した値 */
+        private Object value;
+
+        /**
+         * コンストラクタ。
+         * @param accessor 値の取得処理
+         * @param target 値の取得対象のオブジェクト
+         */
+        private Property(Function<Object, Object> accessor, Object target) {
+            this.accessor = accessor;
+            this.target = target;
+        }
+
+        /**
+         * 値を取得する。
+         * @return 値
+         */
+        private Object getValue() {
+            if (accessor != null) {
+                value = accessor.apply(target);
+                accessor = null;
+                target = null;
+            }
+            return value;
+        }
+    }
+}
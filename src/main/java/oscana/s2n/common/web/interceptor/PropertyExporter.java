@@ -0,0 +1,288 @@
+package oscana.s2n.common.web.interceptor;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import nablarch.core.util.StringUtil;
+import nablarch.fw.ExecutionContext;
+import oscana.s2n.common.S2NConstants;
+
+/**
+ * クラスのpublicフィールドの値、publicのgetterメソッド(getXXX, isXXX)の戻り値をリクエストスコープに設定するクラス。<br>
+ * <br>
+ * 設定対象のフィールド、getterメソッドはクラス単位に一度だけ解析し、以降は解析結果を再利用する。<br>
+ * getterメソッドは{@link LambdaMetafactory}で生成した関数、フィールドは{@link MethodHandle}経由で値を取得するため、
+ * リクエスト毎のリフレクション呼び出しは発生しない。<br>
+ * 設定はフィールド, getterメソッドの順に実施する。
+ */
+public final class PropertyExporter {
+
+    /** クラス単位の{@link PropertyExporter} */
+    private static final ClassValue<PropertyExporter> EXPORTERS = new ClassValue<PropertyExporter>() {
+        @Override
+        protected PropertyExporter computeValue(Class<?> type) {
+            return new PropertyExporter(type);
+        }
+    };
+
+    /** 設定対象のクラス */
+    private final Class<?> targetClass;
+
+    /** 値の設定先の変数名 */
+    private final String[] names;
+
+    /** 値の取得処理 */
+    private final Function<Object, Object>[] accessors;
+
+    /**
+     * コンストラクタ。
+     * @param targetClass 設定対象のクラス
+     */
+    @SuppressWarnings("unchecked")
+    private PropertyExporter(Class<?> targetClass) {
+        this.targetClass = targetClass;
+
+        List<Field> fieldList = new ArrayList<>();
+        List<Method> methodList = new ArrayList<>();
+        List<String> nameList = new ArrayList<>();
+        Set<String> methodNames = new HashSet<>();
+        Class<?> clazz = targetClass;
+        while (clazz != null) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (Modifier.isPublic(field.getModifiers())) {
+                    fieldList.add(field);
+                }
+            }
+            for (Method method : clazz.getMethods()) {
+                String propertyName = toPropertyName(method);
+                if (propertyName != null && methodNames.add(method.getName())) {
+                    methodList.add(method);
+                    nameList.add(propertyName);
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+
+        int size = fieldList.size() + methodList.size();
+        this.names = new String[size];
+        this.accessors = new Function[size];
+        int i = 0;
+        for (Field field : fieldList) {
+            names[i] = field.getName();
+            accessors[i++] = createAccessor(field);
+        }
+        for (int j = 0; j < methodList.size(); j++) {
+            names[i] = nameList.get(j);
+            accessors[i++] = createAccessor(methodList.get(j));
+        }
+    }
+
+    /**
+     * クラスに対応する{@link PropertyExporter}を取得する。
+     * @param targetClass 設定対象のクラス
+     * @return {@link PropertyExporter}
+     */
+    public static PropertyExporter of(Class<?> targetClass) {
+        return EXPORTERS.get(targetClass);
+    }
+
+    /**
+     * 設定対象のクラスを取得する。
+     * @return 設定対象のクラス
+     */
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * オブジェクトのフィールド値、getterメソッドの戻り値をリクエストスコープに設定する。
+     * @param target 設定対象のオブジェクト
+     * @param context 実行コンテキスト
+     */
+    public void export(Object target, ExecutionContext context) {
+        for (int i = 0; i < names.length; i++) {
+            context.setRequestScopedVar(names[i], accessors[i].apply(target));
+        }
+    }
+
+    /**
+     * オブジェクトのフィールド値、getterメソッドの戻り値を遅延評価で参照できるようにする。<br>
+     * <br>
+     * 値の取得処理を{@link LazyProperties}に登録し、リクエストスコープに設定する。
+     * 値の取得処理は{@link LazyProperties#get(String)}で初めて参照された時点で実行される。
+     *
+     * @param target 設定対象のオブジェクト
+     * @param context 実行コンテキスト
+     */
+    public void exportLazily(Object target, ExecutionContext context) {
+        LazyProperties properties = context.getRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+        if (properties == null) {
+            properties = new LazyProperties();
+            context.setRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES, properties);
+        }
+        for (int i = 0; i < names.length; i++) {
+            properties.register(names[i], accessors[i], target);
+        }
+    }
+
+    /**
+     * フィールドの値を取得する関数を生成する。
+     *
+     * @param field フィールド
+     * @return 値を取得する関数
+     */
+    private static Function<Object, Object> createAccessor(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            return new MethodHandleAccessor(getter);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * getterメソッドの戻り値を取得する関数を生成する。<br>
+     * <br>
+     * 本クラスから参照可能なpublicクラスのインスタンスメソッドは{@link LambdaMetafactory}で関数を生成し、
+     * それ以外は{@link MethodHandle}経由で呼び出す関数を生成する。
+     *
+     * @param method getterメソッド
+     * @return 値を取得する関数
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createAccessor(Method method) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final MethodHandle getter;
+        try {
+            method.setAccessible(true);
+            getter = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (isLambdaTarget(method)) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        getter,
+                        MethodType.methodType(Object.class, method.getDeclaringClass()));
+                return (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                // 関数を生成できない場合はMethodHandle経由で呼び出す
+            }
+        }
+
+        if (Modifier.isStatic(method.getModifiers())) {
+            return new MethodHandleAccessor(MethodHandles.dropArguments(getter, 0, Object.class));
+        }
+        return new MethodHandleAccessor(getter);
+    }
+
+    /**
+     * {@link LambdaMetafactory}で関数を生成できるメソッドか否かを判定する。
+     *
+     * @param method メソッド
+     * @return 関数を生成できる場合はtrue
+     */
+    private static boolean isLambdaTarget(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (Modifier.isStatic(method.getModifiers())
+                || !Modifier.isPublic(method.getModifiers())
+                || !Modifier.isPublic(declaringClass.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(declaringClass.getName(), false,
+                    PropertyExporter.class.getClassLoader()) == declaringClass;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * getterメソッドに対応する変数名を返す。
+     *
+     * @param method メソッド
+     * @return 変数名。getterメソッドでない場合はnull
+     */
+    private static String toPropertyName(Method method) {
+        if (method.isBridge() || method.isSynthetic() || method.getParameterTypes().length != 0) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get")) {
+            if (name.equals("getClass") || method.getReturnType() == void.class) {
+                return null;
+            }
+            return decapitalizePropertyName(name.substring(3));
+        }
+        if (name.startsWith("is") && method.getReturnType().equals(Boolean.TYPE)) {
+            return decapitalizePropertyName(name.substring(2));
+        }
+        return null;
+    }
+
+    /**
+     * フィールド名を作成する。
+     * @param name パラメータ名
+     * @return フィールド名
+     */
+    private static String decapitalizePropertyName(String name) {
+        if (StringUtil.isNullOrEmpty(name)) {
+            return name;
+        }
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1))
+                && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        char chars[] = name.toCharArray();
+        chars[0] = Character.toLowerCase(chars[0]);
+        return new String(chars);
+    }
+
+    /**
+     * {@link MethodHandle}経由で値を取得する関数。
+     */
+    private static final class MethodHandleAccessor implements Function<Object, Object> {
+
+        /** 値を取得する{@link MethodHandle}（引数はObject、戻り値はObject） */
+        private final MethodHandle handle;
+
+        /**
+         * コンストラクタ。
+         * @param handle 値を取得する{@link MethodHandle}
+         */
+        private MethodHandleAccessor(MethodHandle handle) {
+            this.handle = handle.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        @Override
+        public Object apply(Object target) {
+            try {
+                return handle.invokeExact(target);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
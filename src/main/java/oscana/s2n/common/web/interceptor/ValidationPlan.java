@@ -0,0 +1,243 @@
+package oscana.s2n.common.web.interceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.GroupSequence;
+import javax.validation.Validator;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+
+import org.hibernate.validator.group.GroupSequenceProvider;
+
+import nablarch.core.message.ApplicationException;
+import nablarch.core.message.Message;
+import nablarch.core.repository.SystemRepository;
+import nablarch.core.validation.ee.ConstraintViolationConverterFactory;
+import nablarch.core.validation.ee.ValidatorUtil;
+import oscana.s2n.validation.ValidateTarget;
+
+/**
+ * アクションメソッド単位の単項目バリデーションの実行計画。<br>
+ * <br>
+ * 互換ライブラリの制約アノテーション（{@link ValidateTarget}を継承したバリデータを使用するもの）は、
+ * target属性に指定されたアクションメソッド以外では検証を行わない。
+ * 本クラスはフォームのクラスとアクションメソッド名の組み合わせ単位に、検証が行われる制約を持つプロパティを一度だけ求め、
+ * それ以外のプロパティの検証を省略する。<br>
+ * 以下の場合は省略を行わず、フォーム全体を検証する。
+ * <ul>
+ * <li>省略できるプロパティがない場合</li>
+ * <li>クラスに制約が指定されている場合</li>
+ * <li>クラスにグループシーケンス（{@link GroupSequence}、{@link GroupSequenceProvider}）が指定されている場合
+ * （デフォルトグループの検証順序とエラー時の打ち切りがフォーム全体で決まるため）</li>
+ * <li>カスケード（{@code @Valid}）が指定されたプロパティがある場合</li>
+ * <li>アクションメソッド名が設定されていない場合</li>
+ * </ul>
+ * 省略しない制約の判定は安全側に行い、互換ライブラリ以外の制約、合成された制約は常に検証対象とする。
+ */
+public final class ValidationPlan {
+
+    /** {@link ConstraintViolationConverterFactory}のコンポーネント名 */
+    private static final String CONVERTER_FACTORY_NAME = "constraintViolationConverterFactory";
+
+    /** 対象メソッドを指定する属性名 */
+    private static final String TARGET_ATTRIBUTE = "target";
+
+    /** フォーム全体を検証する実行計画 */
+    private static final ValidationPlan ALL = new ValidationPlan(null);
+
+    /** フォームのクラス単位、アクションメソッド名単位の実行計画 */
+    private static final ClassValue<ConcurrentMap<String, ValidationPlan>> PLANS =
+            new ClassValue<ConcurrentMap<String, ValidationPlan>>() {
+                @Override
+                protected ConcurrentMap<String, ValidationPlan> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<String, ValidationPlan>();
+                }
+            };
+
+    /** 検証するプロパティ（nullの場合はフォーム全体） */
+    private final String[] properties;
+
+    /**
+     * コンストラクタ。
+     * @param properties 検証するプロパティ（nullの場合はフォーム全体）
+     */
+    private ValidationPlan(String[] properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * フォームのクラスとアクションメソッド名に対応する実行計画を取得する。
+     *
+     * @param formClass フォームのクラス
+     * @param methodName アクションメソッド名
+     * @return 実行計画
+     */
+    public static ValidationPlan get(Class<?> formClass, String methodName) {
+        if (methodName == null) {
+            return ALL;
+        }
+        final ConcurrentMap<String, ValidationPlan> plans = PLANS.get(formClass);
+        ValidationPlan plan = plans.get(methodName);
+        if (plan == null) {
+            plan = create(formClass, methodName);
+            plans.putIfAbsent(methodName, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * フォーム全体を検証するか否かを取得する。
+     * @return フォーム全体を検証する場合はtrue
+     */
+    public boolean isAll() {
+        return properties == null;
+    }
+
+    /**
+     * 検証するプロパティを取得する。
+     * @return 検証するプロパティ（フォーム全体を検証する場合はnull）
+     */
+    public List<String> getProperties() {
+        return properties == null ? null : Collections.unmodifiableList(Arrays.asList(properties));
+    }
+
+    /**
+     * 単項目バリデーションを行う。
+     *
+     * @param form フォーム
+     * @return バリデーションエラーのメッセージ（エラーがない場合は空）
+     */
+    public List<Message> validate(Object form) {
+        if (properties == null) {
+            try {
+                ValidatorUtil.validate(form);
+                return Collections.emptyList();
+            } catch (ApplicationException e) {
+                return e.getMessages();
+            }
+        }
+
+        final Validator validator = ValidatorUtil.getValidator();
+        Set<ConstraintViolation<Object>> violations = null;
+        for (String property : properties) {
+            final Set<ConstraintViolation<Object>> result = validator.validateProperty(form, property);
+            if (!result.isEmpty()) {
+                if (violations == null) {
+                    violations = new HashSet<ConstraintViolation<Object>>();
+                }
+                violations.addAll(result);
+            }
+        }
+        if (violations == null) {
+            return Collections.emptyList();
+        }
+        return getConverterFactory().create().convert(violations);
+    }
+
+    /**
+     * 実行計画を作成する。
+     *
+     * @param formClass フォームのクラス
+     * @param methodName アクションメソッド名
+     * @return 実行計画
+     */
+    private static ValidationPlan create(Class<?> formClass, String methodName) {
+        if (hasGroupSequence(formClass)) {
+            return ALL;
+        }
+        final BeanDescriptor bean = ValidatorUtil.getValidator().getConstraintsForClass(formClass);
+        if (!bean.getConstraintDescriptors().isEmpty()) {
+            return ALL;
+        }
+        final List<String> targets = new ArrayList<String>();
+        boolean pruned = false;
+        for (PropertyDescriptor property : bean.getConstrainedProperties()) {
+            if (property.isCascaded()) {
+                return ALL;
+            }
+            if (isTarget(property, methodName)) {
+                targets.add(property.getPropertyName());
+            } else {
+                pruned = true;
+            }
+        }
+        return pruned ? new ValidationPlan(targets.toArray(new String[targets.size()])) : ALL;
+    }
+
+    /**
+     * クラスまたはスーパークラスにグループシーケンスが指定されているか否かを判定する。
+     *
+     * @param formClass フォームのクラス
+     * @return 指定されている場合はtrue
+     */
+    private static boolean hasGroupSequence(Class<?> formClass) {
+        for (Class<?> type = formClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            if (type.isAnnotationPresent(GroupSequence.class) || type.isAnnotationPresent(GroupSequenceProvider.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * プロパティにアクションメソッドで検証される制約があるか否かを判定する。
+     *
+     * @param property プロパティ
+     * @param methodName アクションメソッド名
+     * @return 検証される制約がある場合はtrue
+     */
+    private static boolean isTarget(PropertyDescriptor property, String methodName) {
+        final Set<ConstraintDescriptor<?>> constraints = property.getConstraintDescriptors();
+        if (constraints.isEmpty()) {
+            // コンテナの要素に指定された制約など、ここで判定できない制約のみを持つ
+            return true;
+        }
+        for (ConstraintDescriptor<?> constraint : constraints) {
+            if (isTarget(constraint, methodName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 制約がアクションメソッドで検証されるか否かを判定する。
+     *
+     * @param constraint 制約
+     * @param methodName アクションメソッド名
+     * @return 検証される場合はtrue
+     */
+    private static boolean isTarget(ConstraintDescriptor<?> constraint, String methodName) {
+        if (!constraint.getComposingConstraints().isEmpty() || constraint.getConstraintValidatorClasses().isEmpty()) {
+            return true;
+        }
+        for (Class<?> validatorClass : constraint.getConstraintValidatorClasses()) {
+            if (!ValidateTarget.class.isAssignableFrom(validatorClass)) {
+                return true;
+            }
+        }
+        final Object target = constraint.getAttributes().get(TARGET_ATTRIBUTE);
+        return !(target instanceof String) || ValidateTarget.isTarget((String) target, methodName);
+    }
+
+    /**
+     * {@link ConstraintViolationConverterFactory}を取得する。<br>
+     * <br>
+     * {@link ValidatorUtil#validate(Object, Class[])}と同様に、コンポーネント定義に登録されている場合はそれを使用する。
+     *
+     * @return {@link ConstraintViolationConverterFactory}
+     */
+    private static ConstraintViolationConverterFactory getConverterFactory() {
+        final ConstraintViolationConverterFactory factory = SystemRepository.get(CONVERTER_FACTORY_NAME);
+        return factory == null ? new ConstraintViolationConverterFactory() : factory;
+    }
+}
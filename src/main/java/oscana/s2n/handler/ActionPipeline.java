@@ -0,0 +1,324 @@
+package oscana.s2n.handler;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.Handler;
+import nablarch.fw.Interceptor;
+import nablarch.fw.web.HttpRequest;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConfigFinder;
+import oscana.s2n.common.S2NConstants;
+import oscana.s2n.common.web.interceptor.Execute;
+import oscana.s2n.struts.OscanaHttpResourceConverUtil;
+
+/**
+ * アクションメソッドの呼び出し処理を保持するクラス。<br>
+ * <br>
+ * アクションクラスとメソッド名の組み合わせ単位に、以下を一度だけ解決し、以降のリクエストで再利用する。
+ * <ul>
+ * <li>アクションメソッド</li>
+ * <li>beforeExecute、afterExecuteメソッド</li>
+ * <li>上記のメソッドを呼び出す{@link MethodHandle}</li>
+ * <li>アクションメソッドに付与されたインターセプタを適用したハンドラ（インターセプタの実行順序の設定を適用済み）</li>
+ * </ul>
+ * インターセプタを適用したハンドラは、付与されたインターセプタの実装クラスがすべてNablarch、互換ライブラリのもの
+ * （リクエスト単位の状態を保持しないもの）の場合に限り、複数のリクエストで共有する。
+ * それ以外のインターセプタ（アプリケーションで作成したものなど）が付与されている場合は、
+ * 従来どおりリクエストごとにインターセプタを生成して適用する。
+ * アプリケーションのインターセプタもリクエスト単位の状態を保持しない場合は、
+ * {@link S2NConfig#setShareInterceptors(boolean)}で共有できる。<br>
+ * アクションメソッドの戻り値の型が{@link CompletableFuture}の場合、リクエストを中断し、完了時に応答する。
+ * ハンドラキューの構成、afterExecuteメソッドの呼び出し時期などの制約は{@link AsyncActionCompletion}を参照。<br>
+ * 本クラスは不変であり、スレッドセーフである。
+ */
+public final class ActionPipeline {
+
+    /** 前処理メソッド*/
+    private final static String BEFORE_EXECUTE = "beforeExecute";
+
+    /** 後処理メソッド*/
+    private final static String AFTER_EXECUTE = "afterExecute";
+
+    /** リクエスト単位の状態を保持しないインターセプタのパッケージ（Nablarch） */
+    private static final String NABLARCH_PACKAGE = "nablarch.";
+
+    /** リクエスト単位の状態を保持しないインターセプタのパッケージ（互換ライブラリ） */
+    private static final String S2N_PACKAGE = Execute.class.getPackage().getName() + '.';
+
+    /** アクションクラス単位の{@link ActionPipeline}のキャッシュ */
+    private static final ClassValue<ConcurrentMap<String, ActionPipeline>> PIPELINES =
+            new ClassValue<ConcurrentMap<String, ActionPipeline>>() {
+                @Override
+                protected ConcurrentMap<String, ActionPipeline> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /** アクションクラス */
+    private final Class<?> actionClass;
+
+    /** アクションメソッド */
+    private final Method actionMethod;
+
+    /** アクションメソッドの{@link MethodHandle}（引数はObject、HttpRequest、ExecutionContext、戻り値はObject） */
+    private final MethodHandle actionHandle;
+
+    /** アクションメソッドの戻り値の型が{@link CompletableFuture}か否か */
+    private final boolean asyncAction;
+
+    /** 前処理メソッドの{@link MethodHandle}（引数はObject、Method、Object、戻り値はObject。存在しない場合はnull） */
+    private final MethodHandle beforeExecute;
+
+    /** 後処理メソッドの{@link MethodHandle}（引数はObject、Method、Object、戻り値はObject。存在しない場合はnull） */
+    private final MethodHandle afterExecute;
+
+    /** beforeExecute、アクションメソッド、afterExecuteを呼び出すハンドラ */
+    private final ActionHandler actionHandler = new ActionHandler();
+
+    /** インターセプタを適用したハンドラ（複数のリクエストで共有できない場合はnull） */
+    private final Handler<HttpRequest, Object> handler;
+
+    /**
+     * コンストラクタ。
+     * @param actionClass アクションクラス
+     * @param methodName アクションメソッド名
+     */
+    private ActionPipeline(Class<?> actionClass, String methodName) {
+        this.actionClass = actionClass;
+        try {
+            this.actionMethod = actionClass.getMethod(methodName, HttpRequest.class, ExecutionContext.class);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+        this.actionHandle = toHandle(actionMethod,
+                MethodType.methodType(Object.class, Object.class, HttpRequest.class, ExecutionContext.class));
+        this.asyncAction = CompletableFuture.class.isAssignableFrom(actionMethod.getReturnType());
+        this.beforeExecute = findExecuteMethod(actionClass, BEFORE_EXECUTE);
+        this.afterExecute = findExecuteMethod(actionClass, AFTER_EXECUTE);
+        this.handler = isShareable(actionMethod.getAnnotations())
+                ? Interceptor.Factory.wrap(actionHandler, actionMethod.getAnnotations())
+                : null;
+    }
+
+    /**
+     * アクションクラスとメソッド名に対応する{@link ActionPipeline}を取得する。<br>
+     * <br>
+     * 初回呼び出し時に構築し、以降はキャッシュしたものを返す。
+     *
+     * @param actionClass アクションクラス
+     * @param methodName アクションメソッド名
+     * @return {@link ActionPipeline}
+     * @throws RuntimeException アクションメソッドが存在しない場合
+     */
+    public static ActionPipeline get(Class<?> actionClass, String methodName) {
+        ConcurrentMap<String, ActionPipeline> pipelines = PIPELINES.get(actionClass);
+        ActionPipeline pipeline = pipelines.get(methodName);
+        if (pipeline == null) {
+            pipeline = new ActionPipeline(actionClass, methodName);
+            ActionPipeline existing = pipelines.putIfAbsent(methodName, pipeline);
+            if (existing != null) {
+                pipeline = existing;
+            }
+        }
+        return pipeline;
+    }
+
+    /**
+     * アクションクラスを取得する。
+     * @return アクションクラス
+     */
+    public Class<?> getActionClass() {
+        return actionClass;
+    }
+
+    /**
+     * アクションメソッドを取得する。
+     * @return アクションメソッド
+     */
+    public Method getActionMethod() {
+        return actionMethod;
+    }
+
+    /**
+     * インターセプタを適用したアクションメソッドを呼び出す。
+     *
+     * @param action アクション
+     * @param request リクエスト
+     * @param context 実行コンテキスト
+     * @return レスポンス
+     */
+    public Object handle(Object action, HttpRequest request, ExecutionContext context) {
+        context.setRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_ACTION, action);
+        if (handler != null) {
+            return handler.handle(request, context);
+        }
+        return Interceptor.Factory.wrap(actionHandler, actionMethod.getAnnotations()).handle(request, context);
+    }
+
+    /**
+     * インターセプタを適用したハンドラを複数のリクエストで共有できるか否かを判定する。<br>
+     * <br>
+     * 付与されたインターセプタの実装クラスがすべてNablarch、互換ライブラリのものの場合、
+     * {@link S2NConfig#isShareInterceptors()}がtrueの場合は共有できる。
+     *
+     * @param annotations アクションメソッドに付与されたアノテーション
+     * @return 共有できる場合はtrue
+     */
+    private static boolean isShareable(Annotation[] annotations) {
+        if (S2NConfigFinder.getConfig().isShareInterceptors()) {
+            return true;
+        }
+        for (Annotation annotation : annotations) {
+            final Interceptor interceptor = annotation.annotationType().getAnnotation(Interceptor.class);
+            if (interceptor == null) {
+                continue;
+            }
+            final String implName = interceptor.value().getName();
+            if (!implName.startsWith(NABLARCH_PACKAGE) && !implName.startsWith(S2N_PACKAGE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * beforeExecute、afterExecuteメソッドを検索する。
+     *
+     * @param actionClass アクションクラス
+     * @param methodName メソッド名
+     * @return メソッドの{@link MethodHandle}。存在しない場合はnull
+     */
+    private static MethodHandle findExecuteMethod(Class<?> actionClass, String methodName) {
+        final Method method;
+        try {
+            method = actionClass.getMethod(methodName, Method.class, Object.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        return toHandle(method, MethodType.methodType(Object.class, Object.class, Method.class, Object.class));
+    }
+
+    /**
+     * メソッドを{@link MethodHandle}に変換する。
+     *
+     * @param method メソッド
+     * @param type 変換後の型
+     * @return {@link MethodHandle}
+     */
+    private static MethodHandle toHandle(Method method, MethodType type) {
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method).asType(type);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 例外を送出する。<br>
+     * <br>
+     * 非検査例外はそのまま送出し、検査例外は{@link RuntimeException}でラップして送出する。
+     *
+     * @param e 例外
+     * @return 戻らない
+     */
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new RuntimeException(e);
+    }
+
+    /**
+     * beforeExecute、アクションメソッド、afterExecuteを呼び出すハンドラ。
+     */
+    private final class ActionHandler implements Handler<HttpRequest, Object> {
+
+        /**
+         * アクションを呼び出す。
+         * <p/>
+         * 下記の順に処理を行う。
+         * <ul>
+         * <li>アクションにbeforeExecuteが存在する場合はbeforeExecuteを呼び出し、beforeExecuteの結果が存在する場合はレスポンスを作り保持する。</li>
+         * <li>レスポンスがない場合はアクションメソッドを呼び出し、アクションメソッドのレスポンスをレスポンスとして保持する。</li>
+         * <li>レスポンス有無に関わらずafterExecuteが存在する場合はafterExecuteを呼び出し、afterExecuteの結果が存在する場合はレスポンスを作り保持する。</li>
+         * <li>保持しているレスポンスが非同期アクションの結果の場合はリクエストを中断し、nullを返す。</li>
+         * <li>最後に保持しているレスポンスを返す。</li>
+         * </ul>
+         *
+         * @param request リクエスト
+         * @param context コンテキスト
+         * @return レスポンス
+         */
+        @Override
+        public Object handle(HttpRequest request, ExecutionContext context) {
+            final Object action = context.getRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_ACTION);
+            final Serializable form = context.getRequestScopedVar(S2NConstants.FORM);
+            final String actionName = actionClass.getName();
+
+            Object response = null;
+
+            HttpResourceHolder httpResourceHolder = HttpResourceHolder.current();
+            httpResourceHolder.setCurrentRequestId(request.getRequestPath());
+
+            if (beforeExecute != null) {
+                Object result = invokeExecuteMethod(beforeExecute, action, form);
+                if (result != null) {
+                    response = OscanaHttpResourceConverUtil.createHttpResponse((String) result, action, request,
+                            context, actionName);
+                }
+            }
+
+            if (response == null) {
+                try {
+                    response = actionHandle.invokeExact(action, request, context);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            }
+
+            if (afterExecute != null) {
+                Object result = invokeExecuteMethod(afterExecute, action, form);
+                if (result != null) {
+                    response = OscanaHttpResourceConverUtil.createHttpResponse((String) result, action, request,
+                            context, actionName);
+                }
+            }
+
+            if (asyncAction && response instanceof CompletableFuture) {
+                AsyncActionCompletion.suspend((CompletableFuture<?>) response, action, request, context,
+                        actionName, httpResourceHolder);
+                return null;
+            }
+            return response;
+        }
+
+        /**
+         * beforeExecute、afterExecuteメソッドを呼び出す。
+         *
+         * @param executeMethod beforeExecute、afterExecuteメソッドの{@link MethodHandle}
+         * @param action アクション
+         * @param form フォーム
+         * @return 戻り値
+         */
+        private Object invokeExecuteMethod(MethodHandle executeMethod, Object action, Serializable form) {
+            try {
+                return executeMethod.invokeExact(action, actionMethod, (Object) form);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package oscana.s2n.handler;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.core.repository.initialization.Initializable;
+import nablarch.core.util.StringUtil;
+import nablarch.core.validation.ee.ValidatorUtil;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConfigFinder;
+import oscana.s2n.common.web.interceptor.ActionDescriptor;
+import oscana.s2n.common.web.interceptor.Execute;
+import oscana.s2n.common.web.interceptor.ValidationPlan;
+
+/**
+ * アプリケーションの起動時に、ルーティング定義に記載されたアクションのメタ情報を事前に構築するクラス。<br>
+ * <br>
+ * ルーティング定義ファイル（routes.xml）を読み込み、controller属性、action属性が固定値のルートについて以下を行う。
+ * <ul>
+ * <li>アクションクラスのロード</li>
+ * <li>アクションメソッドの呼び出し処理（{@link ActionPipeline}）の構築</li>
+ * <li>{@link Execute}アノテーションのメタ情報（{@link ActionDescriptor}）の構築</li>
+ * <li>フォームのBean Validationのメタ情報、単項目バリデーションの実行計画（{@link ValidationPlan}）の構築</li>
+ * </ul>
+ * バリデーションを行うアクションメソッド（{@link Execute#validator()}がtrue）で、
+ * {@link Execute#validate()}に指定されたバリデーションメソッドが存在しない場合は、起動時にエラーとする。<br>
+ * {@link #setWarmUpCount(int)}を指定した場合は、副作用のない処理（フォームの生成、リクエストパラメータの設定、
+ * 単項目バリデーション）を指定回数実行する。<br>
+ * <br>
+ * ルーティング定義ファイル、アクションクラスのパッケージは{@link S2NRoutesMapping}に設定された値を使用し、
+ * アクションクラスはルーティングと同じ規則（{@link S2NRoutesMapping#toActionClassName(String, String)}）で解決する。
+ * ルーティングを行うハンドラが{@link S2NRoutesMapping}でない場合は設定を参照できないため、起動時にエラーとする。<br>
+ * 本クラスを使用する場合は、コンポーネント定義に登録し、初期化対象のリストに追加する。
+ * <pre>
+ * &lt;component name="actionWarmUp" class="oscana.s2n.handler.ActionWarmUp" /&gt;
+ *
+ * &lt;component name="initializer" class="nablarch.core.repository.initialization.BasicApplicationInitializer"&gt;
+ *   &lt;property name="initializeList"&gt;
+ *     &lt;list&gt;
+ *       &lt;component-ref name="actionWarmUp" /&gt;
+ *     &lt;/list&gt;
+ *   &lt;/property&gt;
+ * &lt;/component&gt;
+ * </pre>
+ */
+public class ActionWarmUp implements Initializable {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(ActionWarmUp.class);
+
+    /** アクションクラス、アクションメソッドを解決できない場合にエラーとするか否か */
+    private boolean failOnUnresolvedRoute;
+
+    /** 副作用のない処理の実行回数 */
+    private int warmUpCount;
+
+    /**
+     * ルーティング定義に記載されたアクションのメタ情報を構築する。
+     *
+     * @throws IllegalStateException ルーティングを行うハンドラが{@link S2NRoutesMapping}でない場合、
+     *                               バリデーションメソッドが存在しない場合、
+     *                               {@link #setFailOnUnresolvedRoute(boolean)}がtrueでアクションを解決できない場合
+     */
+    @Override
+    public void initialize() {
+        final S2NConfig config = S2NConfigFinder.getConfig();
+        if (!config.isRoutesMappingSupported()) {
+            throw new IllegalStateException("action warm-up requires routes mapping to be "
+                    + S2NRoutesMapping.class.getName() + ".");
+        }
+        final List<String> errors = new ArrayList<String>();
+        int count = 0;
+        for (Map.Entry<String, String> route : readRoutes(config.getRoutes()).entrySet()) {
+            final String[] controllerAndAction = route.getKey().split("#", 2);
+            final Method actionMethod = resolve(config.getBasePackage(), controllerAndAction[0],
+                    controllerAndAction[1], errors);
+            if (actionMethod != null) {
+                warmUp(actionMethod, route.getValue(), errors);
+                count++;
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("action warm-up failed." + System.lineSeparator()
+                    + String.join(System.lineSeparator(), errors));
+        }
+        LOGGER.logInfo("action warm-up completed. actions=[" + count + "]");
+    }
+
+    /**
+     * ルーティング定義ファイルから、controller属性とaction属性の組み合わせを読み込む。
+     *
+     * @param routes ルーティング定義ファイルのパス
+     * @return "controller#action"とパスの対応
+     * @throws IllegalStateException ルーティング定義ファイルが存在しない場合、読み込めない場合
+     */
+    static Map<String, String> readRoutes(String routes) {
+        final URL url = RoutesDocument.find(routes);
+        if (url == null) {
+            throw new IllegalStateException("routes file not found. routes=[" + routes + "]");
+        }
+        final Document document = RoutesDocument.parse(url, routes);
+
+        final Map<String, String> result = new LinkedHashMap<String, String>();
+        final NodeList elements = document.getElementsByTagName("*");
+        for (int i = 0; i < elements.getLength(); i++) {
+            final Element element = (Element) elements.item(i);
+            final String controller = element.getAttribute("controller");
+            final String action = element.getAttribute("action");
+            if (StringUtil.isNullOrEmpty(controller) || StringUtil.isNullOrEmpty(action)
+                    || controller.startsWith(":") || action.startsWith(":")) {
+                // 値がリクエストにより決まるルートは対象外
+                continue;
+            }
+            final String key = controller + '#' + action;
+            if (!result.containsKey(key)) {
+                result.put(key, element.getAttribute("path"));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * controller属性、action属性からアクションメソッドを解決する。
+     *
+     * @param basePackage アクションクラスのパッケージ
+     * @param controller controller属性の値
+     * @param action action属性の値
+     * @param errors エラーの格納先
+     * @return アクションメソッド。解決できない場合はnull
+     */
+    private Method resolve(String basePackage, String controller, String action, List<String> errors) {
+        final Class<?> actionClass = S2NRoutesMapping.loadActionClass(basePackage, controller);
+        if (actionClass == null) {
+            unresolved("action class not found. controller=[" + controller + "] class=["
+                    + S2NRoutesMapping.toActionClassName(basePackage, controller) + "]", errors);
+            return null;
+        }
+        try {
+            return ActionPipeline.get(actionClass, action).getActionMethod();
+        } catch (RuntimeException e) {
+            unresolved("action method not found. class=[" + actionClass.getName() + "] method=[" + action + "]",
+                    errors);
+            return null;
+        }
+    }
+
+    /**
+     * アクションメソッドのメタ情報を構築する。
+     *
+     * @param actionMethod アクションメソッド
+     * @param path パス
+     * @param errors エラーの格納先
+     */
+    private void warmUp(Method actionMethod, String path, List<String> errors) {
+        final Execute execute = actionMethod.getAnnotation(Execute.class);
+        if (execute == null) {
+            return;
+        }
+        final ActionDescriptor descriptor = ActionDescriptor.get(actionMethod, execute);
+        for (ActionDescriptor.ValidationStep step : descriptor.getValidationSteps()) {
+            if (execute.validator() && step.getKind() == ActionDescriptor.ValidationStep.Kind.NOT_FOUND) {
+                errors.add(String.format("validate method not found. method=[%s] form=[%s] action=[%s] path=[%s]",
+                        step.getName(), descriptor.getFormClass().getName(), descriptor.getActionClass().getName(),
+                        path));
+            }
+        }
+
+        final Class<? extends Serializable> formClass = descriptor.getFormClass();
+        if (formClass == null) {
+            return;
+        }
+        ValidatorUtil.getValidator().getConstraintsForClass(formClass);
+        ValidationPlan.get(formClass, actionMethod.getName());
+
+        final Map<String, String[]> noParameters = Collections.emptyMap();
+        for (int i = 0; i < warmUpCount; i++) {
+            final Serializable form = newInstance(formClass);
+            descriptor.getFormBinder().bind(form, noParameters);
+            ValidatorUtil.getValidator().validate(descriptor.getFormCopier().copy(form));
+        }
+    }
+
+    /**
+     * フォームのインスタンスを生成する。
+     *
+     * @param formClass フォームのクラス
+     * @return フォーム
+     */
+    private static Serializable newInstance(Class<? extends Serializable> formClass) {
+        try {
+            return formClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * アクションを解決できなかったことを記録する。
+     *
+     * @param message メッセージ
+     * @param errors エラーの格納先
+     */
+    private void unresolved(String message, List<String> errors) {
+        if (failOnUnresolvedRoute) {
+            errors.add(message);
+        } else {
+            LOGGER.logWarn(message);
+        }
+    }
+
+    /**
+     * アクションクラス、アクションメソッドを解決できない場合にエラーとするか否かを設定する。デフォルトはfalse
+     * <p/>
+     * falseの場合は警告ログを出力し、起動を継続する。
+     *
+     * @param failOnUnresolvedRoute エラーとする場合はtrue
+     */
+    public void setFailOnUnresolvedRoute(boolean failOnUnresolvedRoute) {
+        this.failOnUnresolvedRoute = failOnUnresolvedRoute;
+    }
+
+    /**
+     * 副作用のない処理（フォームの生成、リクエストパラメータの設定、単項目バリデーション）の実行回数を設定する。デフォルトは0
+     *
+     * @param warmUpCount 実行回数
+     */
+    public void setWarmUpCount(int warmUpCount) {
+        this.warmUpCount = warmUpCount;
+    }
+}
@@ -0,0 +1,146 @@
+package oscana.s2n.handler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+
+import nablarch.core.ThreadContext;
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.web.HttpRequest;
+import oscana.s2n.common.S2NConstants;
+import oscana.s2n.struts.OscanaHttpResourceConverUtil;
+
+/**
+ * 非同期アクションの完了時にレスポンスを返すクラス。<br>
+ * <br>
+ * アクションメソッドが{@link CompletableFuture}を返した場合、リクエストを{@link AsyncContext}で中断し、
+ * 完了時に結果を{@link OscanaHttpResourceConverUtil#createHttpResponse}でHttpResponseに変換して応答する。<br>
+ * 完了時の処理は別スレッドで実行されるため、中断時点の{@link ThreadContext}の値と{@link HttpResourceHolder}を引き継ぐ。<br>
+ * 応答の方法は{@link AsyncResponseWriter}を参照。<br>
+ * <br>
+ * 中断したリクエストでは、アクションを呼び出したハンドラキューにはレスポンスの代わりにnullが返される。
+ * 応答は完了時に本クラスが行うため、ハンドラキューのハンドラはnullの結果に対して応答を書き込まないこと。<br>
+ * <br>
+ * 中断時点でハンドラキューの処理は終了するため、以下の制約がある。
+ * <ul>
+ * <li>アクションより前のハンドラの後処理（セッションストアへの保存、トランザクションの終了、データベース接続の解放、
+ * 内部フォーワード）は、非同期アクションの完了より前に実行される。
+ * そのため、SessionStoreHandler、DbConnectionManagementHandler、TransactionManagementHandler、ForwardingHandlerが
+ * アクションより前に配置されている場合は中断せずに{@link IllegalStateException}を送出する（{@link AsyncHandlerPlacement}）。
+ * 非同期アクションでセッションストア、データベースを使用しないこと。</li>
+ * <li>afterExecuteメソッドは、非同期アクションの完了を待たずに中断前に呼び出される。</li>
+ * <li>完了時の応答（JSPへのフォーワードなど）は、ハンドラキューを経由せずに本クラスが直接行う。
+ * 後続のハンドラ（HttpErrorHandlerなど）の処理は適用されない。</li>
+ * </ul>
+ */
+final class AsyncActionCompletion {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(AsyncActionCompletion.class);
+
+    /** 中断したリクエストの{@link AsyncContext} */
+    private final AsyncContext asyncContext;
+
+    /** サーブレットリソースへの参照 */
+    private final HttpResourceHolder resource;
+
+    /** 中断時点の{@link ThreadContext}の値 */
+    private final ThreadContextSnapshot threadContext;
+
+    /** アクション */
+    private final Object action;
+
+    /** リクエスト */
+    private final HttpRequest request;
+
+    /** 実行コンテキスト */
+    private final ExecutionContext context;
+
+    /** アクションの名前 */
+    private final String actionName;
+
+    /**
+     * コンストラクタ。
+     * @param asyncContext 中断したリクエストの{@link AsyncContext}
+     * @param action アクション
+     * @param request リクエスト
+     * @param context 実行コンテキスト
+     * @param actionName アクションの名前
+     * @param resource サーブレットリソースへの参照
+     */
+    private AsyncActionCompletion(AsyncContext asyncContext, Object action, HttpRequest request,
+            ExecutionContext context, String actionName, HttpResourceHolder resource) {
+        this.asyncContext = asyncContext;
+        this.action = action;
+        this.request = request;
+        this.context = context;
+        this.actionName = actionName;
+        this.resource = resource;
+        this.threadContext = ThreadContextSnapshot.capture();
+    }
+
+    /**
+     * リクエストを中断し、非同期アクションの完了時に応答する。<br>
+     * <br>
+     * リクエストが既に中断されている場合（{@link VirtualThreadHandler}を使用している場合）は、その{@link AsyncContext}を使用する。<br>
+     * 中断したことを実行コンテキストに設定し、完了時の処理は非同期アクションの完了有無に関わらず別スレッドで実行する。
+     *
+     * @param future 非同期アクションの結果
+     * @param action アクション
+     * @param request リクエスト
+     * @param context 実行コンテキスト
+     * @param actionName アクションの名前
+     * @param resource サーブレットリソースへの参照
+     * @throws IllegalStateException 中断できないハンドラがアクションより前に配置されている場合
+     */
+    static void suspend(CompletableFuture<?> future, Object action, HttpRequest request,
+            ExecutionContext context, String actionName, HttpResourceHolder resource) {
+        AsyncHandlerPlacement.verify(context, "async action [" + actionName + "]");
+        HttpServletRequest servletRequest = resource.getHttpServletRequest();
+        AsyncContext asyncContext = servletRequest.isAsyncStarted()
+                ? servletRequest.getAsyncContext() : servletRequest.startAsync();
+        context.setRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_ASYNC_SUSPENDED, Boolean.TRUE);
+        final AsyncActionCompletion completion = new AsyncActionCompletion(asyncContext, action, request,
+                context, actionName, resource);
+        future.whenCompleteAsync((result, error) -> completion.complete(result, error));
+    }
+
+    /**
+     * 非同期アクションにより応答が保留されているか否かを判定する。
+     *
+     * @param context 実行コンテキスト
+     * @return 応答が保留されている場合はtrue
+     */
+    static boolean isSuspended(ExecutionContext context) {
+        return Boolean.TRUE.equals(context.getRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_ASYNC_SUSPENDED));
+    }
+
+    /**
+     * 非同期アクションの結果で応答する。
+     *
+     * @param result 非同期アクションの結果
+     * @param error 非同期アクションで発生した例外
+     */
+    private void complete(Object result, Throwable error) {
+        threadContext.restore();
+        HttpResourceHolder.bind(resource);
+        try {
+            if (error != null) {
+                throw error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            }
+            AsyncResponseWriter.respond(asyncContext, OscanaHttpResourceConverUtil.createHttpResponse(result,
+                    action, request, context, actionName, resource));
+        } catch (Throwable e) {
+            LOGGER.logError("async action failed. action = [" + actionName + "]", e);
+            AsyncResponseWriter.sendError(asyncContext);
+        } finally {
+            resource.clearResources();
+            HttpResourceHolder.unbind();
+            ThreadContext.clear();
+        }
+    }
+}
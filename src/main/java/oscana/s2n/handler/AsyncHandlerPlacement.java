@@ -0,0 +1,105 @@
+package oscana.s2n.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import nablarch.core.repository.SystemRepository;
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.web.servlet.WebFrontController;
+
+/**
+ * リクエストを中断して別スレッドで応答する処理の、ハンドラキュー上の配置を検証するクラス。<br>
+ * <br>
+ * リクエストを中断すると、中断した位置より前のハンドラにはレスポンスの代わりにnullが返され、
+ * 前のハンドラの後処理は応答より前に実行される。以下のハンドラが前にある場合、後処理が正しく行われないため中断できない。
+ * <ul>
+ * <li>SessionStoreHandler：応答より前にセッションストアへの保存が行われ、以降のセッションの変更が失われる。</li>
+ * <li>DbConnectionManagementHandler、TransactionManagementHandler：
+ * 応答より前にトランザクションが終了し、データベース接続が解放される。</li>
+ * <li>ForwardingHandler：内部フォーワードの結果がnullとなり、フォーワードが行われない。</li>
+ * </ul>
+ * 呼び出し元の処理によっては、上記以外のハンドラも指定する（{@link VirtualThreadHandler}はThreadContextHandler）。<br>
+ * 中断した位置より前のハンドラは、コンポーネント定義に"webFrontController"という名前で登録された
+ * {@link WebFrontController}のハンドラキューのうち、実行コンテキストのハンドラキューに残っていないもの（実行済みのもの）とする。
+ * {@link WebFrontController}が登録されていない場合は検証しない。
+ */
+final class AsyncHandlerPlacement {
+
+    /** {@link WebFrontController}のコンポーネント名 */
+    private static final String WEB_FRONT_CONTROLLER_NAME = "webFrontController";
+
+    /** 中断した位置より前に配置できないハンドラのクラス名 */
+    private static final List<String> UNSAFE_HANDLERS = Collections.unmodifiableList(Arrays.asList(
+            "nablarch.common.web.session.SessionStoreHandler",
+            "nablarch.common.handler.DbConnectionManagementHandler",
+            "nablarch.common.handler.TransactionManagementHandler",
+            "nablarch.fw.web.handler.ForwardingHandler"));
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private AsyncHandlerPlacement() {
+    }
+
+    /**
+     * 中断した位置より前に、中断できないハンドラが配置されていないことを検証する。
+     *
+     * @param context 実行コンテキスト
+     * @param subject 中断する処理（エラーメッセージ用）
+     * @param additionalUnsafeHandlers 中断した位置より前に配置できないハンドラのクラス名（{@link #UNSAFE_HANDLERS}以外）
+     * @throws IllegalStateException 中断できないハンドラが前に配置されている場合
+     */
+    static void verify(ExecutionContext context, String subject, String... additionalUnsafeHandlers) {
+        final Object controller = SystemRepository.getObject(WEB_FRONT_CONTROLLER_NAME);
+        if (!(controller instanceof WebFrontController)) {
+            return;
+        }
+        final List<String> unsafeHandlers = new ArrayList<String>(UNSAFE_HANDLERS);
+        unsafeHandlers.addAll(Arrays.asList(additionalUnsafeHandlers));
+        final List<?> remaining = context.getHandlerQueue();
+        for (Object handler : ((WebFrontController) controller).getHandlerQueue()) {
+            if (containsSame(remaining, handler)) {
+                continue;
+            }
+            final String unsafe = findUnsafeHandler(handler.getClass(), unsafeHandlers);
+            if (unsafe != null) {
+                throw new IllegalStateException(subject + " cannot suspend the request because " + unsafe
+                        + " is placed before it in the handler queue. place " + unsafe + " after it.");
+            }
+        }
+    }
+
+    /**
+     * リストに同じインスタンスが含まれるか否かを判定する。
+     *
+     * @param list リスト
+     * @param element 要素
+     * @return 含まれる場合はtrue
+     */
+    private static boolean containsSame(List<?> list, Object element) {
+        for (Object each : list) {
+            if (each == element) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ハンドラのクラスまたはスーパークラスのうち、中断できないハンドラのクラス名を検索する。
+     *
+     * @param handlerClass ハンドラのクラス
+     * @param unsafeHandlers 中断できないハンドラのクラス名
+     * @return 中断できないハンドラのクラス名。該当しない場合はnull
+     */
+    private static String findUnsafeHandler(Class<?> handlerClass, List<String> unsafeHandlers) {
+        for (Class<?> type = handlerClass; type != null; type = type.getSuperclass()) {
+            if (unsafeHandlers.contains(type.getName())) {
+                return type.getName();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,156 @@
+package oscana.s2n.handler;
+
+import java.io.IOException;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.core.repository.SystemRepository;
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.Handler;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.HttpResponse;
+import nablarch.fw.web.ResourceLocator;
+import nablarch.fw.web.handler.HttpResponseHandler;
+import nablarch.fw.web.servlet.ServletExecutionContext;
+
+/**
+ * 中断したリクエストに{@link AsyncContext}経由で応答するクラス。<br>
+ * <br>
+ * HttpResponseの内容は{@link HttpResponseHandler}で書き込むため、ステータスコード、ヘッダ、Cookie、
+ * コンテンツパス（サーブレット、リダイレクト、classpath、fileなど）は同期処理の場合と同じように応答する。
+ * コンポーネント定義に"httpResponseHandler"という名前で{@link HttpResponseHandler}が登録されている場合はそれを使用する。<br>
+ * 以下は{@link AsyncContext}の仕様に合わせて応答する。
+ * <ul>
+ * <li>サーブレットのパスへのフォワードは{@link AsyncContext#dispatch(String)}でディスパッチする。</li>
+ * <li>内部フォワード（forward://）は{@link AsyncContext#dispatch(String)}でディスパッチする。
+ * 同期処理の内部フォワードと同様に、レスポンスのヘッダ、Cookieは引き継がない。</li>
+ * </ul>
+ * アクションへのフォワードを行う場合、NablarchのWebフロントコントローラのdispatcherにASYNCを指定すること。
+ */
+final class AsyncResponseWriter {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(AsyncResponseWriter.class);
+
+    /** {@link HttpResponseHandler}のコンポーネント名 */
+    private static final String RESPONSE_HANDLER_NAME = "httpResponseHandler";
+
+    /** 内部フォワードのスキーム */
+    private static final String FORWARD_SCHEME = "forward";
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private AsyncResponseWriter() {
+    }
+
+    /**
+     * HttpResponseの内容で応答する。
+     *
+     * @param asyncContext 中断したリクエストの{@link AsyncContext}
+     * @param response レスポンス
+     */
+    static void respond(AsyncContext asyncContext, final HttpResponse response) {
+        final HttpServletRequest servletRequest = (HttpServletRequest) asyncContext.getRequest();
+        final HttpServletResponse servletResponse = (HttpServletResponse) asyncContext.getResponse();
+        final ResourceLocator contentPath = response.getContentPath();
+        if (contentPath != null && FORWARD_SCHEME.equals(contentPath.getScheme())) {
+            servletResponse.setStatus(response.getStatusCode());
+            asyncContext.dispatch(contentPath.getPath());
+            return;
+        }
+
+        final AsyncDispatchRequest request = new AsyncDispatchRequest(servletRequest, asyncContext);
+        final ServletExecutionContext context = new ServletExecutionContext(request, servletResponse,
+                servletRequest.getServletContext());
+        context.addHandler(getResponseHandler());
+        context.addHandler(new Handler<HttpRequest, HttpResponse>() {
+            @Override
+            public HttpResponse handle(HttpRequest httpRequest, ExecutionContext executionContext) {
+                return response;
+            }
+        });
+        context.handleNext(context.getHttpRequest());
+        if (!request.dispatched) {
+            asyncContext.complete();
+        }
+    }
+
+    /**
+     * 内部エラーで応答する。
+     *
+     * @param asyncContext 中断したリクエストの{@link AsyncContext}
+     */
+    static void sendError(AsyncContext asyncContext) {
+        try {
+            ((HttpServletResponse) asyncContext.getResponse())
+                    .sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.logWarn("failed to send error response.", e);
+        } finally {
+            asyncContext.complete();
+        }
+    }
+
+    /**
+     * レスポンスを書き込む{@link HttpResponseHandler}を取得する。
+     *
+     * @return {@link HttpResponseHandler}
+     */
+    private static HttpResponseHandler getResponseHandler() {
+        final Object handler = SystemRepository.getObject(RESPONSE_HANDLER_NAME);
+        return handler instanceof HttpResponseHandler ? (HttpResponseHandler) handler : new HttpResponseHandler();
+    }
+
+    /**
+     * サーブレットへのフォワードを{@link AsyncContext#dispatch(String)}に置き換えるリクエスト。<br>
+     * <br>
+     * 中断したリクエストはコンテナのスレッド以外から{@link RequestDispatcher#forward(ServletRequest, ServletResponse)}
+     * を呼び出せないため、{@link HttpResponseHandler}が行うフォワードをディスパッチに置き換える。
+     */
+    private static final class AsyncDispatchRequest extends HttpServletRequestWrapper {
+
+        /** 中断したリクエストの{@link AsyncContext} */
+        private final AsyncContext asyncContext;
+
+        /** ディスパッチしたか否か */
+        private boolean dispatched;
+
+        /**
+         * コンストラクタ。
+         * @param request リクエスト
+         * @param asyncContext 中断したリクエストの{@link AsyncContext}
+         */
+        private AsyncDispatchRequest(HttpServletRequest request, AsyncContext asyncContext) {
+            super(request);
+            this.asyncContext = asyncContext;
+        }
+
+        @Override
+        public RequestDispatcher getRequestDispatcher(final String path) {
+            final RequestDispatcher dispatcher = getRequest().getRequestDispatcher(path);
+            return new RequestDispatcher() {
+                @Override
+                public void forward(ServletRequest request, ServletResponse response) {
+                    dispatched = true;
+                    asyncContext.dispatch(path);
+                }
+
+                @Override
+                public void include(ServletRequest request, ServletResponse response)
+                        throws ServletException, IOException {
+                    dispatcher.include(request, response);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package oscana.s2n.handler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.dicontainer.nablarch.Containers;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.HttpResponse;
+import nablarch.fw.web.ResourceLocator;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConfigFinder;
+import oscana.s2n.validation.ValidateTarget;
+
+/**
+ * アクションへの内部フォーワードを、ハンドラキューを経由せずに直接呼び出すクラス。<br>
+ * <br>
+ * アクションが内部フォーワード（"forward://"）のレスポンスを返した場合、通常は
+ * {@code nablarch.fw.web.handler.ForwardingHandler}がハンドラキューを再実行し、
+ * {@link HttpResourceHolderUpdateHandler}、ルーティング、インターセプタを再度経由してフォーワード先のアクションを呼び出す。<br>
+ * 本クラスは、フォーワード先のパスが{@link RouteIndex}に登録されたルートに一致し、アクションクラス、アクションメソッドを解決できる場合に、
+ * フォーワード先のアクションの{@link ActionPipeline}を直接呼び出す。<br>
+ * 呼び出し前に、ハンドラキューを再実行した場合と同様に以下を行う。
+ * <ul>
+ * <li>リクエストパスをフォーワード先のパスに変更する。</li>
+ * <li>パスパラメータをリクエストパラメータに設定する。</li>
+ * <li>{@link HttpResourceHolder}にサーブレットリソースへの最新の参照を登録する。</li>
+ * <li>アクションメソッドをリクエストスコープ、スレッドコンテキストに設定する。</li>
+ * </ul>
+ * 以下の場合は直接呼び出さず、レスポンスをそのまま返す（ハンドラキューの再実行により処理される）。
+ * <ul>
+ * <li>リクエストのHTTPメソッドがGET以外の場合（索引はGETリクエストのルートのみを保持するため）</li>
+ * <li>索引を使用できない場合、パスに一致するルートが存在しない場合</li>
+ * <li>ルートのcontroller属性、action属性が指定されていない場合</li>
+ * <li>アクションクラス、アクションメソッドを解決できない場合</li>
+ * <li>パスにクエリ文字列が含まれる場合</li>
+ * <li>1リクエストで直接呼び出した回数が{@value #MAX_FORWARDS}回に達した場合（フォーワードの循環に備える）</li>
+ * </ul>
+ *
+ * @see S2NConfig#setDirectForward(boolean)
+ */
+final class ForwardDispatcher {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(ForwardDispatcher.class);
+
+    /** 1リクエストで直接呼び出すフォーワードの最大回数 */
+    static final int MAX_FORWARDS = 10;
+
+    /** 直接呼び出しを行うHTTPメソッド */
+    private static final String GET = "GET";
+
+    /** アクションクラスを解決できなかったことを表す値 */
+    private static final Class<?> UNRESOLVED = Void.class;
+
+    /** パッケージとcontroller属性の値に対応するアクションクラス */
+    private static final ConcurrentMap<String, Class<?>> ACTION_CLASSES = new ConcurrentHashMap<String, Class<?>>();
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ForwardDispatcher() {
+    }
+
+    /**
+     * レスポンスがアクションへの内部フォーワードの場合、フォーワード先のアクションを直接呼び出す。<br>
+     * <br>
+     * フォーワード先のアクションが更に内部フォーワードを返した場合も、{@value #MAX_FORWARDS}回まで同様に処理する。
+     *
+     * @param response アクションのレスポンス
+     * @param request リクエスト
+     * @param context 実行コンテキスト
+     * @return フォーワード先のアクションのレスポンス。直接呼び出さない場合は引数のレスポンス
+     */
+    static Object dispatch(Object response, HttpRequest request, ExecutionContext context) {
+        if (!GET.equals(request.getMethod())) {
+            return response;
+        }
+        Object result = response;
+        int forwards = 0;
+        while (result instanceof HttpResponse) {
+            final String path = toForwardPath((HttpResponse) result);
+            if (path == null) {
+                break;
+            }
+            if (forwards++ == MAX_FORWARDS) {
+                LOGGER.logWarn("too many direct forwards. forward through the handler queue. path=[" + path
+                        + "] forwards=[" + MAX_FORWARDS + "]");
+                break;
+            }
+            final RouteIndex index = RouteIndex.current();
+            if (!index.isSupported()) {
+                break;
+            }
+            final RouteIndex.Route route = index.find(path);
+            final ActionPipeline pipeline = route == null ? null : resolve(route);
+            if (pipeline == null) {
+                break;
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.logDebug("dispatch forward directly. path=[" + path + "] action=["
+                        + pipeline.getActionClass().getName() + "#" + route.getAction() + "]");
+            }
+
+            request.setRequestPath(path);
+            for (Map.Entry<String, String> parameter : route.getParameters(path).entrySet()) {
+                request.setParam(parameter.getKey(), parameter.getValue());
+            }
+            HttpResourceHolderUpdateHandler.refresh(context);
+            S2NRoutesMethodBinder.bindMethod(pipeline.getActionMethod(), route.getAction(),
+                    ValidateTarget.findMethodId(route.getAction()), context);
+            final Object action = Containers.get().getComponent(pipeline.getActionClass());
+            result = pipeline.handle(action, request, context);
+        }
+        return result;
+    }
+
+    /**
+     * 内部フォーワードのパスを取得する。
+     *
+     * @param response レスポンス
+     * @return 内部フォーワードのパス。内部フォーワードでない場合、クエリ文字列を含む場合はnull
+     */
+    private static String toForwardPath(HttpResponse response) {
+        final ResourceLocator contentPath = response.getContentPath();
+        if (contentPath == null || !"forward".equals(contentPath.getScheme())) {
+            return null;
+        }
+        final String path = contentPath.getPath();
+        if (path == null || !path.startsWith("/") || path.indexOf('?') >= 0) {
+            return null;
+        }
+        return path;
+    }
+
+    /**
+     * ルートに対応するアクションメソッドの{@link ActionPipeline}を取得する。
+     *
+     * @param route ルート
+     * @return {@link ActionPipeline}。解決できない場合はnull
+     */
+    private static ActionPipeline resolve(RouteIndex.Route route) {
+        final String controller = route.getController();
+        final String action = route.getAction();
+        if (controller.isEmpty() || action.isEmpty() || controller.startsWith(":") || action.startsWith(":")) {
+            return null;
+        }
+        final Class<?> actionClass = loadActionClass(S2NConfigFinder.getConfig().getBasePackage(), controller);
+        if (actionClass == null) {
+            return null;
+        }
+        try {
+            return ActionPipeline.get(actionClass, action);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * アクションクラスをロードする。ロード結果はパッケージとcontroller属性の値の組み合わせ単位にキャッシュする。
+     *
+     * @param basePackage アクションクラスのパッケージ
+     * @param controller controller属性の値
+     * @return アクションクラス。ロードできない場合はnull
+     */
+    private static Class<?> loadActionClass(String basePackage, String controller) {
+        final String key = basePackage + '#' + controller;
+        Class<?> actionClass = ACTION_CLASSES.get(key);
+        if (actionClass == null) {
+            actionClass = S2NRoutesMapping.loadActionClass(basePackage, controller);
+            ACTION_CLASSES.putIfAbsent(key, actionClass == null ? UNRESOLVED : actionClass);
+        }
+        return actionClass == UNRESOLVED ? null : actionClass;
+    }
+}
@@ -5,6 +5,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
+import nablarch.fw.dicontainer.nablarch.Containers;
 import nablarch.fw.dicontainer.web.RequestScoped;
 import nablarch.fw.web.HttpResponse;
 
@@ -15,11 +16,16 @@ import nablarch.fw.web.HttpResponse;
  *
  * forcedNextResponseが設定されているときは、NablarchはActionのレスポンスにかかわらずこのレスポンスで応答する。
  *
+ * リクエストを処理している間、本クラスのインスタンスはスレッドに関連付けられ、{@link #current()}で取得できる。
+ *
  * @author Fumihiko Yamamoto
  */
 @RequestScoped
 public class HttpResourceHolder {
 
+    /** スレッドに関連付けられた{@link HttpResourceHolder} */
+    private static final ThreadLocal<HttpResourceHolder> BOUND = new ThreadLocal<HttpResourceHolder>();
+
     private ServletContext servletContext;
     private HttpServletRequest httpServletRequest;
     private HttpServletResponse httpServletResponse;
@@ -27,12 +33,46 @@ public class HttpResourceHolder {
     private HttpResponse forcedNextResponse;
     private String currentRequestId = null;
 
+    /**
+     * 現在のスレッドで処理しているリクエストの{@link HttpResourceHolder}を取得する。<br>
+     * <br>
+     * スレッドに関連付けられたインスタンスが存在しない場合は、DIコンテナから取得する。
+     * @return {@link HttpResourceHolder}
+     */
+    public static HttpResourceHolder current() {
+        HttpResourceHolder bound = BOUND.get();
+        return bound != null ? bound : Containers.get().getComponent(HttpResourceHolder.class);
+    }
+
+    /**
+     * 現在のスレッドに関連付けられた{@link HttpResourceHolder}を取得する。
+     * @return {@link HttpResourceHolder}。関連付けられていない場合はnull
+     */
+    public static HttpResourceHolder bound() {
+        return BOUND.get();
+    }
+
+    /**
+     * {@link HttpResourceHolder}を現在のスレッドに関連付ける。
+     * @param holder {@link HttpResourceHolder}
+     */
+    static void bind(HttpResourceHolder holder) {
+        BOUND.set(holder);
+    }
+
+    /**
+     * 現在のスレッドとの関連付けを解除する。
+     */
+    static void unbind() {
+        BOUND.remove();
+    }
+
     /**
      * サーブレットリソースへの参照を登録する。
      * @param servletContext サーブレットコンテキスト(javax.servlet.ServletContext - ServletNative)
      * @param httpServletRequest リクエスト(javax.servlet.http.HttpServletRequest - ServletNative)
      * @param httpServletResponse レスポンス(javax.servlet.http.HttpServletResponse - ServletNative)
-     * @param httpSession セッション(javax.servlet.http.HttpSession - ServletNative)
+     * @param httpSession セッション(javax.servlet.http.HttpSession - ServletNative)。存在しない場合はnull
      */
     void setResources(ServletContext servletContext, HttpServletRequest httpServletRequest,
             HttpServletResponse httpServletResponse, HttpSession httpSession) {
@@ -67,10 +107,27 @@ public class HttpResourceHolder {
     }
 
     /**
-     * HttpSessionを取得する。
+     * HttpSessionを取得する。<br>
+     * <br>
+     * セッションが存在しない場合は作成する。
      * @return HttpSession セッション(javax.servlet.http.HttpSession - ServletNative)
      */
     public HttpSession getHttpSession() {
+        return getHttpSession(true);
+    }
+
+    /**
+     * HttpSessionを取得する。<br>
+     * <br>
+     * セッションはリクエストの開始時には作成せず、本メソッドで初めて必要になった時点で取得(作成)する。
+     * セッションが存在しない場合、createがtrueであれば作成し、falseであればnullを返す。
+     * @param create セッションが存在しない場合に作成する場合はtrue
+     * @return HttpSession セッション(javax.servlet.http.HttpSession - ServletNative)。存在せず、作成しない場合はnull
+     */
+    public HttpSession getHttpSession(boolean create) {
+        if (httpSession == null && httpServletRequest != null) {
+            httpSession = httpServletRequest.getSession(create);
+        }
         return httpSession;
     }
 
@@ -44,7 +44,11 @@ public class HttpResourceHolderHandler implements Handler<HttpRequest, Object> {
      * ハンドラーで処理する。<br>
      * <br>
      * ・HttpResourceHolderにサーブレットリソースへの参照を登録し、次のhandleの処理を行う。<br>
+     * ・HttpResourceHolderを現在のスレッドに関連付け、handleから戻ってきたところで関連付けを解除する。<br>
      * ・handleから戻ってきたところでサーブレットリソースへの参照を削除する。<br>
+     * ・非同期アクションによりリクエストが中断された場合、サーブレットリソースへの参照は削除しない。<br>
+     * ・スレッドに関連付けるHttpResourceHolderはDIコンテナから取得したインスタンスとし、
+     * DIコンテナから取得した場合と{@link HttpResourceHolder#current()}で取得した場合で同じインスタンスとなるようにする。<br>
      *
      * @return 結果データ
      */
@@ -56,19 +60,21 @@ public class HttpResourceHolderHandler implements Handler<HttpRequest, Object> {
             //Holderの取得
             resource = Containers.get().getComponent(HttpResourceHolder.class);
 
-            //Http系リソースへの参照をHttpResourceHolderに登録する
+            //Http系リソースへの参照をHttpResourceHolderに登録する（セッションは必要になった時点で作成する）
             ServletExecutionContext cxt = (ServletExecutionContext) context;
             resource.setResources(cxt.getServletContext(), cxt.getServletRequest(), cxt.getServletResponse(),
-                    cxt.getNativeHttpSession(true));
+                    cxt.getNativeHttpSession(false));
+
+            HttpResourceHolder.bind(resource);
 
             return context.handleNext(request);
         } finally {
-            //Http系リソースの削除
-            if (resource != null) {
+            HttpResourceHolder.unbind();
+            //Http系リソースの削除（リクエストを中断した場合は非同期処理の完了時に削除する）
+            if (resource != null && !AsyncActionCompletion.isSuspended(context)) {
                 resource.clearResources();
             }
 
         }
     }
-
 }
@@ -2,7 +2,6 @@ package oscana.s2n.handler;
 
 import nablarch.fw.ExecutionContext;
 import nablarch.fw.Handler;
-import nablarch.fw.dicontainer.nablarch.Containers;
 import nablarch.fw.web.HttpRequest;
 import nablarch.fw.web.servlet.ServletExecutionContext;
 
@@ -53,16 +52,26 @@ public class HttpResourceHolderUpdateHandler implements Handler<HttpRequest, Obj
     @Override
     public Object handle(final HttpRequest request, final ExecutionContext context) {
 
+        refresh(context);
+
+        return context.handleNext(request);
+    }
+
+    /**
+     * HttpResourceHolderにサーブレットリソースへの最新の参照を登録する。
+     *
+     * @param context 実行コンテキスト
+     */
+    static void refresh(final ExecutionContext context) {
+
         HttpResourceHolder resource = null;
-        //Holderの取得
-        resource = Containers.get().getComponent(HttpResourceHolder.class);
+        //Holderの取得（スレッドに関連付けられている場合はそれを使用する）
+        resource = HttpResourceHolder.current();
 
-        //Http系リソースへの最新の参照をHttpResourceHolderに登録する
+        //Http系リソースへの最新の参照をHttpResourceHolderに登録する（セッションは必要になった時点で作成する）
         ServletExecutionContext cxt = (ServletExecutionContext) context;
         resource.setResources(cxt.getServletContext(), cxt.getServletRequest(), cxt.getServletResponse(),
-                cxt.getNativeHttpSession(true));
-
-        return context.handleNext(request);
+                cxt.getNativeHttpSession(false));
     }
 
 }
@@ -0,0 +1,483 @@
+package oscana.s2n.handler;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConfigFinder;
+
+/**
+ * ルーティング定義（routes.xml）に定義されたGETリクエストのパスの索引。<br>
+ * <br>
+ * パスのセグメントを節とする木構造（トライ木）で、パスに対応するルートが存在するか否かを例外を使用せずに判定する。
+ * 「:」で始まるセグメントは、「.」「?」を含まない任意の1セグメントに一致する。
+ * 複数のルートに一致する場合は、ルーティング定義で先に定義されたルートを優先する。<br>
+ * <br>
+ * 以下の定義を含む場合は索引でルーティングの判定結果を再現できないため、索引は使用不可となる（{@link #isSupported()}がfalse）。
+ * ルーティング定義ファイルが存在しない場合、読み込めない場合、
+ * ルーティングを行うハンドラが{@link S2NRoutesMapping}でない場合（{@link S2NConfig#isRoutesMappingSupported()}がfalse）、
+ * ベースURI（{@link S2NConfig#getRoutesBaseUri()}）が設定されている場合も使用不可となる。
+ * <ul>
+ * <li>match、get、post、put、delete、patch以外の要素</li>
+ * <li>path、controller、action、name以外の属性を持つ要素、子要素を持つ要素</li>
+ * <li>「*」「(」「)」を含むパス、セグメントの途中に「:」を含むパス</li>
+ * </ul>
+ * 索引は{@link S2NRoutesMapping}に設定された間隔（{@link S2NConfig#getRoutesCheckInterval()}）でルーティング定義ファイルの更新を確認し、
+ * 更新されている場合は再構築する。再構築した索引は一度に差し替えるため、参照中の索引が変更されることはない。
+ */
+public final class RouteIndex {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(RouteIndex.class);
+
+    /** GETリクエストのルートを定義する要素 */
+    private static final Set<String> GET_ELEMENTS = new HashSet<String>(Arrays.asList("match", "get"));
+
+    /** GETリクエスト以外のルートを定義する要素 */
+    private static final Set<String> NON_GET_ELEMENTS = new HashSet<String>(
+            Arrays.asList("post", "put", "delete", "patch"));
+
+    /** ルートの定義に使用できる属性 */
+    private static final Set<String> ROUTE_ATTRIBUTES = new HashSet<String>(
+            Arrays.asList("path", "controller", "action", "name"));
+
+    /** ルーティングを行うハンドラの設定を参照できない場合の索引 */
+    private static final RouteIndex UNSUPPORTED = new RouteIndex(null, null, 0);
+
+    /** 現在の索引 */
+    private static final AtomicReference<RouteIndex> CURRENT = new AtomicReference<RouteIndex>();
+
+    /** ルーティング定義ファイルのパス（ルーティングを行うハンドラの設定を参照できない場合はnull） */
+    private final String routes;
+
+    /** 索引の根（使用不可の場合はnull） */
+    private final Segment root;
+
+    /** 索引を構築した時点のルーティング定義ファイルの更新日時（取得できない場合は0） */
+    private final long lastModified;
+
+    /** ルーティング定義ファイルの更新を確認した日時 */
+    private final long checkedAt;
+
+    /**
+     * コンストラクタ。
+     * @param routes ルーティング定義ファイルのパス
+     * @param root 索引の根（使用不可の場合はnull）
+     * @param lastModified ルーティング定義ファイルの更新日時
+     */
+    private RouteIndex(String routes, Segment root, long lastModified) {
+        this.routes = routes;
+        this.root = root;
+        this.lastModified = lastModified;
+        this.checkedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 現在の索引を取得する。<br>
+     * <br>
+     * 索引が構築されていない場合、ルーティング定義ファイルの更新を確認する時期を過ぎている場合は、
+     * ルーティング定義ファイルを確認し、必要に応じて索引を構築する。
+     *
+     * @return 索引
+     */
+    public static RouteIndex current() {
+        final S2NConfig config = S2NConfigFinder.getConfig();
+        final RouteIndex index = CURRENT.get();
+        final String unsupported = getUnsupportedReason(config);
+        if (unsupported != null) {
+            if (index != UNSUPPORTED && CURRENT.compareAndSet(index, UNSUPPORTED)) {
+                LOGGER.logInfo("route index is not available. " + unsupported);
+            }
+            return UNSUPPORTED;
+        }
+        if (index != null && config.getRoutes().equals(index.routes)) {
+            if (!index.shouldCheck(config.getRoutesCheckInterval())) {
+                return index;
+            }
+            final RouteIndex next = index.refresh();
+            CURRENT.compareAndSet(index, next);
+            return next;
+        }
+        final RouteIndex next = load(config.getRoutes());
+        CURRENT.compareAndSet(index, next);
+        return next;
+    }
+
+    /**
+     * ルーティングを行うハンドラの設定が、索引で判定結果を再現できないものか否かを判定する。<br>
+     * <br>
+     * ベースURIを設定した場合のルーティングの判定結果は索引で再現しないため、使用不可とする。
+     *
+     * @param config 互換ライブラリの設定
+     * @return 再現できない理由（ログ出力用）。再現できる場合はnull
+     */
+    private static String getUnsupportedReason(S2NConfig config) {
+        if (!config.isRoutesMappingSupported()) {
+            return "routes mapping is not " + S2NRoutesMapping.class.getName() + ".";
+        }
+        final String baseUri = config.getRoutesBaseUri();
+        if (!baseUri.isEmpty()) {
+            return "base uri is specified. baseUri=[" + baseUri + "]";
+        }
+        return null;
+    }
+
+    /**
+     * 索引を破棄する。次回の{@link #current()}の呼び出し時に再構築する。
+     */
+    public static void clear() {
+        CURRENT.set(null);
+    }
+
+    /**
+     * 索引を使用できるか否かを判定する。
+     * @return 使用できる場合はtrue
+     */
+    public boolean isSupported() {
+        return root != null;
+    }
+
+    /**
+     * GETリクエストのパスに対応するルートが存在するか否かを判定する。
+     *
+     * @param path リクエストパス
+     * @return ルートが存在する場合はtrue
+     * @throws IllegalStateException 索引を使用できない場合
+     */
+    public boolean contains(String path) {
+        return find(path) != null;
+    }
+
+    /**
+     * GETリクエストのパスに対応するルートを取得する。
+     *
+     * @param path リクエストパス
+     * @return ルート。存在しない場合はnull
+     * @throws IllegalStateException 索引を使用できない場合
+     */
+    public Route find(String path) {
+        if (root == null) {
+            throw new IllegalStateException("route index is not supported. routes=[" + routes + "]");
+        }
+        return root.find(split(path), 0);
+    }
+
+    /**
+     * ルーティング定義ファイルの更新を確認する時期を過ぎているか否かを判定する。
+     * @param interval 更新を確認する間隔（ミリ秒）
+     * @return 過ぎている場合はtrue
+     */
+    private boolean shouldCheck(long interval) {
+        return interval > 0 && System.currentTimeMillis() - checkedAt >= interval;
+    }
+
+    /**
+     * ルーティング定義ファイルの更新を確認する。<br>
+     * <br>
+     * 更新されていない場合は同じ索引で確認日時を更新したものを返し、更新されている場合は索引を再構築する。
+     *
+     * @return 索引
+     */
+    private RouteIndex refresh() {
+        final long modified = lastModified(RoutesDocument.find(routes));
+        if (modified != 0 && modified == lastModified) {
+            return new RouteIndex(routes, root, lastModified);
+        }
+        return load(routes);
+    }
+
+    /**
+     * ルーティング定義ファイルを読み込み、索引を構築する。
+     *
+     * @param routes ルーティング定義ファイルのパス
+     * @return 索引
+     */
+    private static RouteIndex load(String routes) {
+        final URL url = RoutesDocument.find(routes);
+        if (url == null) {
+            LOGGER.logInfo("route index is not available. routes file not found. routes=[" + routes + "]");
+            return new RouteIndex(routes, null, 0);
+        }
+        final long modified = lastModified(url);
+        final Document document;
+        try {
+            document = RoutesDocument.parse(url, routes);
+        } catch (IllegalStateException e) {
+            LOGGER.logWarn("route index is not available. routes=[" + routes + "]", e);
+            return new RouteIndex(routes, null, modified);
+        }
+        return new RouteIndex(routes, build(document, routes), modified);
+    }
+
+    /**
+     * 索引を構築する。
+     *
+     * @param document ルーティング定義
+     * @param routes ルーティング定義ファイルのパス（ログ出力用）
+     * @return 索引の根。索引で再現できない定義を含む場合はnull
+     */
+    private static Segment build(Document document, String routes) {
+        final Segment root = new Segment();
+        int order = 0;
+        for (Node node = document.getDocumentElement().getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            final Element element = (Element) node;
+            if (NON_GET_ELEMENTS.contains(element.getTagName())) {
+                continue;
+            }
+            if (!GET_ELEMENTS.contains(element.getTagName()) || !isSimpleRoute(element)
+                    || !root.add(split(element.getAttribute("path")), element, order++)) {
+                LOGGER.logInfo("route index is not available. unsupported route definition. routes=[" + routes
+                        + "], element=[" + element.getTagName() + "], path=[" + element.getAttribute("path") + "]");
+                return null;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * 索引で判定結果を再現できる要素か否かを判定する。
+     *
+     * @param element 要素
+     * @return 再現できる場合はtrue
+     */
+    private static boolean isSimpleRoute(Element element) {
+        if (!element.hasAttribute("path")) {
+            return false;
+        }
+        final NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            if (!ROUTE_ATTRIBUTES.contains(attributes.item(i).getNodeName())) {
+                return false;
+            }
+        }
+        for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * パスをセグメントに分割する。空のセグメントは除く。
+     *
+     * @param path パス
+     * @return セグメント
+     */
+    private static String[] split(String path) {
+        final List<String> segments = new ArrayList<String>();
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end > start) {
+                segments.add(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return segments.toArray(new String[segments.size()]);
+    }
+
+    /**
+     * ルーティング定義ファイルの更新日時を取得する。
+     *
+     * @param url ルーティング定義ファイルのURL
+     * @return 更新日時。ファイルシステム上のファイルでない場合、取得できない場合は0
+     */
+    private static long lastModified(URL url) {
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return 0;
+        }
+        try {
+            return new File(url.toURI()).lastModified();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 索引に登録されたルート。
+     */
+    public static final class Route {
+
+        /** controller属性の値（指定されていない場合は空文字） */
+        private final String controller;
+
+        /** action属性の値（指定されていない場合は空文字） */
+        private final String action;
+
+        /** パスパラメータ（「:」で始まるセグメント）の名前 */
+        private final String[] parameterNames;
+
+        /** パスパラメータのセグメントの位置 */
+        private final int[] parameterPositions;
+
+        /** ルーティング定義での順序 */
+        private final int order;
+
+        /**
+         * コンストラクタ。
+         * @param controller controller属性の値
+         * @param action action属性の値
+         * @param parameterNames パスパラメータの名前
+         * @param parameterPositions パスパラメータのセグメントの位置
+         * @param order ルーティング定義での順序
+         */
+        private Route(String controller, String action, List<String> parameterNames,
+                List<Integer> parameterPositions, int order) {
+            this.controller = controller;
+            this.action = action;
+            this.parameterNames = parameterNames.toArray(new String[parameterNames.size()]);
+            this.parameterPositions = new int[parameterPositions.size()];
+            for (int i = 0; i < this.parameterPositions.length; i++) {
+                this.parameterPositions[i] = parameterPositions.get(i);
+            }
+            this.order = order;
+        }
+
+        /**
+         * controller属性の値を取得する。
+         * @return controller属性の値（指定されていない場合は空文字）
+         */
+        public String getController() {
+            return controller;
+        }
+
+        /**
+         * action属性の値を取得する。
+         * @return action属性の値（指定されていない場合は空文字）
+         */
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * リクエストパスからパスパラメータの値を取得する。
+         *
+         * @param path 本ルートに一致するリクエストパス
+         * @return パスパラメータの名前と値
+         */
+        public Map<String, String> getParameters(String path) {
+            if (parameterNames.length == 0) {
+                return Collections.emptyMap();
+            }
+            final String[] segments = split(path);
+            final Map<String, String> parameters = new LinkedHashMap<String, String>();
+            for (int i = 0; i < parameterNames.length; i++) {
+                parameters.put(parameterNames[i], segments[parameterPositions[i]]);
+            }
+            return parameters;
+        }
+    }
+
+    /**
+     * 索引の節（パスのセグメント）。<br>
+     * <br>
+     * 索引の構築後は変更しない。
+     */
+    private static final class Segment {
+
+        /** 固定値のセグメントの子 */
+        private final Map<String, Segment> children = new HashMap<String, Segment>();
+
+        /** 「:」で始まるセグメントの子 */
+        private Segment wildcard;
+
+        /** 終端となるルート（終端でない場合はnull） */
+        private Route route;
+
+        /**
+         * ルートを追加する。<br>
+         * <br>
+         * 同じパスのルートが既に存在する場合は、先に追加したルートを残す。
+         *
+         * @param segments ルートのパスのセグメント
+         * @param element ルートを定義する要素
+         * @param order ルーティング定義での順序
+         * @return 追加できた場合はtrue。索引で再現できないセグメントを含む場合はfalse
+         */
+        boolean add(String[] segments, Element element, int order) {
+            final List<String> parameterNames = new ArrayList<String>();
+            final List<Integer> parameterPositions = new ArrayList<Integer>();
+            Segment current = this;
+            for (int i = 0; i < segments.length; i++) {
+                final String segment = segments[i];
+                if (segment.indexOf('*') >= 0 || segment.indexOf('(') >= 0 || segment.indexOf(')') >= 0
+                        || segment.indexOf(':', 1) >= 0) {
+                    return false;
+                }
+                if (segment.charAt(0) == ':') {
+                    if (segment.length() == 1) {
+                        return false;
+                    }
+                    parameterNames.add(segment.substring(1));
+                    parameterPositions.add(i);
+                    if (current.wildcard == null) {
+                        current.wildcard = new Segment();
+                    }
+                    current = current.wildcard;
+                } else {
+                    Segment child = current.children.get(segment);
+                    if (child == null) {
+                        child = new Segment();
+                        current.children.put(segment, child);
+                    }
+                    current = child;
+                }
+            }
+            if (current.route == null) {
+                current.route = new Route(element.getAttribute("controller"), element.getAttribute("action"),
+                        parameterNames, parameterPositions, order);
+            }
+            return true;
+        }
+
+        /**
+         * パスのセグメントに一致するルートを検索する。<br>
+         * <br>
+         * 固定値のセグメント、「:」で始まるセグメントの両方で検索し、ルーティング定義で先に定義されたルートを返す。
+         *
+         * @param segments パスのセグメント
+         * @param index 判定するセグメントの位置
+         * @return 一致するルート。存在しない場合はnull
+         */
+        Route find(String[] segments, int index) {
+            if (index == segments.length) {
+                return route;
+            }
+            final String segment = segments[index];
+            final Segment child = children.get(segment);
+            Route found = child == null ? null : child.find(segments, index + 1);
+            if (wildcard != null && segment.indexOf('.') < 0 && segment.indexOf('?') < 0) {
+                final Route candidate = wildcard.find(segments, index + 1);
+                if (candidate != null && (found == null || candidate.order < found.order)) {
+                    found = candidate;
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package oscana.s2n.handler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * ルーティング定義ファイル（routes.xml）を読み込むクラス。
+ */
+final class RoutesDocument {
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private RoutesDocument() {
+    }
+
+    /**
+     * ルーティング定義ファイルのURLを取得する。
+     *
+     * @param routes ルーティング定義ファイルのパス（クラスパス上のパス）
+     * @return URL。存在しない場合はnull
+     */
+    static URL find(String routes) {
+        return Thread.currentThread().getContextClassLoader().getResource(routes);
+    }
+
+    /**
+     * ルーティング定義ファイルを読み込む。<br>
+     * <br>
+     * 外部エンティティは展開しない。
+     *
+     * @param url ルーティング定義ファイルのURL
+     * @param routes ルーティング定義ファイルのパス（エラーメッセージ用）
+     * @return 読み込んだドキュメント
+     * @throws IllegalStateException 読み込みに失敗した場合
+     */
+    static Document parse(URL url, String routes) {
+        try {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setExpandEntityReferences(false);
+            final DocumentBuilder builder = factory.newDocumentBuilder();
+            try (InputStream in = url.openStream()) {
+                return builder.parse(in);
+            }
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        } catch (SAXException e) {
+            throw new IllegalStateException("invalid routes file. routes=[" + routes + "]", e);
+        } catch (IOException e) {
+            throw new IllegalStateException("failed to read routes file. routes=[" + routes + "]", e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package oscana.s2n.handler;
+
+import nablarch.core.util.StringUtil;
+import nablarch.integration.router.RoutesMapping;
+
+/**
+ * 互換ライブラリからルーティング定義の設定を参照できるようにした{@link RoutesMapping}。<br>
+ * <br>
+ * ルーティング定義の索引（{@link RouteIndex}）、アクションのメタ情報の事前構築（{@link ActionWarmUp}）、
+ * JSPの事前コンパイル（{@link ViewPrecompileHandler}）は、本クラスに設定されたルーティング定義ファイル、
+ * 更新を確認する間隔、アクションクラスのパッケージを使用する。
+ * これらの設定を個別に指定する必要はない。<br>
+ * {@link RoutesMapping}の代わりに本クラスをコンポーネント定義に登録する。
+ * コンポーネント名が"packageMapping"以外の場合は、
+ * {@link oscana.s2n.common.S2NConfig#setRoutesMappingName(String)}にコンポーネント名を設定する。
+ * <pre>
+ * &lt;component name="packageMapping" class="oscana.s2n.handler.S2NRoutesMapping"&gt;
+ *   &lt;property name="routes" value="routes.xml" /&gt;
+ *   &lt;property name="checkInterval" value="${nablarch.routesMapping.checkInterval}" /&gt;
+ *   &lt;property name="basePackage" value="${nablarch.commonProperty.basePackage}" /&gt;
+ *   ...
+ * &lt;/component&gt;
+ * </pre>
+ */
+public class S2NRoutesMapping extends RoutesMapping {
+
+    /** アクションクラス名のサフィックス */
+    private static final String ACTION_SUFFIX = "Action";
+
+    /** ルーティング定義ファイルのパス */
+    private String routes = "routes.xml";
+
+    /** ルーティング定義ファイルの更新を確認する間隔（ミリ秒） */
+    private long checkInterval;
+
+    /** アクションクラスのパッケージ */
+    private String basePackage;
+
+    /** ルーティング定義のパスの前に付与するベースURI */
+    private String baseUri = "";
+
+    /**
+     * controller属性の値に対応するアクションクラス名を取得する。<br>
+     * <br>
+     * ルーティングと同様に、controller属性の最後の要素の先頭を大文字に変換し、"Action"を付与する。
+     * （例："sample.sampleSearchList" → "パッケージ.sample.SampleSearchListAction"）
+     *
+     * @param basePackage アクションクラスのパッケージ
+     * @param controller controller属性の値
+     * @return アクションクラス名
+     */
+    static String toActionClassName(String basePackage, String controller) {
+        final int lastDot = controller.lastIndexOf('.');
+        final StringBuilder name = new StringBuilder();
+        if (!StringUtil.isNullOrEmpty(basePackage)) {
+            name.append(basePackage).append('.');
+        }
+        return name.append(controller, 0, lastDot + 1)
+                .append(Character.toUpperCase(controller.charAt(lastDot + 1)))
+                .append(controller, lastDot + 2, controller.length())
+                .append(ACTION_SUFFIX)
+                .toString();
+    }
+
+    /**
+     * controller属性の値に対応するアクションクラスをロードする。
+     *
+     * @param basePackage アクションクラスのパッケージ
+     * @param controller controller属性の値
+     * @return アクションクラス。ロードできない場合はnull
+     */
+    static Class<?> loadActionClass(String basePackage, String controller) {
+        try {
+            return Class.forName(toActionClassName(basePackage, controller), true,
+                    Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * ルーティング定義ファイルのパスを取得する。
+     * @return ルーティング定義ファイルのパス
+     */
+    public String getRoutes() {
+        return routes;
+    }
+
+    @Override
+    public void setRoutes(String routes) {
+        super.setRoutes(routes);
+        this.routes = routes;
+    }
+
+    /**
+     * ルーティング定義ファイルの更新を確認する間隔（ミリ秒）を取得する。
+     * @return 更新を確認する間隔
+     */
+    public long getCheckInterval() {
+        return checkInterval;
+    }
+
+    @Override
+    public void setCheckInterval(long checkInterval) {
+        super.setCheckInterval(checkInterval);
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * アクションクラスのパッケージを取得する。
+     * @return アクションクラスのパッケージ
+     */
+    public String getBasePackage() {
+        return basePackage;
+    }
+
+    @Override
+    public void setBasePackage(String basePackage) {
+        super.setBasePackage(basePackage);
+        this.basePackage = basePackage;
+    }
+
+    /**
+     * ルーティング定義のパスの前に付与するベースURIを取得する。
+     * @return ベースURI（設定されていない場合は空文字）
+     */
+    public String getBaseUri() {
+        return baseUri;
+    }
+
+    @Override
+    public void setBaseUri(String baseUri) {
+        super.setBaseUri(baseUri);
+        this.baseUri = baseUri == null ? "" : baseUri;
+    }
+}
@@ -11,24 +11,23 @@
  */
 package oscana.s2n.handler;
 
-import java.io.Serializable;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import nablarch.core.ThreadContext;
 import nablarch.fw.ExecutionContext;
-import nablarch.fw.Handler;
 import nablarch.fw.HandlerWrapper;
-import nablarch.fw.Interceptor;
 import nablarch.fw.MethodBinder;
-import nablarch.fw.dicontainer.nablarch.Containers;
 import nablarch.fw.handler.MethodBinding;
 import nablarch.fw.web.HttpRequest;
+import oscana.s2n.common.S2NConfigFinder;
 import oscana.s2n.common.S2NConstants;
-import oscana.s2n.struts.OscanaHttpResourceConverUtil;
+import oscana.s2n.validation.ValidateTarget;
 
 /**
  * アクションのbeforeExecute/afterExecuteに対応したメソッドバインディングを作成する{@link MethodBinder}。
+ * <p/>
+ * アクションメソッドの呼び出し処理は{@link ActionPipeline}としてアクションクラスとメソッド名の組み合わせ単位にキャッシュし、
+ * リクエスト毎のメソッドの検索、インターセプタの組み立ては行わない。
  *
  * @author Naoki Yamamoto
  * @see nablarch.integration.router.RoutesMethodBinder
@@ -38,11 +37,8 @@ public class S2NRoutesMethodBinder implements MethodBinder<HttpRequest, Object>
     /** ディスパッチするメソッド名 */
     private final String methodName;
 
-    /** 前処理メソッド*/
-    private final static String BEFORE_EXECUTE = "beforeExecute";
-
-    /** 後処理メソッド*/
-    private final static String AFTER_EXECUTE = "afterExecute";
+    /** ディスパッチするメソッド名の番号（割り当てられていない場合はnull） */
+    private final Integer methodId;
 
     /**
      * コンストラクタ。
@@ -51,6 +47,7 @@ public class S2NRoutesMethodBinder implements MethodBinder<HttpRequest, Object>
      */
     public S2NRoutesMethodBinder(final String methodName) {
         this.methodName = methodName;
+        this.methodId = ValidateTarget.findMethodId(methodName);
     }
 
     @Override
@@ -60,13 +57,8 @@ public class S2NRoutesMethodBinder implements MethodBinder<HttpRequest, Object>
             /**
              * アクションを呼び出す。
              * <p/>
-             * 下記の順に処理を行う。
-             * <ul>
-             * <li>アクションにbeforeExecuteが存在する場合はbeforeExecuteを呼び出し、beforeExecuteの結果が存在する場合はレスポンスを作り保持する。</li>
-             * <li>レスポンスがない場合はアクションメソッドを呼び出し、アクションメソッドのレスポンスをレスポンスとして保持する。</li>
-             * <li>レスポンス有無に関わらずafterExecuteが存在する場合はafterExecuteを呼び出し、afterExecuteの結果が存在する場合はレスポンスを作り保持する。</li>
-             * <li>最後に保持しているレスポンスを返す。</li>
-             * </ul>
+             * 呼び出し処理の詳細は{@link ActionPipeline}を参照。<br>
+             * アクションへの内部フォーワードを直接呼び出す設定の場合は、{@link ForwardDispatcher}で内部フォーワードを処理する。
              *
              * @param request リクエスト
              * @param context コンテキスト
@@ -74,55 +66,20 @@ public class S2NRoutesMethodBinder implements MethodBinder<HttpRequest, Object>
              */
             @Override
             public Object handle(HttpRequest request, ExecutionContext context) {
-
-                final Method boundMethod = getMethodBoundTo(request, context);
-
-                Handler<HttpRequest, Object> handler = new Handler<HttpRequest, Object>() {
-
-                    @Override
-                    public Object handle(HttpRequest data, ExecutionContext context) {
-                        Serializable form = context.getRequestScopedVar(S2NConstants.FORM);
-                        String actionName = delegate.getClass().getName();
-
-                        Object response = null;
-
-                        HttpResourceHolder httpResourceHolder = Containers.get().getComponent(HttpResourceHolder.class);
-                        httpResourceHolder.setCurrentRequestId(request.getRequestPath());
-
-                        Method beforeExecute = getExecuteMethod(BEFORE_EXECUTE);
-                        if (beforeExecute != null) {
-                            Object result = invokeExecuteMethod(beforeExecute, boundMethod, form);
-                            if (result != null) {
-                                response = OscanaHttpResourceConverUtil.createHttpResponse((String) result, delegate, request, context,
-                                        actionName);
-                            }
-                        }
-
-                        if (response == null) {
-                            response = invokeExecuteMethod(boundMethod, request, context);
-                        }
-
-                        Method afterExecute = getExecuteMethod(AFTER_EXECUTE);
-                        if (afterExecute != null) {
-                            Object result = invokeExecuteMethod(afterExecute, boundMethod, form);
-                            if (result != null) {
-                                response = OscanaHttpResourceConverUtil.createHttpResponse((String) result, delegate, request, context,
-                                        actionName);
-                            }
-                        }
-                        return response;
-                    }
-
-                };
-                return Interceptor.Factory.wrap(handler, boundMethod.getAnnotations())
-                        .handle(request, context);
+                final ActionPipeline pipeline = ActionPipeline.get(delegate.getClass(), methodName);
+                bindMethod(pipeline.getActionMethod(), methodName, methodId, context);
+                final Object response = pipeline.handle(delegate, request, context);
+                if (S2NConfigFinder.getConfig().isDirectForward()) {
+                    return ForwardDispatcher.dispatch(response, request, context);
+                }
+                return response;
             }
 
             /**
              * アクションメソッドを返す。
              * <p/>
              * 後続処理で参照できるようにリクエストスコープにアクションメソッド、
-             * スレッドコンテキストにアクションメソッドの名前を格納する。
+             * スレッドコンテキストにアクションメソッドの名前とその番号を格納する。
              *
              * @param request リクエスト
              * @param context コンテキスト
@@ -130,41 +87,26 @@ public class S2NRoutesMethodBinder implements MethodBinder<HttpRequest, Object>
              */
             @Override
             protected Method getMethodBoundTo(HttpRequest request, ExecutionContext context) {
-                try {
-                    Method method = delegate.getClass().getMethod(methodName, HttpRequest.class,
-                            ExecutionContext.class);
-                    context.setRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_CALL_METHOD, method);
-                    ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, methodName);
-                    return method;
-                } catch (NoSuchMethodException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-
-            private Method getExecuteMethod(String methodName) {
-                try {
-                    return delegate.getClass().getMethod(methodName, Method.class, Object.class);
-                } catch (NoSuchMethodException e) {
-                    return null;
-                }
-            }
-
-            private Object invokeExecuteMethod(Method executeMethod, Object... params) {
-                try {
-                    return executeMethod.invoke(delegate, params);
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
-                } catch (InvocationTargetException e) {
-                    Throwable cause = e.getCause();
-                    if (RuntimeException.class.isAssignableFrom(cause.getClass())) {
-                        throw (RuntimeException) cause;
-                    }
-                    if (Error.class.isAssignableFrom(cause.getClass())) {
-                        throw (Error) cause;
-                    }
-                    throw new RuntimeException(cause);
-                }
+                Method method = ActionPipeline.get(delegate.getClass(), methodName).getActionMethod();
+                bindMethod(method, methodName, methodId, context);
+                return method;
             }
         };
     }
+
+    /**
+     * リクエストスコープにアクションメソッド、スレッドコンテキストにアクションメソッドの名前とその番号を格納する。<br>
+     * <br>
+     * 番号はバリデーションの対象メソッドの判定（{@link ValidateTarget}）に使用する。
+     *
+     * @param method アクションメソッド
+     * @param methodName アクションメソッドの名前
+     * @param methodId アクションメソッドの名前の番号（{@link ValidateTarget#findMethodId(String)}。割り当てられていない場合はnull）
+     * @param context コンテキスト
+     */
+    static void bindMethod(Method method, String methodName, Integer methodId, ExecutionContext context) {
+        context.setRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_CALL_METHOD, method);
+        ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, methodName);
+        ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID, methodId);
+    }
 }
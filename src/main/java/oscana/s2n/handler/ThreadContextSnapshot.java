@@ -0,0 +1,70 @@
+package oscana.s2n.handler;
+
+import java.util.List;
+
+import nablarch.core.ThreadContext;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConfigFinder;
+import oscana.s2n.common.S2NConstants;
+
+/**
+ * {@link ThreadContext}の値を別スレッドに引き継ぐためのクラス。<br>
+ * <br>
+ * リクエストの処理を別スレッドで継続する場合に、元のスレッドで値を取得し、継続先のスレッドで復元する。<br>
+ * {@link ThreadContext}は設定されたキーを列挙できないため、Nablarch、互換ライブラリが使用するキー（{@link #KEYS}）と、
+ * {@link S2NConfig#setThreadContextKeys(List)}に設定されたキーの値のみを引き継ぐ。
+ * それ以外のキーの値は継続先のスレッドで参照できない。
+ */
+final class ThreadContextSnapshot {
+
+    /** 引き継ぐ{@link ThreadContext}のキー */
+    private static final String[] KEYS = {
+            ThreadContext.LANG_KEY,
+            ThreadContext.TIME_ZONE_KEY,
+            ThreadContext.USER_ID_KEY,
+            ThreadContext.REQUEST_ID_KEY,
+            ThreadContext.INTERNAL_REQUEST_ID_KEY,
+            ThreadContext.EXECUTION_ID_KEY,
+            S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME,
+            S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID
+    };
+
+    /** 取得したキー */
+    private final String[] keys;
+
+    /** 取得時点の値 */
+    private final Object[] values;
+
+    /**
+     * コンストラクタ。
+     * @param additionalKeys {@link #KEYS}以外に引き継ぐキー
+     */
+    private ThreadContextSnapshot(List<String> additionalKeys) {
+        keys = new String[KEYS.length + additionalKeys.size()];
+        System.arraycopy(KEYS, 0, keys, 0, KEYS.length);
+        for (int i = 0; i < additionalKeys.size(); i++) {
+            keys[KEYS.length + i] = additionalKeys.get(i);
+        }
+        values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = ThreadContext.getObject(keys[i]);
+        }
+    }
+
+    /**
+     * 現在のスレッドの{@link ThreadContext}の値を取得する。
+     * @return 取得した値
+     */
+    static ThreadContextSnapshot capture() {
+        return new ThreadContextSnapshot(S2NConfigFinder.getConfig().getThreadContextKeys());
+    }
+
+    /**
+     * 取得した値を現在のスレッドの{@link ThreadContext}に設定する。
+     */
+    void restore() {
+        for (int i = 0; i < keys.length; i++) {
+            ThreadContext.setObject(keys[i], values[i]);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package oscana.s2n.handler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import oscana.s2n.struts.OscanaHttpResourceConverUtil;
+import oscana.s2n.struts.action.ForwardRegistry;
+
+/**
+ * ビュー（JSP）の一覧を保持するクラス。<br>
+ * <br>
+ * {@link OscanaHttpResourceConverUtil#VIEW_ROOT}配下のJSPを列挙し、
+ * ルーティング定義に記載されたアクションクラスについて、ビューが存在するかを確認する。
+ * <ul>
+ * <li>{@link oscana.s2n.struts.action.Forward}でJSPのフォーワード先を定義したアクションクラスは、
+ * 定義した各JSPが存在するかを確認する。</li>
+ * <li>それ以外のアクションクラスは、結果のビューをアクションメソッドの戻り値で決めるため、
+ * {@link OscanaHttpResourceConverUtil}の規約で決まるビューのディレクトリ
+ * （{@link OscanaHttpResourceConverUtil#getViewDirectory(Class)}）にJSPが存在するかを確認する。</li>
+ * </ul>
+ * JSPの事前コンパイルは{@link #precompile(HttpServletRequest, HttpServletResponse)}で行う。
+ *
+ * @see ViewPrecompileHandler
+ */
+public final class ViewInventory {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(ViewInventory.class);
+
+    /** JSPの拡張子 */
+    private static final String JSP_SUFFIX = ".jsp";
+
+    /** JSPの事前コンパイルを要求するリクエストパラメータ（JSP仕様で定められたもの） */
+    private static final String PRECOMPILE_PARAMETER = "jsp_precompile";
+
+    /** ビューのパス（昇順） */
+    private final Set<String> views;
+
+    /** ビューが存在しないアクションクラスの名前と、存在しないビューのパスまたはディレクトリ */
+    private final Map<String, Set<String>> unresolved;
+
+    /**
+     * コンストラクタ。
+     * @param views ビューのパス
+     * @param unresolved ビューが存在しないアクションクラスの名前と、存在しないビューのパスまたはディレクトリ
+     */
+    private ViewInventory(Set<String> views, Map<String, Set<String>> unresolved) {
+        this.views = Collections.unmodifiableSet(views);
+        this.unresolved = Collections.unmodifiableMap(unresolved);
+    }
+
+    /**
+     * ビューを列挙する。
+     *
+     * @param servletContext サーブレットコンテキスト
+     * @param routes ルーティング定義ファイルのパス
+     * @param basePackage アクションクラスのパッケージ
+     * @return ビューの一覧
+     * @throws IllegalStateException ルーティング定義ファイルが存在しない場合、読み込めない場合、
+     *                               アクションクラスに同じ名前のフォーワード先が定義されている場合
+     */
+    public static ViewInventory scan(ServletContext servletContext, String routes, String basePackage) {
+        final TreeSet<String> views = new TreeSet<String>();
+        collect(servletContext, OscanaHttpResourceConverUtil.VIEW_ROOT + '/', views);
+
+        final Map<String, Set<String>> unresolved = new TreeMap<String, Set<String>>();
+        for (String route : ActionWarmUp.readRoutes(routes).keySet()) {
+            final Class<?> actionClass = S2NRoutesMapping.loadActionClass(basePackage, route.split("#", 2)[0]);
+            if (actionClass == null || !actionClass.getName().endsWith("Action")
+                    || unresolved.containsKey(actionClass.getName())) {
+                continue;
+            }
+            final Set<String> missing = new TreeSet<String>();
+            final Set<String> declared = ForwardRegistry.getViews(actionClass);
+            if (declared.isEmpty()) {
+                final String directory = OscanaHttpResourceConverUtil.getViewDirectory(actionClass) + '/';
+                if (!containsDirectory(views, directory)) {
+                    missing.add(directory);
+                }
+            } else {
+                for (String view : declared) {
+                    if (!views.contains(view)) {
+                        missing.add(view);
+                    }
+                }
+            }
+            if (!missing.isEmpty()) {
+                unresolved.put(actionClass.getName(), Collections.unmodifiableSet(missing));
+            }
+        }
+        return new ViewInventory(views, unresolved);
+    }
+
+    /**
+     * ビューのパスを取得する。
+     * @return ビューのパス（昇順）
+     */
+    public Set<String> getViews() {
+        return views;
+    }
+
+    /**
+     * ビューが存在しないアクションクラスを取得する。<br>
+     * <br>
+     * 定義したJSPのフォーワード先が存在しない場合はそのパス、
+     * JSPのフォーワード先を定義していない場合はJSPが存在しないビューのディレクトリ（末尾は「/」）を保持する。
+     *
+     * @return アクションクラスの名前と、存在しないビューのパスまたはディレクトリ（昇順）
+     */
+    public Map<String, Set<String>> getUnresolved() {
+        return unresolved;
+    }
+
+    /**
+     * ビューを事前コンパイルする。<br>
+     * <br>
+     * 各ビューを、「jsp_precompile」パラメータを付与したリクエストでインクルードする。
+     * JSPコンテナ（Jasper）はインクルードされたJSPでも、渡されたリクエストのクエリ文字列から
+     * 「jsp_precompile」パラメータを判定するため、ディスパッチするパスにクエリ文字列を付与しても
+     * 元のリクエストのクエリ文字列で判定され、JSPが実行されてしまう。
+     * そのため、パスにはクエリ文字列を付与せず、クエリ文字列とパラメータを差し替えたリクエストを渡す。
+     * JSPコンテナはJSPをコンパイルし、実行はしない。
+     *
+     * @param request リクエスト
+     * @param response レスポンス
+     * @return コンパイルに失敗したビューのパス
+     */
+    public List<String> precompile(HttpServletRequest request, HttpServletResponse response) {
+        final List<String> failures = new ArrayList<String>();
+        final HttpServletRequest precompileRequest = new PrecompileRequest(request);
+        for (String view : views) {
+            final RequestDispatcher dispatcher = request.getRequestDispatcher(view);
+            try {
+                if (dispatcher == null) {
+                    LOGGER.logWarn("failed to precompile view. dispatcher not found. view=[" + view + "]");
+                    failures.add(view);
+                    continue;
+                }
+                dispatcher.include(precompileRequest, response);
+            } catch (ServletException | IOException | RuntimeException e) {
+                LOGGER.logWarn("failed to precompile view. view=[" + view + "]", e);
+                failures.add(view);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * ディレクトリ配下のJSPを再帰的に収集する。
+     *
+     * @param servletContext サーブレットコンテキスト
+     * @param directory ディレクトリ（末尾は「/」）
+     * @param views 収集先
+     */
+    private static void collect(ServletContext servletContext, String directory, Set<String> views) {
+        final Set<String> paths = servletContext.getResourcePaths(directory);
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths) {
+            if (path.endsWith("/")) {
+                collect(servletContext, path, views);
+            } else if (path.endsWith(JSP_SUFFIX)) {
+                views.add(path);
+            }
+        }
+    }
+
+    /**
+     * ディレクトリ配下のビューが存在するか否かを判定する。
+     *
+     * @param views ビューのパス（昇順）
+     * @param directory ディレクトリ（末尾は「/」）
+     * @return 存在する場合はtrue
+     */
+    private static boolean containsDirectory(TreeSet<String> views, String directory) {
+        final String next = views.ceiling(directory);
+        return next != null && next.startsWith(directory);
+    }
+
+    /**
+     * JSPの事前コンパイルを要求するリクエスト。<br>
+     * <br>
+     * クエリ文字列とリクエストパラメータを「jsp_precompile=true」のみとする。
+     */
+    private static final class PrecompileRequest extends HttpServletRequestWrapper {
+
+        /** リクエストパラメータ */
+        private static final Map<String, String[]> PARAMETERS =
+                Collections.singletonMap(PRECOMPILE_PARAMETER, new String[] {"true"});
+
+        /**
+         * コンストラクタ。
+         * @param request リクエスト
+         */
+        private PrecompileRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getQueryString() {
+            return PRECOMPILE_PARAMETER + "=true";
+        }
+
+        @Override
+        public String getParameter(String name) {
+            return PRECOMPILE_PARAMETER.equals(name) ? "true" : null;
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return PRECOMPILE_PARAMETER.equals(name) ? new String[] {"true"} : null;
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return PARAMETERS;
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(PARAMETERS.keySet());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package oscana.s2n.handler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.Handler;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.HttpResponse;
+import nablarch.fw.web.servlet.ServletExecutionContext;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConfigFinder;
+
+/**
+ * ビュー（JSP）の一覧の作成と事前コンパイルを行うハンドラ。<br>
+ * <br>
+ * {@link #setPath(String)}に指定したパスへのリクエストを受けた場合に、{@link ViewInventory}でビューを列挙して事前コンパイルし、
+ * 結果をテキストで返す。それ以外のリクエストは後続のハンドラに委譲する。<br>
+ * デプロイ後、利用者のリクエストを受け付ける前にこのパスを呼び出すことで、初回アクセス時のJSPのコンパイルを回避できる。<br>
+ * サーブレットコンテナはJSPのコンパイルをリクエストの処理中にのみ行うため、起動処理（初期化処理）ではなくハンドラとして実行する。<br>
+ * <br>
+ * ルーティング定義ファイル、アクションクラスのパッケージは{@link S2NRoutesMapping}に設定された値を使用する。<br>
+ * <br>
+ * 事前コンパイルは負荷の高い処理のため、デフォルトでは無効とする。使用する場合は{@link #setEnabled(boolean)}にtrue、
+ * {@link #setSecret(String)}に共有シークレットを設定し、リクエストヘッダ「X-View-Precompile-Secret」に同じ値を指定して呼び出す。
+ * 無効の場合、シークレットが設定されていない場合、リクエストヘッダの値が一致しない場合は後続のハンドラに委譲する。
+ * 送信元のアドレスはリバースプロキシを経由すると判定できないため使用しない。
+ * シークレットは環境ごとに設定し、ソースコードに含めないこと。
+ * <pre>
+ * &lt;component class="oscana.s2n.handler.ViewPrecompileHandler"&gt;
+ *   &lt;property name="enabled" value="true" /&gt;
+ *   &lt;property name="path" value="/precompileViews" /&gt;
+ *   &lt;property name="secret" value="${s2n.viewPrecompile.secret}" /&gt;
+ * &lt;/component&gt;
+ * </pre>
+ */
+public class ViewPrecompileHandler implements Handler<HttpRequest, Object> {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(ViewPrecompileHandler.class);
+
+    /** 共有シークレットを指定するリクエストヘッダ */
+    static final String SECRET_HEADER = "X-View-Precompile-Secret";
+
+    /** 事前コンパイルを行うか否か */
+    private boolean enabled = false;
+
+    /** 事前コンパイルを行うリクエストのパス */
+    private String path;
+
+    /** 共有シークレット */
+    private byte[] secret;
+
+    /**
+     * 事前コンパイルを行うリクエストの場合はビューを事前コンパイルし、それ以外は後続のハンドラに委譲する。
+     *
+     * @param request リクエスト
+     * @param context 実行コンテキスト
+     * @return 結果データ
+     */
+    @Override
+    public Object handle(HttpRequest request, ExecutionContext context) {
+        if (!enabled || path == null || !path.equals(request.getRequestPath())) {
+            return context.handleNext(request);
+        }
+        final ServletExecutionContext servletContext = (ServletExecutionContext) context;
+        if (!isAuthorized(servletContext.getServletRequest().getHeader(SECRET_HEADER))) {
+            LOGGER.logWarn("view precompile request rejected. secret is not configured or does not match.");
+            return context.handleNext(request);
+        }
+
+        final S2NConfig config = S2NConfigFinder.getConfig();
+        final ViewInventory inventory = ViewInventory.scan(servletContext.getServletContext(), config.getRoutes(),
+                config.getBasePackage());
+        final List<String> failures = inventory.precompile(servletContext.getServletRequest(),
+                servletContext.getServletResponse());
+
+        final StringBuilder report = new StringBuilder();
+        report.append("views=[").append(inventory.getViews().size())
+                .append("] failed=[").append(failures.size())
+                .append("] unresolved=[").append(inventory.getUnresolved().size()).append(']');
+        LOGGER.logInfo("view precompile completed. " + report);
+        report.append(System.lineSeparator());
+        for (String failure : failures) {
+            report.append("failed: ").append(failure).append(System.lineSeparator());
+        }
+        for (Map.Entry<String, Set<String>> entry : inventory.getUnresolved().entrySet()) {
+            for (String view : entry.getValue()) {
+                LOGGER.logWarn("view not found. action=[" + entry.getKey() + "] view=[" + view + "]");
+                report.append("unresolved: ").append(entry.getKey()).append(' ').append(view)
+                        .append(System.lineSeparator());
+            }
+        }
+        return new HttpResponse(200).setContentType("text/plain;charset=UTF-8").write(report.toString());
+    }
+
+    /**
+     * リクエストヘッダに指定された共有シークレットが、設定された共有シークレットと一致するか否かを判定する。<br>
+     * <br>
+     * 比較に要する時間から値を推測されないよう、{@link MessageDigest#isEqual(byte[], byte[])}で比較する。
+     *
+     * @param value リクエストヘッダの値
+     * @return 一致する場合はtrue。共有シークレットが設定されていない場合はfalse
+     */
+    private boolean isAuthorized(String value) {
+        return secret != null && value != null
+                && MessageDigest.isEqual(secret, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 事前コンパイルを行うか否かを設定する。デフォルトはfalse。
+     *
+     * @param enabled 事前コンパイルを行う場合はtrue
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 事前コンパイルを行うリクエストのパスを設定する。
+     *
+     * @param path リクエストのパス
+     */
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * 共有シークレットを設定する。<br>
+     * <br>
+     * 事前コンパイルを要求するリクエストには、リクエストヘッダ「X-View-Precompile-Secret」に同じ値を指定する。
+     * 空文字の場合は設定されていないものとする。
+     *
+     * @param secret 共有シークレット
+     */
+    public void setSecret(String secret) {
+        this.secret = secret == null || secret.isEmpty() ? null : secret.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,215 @@
+package oscana.s2n.handler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+
+import nablarch.core.ThreadContext;
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.Handler;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.HttpResponse;
+import nablarch.fw.web.handler.HttpResponseHandler;
+import nablarch.fw.web.servlet.ServletExecutionContext;
+
+/**
+ * 後続のハンドラを仮想スレッドで実行するクラス。<br>
+ * <br>
+ * 実行環境が仮想スレッドをサポートする場合、リクエストを{@link AsyncContext}で中断し、後続のハンドラを仮想スレッドで実行する。
+ * コンテナのスレッドは中断時点で解放されるため、データベースアクセス等で待機するリクエストが同時に多数存在しても、
+ * コンテナのスレッドを占有しない。<br>
+ * 後続のハンドラの結果は{@link AsyncResponseWriter}で応答する。<br>
+ * <br>
+ * 以下の場合は後続のハンドラを現在のスレッドでそのまま実行する。
+ * <ul>
+ * <li>実行環境が仮想スレッドをサポートしない場合（Java 21未満）</li>
+ * <li>{@link #setEnabled(boolean)}でfalseが設定されている場合</li>
+ * <li>リクエストが非同期処理をサポートしない場合、既に中断されている場合</li>
+ * </ul>
+ * <br>
+ * 本ハンドラは以下の位置に設定すること。
+ * <ul>
+ * <li>{@link HttpResponseHandler}より後。本ハンドラが後続のハンドラの結果で応答するため、
+ * {@link HttpResponseHandler}が後続にある場合は二重に応答することになる。
+ * 後続のハンドラに{@link HttpResponseHandler}が存在する場合は{@link IllegalStateException}を送出する。</li>
+ * <li>DIコンテナのリクエストスコープを設定するハンドラ(NablarchWebContextHandler)より前。
+ * リクエストスコープのコンポーネントを仮想スレッドで解決するため。</li>
+ * <li>SessionStoreHandler、DbConnectionManagementHandler、TransactionManagementHandler、ForwardingHandler、
+ * ThreadContextHandlerより前。
+ * 後続のハンドラを仮想スレッドで実行する場合、本ハンドラより前のハンドラにはnullを返し、前のハンドラの後処理は応答より前に実行される。
+ * これらのハンドラが前にある場合、セッションストアへの保存、トランザクションの終了が仮想スレッドでの処理より前に行われるため、
+ * {@link IllegalStateException}を送出する（コンポーネント定義に"webFrontController"が登録されている場合に検証する）。</li>
+ * </ul>
+ * <pre>
+ * HttpCharacterEncodingHandler
+ * HttpResponseHandler
+ * VirtualThreadHandler
+ * NablarchWebContextHandler
+ * HttpResourceHolderHandler
+ * SessionStoreHandler
+ * ThreadContextHandler
+ * ...
+ * </pre>
+ * 前のハンドラ（{@link HttpResponseHandler}など）はnullの結果に対して応答を書き込まないこと。<br>
+ * ThreadContextHandlerを本ハンドラより後に配置するため、{@link nablarch.core.ThreadContext}の値は仮想スレッドで設定される。
+ * 本ハンドラより前に設定された値は、Nablarch、互換ライブラリが使用するキーと
+ * {@link oscana.s2n.common.S2NConfig#setThreadContextKeys(java.util.List)}に設定されたキーの値のみ仮想スレッドに引き継ぐ。
+ */
+public class VirtualThreadHandler implements Handler<HttpRequest, Object> {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(VirtualThreadHandler.class);
+
+    /** 仮想スレッドでタスクを実行する{@link ExecutorService}（実行環境が仮想スレッドをサポートしない場合はnull） */
+    private static final ExecutorService VIRTUAL_THREAD_EXECUTOR = createExecutor();
+
+    /** 本ハンドラより前に配置できないハンドラ（{@link AsyncHandlerPlacement}で検証するもの以外） */
+    private static final String THREAD_CONTEXT_HANDLER = "nablarch.common.handler.threadcontext.ThreadContextHandler";
+
+    /** 後続のハンドラを実行する{@link ExecutorService}（実行環境が仮想スレッドをサポートしない場合はnull） */
+    private final ExecutorService executor;
+
+    /** 後続のハンドラを仮想スレッドで実行するか否か */
+    private boolean enabled = true;
+
+    /**
+     * コンストラクタ。
+     */
+    public VirtualThreadHandler() {
+        this(VIRTUAL_THREAD_EXECUTOR);
+    }
+
+    /**
+     * 後続のハンドラを実行する{@link ExecutorService}を指定するコンストラクタ。<br>
+     * <br>
+     * 仮想スレッドをサポートしない実行環境で、中断と応答の処理をテストするために使用する。
+     *
+     * @param executor 後続のハンドラを実行する{@link ExecutorService}
+     */
+    VirtualThreadHandler(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 後続のハンドラを仮想スレッドで実行するか否かを設定する。
+     * @param enabled 仮想スレッドで実行する場合はtrue（デフォルトはtrue）
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 実行環境が仮想スレッドをサポートするか否かを判定する。
+     * @return 仮想スレッドをサポートする場合はtrue
+     */
+    public static boolean isSupported() {
+        return VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * ハンドラーで処理する。<br>
+     * <br>
+     * 後続のハンドラを仮想スレッドで実行する場合、リクエストを中断してnullを返す。
+     *
+     * @param request リクエスト
+     * @param context 実行コンテキスト
+     * @return 結果データ
+     * @throws IllegalStateException 後続のハンドラに{@link HttpResponseHandler}が存在する場合、
+     *                               前のハンドラにSessionStoreHandlerなど本ハンドラより後に配置すべきハンドラが存在する場合
+     */
+    @Override
+    public Object handle(final HttpRequest request, final ExecutionContext context) {
+        if (!enabled) {
+            return context.handleNext(request);
+        }
+        verifyHandlerQueue(context);
+        AsyncHandlerPlacement.verify(context, "VirtualThreadHandler", THREAD_CONTEXT_HANDLER);
+        if (executor == null) {
+            return context.handleNext(request);
+        }
+        HttpServletRequest servletRequest = ((ServletExecutionContext) context).getServletRequest();
+        if (!servletRequest.isAsyncSupported() || servletRequest.isAsyncStarted()) {
+            return context.handleNext(request);
+        }
+
+        final AsyncContext asyncContext = servletRequest.startAsync();
+        final ThreadContextSnapshot threadContext = ThreadContextSnapshot.capture();
+        executor.execute(() -> handleNext(request, context, asyncContext, threadContext));
+        return null;
+    }
+
+    /**
+     * 後続のハンドラに{@link HttpResponseHandler}が存在しないことを検証する。
+     *
+     * @param context 実行コンテキスト
+     * @throws IllegalStateException 後続のハンドラに{@link HttpResponseHandler}が存在する場合
+     */
+    private static void verifyHandlerQueue(ExecutionContext context) {
+        for (Object handler : context.getHandlerQueue()) {
+            if (handler instanceof HttpResponseHandler) {
+                throw new IllegalStateException(
+                        "VirtualThreadHandler must be placed after HttpResponseHandler in the handler queue.");
+            }
+        }
+    }
+
+    /**
+     * 後続のハンドラを実行し、結果で応答する。<br>
+     * <br>
+     * 後続のハンドラで非同期アクションにより応答が保留された場合は、非同期アクションの完了時に応答する。
+     *
+     * @param request リクエスト
+     * @param context 実行コンテキスト
+     * @param asyncContext 中断したリクエストの{@link AsyncContext}
+     * @param threadContext 中断時点の{@link ThreadContext}の値
+     */
+    private static void handleNext(HttpRequest request, ExecutionContext context, AsyncContext asyncContext,
+            ThreadContextSnapshot threadContext) {
+        threadContext.restore();
+        try {
+            Object result = context.handleNext(request);
+            if (AsyncActionCompletion.isSuspended(context)) {
+                return;
+            }
+            if (result != null && !(result instanceof HttpResponse)) {
+                throw new IllegalStateException(
+                        "unsupported result type. type = [" + result.getClass().getName() + "]");
+            }
+            AsyncResponseWriter.respond(asyncContext, result == null ? new HttpResponse(200) : (HttpResponse) result);
+        } catch (Throwable e) {
+            LOGGER.logError("request failed on virtual thread. path = [" + request.getRequestPath() + "]", e);
+            AsyncResponseWriter.sendError(asyncContext);
+        } finally {
+            ThreadContext.clear();
+        }
+    }
+
+    /**
+     * 仮想スレッドでタスクを実行する{@link ExecutorService}を生成する。<br>
+     * <br>
+     * Java 8でコンパイルできるように、{@link Executors}のnewVirtualThreadPerTaskExecutorメソッドはリフレクションで呼び出す。
+     *
+     * @return {@link ExecutorService}。実行環境が仮想スレッドをサポートしない場合はnull
+     */
+    private static ExecutorService createExecutor() {
+        final Method factory;
+        try {
+            factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // プレビュー機能が無効な場合など
+            LOGGER.logInfo("virtual threads are not available.", e);
+            return null;
+        }
+    }
+}
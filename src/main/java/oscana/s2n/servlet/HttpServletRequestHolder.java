@@ -9,7 +9,7 @@ import java.util.Enumeration;
 import java.util.Locale;
 import java.util.Map;
 
-import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.servlet.AsyncContext;
 import javax.servlet.DispatcherType;
 import javax.servlet.RequestDispatcher;
@@ -25,7 +25,6 @@ import javax.servlet.http.HttpSession;
 import javax.servlet.http.HttpUpgradeHandler;
 import javax.servlet.http.Part;
 
-import nablarch.fw.dicontainer.web.RequestScoped;
 import oscana.s2n.handler.HttpResourceHolder;
 
 /**
@@ -42,6 +41,10 @@ import oscana.s2n.handler.HttpResourceHolder;
  * ・リソースホルダーにはサーブレットリソースへの参照を持たせることができ、アプリケーションがリソースホルダーの各メソッドを呼び出すとサーブレットリソースに移譲される仕組みである。<br>
  * ・HttpResourceHolderHandler,HttpResourceHolderUpdateHandlerがリソースホルダーにサーブレットリソースへの参照を登録する。<br>
  * <br>
+ * 本クラスはアプリケーションで共有するインスタンス(シングルトン)であり、リクエスト毎に生成、注入を行わない。
+ * 各メソッドは現在のスレッドで処理しているリクエストのサーブレットリソースに移譲する。<br>
+ * DIコンテナの管理外で使用する場合は{@link ServletResourceHolders}から取得する。<br>
+ * <br>
  *
  * [構成]<br>
  * ■リソースホルダ<br>
@@ -56,22 +59,36 @@ import oscana.s2n.handler.HttpResourceHolder;
  *
  * @author Fumihiko Yamamoto
  */
-@RequestScoped
+@Singleton
 public class HttpServletRequestHolder implements HttpServletRequest {
 
     /**
-     * HttpResourceHolder(DI用)
+     * HttpResourceHolder(移譲先を固定する場合に設定する)
      */
-    @Inject
     public HttpResourceHolder holder;
 
+    /**
+     * サーブレットリソースへの参照を取得する。<br>
+     * <br>
+     * 現在のスレッドに関連付けられた参照が存在する場合はそれを使用する。
+     * 存在しない場合は設定された参照、設定されていない場合はDIコンテナから取得した参照を使用する。
+     * @return サーブレットリソースへの参照
+     */
+    private HttpResourceHolder holder() {
+        HttpResourceHolder bound = HttpResourceHolder.bound();
+        if (bound != null) {
+            return bound;
+        }
+        return holder != null ? holder : HttpResourceHolder.current();
+    }
+
     /**
      * 属性を取得する。
      * @param name 名
      * @return オブジェクト
      */
     public Object getAttribute(String name) {
-        return holder.getHttpServletRequest().getAttribute(name);
+        return holder().getHttpServletRequest().getAttribute(name);
     }
 
     /**
@@ -79,7 +96,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return AuthType
      */
     public String getAuthType() {
-        return holder.getHttpServletRequest().getAuthType();
+        return holder().getHttpServletRequest().getAuthType();
     }
 
     /**
@@ -88,7 +105,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return クッキー配列
      */
     public Cookie[] getCookies() {
-        return holder.getHttpServletRequest().getCookies();
+        return holder().getHttpServletRequest().getCookies();
     }
 
     /**
@@ -96,7 +113,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return Enumerationオブジェクト
      */
     public Enumeration<String> getAttributeNames() {
-        return holder.getHttpServletRequest().getAttributeNames();
+        return holder().getHttpServletRequest().getAttributeNames();
     }
 
     /**
@@ -105,7 +122,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return 結果
      */
     public long getDateHeader(String name) {
-        return holder.getHttpServletRequest().getDateHeader(name);
+        return holder().getHttpServletRequest().getDateHeader(name);
     }
 
     /**
@@ -113,7 +130,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return エンコーディング
      */
     public String getCharacterEncoding() {
-        return holder.getHttpServletRequest().getCharacterEncoding();
+        return holder().getHttpServletRequest().getCharacterEncoding();
     }
 
     /**
@@ -122,7 +139,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @throws UnsupportedEncodingException UnsupportedEncodingException例外
      */
     public void setCharacterEncoding(String env) throws UnsupportedEncodingException {
-        holder.getHttpServletRequest().setCharacterEncoding(env);
+        holder().getHttpServletRequest().setCharacterEncoding(env);
     }
 
     /**
@@ -132,7 +149,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return ヘッダー
      */
     public String getHeader(String name) {
-        return holder.getHttpServletRequest().getHeader(name);
+        return holder().getHttpServletRequest().getHeader(name);
     }
 
     /**
@@ -141,7 +158,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return コンテンツの長さ
      */
     public int getContentLength() {
-        return holder.getHttpServletRequest().getContentLength();
+        return holder().getHttpServletRequest().getContentLength();
     }
 
     /**
@@ -150,7 +167,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return コンテンツのタイプ
      */
     public String getContentType() {
-        return holder.getHttpServletRequest().getContentType();
+        return holder().getHttpServletRequest().getContentType();
     }
 
     /**
@@ -159,7 +176,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return Enumeration
      */
     public Enumeration<String> getHeaders(String name) {
-        return holder.getHttpServletRequest().getHeaders(name);
+        return holder().getHttpServletRequest().getHeaders(name);
     }
 
     /**
@@ -167,7 +184,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return 入力ストリーム
      */
     public ServletInputStream getInputStream() throws IOException {
-        return holder.getHttpServletRequest().getInputStream();
+        return holder().getHttpServletRequest().getInputStream();
     }
 
     /**
@@ -177,7 +194,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return パラメータ
      */
     public String getParameter(String name) {
-        return holder.getHttpServletRequest().getParameter(name);
+        return holder().getHttpServletRequest().getParameter(name);
     }
 
     /**
@@ -185,7 +202,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return Enumeration
      */
     public Enumeration<String> getHeaderNames() {
-        return holder.getHttpServletRequest().getHeaderNames();
+        return holder().getHttpServletRequest().getHeaderNames();
     }
 
     /**
@@ -194,7 +211,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return int型のヘッダー値
      */
     public int getIntHeader(String name) {
-        return holder.getHttpServletRequest().getIntHeader(name);
+        return holder().getHttpServletRequest().getIntHeader(name);
     }
 
     /**
@@ -202,7 +219,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return Enumeration
      */
     public Enumeration<String> getParameterNames() {
-        return holder.getHttpServletRequest().getParameterNames();
+        return holder().getHttpServletRequest().getParameterNames();
     }
 
     /**
@@ -210,7 +227,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return メソッド
      */
     public String getMethod() {
-        return holder.getHttpServletRequest().getMethod();
+        return holder().getHttpServletRequest().getMethod();
     }
 
     /**
@@ -219,7 +236,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return パラメータの値
      */
     public String[] getParameterValues(String name) {
-        return holder.getHttpServletRequest().getParameterValues(name);
+        return holder().getHttpServletRequest().getParameterValues(name);
     }
 
     /**
@@ -227,7 +244,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return パス情報
      */
     public String getPathInfo() {
-        return holder.getHttpServletRequest().getPathInfo();
+        return holder().getHttpServletRequest().getPathInfo();
     }
 
     /**
@@ -236,7 +253,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return マップ型のパラメータ
      */
     public Map<String, String[]> getParameterMap() {
-        return holder.getHttpServletRequest().getParameterMap();
+        return holder().getHttpServletRequest().getParameterMap();
     }
 
     /**
@@ -245,7 +262,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return パスを取得する。
      */
     public String getPathTranslated() {
-        return holder.getHttpServletRequest().getPathTranslated();
+        return holder().getHttpServletRequest().getPathTranslated();
     }
 
     /**
@@ -254,7 +271,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return プロトコル
      */
     public String getProtocol() {
-        return holder.getHttpServletRequest().getProtocol();
+        return holder().getHttpServletRequest().getProtocol();
     }
 
     /**
@@ -263,7 +280,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return スキーマ
      */
     public String getScheme() {
-        return holder.getHttpServletRequest().getScheme();
+        return holder().getHttpServletRequest().getScheme();
     }
 
     /**
@@ -272,7 +289,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return コンテストパス
      */
     public String getContextPath() {
-        return holder.getHttpServletRequest().getContextPath();
+        return holder().getHttpServletRequest().getContextPath();
     }
 
     /**
@@ -281,7 +298,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return サーバー名
      */
     public String getServerName() {
-        return holder.getHttpServletRequest().getServerName();
+        return holder().getHttpServletRequest().getServerName();
     }
 
     /**
@@ -290,7 +307,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return 文字列
      */
     public String getQueryString() {
-        return holder.getHttpServletRequest().getQueryString();
+        return holder().getHttpServletRequest().getQueryString();
     }
 
     /**
@@ -299,7 +316,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return サーバーポート
      */
     public int getServerPort() {
-        return holder.getHttpServletRequest().getServerPort();
+        return holder().getHttpServletRequest().getServerPort();
     }
 
     /**
@@ -308,7 +325,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return Reader
      */
     public BufferedReader getReader() throws IOException {
-        return holder.getHttpServletRequest().getReader();
+        return holder().getHttpServletRequest().getReader();
     }
 
     /**
@@ -317,7 +334,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return リモートユーザ
      */
     public String getRemoteUser() {
-        return holder.getHttpServletRequest().getRemoteUser();
+        return holder().getHttpServletRequest().getRemoteUser();
     }
 
     /**
@@ -327,7 +344,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return ユーザかどうか
      */
     public boolean isUserInRole(String role) {
-        return holder.getHttpServletRequest().isUserInRole(role);
+        return holder().getHttpServletRequest().isUserInRole(role);
     }
 
     /**
@@ -336,7 +353,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return リモートアドレス
      */
     public String getRemoteAddr() {
-        return holder.getHttpServletRequest().getRemoteAddr();
+        return holder().getHttpServletRequest().getRemoteAddr();
     }
 
     /**
@@ -345,7 +362,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return リモートホスト
      */
     public String getRemoteHost() {
-        return holder.getHttpServletRequest().getRemoteHost();
+        return holder().getHttpServletRequest().getRemoteHost();
     }
 
     /**
@@ -355,7 +372,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return ユーザPrincipal
      */
     public Principal getUserPrincipal() {
-        return holder.getHttpServletRequest().getUserPrincipal();
+        return holder().getHttpServletRequest().getUserPrincipal();
     }
 
     /**
@@ -364,7 +381,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return リクエストセッションid
      */
     public String getRequestedSessionId() {
-        return holder.getHttpServletRequest().getRequestedSessionId();
+        return holder().getHttpServletRequest().getRequestedSessionId();
     }
 
     /**
@@ -373,7 +390,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @param o オブジェクト
      */
     public void setAttribute(String name, Object o) {
-        holder.getHttpServletRequest().setAttribute(name, o);
+        holder().getHttpServletRequest().setAttribute(name, o);
     }
 
     /**
@@ -382,7 +399,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return リクエストURI`
      */
     public String getRequestURI() {
-        return holder.getHttpServletRequest().getRequestURI();
+        return holder().getHttpServletRequest().getRequestURI();
     }
 
     /**
@@ -390,7 +407,7 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @param name パラメータ名
      */
     public void removeAttribute(String name) {
-        holder.getHttpServletRequest().removeAttribute(name);
+        holder().getHttpServletRequest().removeAttribute(name);
     }
 
     /**
@@ -399,56 +416,56 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      * @return ロケール
      */
     public Locale getLocale() {
-        return holder.getHttpServletRequest().getLocale();
+        return holder().getHttpServletRequest().getLocale();
     }
 
     /**
      * HttpServletRequest().getRequestURLに移譲する。
      */
     public StringBuffer getRequestURL() {
-        return holder.getHttpServletRequest().getRequestURL();
+        return holder().getHttpServletRequest().getRequestURL();
     }
 
     /**
      * HttpServletRequest().getLocalesに移譲する。
      */
     public Enumeration<Locale> getLocales() {
-        return holder.getHttpServletRequest().getLocales();
+        return holder().getHttpServletRequest().getLocales();
     }
 
     /**
      * HttpServletRequest().getServletPathに移譲する。
      */
     public String getServletPath() {
-        return holder.getCurrentRequestId();
+        return holder().getCurrentRequestId();
     }
 
     /**
      * HttpServletRequest().isSecureに移譲する。
      */
     public boolean isSecure() {
-        return holder.getHttpServletRequest().isSecure();
+        return holder().getHttpServletRequest().isSecure();
     }
 
     /**
      * HttpServletRequest().getRequestDispatcherに移譲する。
      */
     public RequestDispatcher getRequestDispatcher(String path) {
-        return holder.getHttpServletRequest().getRequestDispatcher(path);
+        return holder().getHttpServletRequest().getRequestDispatcher(path);
     }
 
     /**
      * HttpServletRequest().getSessionに移譲する。
      */
     public HttpSession getSession(boolean create) {
-        return holder.getHttpServletRequest().getSession(create);
+        return holder().getHttpServletRequest().getSession(create);
     }
 
     /**
      * HttpServletRequest().getSessionに移譲する。
      */
     public HttpSession getSession() {
-        return holder.getHttpServletRequest().getSession();
+        return holder().getHttpServletRequest().getSession();
     }
 
     /**
@@ -456,56 +473,56 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      */
     @SuppressWarnings("deprecation")
     public String getRealPath(String path) {
-        return holder.getHttpServletRequest().getRealPath(path);
+        return holder().getHttpServletRequest().getRealPath(path);
     }
 
     /**
      * HttpServletRequest().getRemotePortに移譲する。
      */
     public int getRemotePort() {
-        return holder.getHttpServletRequest().getRemotePort();
+        return holder().getHttpServletRequest().getRemotePort();
     }
 
     /**
      * HttpServletRequest().isRequestedSessionIdValidに移譲する。
      */
     public boolean isRequestedSessionIdValid() {
-        return holder.getHttpServletRequest().isRequestedSessionIdValid();
+        return holder().getHttpServletRequest().isRequestedSessionIdValid();
     }
 
     /**
      * HttpServletRequest().getLocalNameに移譲する。
      */
     public String getLocalName() {
-        return holder.getHttpServletRequest().getLocalName();
+        return holder().getHttpServletRequest().getLocalName();
     }
 
     /**
      * HttpServletRequest().isRequestedSessionIdFromCookieに移譲する。
      */
     public boolean isRequestedSessionIdFromCookie() {
-        return holder.getHttpServletRequest().isRequestedSessionIdFromCookie();
+        return holder().getHttpServletRequest().isRequestedSessionIdFromCookie();
     }
 
     /**
      * HttpServletRequest().getLocalAddrに移譲する。
      */
     public String getLocalAddr() {
-        return holder.getHttpServletRequest().getLocalAddr();
+        return holder().getHttpServletRequest().getLocalAddr();
     }
 
     /**
      * HttpServletRequest().isRequestedSessionIdFromURLに移譲する。
      */
     public boolean isRequestedSessionIdFromURL() {
-        return holder.getHttpServletRequest().isRequestedSessionIdFromURL();
+        return holder().getHttpServletRequest().isRequestedSessionIdFromURL();
     }
 
     /**
      * HttpServletRequest().getLocalPortに移譲する。
      */
     public int getLocalPort() {
-        return holder.getHttpServletRequest().getLocalPort();
+        return holder().getHttpServletRequest().getLocalPort();
     }
 
     /**
@@ -513,28 +530,28 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      */
     @SuppressWarnings("deprecation")
     public boolean isRequestedSessionIdFromUrl() {
-        return holder.getHttpServletRequest().isRequestedSessionIdFromUrl();
+        return holder().getHttpServletRequest().isRequestedSessionIdFromUrl();
     }
 
     /**
      * HttpServletRequest().getContentLengthLongに移譲する。
      */
     public long getContentLengthLong() {
-        return holder.getHttpServletRequest().getContentLengthLong();
+        return holder().getHttpServletRequest().getContentLengthLong();
     }
 
     /**
      * HttpServletRequest().getServletContextに移譲する。
      */
     public ServletContext getServletContext() {
-        return holder.getHttpServletRequest().getServletContext();
+        return holder().getHttpServletRequest().getServletContext();
     }
 
     /**
      * HttpServletRequest().startAsyncに移譲する。
      */
     public AsyncContext startAsync() throws IllegalStateException {
-        return holder.getHttpServletRequest().startAsync();
+        return holder().getHttpServletRequest().startAsync();
     }
 
     /**
@@ -542,84 +559,84 @@ public class HttpServletRequestHolder implements HttpServletRequest {
      */
     public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse)
             throws IllegalStateException {
-        return holder.getHttpServletRequest().startAsync(servletRequest, servletResponse);
+        return holder().getHttpServletRequest().startAsync(servletRequest, servletResponse);
     }
 
     /**
      * HttpServletRequest().isAsyncStartedに移譲する。
      */
     public boolean isAsyncStarted() {
-        return holder.getHttpServletRequest().isAsyncStarted();
+        return holder().getHttpServletRequest().isAsyncStarted();
     }
 
     /**
      * HttpServletRequest().isAsyncSupportedに移譲する。
      */
     public boolean isAsyncSupported() {
-        return holder.getHttpServletRequest().isAsyncSupported();
+        return holder().getHttpServletRequest().isAsyncSupported();
     }
 
     /**
      * HttpServletRequest().getAsyncContextに移譲する。
      */
     public AsyncContext getAsyncContext() {
-        return holder.getHttpServletRequest().getAsyncContext();
+        return holder().getHttpServletRequest().getAsyncContext();
     }
 
     /**
      * HttpServletRequest().getDispatcherTypeに移譲する。
      */
     public DispatcherType getDispatcherType() {
-        return holder.getHttpServletRequest().getDispatcherType();
+        return holder().getHttpServletRequest().getDispatcherType();
     }
 
     /**
      * HttpServletRequest().changeSessionIdに移譲する。
      */
     public String changeSessionId() {
-        return holder.getHttpServletRequest().changeSessionId();
+        return holder().getHttpServletRequest().changeSessionId();
     }
 
     /**
      * HttpServletRequest().authenticateに移譲する。
      */
     public boolean authenticate(HttpServletResponse response) throws IOException, ServletException {
-        return holder.getHttpServletRequest().authenticate(response);
+        return holder().getHttpServletRequest().authenticate(response);
     }
 
     /**
      * HttpServletRequest().loginに移譲する。
      */
     public void login(String username, String password) throws ServletException {
-        holder.getHttpServletRequest().login(username, password);
+        holder().getHttpServletRequest().login(username, password);
     }
 
     /**
      * HttpServletRequest().logoutに移譲する。
      */
     public void logout() throws ServletException {
-        holder.getHttpServletRequest().logout();
+        holder().getHttpServletRequest().logout();
     }
 
     /**
      * HttpServletRequest().getPartsに移譲する。
      */
     public Collection<Part> getParts() throws IOException, ServletException {
-        return holder.getHttpServletRequest().getParts();
+        return holder().getHttpServletRequest().getParts();
     }
 
     /**
      * HttpServletRequest().getPartに移譲する。
      */
     public Part getPart(String name) throws IOException, ServletException {
-        return holder.getHttpServletRequest().getPart(name);
+        return holder().getHttpServletRequest().getPart(name);
     }
 
     /**
      * HttpServletRequest().upgradeに移譲する。
      */
     public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) throws IOException, ServletException {
-        return holder.getHttpServletRequest().upgrade(handlerClass);
+        return holder().getHttpServletRequest().upgrade(handlerClass);
     }
 
 }
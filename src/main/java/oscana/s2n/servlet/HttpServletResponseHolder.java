@@ -5,12 +5,11 @@ import java.io.PrintWriter;
 import java.util.Collection;
 import java.util.Locale;
 
-import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletResponse;
 
-import nablarch.fw.dicontainer.web.RequestScoped;
 import oscana.s2n.handler.HttpResourceHolder;
 
 /**
@@ -27,6 +26,10 @@ import oscana.s2n.handler.HttpResourceHolder;
  * ・リソースホルダーにはサーブレットリソースへの参照を持たせることができ、アプリケーションがリソースホルダーの各メソッドを呼び出すとサーブレットリソースに移譲される仕組みである。<br>
  * ・HttpResourceHolderHandler,HttpResourceHolderUpdateHandlerがリソースホルダーにサーブレットリソースへの参照を登録する。<br>
  * <br>
+ * 本クラスはアプリケーションで共有するインスタンス(シングルトン)であり、リクエスト毎に生成、注入を行わない。
+ * 各メソッドは現在のスレッドで処理しているリクエストのサーブレットリソースに移譲する。<br>
+ * DIコンテナの管理外で使用する場合は{@link ServletResourceHolders}から取得する。<br>
+ * <br>
  *
  * [構成]<br>
  * ■リソースホルダ<br>
@@ -41,52 +44,69 @@ import oscana.s2n.handler.HttpResourceHolder;
  *
  * @author Fumihiko Yamamoto
  */
-@RequestScoped
+@Singleton
 public class HttpServletResponseHolder implements HttpServletResponse {
 
-    @Inject
+    /**
+     * HttpResourceHolder(移譲先を固定する場合に設定する)
+     */
     public HttpResourceHolder holder;
 
+    /**
+     * サーブレットリソースへの参照を取得する。<br>
+     * <br>
+     * 現在のスレッドに関連付けられた参照が存在する場合はそれを使用する。
+     * 存在しない場合は設定された参照、設定されていない場合はDIコンテナから取得した参照を使用する。
+     * @return サーブレットリソースへの参照
+     */
+    private HttpResourceHolder holder() {
+        HttpResourceHolder bound = HttpResourceHolder.bound();
+        if (bound != null) {
+            return bound;
+        }
+        return holder != null ? holder : HttpResourceHolder.current();
+    }
+
     /**
      * HttpServletResponse().addCookieに移譲する。
      */
     public void addCookie(Cookie cookie) {
-        holder.getHttpServletResponse().addCookie(cookie);
+        holder().getHttpServletResponse().addCookie(cookie);
     }
 
     /**
      * HttpServletResponse().containsHeaderに移譲する。
      */
     public boolean containsHeader(String name) {
-        return holder.getHttpServletResponse().containsHeader(name);
+        return holder().getHttpServletResponse().containsHeader(name);
     }
 
     /**
      * HttpServletResponse().encodeURLに移譲する。
      */
     public String encodeURL(String url) {
-        return holder.getHttpServletResponse().encodeURL(url);
+        return holder().getHttpServletResponse().encodeURL(url);
     }
 
     /**
      * HttpServletResponse().getCharacterEncodingに移譲する。
      */
     public String getCharacterEncoding() {
-        return holder.getHttpServletResponse().getCharacterEncoding();
+        return holder().getHttpServletResponse().getCharacterEncoding();
     }
 
     /**
      * HttpServletResponse().encodeRedirectURLに移譲する。
      */
     public String encodeRedirectURL(String url) {
-        return holder.getHttpServletResponse().encodeRedirectURL(url);
+        return holder().getHttpServletResponse().encodeRedirectURL(url);
     }
 
     /**
      * HttpServletResponse().getContentTypeに移譲する。
      */
     public String getContentType() {
-        return holder.getHttpServletResponse().getContentType();
+        return holder().getHttpServletResponse().getContentType();
     }
 
     /**
@@ -94,7 +114,7 @@ public class HttpServletResponseHolder implements HttpServletResponse {
      */
     @SuppressWarnings("deprecation")
     public String encodeUrl(String url) {
-        return holder.getHttpServletResponse().encodeUrl(url);
+        return holder().getHttpServletResponse().encodeUrl(url);
     }
 
     /**
@@ -102,119 +122,119 @@ public class HttpServletResponseHolder implements HttpServletResponse {
      */
     @SuppressWarnings("deprecation")
     public String encodeRedirectUrl(String url) {
-        return holder.getHttpServletResponse().encodeRedirectUrl(url);
+        return holder().getHttpServletResponse().encodeRedirectUrl(url);
     }
 
     /**
      * HttpServletResponse().getOutputStreamに移譲する。
      */
     public ServletOutputStream getOutputStream() throws IOException {
-        return holder.getHttpServletResponse().getOutputStream();
+        return holder().getHttpServletResponse().getOutputStream();
     }
 
     /**
      * HttpServletResponse().sendErrorに移譲する。
      */
     public void sendError(int sc, String msg) throws IOException {
-        holder.getHttpServletResponse().sendError(sc, msg);
+        holder().getHttpServletResponse().sendError(sc, msg);
     }
 
     /**
      * HttpServletResponse().getWriterに移譲する。
      */
     public PrintWriter getWriter() throws IOException {
-        return holder.getHttpServletResponse().getWriter();
+        return holder().getHttpServletResponse().getWriter();
     }
 
     /**
      * HttpServletResponse().sendErrorに移譲する。
      */
     public void sendError(int sc) throws IOException {
-        holder.getHttpServletResponse().sendError(sc);
+        holder().getHttpServletResponse().sendError(sc);
     }
 
     /**
      * HttpServletResponse().sendRedirectに移譲する。
      */
     public void sendRedirect(String location) throws IOException {
-        holder.getHttpServletResponse().sendRedirect(location);
+        holder().getHttpServletResponse().sendRedirect(location);
     }
 
     /**
      * HttpServletResponse().setCharacterEncodingに移譲する。
      */
     public void setCharacterEncoding(String charset) {
-        holder.getHttpServletResponse().setCharacterEncoding(charset);
+        holder().getHttpServletResponse().setCharacterEncoding(charset);
     }
 
     /**
      * HttpServletResponse().setDateHeaderに移譲する。
      */
     public void setDateHeader(String name, long date) {
-        holder.getHttpServletResponse().setDateHeader(name, date);
+        holder().getHttpServletResponse().setDateHeader(name, date);
     }
 
     /**
      * HttpServletResponse().addDateHeaderに移譲する。
      */
     public void addDateHeader(String name, long date) {
-        holder.getHttpServletResponse().addDateHeader(name, date);
+        holder().getHttpServletResponse().addDateHeader(name, date);
     }
 
     /**
      * HttpServletResponse().setContentLengthに移譲する。
      */
     public void setContentLength(int len) {
-        holder.getHttpServletResponse().setContentLength(len);
+        holder().getHttpServletResponse().setContentLength(len);
     }
 
     /**
      * HttpServletResponse().setHeaderに移譲する。
      */
     public void setHeader(String name, String value) {
-        holder.getHttpServletResponse().setHeader(name, value);
+        holder().getHttpServletResponse().setHeader(name, value);
     }
 
     /**
      * HttpServletResponse().setContentTypeに移譲する。
      */
     public void setContentType(String type) {
-        holder.getHttpServletResponse().setContentType(type);
+        holder().getHttpServletResponse().setContentType(type);
     }
 
     /**
      * HttpServletResponse().addHeaderに移譲する。
      */
     public void addHeader(String name, String value) {
-        holder.getHttpServletResponse().addHeader(name, value);
+        holder().getHttpServletResponse().addHeader(name, value);
     }
 
     /**
      * HttpServletResponse().setIntHeaderに移譲する。
      */
     public void setIntHeader(String name, int value) {
-        holder.getHttpServletResponse().setIntHeader(name, value);
+        holder().getHttpServletResponse().setIntHeader(name, value);
     }
 
     /**
      * HttpServletResponse().setBufferSizeに移譲する。
      */
     public void setBufferSize(int size) {
-        holder.getHttpServletResponse().setBufferSize(size);
+        holder().getHttpServletResponse().setBufferSize(size);
     }
 
     /**
      * HttpServletResponse().addIntHeaderに移譲する。
      */
     public void addIntHeader(String name, int value) {
-        holder.getHttpServletResponse().addIntHeader(name, value);
+        holder().getHttpServletResponse().addIntHeader(name, value);
     }
 
     /**
      * HttpServletResponse().setStatusに移譲する。
      */
     public void setStatus(int sc) {
-        holder.getHttpServletResponse().setStatus(sc);
+        holder().getHttpServletResponse().setStatus(sc);
     }
 
     /**
@@ -222,91 +242,91 @@ public class HttpServletResponseHolder implements HttpServletResponse {
      */
     @SuppressWarnings("deprecation")
     public void setStatus(int sc, String sm) {
-        holder.getHttpServletResponse().setStatus(sc, sm);
+        holder().getHttpServletResponse().setStatus(sc, sm);
     }
 
     /**
      * HttpServletResponse().getBufferSizeに移譲する。
      */
     public int getBufferSize() {
-        return holder.getHttpServletResponse().getBufferSize();
+        return holder().getHttpServletResponse().getBufferSize();
     }
 
     /**
      * HttpServletResponse().flushBufferに移譲する。
      */
     public void flushBuffer() throws IOException {
-        holder.getHttpServletResponse().flushBuffer();
+        holder().getHttpServletResponse().flushBuffer();
     }
 
     /**
      * HttpServletResponse().resetBufferに移譲する。
      */
     public void resetBuffer() {
-        holder.getHttpServletResponse().resetBuffer();
+        holder().getHttpServletResponse().resetBuffer();
     }
 
     /**
      * HttpServletResponse().isCommittedに移譲する。
      */
     public boolean isCommitted() {
-        return holder.getHttpServletResponse().isCommitted();
+        return holder().getHttpServletResponse().isCommitted();
     }
 
     /**
      * HttpServletResponse().resetに移譲する。
      */
     public void reset() {
-        holder.getHttpServletResponse().reset();
+        holder().getHttpServletResponse().reset();
     }
 
     /**
      * HttpServletResponse().setLocaleに移譲する。
      */
     public void setLocale(Locale loc) {
-        holder.getHttpServletResponse().setLocale(loc);
+        holder().getHttpServletResponse().setLocale(loc);
     }
 
     /**
      * HttpServletResponse().getLocaleに移譲する。
      */
     public Locale getLocale() {
-        return holder.getHttpServletResponse().getLocale();
+        return holder().getHttpServletResponse().getLocale();
     }
 
     /**
      * HttpServletResponse().setContentLengthLongに移譲する。
      */
     public void setContentLengthLong(long len) {
-        holder.getHttpServletResponse().setContentLengthLong(len);
+        holder().getHttpServletResponse().setContentLengthLong(len);
     }
 
     /**
      * HttpServletResponse().getStatusに移譲する。
      */
     public int getStatus() {
-        return holder.getHttpServletResponse().getStatus();
+        return holder().getHttpServletResponse().getStatus();
     }
 
     /**
      * HttpServletResponse().getHeaderに移譲する。
      */
     public String getHeader(String name) {
-        return holder.getHttpServletResponse().getHeader(name);
+        return holder().getHttpServletResponse().getHeader(name);
     }
 
     /**
      * HttpServletResponse().getHeadersに移譲する。
      */
     public Collection<String> getHeaders(String name) {
-        return holder.getHttpServletResponse().getHeaders(name);
+        return holder().getHttpServletResponse().getHeaders(name);
     }
 
     /**
      * HttpServletResponse().getHeaderNamesに移譲する。
      */
     public Collection<String> getHeaderNames() {
-        return holder.getHttpServletResponse().getHeaderNames();
+        return holder().getHttpServletResponse().getHeaderNames();
     }
 
 }
@@ -1,13 +1,13 @@
 package oscana.s2n.servlet;
 
+import java.util.Collections;
 import java.util.Enumeration;
 
-import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpSession;
 import javax.servlet.http.HttpSessionContext;
 
-import nablarch.fw.dicontainer.web.RequestScoped;
 import oscana.s2n.handler.HttpResourceHolder;
 
 /**
@@ -24,6 +24,14 @@ import oscana.s2n.handler.HttpResourceHolder;
  * ・リソースホルダーにはサーブレットリソースへの参照を持たせることができ、アプリケーションがリソースホルダーの各メソッドを呼び出すとサーブレットリソースに移譲される仕組みである。<br>
  * ・HttpResourceHolderHandler,HttpResourceHolderUpdateHandlerがリソースホルダーにサーブレットリソースへの参照を登録する。<br>
  * <br>
+ * セッションは必要になった時点で作成する。<br>
+ * ・属性の参照、削除、無効化はセッションが存在しない場合は空のセッションとして振る舞い、セッションを作成しない。<br>
+ * ・属性の設定、ID等のセッション自体の情報の参照、設定はセッションが存在しない場合に作成する。<br>
+ * <br>
+ * 本クラスはアプリケーションで共有するインスタンス(シングルトン)であり、リクエスト毎に生成、注入を行わない。
+ * 各メソッドは現在のスレッドで処理しているリクエストのサーブレットリソースに移譲する。<br>
+ * DIコンテナの管理外で使用する場合は{@link ServletResourceHolders}から取得する。<br>
+ * <br>
  *
  * [構成]<br>
  * ■リソースホルダ<br>
@@ -39,128 +47,175 @@ import oscana.s2n.handler.HttpResourceHolder;
  * @author Fumihiko Yamamoto
  */
 @SuppressWarnings("deprecation")
-@RequestScoped
+@Singleton
 public class HttpSessionHolder implements HttpSession {
-    @Inject
+    /**
+     * HttpResourceHolder(移譲先を固定する場合に設定する)
+     */
     public HttpResourceHolder holder;
 
+    /**
+     * サーブレットリソースへの参照を取得する。<br>
+     * <br>
+     * 現在のスレッドに関連付けられた参照が存在する場合はそれを使用する。
+     * 存在しない場合は設定された参照、設定されていない場合はDIコンテナから取得した参照を使用する。
+     * @return サーブレットリソースへの参照
+     */
+    private HttpResourceHolder holder() {
+        HttpResourceHolder bound = HttpResourceHolder.bound();
+        if (bound != null) {
+            return bound;
+        }
+        return holder != null ? holder : HttpResourceHolder.current();
+    }
+
     /**
      * HttpSession().getCreationTimeに移譲する。
      */
     public long getCreationTime() {
-        return holder.getHttpSession().getCreationTime();
+        return holder().getHttpSession().getCreationTime();
     }
 
     /**
      * HttpSession().getIdに移譲する。
      */
     public String getId() {
-        return holder.getHttpSession().getId();
+        return holder().getHttpSession().getId();
     }
 
     /**
      * HttpSession().getLastAccessedTimeに移譲する。
      */
     public long getLastAccessedTime() {
-        return holder.getHttpSession().getLastAccessedTime();
+        return holder().getHttpSession().getLastAccessedTime();
     }
 
     /**
      * HttpSession().getServletContextに移譲する。
+     * セッションが存在しない場合はServletContextを返す。
      */
     public ServletContext getServletContext() {
-        return holder.getHttpSession().getServletContext();
+        HttpSession session = holder().getHttpSession(false);
+        return session == null ? holder().getServletContext() : session.getServletContext();
     }
 
     /**
      * HttpSession().setMaxInactiveIntervalに移譲する。
      */
     public void setMaxInactiveInterval(int interval) {
-        holder.getHttpSession().setMaxInactiveInterval(interval);
+        holder().getHttpSession().setMaxInactiveInterval(interval);
     }
 
     /**
      * HttpSession().getMaxInactiveIntervalに移譲する。
      */
     public int getMaxInactiveInterval() {
-        return holder.getHttpSession().getMaxInactiveInterval();
+        return holder().getHttpSession().getMaxInactiveInterval();
     }
 
     /**
      * HttpSession().getSessionContextに移譲する。
      */
     public HttpSessionContext getSessionContext() {
-        return holder.getHttpSession().getSessionContext();
+        return holder().getHttpSession().getSessionContext();
     }
 
     /**
      * HttpSession().getAttributeに移譲する。
+     * セッションが存在しない場合はnullを返す。
      */
     public Object getAttribute(String name) {
-        return holder.getHttpSession().getAttribute(name);
+        HttpSession session = holder().getHttpSession(false);
+        return session == null ? null : session.getAttribute(name);
     }
 
     /**
      * HttpSession().getValueに移譲する。
+     * セッションが存在しない場合はnullを返す。
      */
     public Object getValue(String name) {
-        return holder.getHttpSession().getValue(name);
+        HttpSession session = holder().getHttpSession(false);
+        return session == null ? null : session.getValue(name);
     }
 
     /**
      * HttpSession().getAttributeNamesに移譲する。
+     * セッションが存在しない場合は空のEnumerationを返す。
      */
     public Enumeration<String> getAttributeNames() {
-        return holder.getHttpSession().getAttributeNames();
+        HttpSession session = holder().getHttpSession(false);
+        return session == null ? Collections.<String> emptyEnumeration() : session.getAttributeNames();
     }
 
     /**
      * HttpSession().getValueNamesに移譲する。
+     * セッションが存在しない場合は空の配列を返す。
      */
     public String[] getValueNames() {
-        return holder.getHttpSession().getValueNames();
+        HttpSession session = holder().getHttpSession(false);
+        return session == null ? new String[0] : session.getValueNames();
     }
 
     /**
      * HttpSession().setAttributeに移譲する。
+     * セッションが存在しない場合は作成する。ただし、値がnull(属性の削除)の場合は作成しない。
      */
     public void setAttribute(String name, Object value) {
-        holder.getHttpSession().setAttribute(name, value);
+        HttpSession session = holder().getHttpSession(value != null);
+        if (session != null) {
+            session.setAttribute(name, value);
+        }
     }
 
     /**
      * HttpSession().putValueに移譲する。
+     * セッションが存在しない場合は作成する。ただし、値がnull(属性の削除)の場合は作成しない。
      */
     public void putValue(String name, Object value) {
-        holder.getHttpSession().putValue(name, value);
+        HttpSession session = holder().getHttpSession(value != null);
+        if (session != null) {
+            session.putValue(name, value);
+        }
     }
 
     /**
      * HttpSession().removeAttributeに移譲する。
+     * セッションが存在しない場合は何もしない。
      */
     public void removeAttribute(String name) {
-        holder.getHttpSession().removeAttribute(name);
+        HttpSession session = holder().getHttpSession(false);
+        if (session != null) {
+            session.removeAttribute(name);
+        }
     }
 
     /**
      * HttpSession().removeValueに移譲する。
+     * セッションが存在しない場合は何もしない。
      */
     public void removeValue(String name) {
-        holder.getHttpSession().removeValue(name);
+        HttpSession session = holder().getHttpSession(false);
+        if (session != null) {
+            session.removeValue(name);
+        }
     }
 
     /**
      * HttpSession().invalidateに移譲する。
+     * セッションが存在しない場合は何もしない。
      */
     public void invalidate() {
-        holder.getHttpSession().invalidate();
+        HttpSession session = holder().getHttpSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
     }
 
     /**
      * HttpSession().isNewに移譲する。
      */
     public boolean isNew() {
-        return holder.getHttpSession().isNew();
+        return holder().getHttpSession().isNew();
     };
 
 }
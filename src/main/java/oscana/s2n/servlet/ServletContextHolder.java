@@ -8,7 +8,7 @@ import java.util.EventListener;
 import java.util.Map;
 import java.util.Set;
 
-import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.servlet.Filter;
 import javax.servlet.FilterRegistration;
 import javax.servlet.RequestDispatcher;
@@ -21,7 +21,6 @@ import javax.servlet.SessionCookieConfig;
 import javax.servlet.SessionTrackingMode;
 import javax.servlet.descriptor.JspConfigDescriptor;
 
-import nablarch.fw.dicontainer.web.RequestScoped;
 import oscana.s2n.handler.HttpResourceHolder;
 
 /**
@@ -38,6 +37,10 @@ import oscana.s2n.handler.HttpResourceHolder;
  * ・リソースホルダーにはサーブレットリソースへの参照を持たせることができ、アプリケーションがリソースホルダーの各メソッドを呼び出すとサーブレットリソースに移譲される仕組みである。<br>
  * ・HttpResourceHolderHandler,HttpResourceHolderUpdateHandlerがリソースホルダーにサーブレットリソースへの参照を登録する。<br>
  * <br>
+ * 本クラスはアプリケーションで共有するインスタンス(シングルトン)であり、リクエスト毎に生成、注入を行わない。
+ * 各メソッドは現在のスレッドで処理しているリクエストのサーブレットリソースに移譲する。<br>
+ * DIコンテナの管理外で使用する場合は{@link ServletResourceHolders}から取得する。<br>
+ * <br>
  *
  * [構成]<br>
  * ■リソースホルダ<br>
@@ -52,19 +55,36 @@ import oscana.s2n.handler.HttpResourceHolder;
  *
  * @author Fumihiko Yamamoto
  */
-@RequestScoped
+@Singleton
 public class ServletContextHolder implements ServletContext {
 
-    @Inject
+    /**
+     * HttpResourceHolder(移譲先を固定する場合に設定する)
+     */
     public HttpResourceHolder holder;
 
+    /**
+     * サーブレットリソースへの参照を取得する。<br>
+     * <br>
+     * 現在のスレッドに関連付けられた参照が存在する場合はそれを使用する。
+     * 存在しない場合は設定された参照、設定されていない場合はDIコンテナから取得した参照を使用する。
+     * @return サーブレットリソースへの参照
+     */
+    private HttpResourceHolder holder() {
+        HttpResourceHolder bound = HttpResourceHolder.bound();
+        if (bound != null) {
+            return bound;
+        }
+        return holder != null ? holder : HttpResourceHolder.current();
+    }
+
     /**
      * @param uripath uriパス
      * @return ServletContext
      * @see javax.servlet.ServletContext#getContext(java.lang.String)
      */
     public ServletContext getContext(String uripath) {
-        return holder.getServletContext().getContext(uripath);
+        return holder().getServletContext().getContext(uripath);
     }
 
     /**
@@ -72,7 +92,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getMajorVersion()
      */
     public int getMajorVersion() {
-        return holder.getServletContext().getMajorVersion();
+        return holder().getServletContext().getMajorVersion();
     }
 
     /**
@@ -80,7 +100,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getMinorVersion()
      */
     public int getMinorVersion() {
-        return holder.getServletContext().getMinorVersion();
+        return holder().getServletContext().getMinorVersion();
     }
 
     /**
@@ -89,7 +109,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getMimeType(java.lang.String)
      */
     public String getMimeType(String file) {
-        return holder.getServletContext().getMimeType(file);
+        return holder().getServletContext().getMimeType(file);
     }
 
     /**
@@ -98,7 +118,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getResourcePaths(java.lang.String)
      */
     public Set<String> getResourcePaths(String path) {
-        return holder.getServletContext().getResourcePaths(path);
+        return holder().getServletContext().getResourcePaths(path);
     }
 
     /**
@@ -108,7 +128,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getResource(java.lang.String)
      */
     public URL getResource(String path) throws MalformedURLException {
-        return holder.getServletContext().getResource(path);
+        return holder().getServletContext().getResource(path);
     }
 
     /**
@@ -117,7 +137,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getResourceAsStream(java.lang.String)
      */
     public InputStream getResourceAsStream(String path) {
-        return holder.getServletContext().getResourceAsStream(path);
+        return holder().getServletContext().getResourceAsStream(path);
     }
 
     /**
@@ -126,7 +146,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getRequestDispatcher(java.lang.String)
      */
     public RequestDispatcher getRequestDispatcher(String path) {
-        return holder.getServletContext().getRequestDispatcher(path);
+        return holder().getServletContext().getRequestDispatcher(path);
     }
 
     /**
@@ -135,7 +155,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getNamedDispatcher(java.lang.String)
      */
     public RequestDispatcher getNamedDispatcher(String name) {
-        return holder.getServletContext().getNamedDispatcher(name);
+        return holder().getServletContext().getNamedDispatcher(name);
     }
 
     /**
@@ -146,7 +166,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getServlet(java.lang.String)
      */
     public Servlet getServlet(String name) throws ServletException {
-        return holder.getServletContext().getServlet(name);
+        return holder().getServletContext().getServlet(name);
     }
 
     /**
@@ -155,7 +175,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getServlets()
      */
     public Enumeration<Servlet> getServlets() {
-        return holder.getServletContext().getServlets();
+        return holder().getServletContext().getServlets();
     }
 
     /**
@@ -164,7 +184,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getServletNames()
      */
     public Enumeration<String> getServletNames() {
-        return holder.getServletContext().getServletNames();
+        return holder().getServletContext().getServletNames();
     }
 
     /**
@@ -172,7 +192,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#log(java.lang.String)
      */
     public void log(String msg) {
-        holder.getServletContext().log(msg);
+        holder().getServletContext().log(msg);
     }
 
     /**
@@ -182,7 +202,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#log(java.lang.Exception, java.lang.String)
      */
     public void log(Exception exception, String msg) {
-        holder.getServletContext().log(exception, msg);
+        holder().getServletContext().log(exception, msg);
     }
 
     /**
@@ -191,7 +211,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#log(java.lang.String, java.lang.Throwable)
      */
     public void log(String message, Throwable throwable) {
-        holder.getServletContext().log(message, throwable);
+        holder().getServletContext().log(message, throwable);
     }
 
     /**
@@ -200,7 +220,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getRealPath(java.lang.String)
      */
     public String getRealPath(String path) {
-        return holder.getServletContext().getRealPath(path);
+        return holder().getServletContext().getRealPath(path);
     }
 
     /**
@@ -208,7 +228,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getServerInfo()
      */
     public String getServerInfo() {
-        return holder.getServletContext().getServerInfo();
+        return holder().getServletContext().getServerInfo();
     }
 
     /**
@@ -217,7 +237,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getInitParameter(java.lang.String)
      */
     public String getInitParameter(String name) {
-        return holder.getServletContext().getInitParameter(name);
+        return holder().getServletContext().getInitParameter(name);
     }
 
     /**
@@ -225,7 +245,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getInitParameterNames()
      */
     public Enumeration<String> getInitParameterNames() {
-        return holder.getServletContext().getInitParameterNames();
+        return holder().getServletContext().getInitParameterNames();
     }
 
     /**
@@ -234,7 +254,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getAttribute(java.lang.String)
      */
     public Object getAttribute(String name) {
-        return holder.getServletContext().getAttribute(name);
+        return holder().getServletContext().getAttribute(name);
     }
 
     /**
@@ -242,7 +262,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getAttributeNames()
      */
     public Enumeration<String> getAttributeNames() {
-        return holder.getServletContext().getAttributeNames();
+        return holder().getServletContext().getAttributeNames();
     }
 
     /**
@@ -251,7 +271,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#setAttribute(java.lang.String, java.lang.Object)
      */
     public void setAttribute(String name, Object object) {
-        holder.getServletContext().setAttribute(name, object);
+        holder().getServletContext().setAttribute(name, object);
     }
 
     /**
@@ -259,7 +279,7 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#removeAttribute(java.lang.String)
      */
     public void removeAttribute(String name) {
-        holder.getServletContext().removeAttribute(name);
+        holder().getServletContext().removeAttribute(name);
     }
 
     /**
@@ -267,202 +287,202 @@ public class ServletContextHolder implements ServletContext {
      * @see javax.servlet.ServletContext#getServletContextName()
      */
     public String getServletContextName() {
-        return holder.getServletContext().getServletContextName();
+        return holder().getServletContext().getServletContextName();
     }
 
     /**
      * ServletContext().getContextPathに移譲する。
      */
     public String getContextPath() {
-        return holder.getServletContext().getContextPath();
+        return holder().getServletContext().getContextPath();
     }
 
     /**
      * ServletContext().getEffectiveMajorVersionに移譲する。
      */
     public int getEffectiveMajorVersion() {
-        return holder.getServletContext().getEffectiveMajorVersion();
+        return holder().getServletContext().getEffectiveMajorVersion();
     }
 
     /**
      * ServletContext().getEffectiveMinorVersionに移譲する。
      */
     public int getEffectiveMinorVersion() {
-        return holder.getServletContext().getEffectiveMinorVersion();
+        return holder().getServletContext().getEffectiveMinorVersion();
     }
 
     /**
      * ServletContext().setInitParameterに移譲する。
      */
     public boolean setInitParameter(String name, String value) {
-        return holder.getServletContext().setInitParameter(name, value);
+        return holder().getServletContext().setInitParameter(name, value);
     }
 
     /**
      * ServletContext().addServletに移譲する。
      */
     public Dynamic addServlet(String servletName, String className) {
-        return holder.getServletContext().addServlet(servletName, className);
+        return holder().getServletContext().addServlet(servletName, className);
     }
 
     /**
      * ServletContext().addServletに移譲する。
      */
     public Dynamic addServlet(String servletName, Servlet servlet) {
-        return holder.getServletContext().addServlet(servletName, servlet);
+        return holder().getServletContext().addServlet(servletName, servlet);
     }
 
     /**
      * ServletContext().addServletに移譲する。
      */
     public Dynamic addServlet(String servletName, Class<? extends Servlet> servletClass) {
-        return holder.getServletContext().addServlet(servletName, servletClass);
+        return holder().getServletContext().addServlet(servletName, servletClass);
     }
 
     /**
      * ServletContext().createServletに移譲する。
      */
     public <T extends Servlet> T createServlet(Class<T> clazz) throws ServletException {
-        return holder.getServletContext().createServlet(clazz);
+        return holder().getServletContext().createServlet(clazz);
     }
 
     /**
      * ServletContext().getServletRegistrationに移譲する。
      */
     public ServletRegistration getServletRegistration(String servletName) {
-        return holder.getServletContext().getServletRegistration(servletName);
+        return holder().getServletContext().getServletRegistration(servletName);
     }
 
     /**
      * ServletContext().getServletRegistrationsに移譲する。
      */
     public Map<String, ? extends ServletRegistration> getServletRegistrations() {
-        return holder.getServletContext().getServletRegistrations();
+        return holder().getServletContext().getServletRegistrations();
     }
 
     /**
      * ServletContext().addFilterに移譲する。
      */
     public javax.servlet.FilterRegistration.Dynamic addFilter(String filterName, String className) {
-        return holder.getServletContext().addFilter(filterName, className);
+        return holder().getServletContext().addFilter(filterName, className);
     }
 
     /**
      * ServletContext().addFilterに移譲する。
      */
     public javax.servlet.FilterRegistration.Dynamic addFilter(String filterName, Filter filter) {
-        return holder.getServletContext().addFilter(filterName, filter);
+        return holder().getServletContext().addFilter(filterName, filter);
     }
 
     /**
      * ServletContext().addFilterに移譲する。
      */
     public javax.servlet.FilterRegistration.Dynamic addFilter(String filterName, Class<? extends Filter> filterClass) {
-        return holder.getServletContext().addFilter(filterName, filterClass);
+        return holder().getServletContext().addFilter(filterName, filterClass);
     }
 
     /**
      * ServletContext().createFilterに移譲する。
      */
     public <T extends Filter> T createFilter(Class<T> clazz) throws ServletException {
-        return holder.getServletContext().createFilter(clazz);
+        return holder().getServletContext().createFilter(clazz);
     }
 
     /**
      * ServletContext().getFilterRegistrationに移譲する。
      */
     public FilterRegistration getFilterRegistration(String filterName) {
-        return holder.getServletContext().getFilterRegistration(filterName);
+        return holder().getServletContext().getFilterRegistration(filterName);
     }
 
     /**
      * ServletContext().getFilterRegistrationsに移譲する。
      */
     public Map<String, ? extends FilterRegistration> getFilterRegistrations() {
-        return holder.getServletContext().getFilterRegistrations();
+        return holder().getServletContext().getFilterRegistrations();
     }
 
     /**
      * ServletContext().getSessionCookieConfigに移譲する。
      */
     public SessionCookieConfig getSessionCookieConfig() {
-        return holder.getServletContext().getSessionCookieConfig();
+        return holder().getServletContext().getSessionCookieConfig();
     }
 
     /**
      * ServletContext().setSessionTrackingModesに移譲する。
      */
     public void setSessionTrackingModes(Set<SessionTrackingMode> sessionTrackingModes) {
-        holder.getServletContext().setSessionTrackingModes(sessionTrackingModes);
+        holder().getServletContext().setSessionTrackingModes(sessionTrackingModes);
     }
 
     /**
      * ServletContext().getDefaultSessionTrackingModesに移譲する。
      */
     public Set<SessionTrackingMode> getDefaultSessionTrackingModes() {
-        return holder.getServletContext().getDefaultSessionTrackingModes();
+        return holder().getServletContext().getDefaultSessionTrackingModes();
     }
 
     /**
      * ServletContext().getEffectiveSessionTrackingModesに移譲する。
      */
     public Set<SessionTrackingMode> getEffectiveSessionTrackingModes() {
-        return holder.getServletContext().getEffectiveSessionTrackingModes();
+        return holder().getServletContext().getEffectiveSessionTrackingModes();
     }
 
     /**
      * ServletContext().addListenerに移譲する。
      */
     public void addListener(String className) {
-        holder.getServletContext().addListener(className);
+        holder().getServletContext().addListener(className);
     }
 
     /**
      * ServletContext().addListenerに移譲する。
      */
     public <T extends EventListener> void addListener(T t) {
-        holder.getServletContext().addListener(t);
+        holder().getServletContext().addListener(t);
     }
 
     /**
      * ServletContext().addListenerに移譲する。
      */
     public void addListener(Class<? extends EventListener> listenerClass) {
-        holder.getServletContext().addListener(listenerClass);
+        holder().getServletContext().addListener(listenerClass);
     }
 
     /**
      * ServletContext().createListenerに移譲する。
      */
     public <T extends EventListener> T createListener(Class<T> clazz) throws ServletException {
-        return holder.getServletContext().createListener(clazz);
+        return holder().getServletContext().createListener(clazz);
     }
 
     /**
      * ServletContext().getJspConfigDescriptorに移譲する。
      */
     public JspConfigDescriptor getJspConfigDescriptor() {
-        return holder.getServletContext().getJspConfigDescriptor();
+        return holder().getServletContext().getJspConfigDescriptor();
     }
 
     /**
      * ServletContext().getClassLoaderに移譲する。
      */
     public ClassLoader getClassLoader() {
-        return holder.getServletContext().getClassLoader();
+        return holder().getServletContext().getClassLoader();
     }
 
     /**
      * ServletContext().declareRolesに移譲する。
      */
     public void declareRoles(String... roleNames) {
-        holder.getServletContext().declareRoles(roleNames);
+        holder().getServletContext().declareRoles(roleNames);
     }
 
     /**
      * ServletContext().getVirtualServerNameに移譲する。
      */
     public String getVirtualServerName() {
-        return holder.getServletContext().getVirtualServerName();
+        return holder().getServletContext().getVirtualServerName();
     }
 }
@@ -0,0 +1,64 @@
+package oscana.s2n.servlet;
+
+/**
+ * アプリケーションで共有するリソースホルダを提供するクラス。<br>
+ * <br>
+ * 本クラスが提供するリソースホルダはDIコンテナの管理外のインスタンスであり、
+ * 現在のスレッドに関連付けられたサーブレットリソースへの参照(HttpResourceHolder)に移譲する。
+ * DIコンテナに登録されたリソースホルダ(シングルトン)と同様に振る舞うため、
+ * DIコンテナから取得できない処理(staticメソッド、DIコンテナの管理外のクラスなど)で使用する。<br>
+ * <br>
+ * HttpResourceHolderHandlerの後続の処理(リクエストを処理しているスレッド)からのみ使用できる。
+ */
+public final class ServletResourceHolders {
+
+    /** HttpServletRequestのI/Fを提供するリソースホルダ */
+    private static final HttpServletRequestHolder REQUEST = new HttpServletRequestHolder();
+
+    /** HttpServletResponseのI/Fを提供するリソースホルダ */
+    private static final HttpServletResponseHolder RESPONSE = new HttpServletResponseHolder();
+
+    /** HttpSessionのI/Fを提供するリソースホルダ */
+    private static final HttpSessionHolder SESSION = new HttpSessionHolder();
+
+    /** ServletContextのI/Fを提供するリソースホルダ */
+    private static final ServletContextHolder SERVLET_CONTEXT = new ServletContextHolder();
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ServletResourceHolders() {
+    }
+
+    /**
+     * HttpServletRequestのI/Fを提供するリソースホルダを取得する。
+     * @return リソースホルダ
+     */
+    public static HttpServletRequestHolder request() {
+        return REQUEST;
+    }
+
+    /**
+     * HttpServletResponseのI/Fを提供するリソースホルダを取得する。
+     * @return リソースホルダ
+     */
+    public static HttpServletResponseHolder response() {
+        return RESPONSE;
+    }
+
+    /**
+     * HttpSessionのI/Fを提供するリソースホルダを取得する。
+     * @return リソースホルダ
+     */
+    public static HttpSessionHolder session() {
+        return SESSION;
+    }
+
+    /**
+     * ServletContextのI/Fを提供するリソースホルダを取得する。
+     * @return リソースホルダ
+     */
+    public static ServletContextHolder servletContext() {
+        return SERVLET_CONTEXT;
+    }
+}
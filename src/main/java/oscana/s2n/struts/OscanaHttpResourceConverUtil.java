@@ -1,17 +1,20 @@
 package oscana.s2n.struts;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.servlet.http.HttpSession;
 
 import nablarch.core.log.Logger;
 import nablarch.core.log.LoggerManager;
 import nablarch.fw.ExecutionContext;
-import nablarch.fw.dicontainer.nablarch.Containers;
 import nablarch.fw.web.HttpRequest;
 import nablarch.fw.web.HttpResponse;
 import nablarch.fw.web.servlet.ServletExecutionContext;
 import net.unit8.http.router.Routes;
 import net.unit8.http.router.RoutingException;
 import oscana.s2n.handler.HttpResourceHolder;
+import oscana.s2n.handler.RouteIndex;
 
 /**
  * 変換元FWとNablarchのデータ型の違いを吸収させるためのデータ変換のユーティリティクラス。<br>
@@ -23,6 +26,24 @@ import oscana.s2n.handler.HttpResourceHolder;
  */
 public class OscanaHttpResourceConverUtil {
 
+    /** ビューを配置するディレクトリ */
+    public static final String VIEW_ROOT = "/WEB-INF/view";
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(OscanaHttpResourceConverUtil.class);
+
+    /** アクションクラス単位にキャッシュする変換結果の最大件数 */
+    private static final int MAX_CACHED_VIEWS = 256;
+
+    /** アクションクラス単位の変換結果のキャッシュ（キーは戻り値、値はレスポンスのパス） */
+    private static final ClassValue<ConcurrentMap<String, String>> VIEW_CACHE =
+            new ClassValue<ConcurrentMap<String, String>>() {
+                @Override
+                protected ConcurrentMap<String, String> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     /**
      * 戻り値(ファイル名)をNablarchの戻り値(HttpResponse型)に変換する。
      * @param obj 変換元FWの戻り値として返されるパス名
@@ -34,10 +55,26 @@ public class OscanaHttpResourceConverUtil {
      */
     public static HttpResponse createHttpResponse(Object obj, Object action, HttpRequest nabRequest,
             ExecutionContext context, String actionName) {
+        return createHttpResponse(obj, action, nabRequest, context, actionName, HttpResourceHolder.current());
+    }
+
+    /**
+     * 戻り値(ファイル名)をNablarchの戻り値(HttpResponse型)に変換する。<br>
+     * <br>
+     * HttpResourceHolderを取得できないスレッド(非同期アクションの完了時など)から呼び出す場合に使用する。
+     * @param obj 変換元FWの戻り値として返されるパス名
+     * @param action Actionクラス(thisを設定)
+     * @param nabRequest NablarchのHttpRequest
+     * @param context NablarchのExecutionContext
+     * @param actionName アクションの名前
+     * @param resource サーブレットリソースへの参照
+     * @return 変換されたHttpResponse
+     */
+    public static HttpResponse createHttpResponse(Object obj, Object action, HttpRequest nabRequest,
+            ExecutionContext context, String actionName, HttpResourceHolder resource) {
 
         String text = null;
 
-        HttpResourceHolder resource = Containers.get().getComponent(HttpResourceHolder.class);
         if(resource.getForcedNextResponse()!=null) {
             return resource.getForcedNextResponse();
         }
@@ -54,8 +91,118 @@ public class OscanaHttpResourceConverUtil {
             throw new UnsupportedOperationException(obj.getClass().getName());
         }
 
+        String url = resolveView(action == null ? null : action.getClass(), text);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.logDebug("jsp=" + url, (Object)null);
+        }
+
+        return new HttpResponse(url);
+    }
+
+    /**
+     * 戻り値(ファイル名)をレスポンスのパスに変換する。<br>
+     * <br>
+     * 変換結果はアクションクラスと戻り値の組み合わせ単位にキャッシュし、以降は変換を行わない。
+     * ただし、routes.xmlの定義により変換結果が変わる戻り値（前後に「/」を付けたパス）はキャッシュしない。
+     * キャッシュはアクションクラス単位に{@link #MAX_CACHED_VIEWS}件までとし、超えた場合は都度変換する。
+     * @param actionClass Actionクラス
+     * @param text 変換元FWの戻り値として返されるパス名
+     * @return レスポンスのパス
+     */
+    private static String resolveView(Class<?> actionClass, String text) {
+        if (actionClass == null || isRouteDependent(text)) {
+            return toViewPath(actionClass, text);
+        }
+        ConcurrentMap<String, String> views = VIEW_CACHE.get(actionClass);
+        String url = views.get(text);
+        if (url == null) {
+            url = toViewPath(actionClass, text);
+            if (views.size() < MAX_CACHED_VIEWS) {
+                views.putIfAbsent(text, url);
+            }
+        }
+        return url;
+    }
+
+    /**
+     * 変換結果がroutes.xmlの定義に依存する戻り値か否かを判定する。
+     * @param text 変換元FWの戻り値として返されるパス名
+     * @return routes.xmlの定義に依存する場合はtrue
+     */
+    private static boolean isRouteDependent(String text) {
+        return !isAbsoluteUrl(text) && !text.endsWith("/indexBack") && text.startsWith("/") && text.endsWith("/");
+    }
+
+    /**
+     * 「http://」または「https://」で始まるか否かを判定する（大文字小文字は区別しない）。
+     * @param text 変換元FWの戻り値として返されるパス名
+     * @return 「http://」または「https://」で始まる場合はtrue
+     */
+    private static boolean isAbsoluteUrl(String text) {
+        return text.regionMatches(true, 0, "http://", 0, 7) || text.regionMatches(true, 0, "https://", 0, 8);
+    }
+
+    /**
+     * パスに対応するルートがroutes.xmlに存在するか否かを判定する。<br>
+     * <br>
+     * {@link RouteIndex}が使用できる場合は索引で判定し、使用できない場合はルーティングを実行して判定する。
+     * @param path パス
+     * @return ルートが存在する場合はtrue
+     */
+    private static boolean existsRoute(String path) {
+        RouteIndex index = RouteIndex.current();
+        if (index.isSupported()) {
+            return index.contains(path);
+        }
+        try {
+            Routes.recognizePath(path, "GET");
+            return true;
+        } catch (RoutingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * アクションクラスに対応するビューのディレクトリを取得する。<br>
+     * <br>
+     * パッケージの「action」より後の要素と、クラス名から「Action」を除いたもの（先頭は小文字）を
+     * 「/WEB-INF/view」に連結したパスとなる。
+     * 例：「xxx.action.sample.SampleSearchListAction」の場合は「/WEB-INF/view/sample/sampleSearchList」
+     * @param actionClass Actionクラス
+     * @return ビューのディレクトリ（末尾に「/」は付与しない）
+     */
+    public static String getViewDirectory(Class<?> actionClass) {
+        String subPath = "";
+        String fullActionName = actionClass.getName();
+        // 後ろのAction名を消す
+        fullActionName = fullActionName.substring(0, fullActionName.length() - 6);
+        String[] actionPath = fullActionName.split("\\.");
+        boolean actionFlag = false;
+        for (String str : actionPath) {
+
+            if (actionFlag) {
+                // 先頭の文字を小文字にする
+                subPath = subPath + "/" + new StringBuilder().append(Character.toLowerCase(str.charAt(0)))
+                        .append(str.substring(1)).toString();
+            }
+
+            if ("action".equals(str)) {
+                actionFlag = true;
+            }
+
+        }
+        return VIEW_ROOT + subPath;
+    }
+
+    /**
+     * 戻り値(ファイル名)をレスポンスのパスに変換する。
+     * @param actionClass Actionクラス
+     * @param text 変換元FWの戻り値として返されるパス名
+     * @return レスポンスのパス
+     */
+    private static String toViewPath(Class<?> actionClass, String text) {
         String url;
-        if (text.toLowerCase().startsWith("http://") || text.toLowerCase().startsWith("https://")) {
+        if (isAbsoluteUrl(text)) {
             url = text;
             if (url.contains("redirect=true")) {
                url = "redirect:" + url;
@@ -68,9 +215,7 @@ public class OscanaHttpResourceConverUtil {
                 // 最後の「/」を取り除く
                 text = text.substring(0, text.length() - 1);
 
-                try {//パスがroutes.xmlに存在する場合、パスをそのまま返す
-                    Routes.recognizePath(text, "GET");
-                } catch (RoutingException e) {
+                if (!existsRoute(text)) {
                     //パスがroutes.xmlに存在しない場合、「/index」を付与する
                     text = text + "/index";
                 }
@@ -79,44 +224,21 @@ public class OscanaHttpResourceConverUtil {
 
             } else if (text.startsWith("/") && text.endsWith(".jsp")) {
                 //jspファイル指定の場合
-                url = "/WEB-INF/view" + text;
+                url = VIEW_ROOT + text;
             } else {
                 //一般的なPathの場合
-                String subPath = "";
-                Class<?> actionClazz = action.getClass();
-                String fullActionName = actionClazz.getName();
-                // 後ろのAction名を消す
-                fullActionName = fullActionName.substring(0, fullActionName.length() - 6);
-                String[] actionPath = fullActionName.split("\\.");
-                boolean actionFlag = false;
-                for (String str : actionPath) {
-
-                    if (actionFlag) {
-                        // 先頭の文字を小文字にする
-                        subPath = subPath + "/" + new StringBuilder().append(Character.toLowerCase(str.charAt(0)))
-                                .append(str.substring(1)).toString();
-                    }
-
-                    if ("action".equals(str)) {
-                        actionFlag = true;
-                    }
-
-                }
-
+                String subPath = getViewDirectory(actionClass);
                 if (!text.startsWith("/")) {
                     subPath = subPath + "/";
                 }
-                url = "/WEB-INF/view" + subPath + text;
+                url = subPath + text;
             }
         }
         if (url.endsWith("/")) {
             //JSPファイル名省略
             url = url + "index.jsp";
         }
-        Logger logger = LoggerManager.get(OscanaHttpResourceConverUtil.class);
-        logger.logDebug("jsp=" + url, (Object)null);
-
-        return new HttpResponse(url);
+        return url;
     }
 
     /**
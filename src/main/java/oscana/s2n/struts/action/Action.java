@@ -31,15 +31,11 @@ package oscana.s2n.struts.action;
 
 import static nablarch.fw.ExecutionContext.*;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import nablarch.core.message.ApplicationException;
-import nablarch.core.message.Message;
 import nablarch.fw.ExecutionContext;
 import nablarch.fw.web.HttpRequest;
 import nablarch.fw.web.servlet.ServletExecutionContext;
@@ -87,6 +83,17 @@ public class Action {
         return new ActionMappingTool(nabHttpRequest, context);
     }
 
+    /**
+     * アクションクラスに{@link Forward}で定義したフォーワード先を保持する{@link ActionMapping}を取得する。
+     * <p/>
+     * {@link ActionMapping}はアクションクラス単位に共有され、変更できない。
+     * 詳細は{@link ForwardRegistry}を参照。
+     * @return ActionMapping
+     */
+    protected ActionMapping getActionMapping() {
+        return ForwardRegistry.getMapping(getClass());
+    }
+
     protected HttpServletResponse createStrutsResponse(ExecutionContext context) {
         ServletExecutionContext cxt = (ServletExecutionContext) context;
         return cxt.getServletResponse();
@@ -127,6 +134,9 @@ public class Action {
      * is set), if any messages are required. Otherwise, ensure that the
      * request attribute is not created.</p>
      *
+     * <p>移植内容の変更点：メッセージの文言は{@link MessageList}で参照時に生成する。
+     * メッセージテンプレートは格納時に取得するため、存在しない場合は本メソッドで例外となる。</p>
+     *
      * @param request  The servlet request we are processing.
      * @param messages The messages to save. <code>null</code> or empty
      *                 messages removes any existing ActionMessages in the
@@ -141,13 +151,8 @@ public class Action {
             return;
         }
 
-        // Save the messages we need
-        List<String> msgs = new ArrayList<String>();
-        for(Message msg :messages.getMessages()) {
-            msgs.add(msg.formatMessage());
-        }
-
-        request.setAttribute(Globals.MESSAGE_KEY, msgs);
+        // Save the messages we need（テンプレートは格納時に取得し、文言は参照時に生成する）
+        request.setAttribute(Globals.MESSAGE_KEY, new MessageList(messages.getMessages()));
     }
 
     /**
@@ -151,10 +151,21 @@ public class ActionForward {
      * @return リスポンス
      */
     public HttpResponse toResponse() {
-        if (this.path.endsWith(".jsp")) {
-            return new HttpResponse(this.path);
+        return new HttpResponse(toContentPath(this.path));
+    }
+
+    /**
+     * パスをレスポンスのコンテンツパスに変換する。
+     * <p/>
+     * 「.jsp」で終わる場合はそのまま、それ以外は内部フォーワード（"forward://"）とする。
+     * @param path パス
+     * @return コンテンツパス
+     */
+    static String toContentPath(String path) {
+        if (path.endsWith(".jsp")) {
+            return path;
         } else {
-            return new HttpResponse("forward://" + this.path);
+            return "forward://" + path;
         }
     }
 
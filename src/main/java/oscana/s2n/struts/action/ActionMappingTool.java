@@ -12,6 +12,8 @@ import nablarch.fw.web.HttpRequest;
  *   ・StrutsのActionMappingはStruts-config.xmlの中身が反映されるが、NablarchにはStruts-config.xmlが無い。<br>
  *   ・OscanaではStruts-config.xmlの内容をActionのソースコード上に展開することでActionMappingの動作を再現する。<br>
  *   ・ActionMappingToolはActionMappingを生成するためのツールである。<br>
+ *   ・フォーワード先が固定の場合は、{@link Forward}でアクションクラスに定義し、{@link Action#getActionMapping()}で
+ *     共有の{@link ActionMapping}を取得することで、リクエスト毎のオブジェクトの生成を回避できる。<br>
  *
  * @author Fumihiko Yamamoto
  *
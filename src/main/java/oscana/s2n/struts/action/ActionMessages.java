@@ -30,11 +30,15 @@
 package oscana.s2n.struts.action;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import nablarch.core.message.ApplicationException;
 import nablarch.core.message.Message;
-import nablarch.core.validation.ValidationUtil;
+import nablarch.core.validation.ValidationResultMessage;
 
 /**
  * ActionMessagesとNablarch messageの変換をするクラス。<br>
@@ -43,8 +47,12 @@ import nablarch.core.validation.ValidationUtil;
  * 移植内容の変更点：<br>
  * <br>
  * ・message属性：メッセージデータの形式をStrutsのもの(ActionMessageItem)からNablarchのもの(Message)に変更。<br>
- * ・addメソッド：add(String property, String messageId)を追加。<br>
+ * ・addメソッド：add(String property, String messageId)を追加。
+ * メッセージIDから生成するメッセージはメッセージテンプレートを参照できるものとし、
+ * {@link MessageList}が格納時にメッセージテンプレートを取得できるようにする。<br>
  * ・sizeメソッド：メッセージデータの形式の変更に伴うカウント方法の変更。<br>
+ * ・get、size、propertiesメソッド：プロパティ単位の索引から取得する。
+ * プロパティは{@link ValidationResultMessage#getPropertyName()}とし、それ以外のメッセージは{@link #GLOBAL_MESSAGE}とする。<br>
  * ・Serializable：直列化対象外に変更。
  *
  * @see org.apache.struts.action.ActionMessages
@@ -56,18 +64,27 @@ public class ActionMessages {
     public static final String GLOBAL_MESSAGE = "org.apache.struts.action.GLOBAL_MESSAGE";
 
     /** メッセージのリスト */
-    private List<Message> messages = new ArrayList<Message>();
+    private final MessageArrayList messages = new MessageArrayList();
+
+    /** プロパティ単位のメッセージ（プロパティの追加順） */
+    private final Map<String, List<Message>> index = new LinkedHashMap<String, List<Message>>();
+
+    /** 索引を作成した時点のメッセージのリストの変更回数（未作成の場合は-1） */
+    private int indexedModCount = -1;
 
     public ActionMessages() {
         super();
     }
 
     /**
-     * コンストラクタ。
-     * @param messages メッセージ
+     * コンストラクタ。<br>
+     * 引数のメッセージを複製する。引数のメッセージとリストは共有しない。
+     * @param messages メッセージ（nullの場合は空）
      */
     public ActionMessages(ActionMessages messages) {
-        this.messages = messages.getMessages();
+        if (messages != null) {
+            this.messages.addAll(messages.getMessages());
+        }
     }
 
     /**
@@ -85,7 +102,7 @@ public class ActionMessages {
      * @param messageId メッセージid
      */
     public void add(String property, String messageId) {
-        messages.add(ValidationUtil.createMessageForProperty(property, messageId));
+        append(ResourceMessage.create(property, messageId));
     }
 
     /**
@@ -113,6 +130,39 @@ public class ActionMessages {
         return messages.size();
     }
 
+    /**
+     * プロパティのメッセージの個数を返却する。
+     *
+     * @param property プロパティ
+     * @return 長さ
+     */
+    public int size(String property) {
+        final List<Message> list = getIndex().get(property);
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * プロパティのメッセージを返却する。
+     *
+     * @param property プロパティ
+     * @return メッセージ（追加順）
+     */
+    public Iterator<Message> get(String property) {
+        final List<Message> list = getIndex().get(property);
+        return list == null
+                ? Collections.<Message> emptyIterator()
+                : Collections.unmodifiableList(list).iterator();
+    }
+
+    /**
+     * メッセージが存在するプロパティを返却する。
+     *
+     * @return プロパティ（最初にメッセージが追加された順）
+     */
+    public Iterator<String> properties() {
+        return Collections.unmodifiableSet(getIndex().keySet()).iterator();
+    }
+
     /**
      * Messageリストを取得する。
      * @return Messageリスト
@@ -126,8 +176,9 @@ public class ActionMessages {
      * @param errors {@link ActionMessages}のオブジェクト
      */
     public void add(ActionMessages errors) {
-        messages.addAll(errors.getMessages());
-
+        for (Message message : errors.getMessages()) {
+            append(message);
+        }
     }
 
     /**
@@ -136,7 +187,87 @@ public class ActionMessages {
      * @param actionMessage {@link ActionMessages}のオブジェクト
      */
     public void add(String property, ActionMessage actionMessage) {
-        messages.add(
-                ValidationUtil.createMessageForProperty(property, actionMessage.getKey(), actionMessage.getValues()));
+        append(ResourceMessage.create(property, actionMessage.getKey(), actionMessage.getValues()));
+    }
+
+    /**
+     * メッセージのプロパティを取得する。
+     *
+     * @param message メッセージ
+     * @return プロパティ。{@link ValidationResultMessage}以外の場合は{@link #GLOBAL_MESSAGE}
+     */
+    static String getProperty(Message message) {
+        return message instanceof ValidationResultMessage
+                ? ((ValidationResultMessage) message).getPropertyName()
+                : GLOBAL_MESSAGE;
+    }
+
+    /**
+     * メッセージをリストに追加する。索引が最新の場合は索引にも追加する。
+     *
+     * @param message メッセージ
+     */
+    private void append(Message message) {
+        final boolean current = indexedModCount == messages.getModCount();
+        messages.add(message);
+        if (current) {
+            addToIndex(message);
+            indexedModCount = messages.getModCount();
+        }
+    }
+
+    /**
+     * プロパティ単位の索引を取得する。<br>
+     * {@link #getMessages()}のリストが直接変更された場合は索引を作成し直す。
+     *
+     * @return プロパティ単位のメッセージ
+     */
+    private Map<String, List<Message>> getIndex() {
+        if (indexedModCount != messages.getModCount()) {
+            index.clear();
+            for (Message message : messages) {
+                addToIndex(message);
+            }
+            indexedModCount = messages.getModCount();
+        }
+        return index;
+    }
+
+    /**
+     * 索引にメッセージを追加する。
+     *
+     * @param message メッセージ
+     */
+    private void addToIndex(Message message) {
+        final String property = getProperty(message);
+        List<Message> list = index.get(property);
+        if (list == null) {
+            list = new ArrayList<Message>(2);
+            index.put(property, list);
+        }
+        list.add(message);
+    }
+
+    /**
+     * 変更回数を参照できるメッセージのリスト。要素の置き換えも変更として数える。
+     */
+    private static final class MessageArrayList extends ArrayList<Message> {
+
+        /** シリアルバージョンUID */
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Message set(int index, Message element) {
+            modCount++;
+            return super.set(index, element);
+        }
+
+        /**
+         * 変更回数を取得する。
+         * @return 変更回数
+         */
+        int getModCount() {
+            return modCount;
+        }
     }
 }
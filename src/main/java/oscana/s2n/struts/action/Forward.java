@@ -0,0 +1,44 @@
+package oscana.s2n.struts.action;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * アクションクラスのフォーワード先を定義するアノテーション。<br>
+ * <br>
+ * Struts-config.xmlのforward要素に相当する。
+ * 定義したフォーワード先は{@link ForwardRegistry}がアクションクラス単位に一度だけ読み込み、
+ * {@link Action#getActionMapping()}で取得した{@link ActionMapping}から名前で参照する。
+ * <pre>
+ * &#64;Forward(name = "success", path = "/WEB-INF/view/sample/success.jsp")
+ * &#64;Forward(name = "back", path = "/sample/sampleSearchList/index")
+ * public class SampleAction extends Action {
+ * </pre>
+ *
+ * @see ForwardRegistry
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(Forwards.class)
+public @interface Forward {
+
+    /**
+     * フォーワード先の名前。
+     * @return 名前
+     */
+    String name();
+
+    /**
+     * フォーワード先のパス。
+     * <p/>
+     * 「.jsp」で終わる場合はJSP、それ以外はアクションへの内部フォーワードとなる。
+     * 詳細は{@link ActionForward#toResponse()}を参照。
+     * @return パス
+     */
+    String path();
+}
@@ -0,0 +1,193 @@
+package oscana.s2n.struts.action;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import nablarch.fw.web.HttpResponse;
+
+/**
+ * アクションクラスに定義されたフォーワード先（{@link Forward}）を保持するクラス。<br>
+ * <br>
+ * フォーワード先はアクションクラス単位に一度だけ読み込み、変更できない{@link ActionMapping}、{@link ActionForward}として共有する。
+ * レスポンスのコンテンツパスは読み込み時に解決するため、{@link ActionMapping#findForward(String)}は表の参照のみとなり、
+ * {@link ActionMappingTool}のようにリクエスト毎にオブジェクトを生成することはない。<br>
+ * スーパークラスに定義されたフォーワード先も対象とし、同じ名前のフォーワード先はサブクラスの定義を優先する。<br>
+ * 共有するインスタンスの設定を変更するメソッドを呼び出した場合は{@link UnsupportedOperationException}を送出する。
+ */
+public final class ForwardRegistry {
+
+    /** アクションクラス単位の{@link ActionMapping} */
+    private static final ClassValue<ActionMapping> MAPPINGS = new ClassValue<ActionMapping>() {
+        @Override
+        protected ActionMapping computeValue(Class<?> type) {
+            return new FixedActionMapping(readForwards(type));
+        }
+    };
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ForwardRegistry() {
+    }
+
+    /**
+     * アクションクラスに対応する{@link ActionMapping}を取得する。
+     *
+     * @param actionClass アクションクラス
+     * @return {@link ActionMapping}（変更不可）
+     * @throws IllegalStateException 同じクラスに同じ名前のフォーワード先が定義されている場合
+     */
+    public static ActionMapping getMapping(Class<?> actionClass) {
+        return MAPPINGS.get(actionClass);
+    }
+
+    /**
+     * アクションクラスに定義されたフォーワード先のうち、JSPのパスを取得する。
+     *
+     * @param actionClass アクションクラス
+     * @return JSPのパス（昇順、変更不可）
+     * @throws IllegalStateException 同じクラスに同じ名前のフォーワード先が定義されている場合
+     */
+    public static Set<String> getViews(Class<?> actionClass) {
+        return ((FixedActionMapping) MAPPINGS.get(actionClass)).views;
+    }
+
+    /**
+     * アクションクラスとスーパークラスに定義されたフォーワード先を読み込む。
+     *
+     * @param actionClass アクションクラス
+     * @return 名前とフォーワード先
+     */
+    private static Map<String, ActionForward> readForwards(Class<?> actionClass) {
+        final List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+        for (Class<?> clazz = actionClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            hierarchy.add(0, clazz);
+        }
+
+        final Map<String, ActionForward> forwards = new HashMap<String, ActionForward>();
+        for (Class<?> clazz : hierarchy) {
+            final Set<String> names = new HashSet<String>();
+            for (Forward forward : clazz.getDeclaredAnnotationsByType(Forward.class)) {
+                if (!names.add(forward.name())) {
+                    throw new IllegalStateException("duplicate forward name. class=[" + clazz.getName()
+                            + "] name=[" + forward.name() + "]");
+                }
+                forwards.put(forward.name(), new FixedActionForward(forward.name(), forward.path()));
+            }
+        }
+        return Collections.unmodifiableMap(forwards);
+    }
+
+    /**
+     * 変更できない{@link ActionMapping}。
+     */
+    private static final class FixedActionMapping extends ActionMapping {
+
+        /** フォーワード先のうち、JSPのパス */
+        private final Set<String> views;
+
+        /**
+         * コンストラクタ。
+         * @param forwardMap 名前とフォーワード先（変更不可）
+         */
+        private FixedActionMapping(Map<String, ActionForward> forwardMap) {
+            super(forwardMap);
+            final Set<String> paths = new TreeSet<String>();
+            for (ActionForward forward : forwardMap.values()) {
+                if (forward.getPath().endsWith(".jsp")) {
+                    paths.add(forward.getPath());
+                }
+            }
+            this.views = Collections.unmodifiableSet(paths);
+        }
+
+        @Override
+        public void setActionId(String actionId) {
+            throw unsupported();
+        }
+
+        @Override
+        public void setValidate(boolean validate) {
+            throw unsupported();
+        }
+
+        @Override
+        public void setAttribute(String attribute) {
+            throw unsupported();
+        }
+
+        @Override
+        public void setScope(String scope) {
+            throw unsupported();
+        }
+
+        @Override
+        public void setPath(String path) {
+            throw unsupported();
+        }
+
+        @Override
+        public void setParameter(String parameter) {
+            throw unsupported();
+        }
+
+        @Override
+        public void setType(String type) {
+            throw unsupported();
+        }
+
+        @Override
+        public void setName(String name) {
+            throw unsupported();
+        }
+    }
+
+    /**
+     * 変更できない{@link ActionForward}。レスポンスのコンテンツパスは生成時に解決する。
+     */
+    private static final class FixedActionForward extends ActionForward {
+
+        /** レスポンスのコンテンツパス */
+        private final String contentPath;
+
+        /**
+         * コンストラクタ。
+         * @param name 名前
+         * @param path パス
+         */
+        private FixedActionForward(String name, String path) {
+            super(path);
+            this.name = name;
+            this.contentPath = toContentPath(path);
+        }
+
+        @Override
+        public void setPath(String path) {
+            throw unsupported();
+        }
+
+        @Override
+        public void setName(String name) {
+            throw unsupported();
+        }
+
+        @Override
+        public HttpResponse toResponse() {
+            return new HttpResponse(contentPath);
+        }
+    }
+
+    /**
+     * 共有するインスタンスの設定を変更しようとした場合の例外を生成する。
+     * @return 例外
+     */
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("shared ActionMapping and ActionForward can not be modified.");
+    }
+}
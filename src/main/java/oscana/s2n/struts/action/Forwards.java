@@ -0,0 +1,24 @@
+package oscana.s2n.struts.action;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link Forward}を複数指定するためのアノテーション。
+ *
+ * @see Forward
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Forwards {
+
+    /**
+     * フォーワード先の定義。
+     * @return フォーワード先の定義
+     */
+    Forward[] value();
+}
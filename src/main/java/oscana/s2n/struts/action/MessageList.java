@@ -0,0 +1,149 @@
+package oscana.s2n.struts.action;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import nablarch.core.ThreadContext;
+import nablarch.core.message.Message;
+
+/**
+ * メッセージの文言を参照時に生成するリスト。<br>
+ * <br>
+ * {@link Action#saveMessages}がリクエストに格納するメッセージの一覧。
+ * 各メッセージの文言は初めて参照された時点で{@link Message#formatMessage()}により生成し、
+ * スレッドコンテキストの言語単位にキャッシュする。
+ * 画面に表示されないメッセージの文言は生成しない。<br>
+ * メッセージテンプレートは生成時（アクションでの格納時）にスレッドコンテキストの言語で取得するため、
+ * メッセージが存在しない場合はアクションで例外となる。遅延するのは文言の生成（書式設定）のみとする。
+ * メッセージテンプレートを取得できるのは{@link ActionMessages}がメッセージIDから生成したメッセージとし、
+ * それ以外のメッセージは参照時にメッセージテンプレートを取得する。<br>
+ * {@link #getByProperty()}でプロパティ単位にメッセージを参照できる。
+ * プロパティに紐付かないメッセージは{@link ActionMessages#GLOBAL_MESSAGE}に分類する。<br>
+ * <br>
+ * 本クラスはリクエスト単位に使用することを前提としており、スレッドセーフではない。
+ */
+public final class MessageList extends AbstractList<String> {
+
+    /** 言語が設定されていない場合のキャッシュのキー */
+    private static final Locale NO_LANGUAGE = new Locale("");
+
+    /** メッセージ */
+    private final Message[] messages;
+
+    /** 言語単位の文言のキャッシュ */
+    private final Map<Locale, String[]> formatted = new HashMap<Locale, String[]>(2);
+
+    /** プロパティ単位のメッセージ（参照時に生成する） */
+    private Map<String, List<String>> byProperty;
+
+    /**
+     * コンストラクタ。<br>
+     * <br>
+     * {@link ActionMessages}がメッセージIDから生成したメッセージは、
+     * スレッドコンテキストの言語でメッセージテンプレートを取得する。
+     *
+     * @param messages メッセージ
+     * @throws nablarch.core.message.MessageNotFoundException メッセージテンプレートが存在しない場合
+     */
+    public MessageList(List<Message> messages) {
+        this.messages = messages.toArray(new Message[messages.size()]);
+        final Locale language = ThreadContext.getLanguage();
+        for (Message message : this.messages) {
+            if (message instanceof ResourceMessage) {
+                ((ResourceMessage) message).getResource().getValue(language);
+            }
+        }
+    }
+
+    /**
+     * メッセージの文言を取得する。
+     * <p/>
+     * スレッドコンテキストの言語で生成済みの場合は、生成済みの文言を返す。
+     * @param index 位置
+     * @return 文言
+     */
+    @Override
+    public String get(int index) {
+        final Locale language = ThreadContext.getLanguage();
+        final Locale key = language == null ? NO_LANGUAGE : language;
+        String[] cache = formatted.get(key);
+        if (cache == null) {
+            cache = new String[messages.length];
+            formatted.put(key, cache);
+        }
+        String message = cache[index];
+        if (message == null) {
+            message = messages[index].formatMessage();
+            cache[index] = message;
+        }
+        return message;
+    }
+
+    @Override
+    public int size() {
+        return messages.length;
+    }
+
+    /**
+     * プロパティ単位のメッセージの文言を取得する。
+     * <p/>
+     * 各リストの文言は本リストと同様に参照時に生成する。
+     * @return プロパティ名とメッセージの文言（追加順）
+     */
+    public Map<String, List<String>> getByProperty() {
+        if (byProperty == null) {
+            final Map<String, List<Integer>> indexes = new LinkedHashMap<String, List<Integer>>();
+            for (int i = 0; i < messages.length; i++) {
+                final String property = ActionMessages.getProperty(messages[i]);
+                List<Integer> list = indexes.get(property);
+                if (list == null) {
+                    list = new ArrayList<Integer>();
+                    indexes.put(property, list);
+                }
+                list.add(i);
+            }
+            final Map<String, List<String>> result = new LinkedHashMap<String, List<String>>();
+            for (Map.Entry<String, List<Integer>> entry : indexes.entrySet()) {
+                result.put(entry.getKey(), new PropertyMessages(entry.getValue()));
+            }
+            byProperty = Collections.unmodifiableMap(result);
+        }
+        return byProperty;
+    }
+
+    /**
+     * プロパティに紐付くメッセージの文言のリスト。本リストの文言を参照する。
+     */
+    private final class PropertyMessages extends AbstractList<String> {
+
+        /** 本リストでの位置 */
+        private final int[] indexes;
+
+        /**
+         * コンストラクタ。
+         * @param indexes 本リストでの位置
+         */
+        private PropertyMessages(List<Integer> indexes) {
+            this.indexes = new int[indexes.size()];
+            for (int i = 0; i < this.indexes.length; i++) {
+                this.indexes[i] = indexes.get(i);
+            }
+        }
+
+        @Override
+        public String get(int index) {
+            return MessageList.this.get(indexes[index]);
+        }
+
+        @Override
+        public int size() {
+            return indexes.length;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package oscana.s2n.struts.action;
+
+import nablarch.core.message.MessageUtil;
+import nablarch.core.message.StringResource;
+import nablarch.core.validation.ValidationResultMessage;
+
+/**
+ * メッセージテンプレート（{@link StringResource}）を参照できるメッセージ。<br>
+ * <br>
+ * {@link ActionMessages}がメッセージIDから生成するメッセージ。
+ * {@link MessageList}は格納時に本クラスのメッセージテンプレートを取得し、
+ * 文言の生成のみを参照時まで遅延する。
+ */
+final class ResourceMessage extends ValidationResultMessage {
+
+    /** シリアルバージョンUID */
+    private static final long serialVersionUID = 1L;
+
+    /** メッセージテンプレート */
+    private final StringResource resource;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param property プロパティ
+     * @param resource メッセージテンプレート
+     * @param options メッセージの埋め込み値
+     */
+    ResourceMessage(String property, StringResource resource, Object[] options) {
+        super(property, resource, options);
+        this.resource = resource;
+    }
+
+    /**
+     * メッセージIDからメッセージを生成する。
+     *
+     * @param property プロパティ
+     * @param messageId メッセージID
+     * @param options メッセージの埋め込み値
+     * @return メッセージ
+     * @throws nablarch.core.message.MessageNotFoundException メッセージが存在しない場合
+     */
+    static ResourceMessage create(String property, String messageId, Object... options) {
+        return new ResourceMessage(property, MessageUtil.getStringResource(messageId), options);
+    }
+
+    /**
+     * メッセージテンプレートを取得する。
+     * @return メッセージテンプレート
+     */
+    StringResource getResource() {
+        return resource;
+    }
+}
@@ -31,8 +31,7 @@ package oscana.s2n.struts.util;
 
 import java.util.Locale;
 
-import nablarch.core.message.MessageLevel;
-import nablarch.core.message.MessageUtil;
+import oscana.s2n.common.MessageTemplateCache;
 
 /**
  * リソースファイルからメッセージを取得するクラス。<br>
@@ -43,6 +42,7 @@ import nablarch.core.message.MessageUtil;
  *    ・{@link nablarch.core.message.MessageUtil} を利用して、メッセージを取得する。<br>
  *    ・ローケールはサポートしない。<br>
  *    ・Strutsでは機能単位でメッセージファイルを作成するが、Nablarchではアプリケーション単位で作成する。<br>
+ *    ・{@link MessageTemplateCache}が有効な場合は、解析済みのメッセージテンプレートを使用する。<br>
  *
  */
 public class MessageResources {
@@ -83,7 +83,7 @@ public class MessageResources {
      * @return message
      */
     public String getMessage(String messageId, Object path, String name) {
-        return MessageUtil.createMessage(MessageLevel.ERROR, messageId, path, name).formatMessage();
+        return MessageTemplateCache.format(null, messageId, path, name);
     }
 
     /**
@@ -119,9 +119,7 @@ public class MessageResources {
      * @return message
      */
     public String getMessage(Locale locale, String messageId, Object... args) {
-        return locale == null
-                ? MessageUtil.createMessage(MessageLevel.ERROR, messageId, args).formatMessage()
-                : MessageUtil.createMessage(MessageLevel.ERROR, messageId, args).formatMessage(locale);
+        return MessageTemplateCache.format(locale, messageId, args);
     }
 
     /**
@@ -133,8 +131,6 @@ public class MessageResources {
      * @return message
      */
     public String getMessage(Locale locale, String messageId) {
-        return locale == null
-                ? MessageUtil.createMessage(MessageLevel.ERROR, messageId).formatMessage()
-                : MessageUtil.createMessage(MessageLevel.ERROR, messageId).formatMessage(locale);
+        return MessageTemplateCache.format(locale, messageId);
     }
 }
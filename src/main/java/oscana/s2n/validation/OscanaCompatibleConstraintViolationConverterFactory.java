@@ -17,13 +17,12 @@ import javax.validation.ConstraintViolation;
 import javax.validation.Path;
 
 import nablarch.core.message.Message;
-import nablarch.core.message.MessageLevel;
-import nablarch.core.message.MessageUtil;
 import nablarch.core.message.StringResource;
 import nablarch.core.util.StringUtil;
 import nablarch.core.validation.ValidationResultMessage;
 import nablarch.core.validation.ee.ConstraintViolationConverter;
 import nablarch.core.validation.ee.ConstraintViolationConverterFactory;
+import oscana.s2n.common.MessageTemplateCache;
 
 /**
  * Strutsの設定ファイル形式と互換性があるメッセージ変換モジュール。
@@ -211,9 +210,7 @@ public class OscanaCompatibleConstraintViolationConverterFactory extends Constra
             if (StringUtil.isNullOrEmpty(messageIdOfItemName)) {
                 return message;
             }
-            String fieldName = locale == null
-                    ? MessageUtil.createMessage(MessageLevel.ERROR, messageIdOfItemName).formatMessage()
-                    : MessageUtil.createMessage(MessageLevel.ERROR, messageIdOfItemName).formatMessage(locale);
+            String fieldName = MessageTemplateCache.format(locale, messageIdOfItemName);
             return message.replace("{fieldName}", fieldName);
         }
     }
@@ -28,7 +28,7 @@ import static java.lang.annotation.RetentionPolicy.*;
 import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Collection;
 
@@ -42,7 +42,11 @@ import javax.validation.Payload;
  *
  * target属性：<br>
  * このバリデーションを呼び出しているActionメソッド名が、バリデーションのtarget属性に設定されているターゲットリストに含まれてない場合、チェック処理を行わない。<br>
- * target属性が設定されてない場合は、無条件にチェック処理を行う。
+ * target属性が設定されてない場合は、無条件にチェック処理を行う。<br>
+ * <br>
+ * strict属性：<br>
+ * trueの場合、日付として存在しない値（2020/02/30など）、日付パターンの後に余分な文字列が続く値を不正とする。
+ * 設定されてない場合（false）は、{@link SimpleDateFormat}の寛容な解析で先頭から日付として解析できれば正しい値とする。
  *
  * @author Fumihiko Yamamoto
  * @see org.seasar.struts.annotation.DateType
@@ -75,13 +79,24 @@ public @interface ParseDate {
     /** 日付パータン */
     String datePattern() default "";
 
+    /** 厳密に解析するか否か */
+    boolean strict() default false;
+
     /**
-     * 日付かどうかをチェックするクラス。
+     * 日付かどうかをチェックするクラス。<br>
+     * <br>
+     * 日付パターンは初期化時に一度だけ解析する。
+     * {@link SimpleDateFormat}はスレッドセーフではないため、解析済みのインスタンスを複製元として保持し、
+     * チェック毎に複製して使用する。複製は日付パターンの解析より軽量であり、スレッド単位の状態を持たない。
+     * 解析は{@link ParsePosition}を使用して行い、不正な値の判定に例外を使用しない。
      */
     class ParseDateValidator extends ValidateTarget implements ConstraintValidator<ParseDate, Object> {
 
-        /** 日付パータン */
-        private String datePattern;
+        /** 解析済みの日付フォーマット（書式設定には使用せず、複製元とする） */
+        private SimpleDateFormat prototype;
+
+        /** 厳密に解析するか否か */
+        private boolean strict;
 
         /**
          * ParseDateValidatorを初期化する。
@@ -90,7 +105,9 @@ public @interface ParseDate {
          */
         @Override
         public void initialize(ParseDate constraintAnnotation) {
-            datePattern = constraintAnnotation.datePattern();
+            prototype = new SimpleDateFormat(constraintAnnotation.datePattern());
+            prototype.setLenient(!constraintAnnotation.strict());
+            strict = constraintAnnotation.strict();
             setTargets(constraintAnnotation.target());
         }
 
@@ -123,17 +140,14 @@ public @interface ParseDate {
                 strValue = value.toString();
             }
 
-            try {
-                SimpleDateFormat sdf = new SimpleDateFormat(datePattern);
-                sdf.parse(strValue);
-            } catch (ParseException e) {
+            final ParsePosition position = new ParsePosition(0);
+            final SimpleDateFormat format = (SimpleDateFormat) prototype.clone();
+            if (format.parse(strValue, position) == null || position.getIndex() == 0) {
                 //不正な日付
                 return false;
             }
-
-            return true;
-
+            return !strict || position.getIndex() == strValue.length();
         }
 
     }
-}
\ No newline at end of file
+}
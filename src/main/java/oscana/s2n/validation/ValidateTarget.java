@@ -1,28 +1,53 @@
 package oscana.s2n.validation;
 
-import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import nablarch.core.ThreadContext;
 import nablarch.core.util.StringUtil;
 import oscana.s2n.common.S2NConstants;
 
 /**
- * 特定のAction時にのみバリデーションを実行させる機能をもつバリデータ向けの共通処理。
+ * 特定のAction時にのみバリデーションを実行させる機能をもつバリデータ向けの共通処理。<br>
+ * <br>
+ * 対象メソッド名はバリデータの初期化時に番号に変換し、番号の集合（{@link BitSet}）として保持する。
+ * 番号を割り当てるのは対象メソッド名（アノテーションに指定された名前）のみであり、リクエストから決まるActionメソッド名には割り当てない。<br>
+ * Actionメソッド名の番号はメソッドのバインド時（{@code S2NRoutesMethodBinder}）にスレッドコンテキストに格納されるため、
+ * 判定はその番号のビットを参照するのみとする。
+ * 番号が格納されていない場合（番号が割り当てられていないActionメソッド名の場合、
+ * スレッドコンテキストにActionメソッド名のみを設定した場合）は、Actionメソッド名から割り当て済みの番号を検索し、
+ * 割り当てられていない場合は対象外とする。
  *
  * @author Rai Shuu
  */
 public class ValidateTarget {
 
-    /** 対象メソッドのリスト */
-    private final java.util.List<String> targets = new ArrayList<>();
+    /** メソッド名と番号の対応（全バリデータで共有する） */
+    private static final ConcurrentMap<String, Integer> METHOD_IDS = new ConcurrentHashMap<>();
+
+    /** 次に割り当てるメソッドの番号 */
+    private static final AtomicInteger NEXT_METHOD_ID = new AtomicInteger();
+
+    /** 対象メソッドの番号の集合（nullの場合は全メソッドが対象） */
+    private BitSet targets;
 
     /**
      * Actionメソッド名がバリデーションの対象であるかをチェックする。
      * @return バリデーション対象の場合はtrue
      */
     protected boolean isTarget() {
-        String methodName = (String) ThreadContext.getObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME);
-        return targets.isEmpty() || targets.contains(methodName);
+        if (targets == null) {
+            return true;
+        }
+        final Object methodId = ThreadContext.getObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID);
+        if (methodId != null) {
+            return targets.get((Integer) methodId);
+        }
+        final Object methodName = ThreadContext.getObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME);
+        final Integer id = methodName == null ? null : METHOD_IDS.get(methodName);
+        return id != null && targets.get(id);
     }
 
     /**
@@ -33,8 +58,61 @@ public class ValidateTarget {
         if (StringUtil.isNullOrEmpty(targetsString)) {
             return;
         }
+        final BitSet bits = targets == null ? new BitSet() : (BitSet) targets.clone();
+        for (String target : targetsString.split(",")) {
+            bits.set(assignMethodId(target.trim()));
+        }
+        targets = bits;
+    }
+
+    /**
+     * Actionメソッド名が対象メソッドに含まれるかをチェックする。<br>
+     * <br>
+     * 対象メソッドの解釈は{@link #setTargets(String)}、{@link #isTarget()}と同じとする。
+     *
+     * @param targetsString 対象メソッド（カンマ区切り）
+     * @param methodName Actionメソッド名
+     * @return 対象メソッドが指定されていない場合、Actionメソッド名が含まれる場合はtrue
+     */
+    public static boolean isTarget(String targetsString, String methodName) {
+        if (StringUtil.isNullOrEmpty(targetsString)) {
+            return true;
+        }
+        if (methodName == null) {
+            return false;
+        }
         for (String target : targetsString.split(",")) {
-            targets.add(target.trim());
+            if (target.trim().equals(methodName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * メソッド名に対応する番号を取得する。<br>
+     * <br>
+     * 番号はいずれかのバリデータの対象メソッドに指定されたメソッド名にのみ割り当てられる。
+     * 本メソッドは番号を割り当てないため、リクエストから決まる任意のメソッド名を指定してもよい。
+     *
+     * @param methodName メソッド名
+     * @return 番号。割り当てられていない場合はnull
+     */
+    public static Integer findMethodId(String methodName) {
+        return methodName == null ? null : METHOD_IDS.get(methodName);
+    }
+
+    /**
+     * 対象メソッド名に対応する番号を取得する。未割り当ての場合は割り当てる。
+     *
+     * @param methodName 対象メソッド名
+     * @return 番号
+     */
+    private static Integer assignMethodId(String methodName) {
+        final Integer id = METHOD_IDS.get(methodName);
+        if (id != null) {
+            return id;
         }
+        return METHOD_IDS.computeIfAbsent(methodName, name -> NEXT_METHOD_ID.getAndIncrement());
     }
 }
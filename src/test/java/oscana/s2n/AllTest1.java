@@ -3,17 +3,31 @@ package oscana.s2n;
 import junit.framework.JUnit4TestAdapter;
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import oscana.s2n.common.MessageCatalogHolderTest;
+import oscana.s2n.common.MessageCatalogTest;
+import oscana.s2n.common.MessageTemplateCacheTest;
 import oscana.s2n.common.ParamFilterTest;
+import oscana.s2n.common.S2NConfigFinderTest;
 import oscana.s2n.common.dao.S2NDaoContextFactoryTest;
 import oscana.s2n.common.dao.S2NDaoContextTest;
+import oscana.s2n.handler.ActionPipelineTest;
+import oscana.s2n.handler.ActionWarmUpTest;
+import oscana.s2n.handler.AsyncResponseWriterTest;
+import oscana.s2n.handler.ForwardDispatcherTest;
 import oscana.s2n.handler.HttpResourceHolderTest;
 import oscana.s2n.handler.HttpResourceHolderUpdateHandlerTest;
 import oscana.s2n.handler.S2NRoutesMethodBinderFactoryTest;
 import oscana.s2n.handler.S2NRoutesMethodBinderTest;
+import oscana.s2n.handler.RouteIndexTest;
+import oscana.s2n.handler.S2NRoutesMappingTest;
+import oscana.s2n.handler.ViewInventoryTest;
+import oscana.s2n.handler.ViewPrecompileHandlerTest;
+import oscana.s2n.handler.VirtualThreadHandlerTest;
 import oscana.s2n.servlet.HttpServletRequestHolderTest;
 import oscana.s2n.servlet.HttpServletResponseHolderTest;
 import oscana.s2n.servlet.HttpSessionHolderTest;
 import oscana.s2n.servlet.ServletContextHolderTest;
+import oscana.s2n.servlet.ServletResourceHoldersTest;
 import oscana.s2n.struts.GenericsUtilTest;
 import oscana.s2n.struts.OscanaHttpResourceConverUtilTest;
 import oscana.s2n.struts.action.ActionErrorsTest;
@@ -21,6 +35,8 @@ import oscana.s2n.struts.action.ActionFormTest;
 import oscana.s2n.struts.action.ActionForwardTest;
 import oscana.s2n.struts.action.ActionMappingTest;
 import oscana.s2n.struts.action.ActionMappingToolTest;
+import oscana.s2n.struts.action.ForwardRegistryTest;
+import oscana.s2n.struts.action.MessageListTest;
 import oscana.s2n.struts.action.ActionMessageTest;
 import oscana.s2n.struts.action.ActionMessagesTest;
 import oscana.s2n.struts.action.ActionTest;
@@ -36,8 +52,15 @@ public class AllTest1 {
     public static Test suite() {
         TestSuite suite = new TestSuite();
 
+        //default-config
+        suite.addTest(new JUnit4TestAdapter(DefaultConfigTest.class));
+
         //common
         suite.addTest(new JUnit4TestAdapter(ParamFilterTest.class));
+        suite.addTest(new JUnit4TestAdapter(S2NConfigFinderTest.class));
+        suite.addTest(new JUnit4TestAdapter(MessageTemplateCacheTest.class));
+        suite.addTest(new JUnit4TestAdapter(MessageCatalogTest.class));
+        suite.addTest(new JUnit4TestAdapter(MessageCatalogHolderTest.class));
         suite.addTest(new JUnit4TestAdapter(S2NDaoContextFactoryTest.class));
         suite.addTest(new JUnit4TestAdapter(S2NDaoContextTest.class));
 
@@ -46,12 +69,22 @@ public class AllTest1 {
         suite.addTest(new JUnit4TestAdapter(HttpResourceHolderUpdateHandlerTest.class));
         suite.addTest(new JUnit4TestAdapter(S2NRoutesMethodBinderFactoryTest.class));
         suite.addTest(new JUnit4TestAdapter(S2NRoutesMethodBinderTest.class));
+        suite.addTest(new JUnit4TestAdapter(ActionPipelineTest.class));
+        suite.addTest(new JUnit4TestAdapter(ActionWarmUpTest.class));
+        suite.addTest(new JUnit4TestAdapter(AsyncResponseWriterTest.class));
+        suite.addTest(new JUnit4TestAdapter(VirtualThreadHandlerTest.class));
+        suite.addTest(new JUnit4TestAdapter(S2NRoutesMappingTest.class));
+        suite.addTest(new JUnit4TestAdapter(RouteIndexTest.class));
+        suite.addTest(new JUnit4TestAdapter(ForwardDispatcherTest.class));
+        suite.addTest(new JUnit4TestAdapter(ViewInventoryTest.class));
+        suite.addTest(new JUnit4TestAdapter(ViewPrecompileHandlerTest.class));
 
         //servlet
         suite.addTest(new JUnit4TestAdapter(HttpServletRequestHolderTest.class));
         suite.addTest(new JUnit4TestAdapter(HttpServletResponseHolderTest.class));
         suite.addTest(new JUnit4TestAdapter(HttpSessionHolderTest.class));
         suite.addTest(new JUnit4TestAdapter(ServletContextHolderTest.class));
+        suite.addTest(new JUnit4TestAdapter(ServletResourceHoldersTest.class));
 
         //struts
         suite.addTest(new JUnit4TestAdapter(ActionErrorsTest.class));
@@ -59,6 +92,8 @@ public class AllTest1 {
         suite.addTest(new JUnit4TestAdapter(ActionForwardTest.class));
         suite.addTest(new JUnit4TestAdapter(ActionMappingTest.class));
         suite.addTest(new JUnit4TestAdapter(ActionMappingToolTest.class));
+        suite.addTest(new JUnit4TestAdapter(ForwardRegistryTest.class));
+        suite.addTest(new JUnit4TestAdapter(MessageListTest.class));
         suite.addTest(new JUnit4TestAdapter(ActionMessagesTest.class));
         suite.addTest(new JUnit4TestAdapter(ActionMessageTest.class));
         suite.addTest(new JUnit4TestAdapter(ActionTest.class));
@@ -3,7 +3,13 @@ package oscana.s2n;
 import junit.framework.JUnit4TestAdapter;
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import oscana.s2n.common.web.el.LazyPropertyELResolverTest;
+import oscana.s2n.common.web.interceptor.ActionDescriptorTest;
 import oscana.s2n.common.web.interceptor.ExecuteTest;
+import oscana.s2n.common.web.interceptor.FormBinderTest;
+import oscana.s2n.common.web.interceptor.FormCopierTest;
+import oscana.s2n.common.web.interceptor.PropertyExporterTest;
+import oscana.s2n.common.web.interceptor.ValidationPlanTest;
 
 /**
  * ExecuteTestを個別に実行するため。
@@ -14,6 +20,12 @@ public class AllTest3 {
     public static Test suite() {
         TestSuite suite = new TestSuite();
         suite.addTest(new JUnit4TestAdapter(ExecuteTest.class));
+        suite.addTest(new JUnit4TestAdapter(ActionDescriptorTest.class));
+        suite.addTest(new JUnit4TestAdapter(PropertyExporterTest.class));
+        suite.addTest(new JUnit4TestAdapter(ValidationPlanTest.class));
+        suite.addTest(new JUnit4TestAdapter(LazyPropertyELResolverTest.class));
+        suite.addTest(new JUnit4TestAdapter(FormCopierTest.class));
+        suite.addTest(new JUnit4TestAdapter(FormBinderTest.class));
 
         return suite;
       }
@@ -0,0 +1,134 @@
+package oscana.s2n;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import nablarch.core.util.ObjectUtil;
+import oscana.s2n.common.S2NConfigFinder;
+import oscana.s2n.handler.RouteIndex;
+import oscana.s2n.handler.S2NRoutesMapping;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+
+/**
+ * 提供するデフォルトのコンポーネント定義（default-config）のテスト。
+ */
+public class DefaultConfigTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    /**
+     * コンポーネント定義に記載されたクラスが存在し、プロパティに対応するsetterが存在すること
+     */
+    @Test
+    public void testComponents() throws Exception {
+        final List<String> errors = new ArrayList<String>();
+        final NodeList components = load("S2N_Component.xml").getElementsByTagName("component");
+        for (int i = 0; i < components.getLength(); i++) {
+            final Element component = (Element) components.item(i);
+            final Class<?> componentClass;
+            try {
+                componentClass = Class.forName(component.getAttribute("class"));
+            } catch (ClassNotFoundException e) {
+                errors.add("class not found. class=[" + component.getAttribute("class") + "]");
+                continue;
+            }
+            for (Element property : children(component, "property")) {
+                if (findSetter(componentClass, property.getAttribute("name")) == null) {
+                    errors.add("setter not found. class=[" + componentClass.getName() + "] property=["
+                            + property.getAttribute("name") + "]");
+                }
+            }
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+    /**
+     * インターセプタの実行順に記載されたアノテーションが存在すること
+     */
+    @Test
+    public void testInterceptorsOrder() throws Exception {
+        final NodeList values = load("interceptors.xml").getElementsByTagName("value");
+        assertTrue(values.getLength() > 0);
+        for (int i = 0; i < values.getLength(); i++) {
+            assertTrue(Class.forName(values.item(i).getTextContent().trim()).isAnnotation());
+        }
+    }
+
+    /**
+     * ルーティングを行うハンドラが{@link S2NRoutesMapping}として登録され、
+     * 互換ライブラリから設定を参照でき、ルーティング定義の索引を使用できること
+     */
+    @Test
+    public void testPackageMapping() throws Exception {
+        final Element packageMapping = findComponent(load("S2N_Component.xml"), "packageMapping");
+        assertEquals(S2NRoutesMapping.class.getName(), packageMapping.getAttribute("class"));
+
+        final S2NRoutesMapping mapping = new S2NRoutesMapping();
+        for (Element property : children(packageMapping, "property")) {
+            if (property.hasAttribute("value") && !property.getAttribute("value").contains("${")) {
+                ObjectUtil.setProperty(mapping, property.getAttribute("name"), property.getAttribute("value"));
+            }
+        }
+        repositoryResource.addComponent("packageMapping", mapping);
+
+        try {
+            assertTrue(S2NConfigFinder.getConfig().isRoutesMappingSupported());
+            assertEquals("routes.xml", S2NConfigFinder.getConfig().getRoutes());
+            assertTrue(RouteIndex.current().isSupported());
+        } finally {
+            RouteIndex.clear();
+        }
+    }
+
+    private static Document load(String name) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File("default-config", name));
+    }
+
+    private static Element findComponent(Document document, String name) {
+        final NodeList components = document.getElementsByTagName("component");
+        for (int i = 0; i < components.getLength(); i++) {
+            final Element component = (Element) components.item(i);
+            if (name.equals(component.getAttribute("name"))) {
+                return component;
+            }
+        }
+        fail("component not found. name=[" + name + "]");
+        return null;
+    }
+
+    private static List<Element> children(Element element, String tagName) {
+        final List<Element> children = new ArrayList<Element>();
+        for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE && tagName.equals(node.getNodeName())) {
+                children.add((Element) node);
+            }
+        }
+        return children;
+    }
+
+    private static Method findSetter(Class<?> componentClass, String property) {
+        final String name = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (Method method : componentClass.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterTypes().length == 1
+                    && !Modifier.isStatic(method.getModifiers())) {
+                return method;
+            }
+        }
+        return null;
+    }
+}
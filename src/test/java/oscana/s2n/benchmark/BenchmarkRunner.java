@@ -0,0 +1,109 @@
+package oscana.s2n.benchmark;
+
+import java.util.Locale;
+
+/**
+ * 性能比較用の簡易ハーネス。<br>
+ * <br>
+ * 処理をウォームアップした後、指定回数の呼び出しを複数回計測し、1回あたりの平均時間（ナノ秒）を出力する。
+ * 単体テストとしては実行されないため、各ベンチマーククラスのmainメソッドをテストのクラスパスで実行すること。
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) oscana.s2n.benchmark.PropertyExporterBenchmark
+ * </pre>
+ * 計測条件は以下のシステムプロパティで変更できる。
+ * <ul>
+ * <li>benchmark.operations：1回の計測での呼び出し回数（デフォルトは100000）</li>
+ * <li>benchmark.warmups：ウォームアップの回数（デフォルトは5）</li>
+ * <li>benchmark.iterations：計測の回数（デフォルトは10）</li>
+ * </ul>
+ * JMHのようなJITの影響の排除は行わないため、同じJVMで比較対象を交互に計測し、相対的な差を確認する目的で使用すること。
+ */
+public final class BenchmarkRunner {
+
+    /** 計測結果を捨てるための領域（JITによる処理の除去を防ぐ） */
+    private static volatile Object sink;
+
+    /** 1回の計測での呼び出し回数 */
+    private final int operations = Integer.getInteger("benchmark.operations", 100000);
+
+    /** ウォームアップの回数 */
+    private final int warmups = Integer.getInteger("benchmark.warmups", 5);
+
+    /** 計測の回数 */
+    private final int iterations = Integer.getInteger("benchmark.iterations", 10);
+
+    /** ベンチマーク名 */
+    private final String name;
+
+    /**
+     * コンストラクタ。
+     * @param name ベンチマーク名
+     */
+    public BenchmarkRunner(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 計測対象の処理。
+     */
+    public interface Operation {
+
+        /**
+         * 処理を1回実行する。
+         * @return 処理結果（計測結果に影響しないように破棄される）
+         * @throws Exception 処理に失敗した場合
+         */
+        Object run() throws Exception;
+    }
+
+    /**
+     * 比較対象の処理を計測し、結果を出力する。<br>
+     * <br>
+     * ウォームアップは全ての処理について行った後に計測を開始する。
+     *
+     * @param labels 処理の名前
+     * @param operations 処理（labelsと同じ順序）
+     * @return 処理ごとの1回あたりの平均時間（ナノ秒）
+     * @throws Exception 処理に失敗した場合
+     */
+    public double[] compare(String[] labels, Operation... operations) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            for (Operation operation : operations) {
+                measure(operation);
+            }
+        }
+        final long[] totals = new long[operations.length];
+        for (int i = 0; i < iterations; i++) {
+            for (int j = 0; j < operations.length; j++) {
+                totals[j] += measure(operations[j]);
+            }
+        }
+        final double[] results = new double[operations.length];
+        System.out.println("[" + name + "] operations=" + this.operations + " iterations=" + iterations);
+        for (int j = 0; j < operations.length; j++) {
+            results[j] = (double) totals[j] / iterations / this.operations;
+            System.out.println(String.format(Locale.ROOT, "  %-30s %12.1f ns/op (x%.2f)",
+                    labels[j], results[j], results[0] / results[j]));
+        }
+        return results;
+    }
+
+    /**
+     * 処理を指定回数呼び出し、経過時間を計測する。
+     *
+     * @param operation 処理
+     * @return 経過時間（ナノ秒）
+     * @throws Exception 処理に失敗した場合
+     */
+    private long measure(Operation operation) throws Exception {
+        final long start = System.nanoTime();
+        Object result = null;
+        for (int i = 0; i < operations; i++) {
+            result = operation.run();
+        }
+        final long elapsed = System.nanoTime() - start;
+        sink = result;
+        return elapsed;
+    }
+}
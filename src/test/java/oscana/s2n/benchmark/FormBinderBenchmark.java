@@ -0,0 +1,195 @@
+package oscana.s2n.benchmark;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import nablarch.core.beans.BeanUtil;
+import nablarch.core.beans.CopyOptions;
+import oscana.s2n.common.web.interceptor.FormBinder;
+
+/**
+ * {@link FormBinder}と、変更前の{@link BeanUtil#copy(Class, Object, Map, CopyOptions)}によるリクエストパラメータの設定の比較。<br>
+ * <br>
+ * String、String[]、プリミティブ型、ラッパー型、BigDecimalのプロパティを持つフォームに、
+ * 1リクエスト分のリクエストパラメータを設定する時間を計測する。
+ * 実行方法は{@link BenchmarkRunner}を参照。
+ */
+public final class FormBinderBenchmark {
+
+    /** 空の{@link CopyOptions} */
+    private static final CopyOptions EMPTY = CopyOptions.options().build();
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private FormBinderBenchmark() {
+    }
+
+    /**
+     * ベンチマークを実行する。
+     * @param args 使用しない
+     * @throws Exception 処理に失敗した場合
+     */
+    public static void main(String[] args) throws Exception {
+        final Map<String, String[]> parameters = new HashMap<String, String[]>();
+        parameters.put("userId", new String[] {"user001"});
+        parameters.put("userName", new String[] {"名前"});
+        parameters.put("mailAddress", new String[] {"user001@example.com"});
+        parameters.put("phoneNumber", new String[] {"03-1234-5678"});
+        parameters.put("address", new String[] {"東京都"});
+        parameters.put("age", new String[] {"30"});
+        parameters.put("count", new String[] {"12"});
+        parameters.put("version", new String[] {"1234567890123"});
+        parameters.put("rate", new String[] {"1.5"});
+        parameters.put("active", new String[] {"true"});
+        parameters.put("amount", new String[] {"12345.67"});
+        parameters.put("pageNo", new String[] {"3"});
+        parameters.put("roles", new String[] {"admin", "user"});
+        parameters.put("note", new String[] {""});
+        parameters.put("unknown", new String[] {"ignored"});
+
+        final FormBinder binder = FormBinder.of(Form.class);
+        new BenchmarkRunner("bind 15 parameters").compare(
+                new String[] {"BeanUtil.copy (baseline)", "FormBinder"},
+                () -> BeanUtil.copy(Form.class, new Form(), parameters, EMPTY),
+                () -> {
+                    final Form form = new Form();
+                    binder.bind(form, parameters);
+                    return form;
+                });
+    }
+
+    /**
+     * テスト用のフォーム。
+     */
+    public static class Form {
+
+        private String userId;
+        private String userName;
+        private String mailAddress;
+        private String phoneNumber;
+        private String address;
+        private int age;
+        private Integer count;
+        private long version;
+        private Double rate;
+        private boolean active;
+        private BigDecimal amount;
+        private Integer pageNo;
+        private String[] roles;
+        private String note;
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public void setUserId(String userId) {
+            this.userId = userId;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        public String getMailAddress() {
+            return mailAddress;
+        }
+
+        public void setMailAddress(String mailAddress) {
+            this.mailAddress = mailAddress;
+        }
+
+        public String getPhoneNumber() {
+            return phoneNumber;
+        }
+
+        public void setPhoneNumber(String phoneNumber) {
+            this.phoneNumber = phoneNumber;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public void setAddress(String address) {
+            this.address = address;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public void setVersion(long version) {
+            this.version = version;
+        }
+
+        public Double getRate() {
+            return rate;
+        }
+
+        public void setRate(Double rate) {
+            this.rate = rate;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public Integer getPageNo() {
+            return pageNo;
+        }
+
+        public void setPageNo(Integer pageNo) {
+            this.pageNo = pageNo;
+        }
+
+        public String[] getRoles() {
+            return roles;
+        }
+
+        public void setRoles(String[] roles) {
+            this.roles = roles;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package oscana.s2n.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import nablarch.fw.ExecutionContext;
+import oscana.s2n.common.web.interceptor.PropertyExporter;
+
+/**
+ * {@link PropertyExporter}と、変更前のリフレクションによるリクエストスコープへの設定処理の比較。<br>
+ * <br>
+ * 50個のプロパティ（getterメソッド）を持つフォームを、1リクエスト分リクエストスコープに設定する時間を計測する。
+ * 実行方法は{@link BenchmarkRunner}を参照。
+ */
+public final class PropertyExporterBenchmark {
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private PropertyExporterBenchmark() {
+    }
+
+    /**
+     * ベンチマークを実行する。
+     * @param args 使用しない
+     * @throws Exception 処理に失敗した場合
+     */
+    public static void main(String[] args) throws Exception {
+        final Form form = new Form();
+        final PropertyExporter exporter = PropertyExporter.of(Form.class);
+        new BenchmarkRunner("export 50 properties").compare(
+                new String[] {"reflection (baseline)", "PropertyExporter"},
+                () -> {
+                    final ExecutionContext context = new ExecutionContext();
+                    exportByReflection(Form.class, form, context);
+                    return context;
+                },
+                () -> {
+                    final ExecutionContext context = new ExecutionContext();
+                    exporter.export(form, context);
+                    return context;
+                });
+    }
+
+    /**
+     * 変更前の{@code Execute.Impl#setFieldsToRequestScopedVar}と同じ処理。
+     *
+     * @param targetClass 対象のクラス
+     * @param target 対象のインスタンス
+     * @param context 実行コンテキスト
+     * @throws Exception 処理に失敗した場合
+     */
+    private static void exportByReflection(Class<?> targetClass, Object target, ExecutionContext context)
+            throws Exception {
+        final List<Field> fieldList = new ArrayList<Field>();
+        final List<Method> methodList = new ArrayList<Method>();
+        Class<?> clazz = targetClass;
+        while (clazz != null) {
+            fieldList.addAll(Arrays.asList(clazz.getDeclaredFields()));
+            methodList.addAll(Arrays.asList(clazz.getMethods()));
+            clazz = clazz.getSuperclass();
+        }
+        for (Field field : fieldList) {
+            if (!Modifier.isPublic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            context.setRequestScopedVar(field.getName(), field.get(target));
+        }
+        for (Method method : methodList) {
+            if (method.isBridge() || method.isSynthetic()) {
+                continue;
+            }
+            if (method.getName().startsWith("get")) {
+                if (method.getParameterTypes().length != 0
+                        || method.getName().equals("getClass")
+                        || method.getReturnType() == void.class) {
+                    continue;
+                }
+                method.setAccessible(true);
+                context.setRequestScopedVar(decapitalize(method.getName().substring(3)), method.invoke(target));
+            } else if (method.getName().startsWith("is")
+                    && method.getReturnType().equals(Boolean.TYPE)
+                    && method.getParameterTypes().length == 0) {
+                method.setAccessible(true);
+                context.setRequestScopedVar(decapitalize(method.getName().substring(2)), method.invoke(target));
+            }
+        }
+    }
+
+    /**
+     * プロパティ名の先頭を小文字にする。
+     * @param name プロパティ名
+     * @return 先頭を小文字にしたプロパティ名
+     */
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 50個のプロパティを持つフォーム。
+     */
+    public static class Form {
+
+        private String value01 = "value01";
+        private int value02 = 2;
+        private String value03 = "value03";
+        private int value04 = 4;
+        private String value05 = "value05";
+        private int value06 = 6;
+        private String value07 = "value07";
+        private int value08 = 8;
+        private String value09 = "value09";
+        private int value10 = 10;
+        private String value11 = "value11";
+        private int value12 = 12;
+        private String value13 = "value13";
+        private int value14 = 14;
+        private String value15 = "value15";
+        private int value16 = 16;
+        private String value17 = "value17";
+        private int value18 = 18;
+        private String value19 = "value19";
+        private int value20 = 20;
+        private String value21 = "value21";
+        private int value22 = 22;
+        private String value23 = "value23";
+        private int value24 = 24;
+        private String value25 = "value25";
+        private int value26 = 26;
+        private String value27 = "value27";
+        private int value28 = 28;
+        private String value29 = "value29";
+        private int value30 = 30;
+        private String value31 = "value31";
+        private int value32 = 32;
+        private String value33 = "value33";
+        private int value34 = 34;
+        private String value35 = "value35";
+        private int value36 = 36;
+        private String value37 = "value37";
+        private int value38 = 38;
+        private String value39 = "value39";
+        private int value40 = 40;
+        private String value41 = "value41";
+        private int value42 = 42;
+        private String value43 = "value43";
+        private int value44 = 44;
+        private String value45 = "value45";
+        private int value46 = 46;
+        private String value47 = "value47";
+        private int value48 = 48;
+        private String value49 = "value49";
+        private int value50 = 50;
+
+        public String getValue01() {
+            return value01;
+        }
+
+        public int getValue02() {
+            return value02;
+        }
+
+        public String getValue03() {
+            return value03;
+        }
+
+        public int getValue04() {
+            return value04;
+        }
+
+        public String getValue05() {
+            return value05;
+        }
+
+        public int getValue06() {
+            return value06;
+        }
+
+        public String getValue07() {
+            return value07;
+        }
+
+        public int getValue08() {
+            return value08;
+        }
+
+        public String getValue09() {
+            return value09;
+        }
+
+        public int getValue10() {
+            return value10;
+        }
+
+        public String getValue11() {
+            return value11;
+        }
+
+        public int getValue12() {
+            return value12;
+        }
+
+        public String getValue13() {
+            return value13;
+        }
+
+        public int getValue14() {
+            return value14;
+        }
+
+        public String getValue15() {
+            return value15;
+        }
+
+        public int getValue16() {
+            return value16;
+        }
+
+        public String getValue17() {
+            return value17;
+        }
+
+        public int getValue18() {
+            return value18;
+        }
+
+        public String getValue19() {
+            return value19;
+        }
+
+        public int getValue20() {
+            return value20;
+        }
+
+        public String getValue21() {
+            return value21;
+        }
+
+        public int getValue22() {
+            return value22;
+        }
+
+        public String getValue23() {
+            return value23;
+        }
+
+        public int getValue24() {
+            return value24;
+        }
+
+        public String getValue25() {
+            return value25;
+        }
+
+        public int getValue26() {
+            return value26;
+        }
+
+        public String getValue27() {
+            return value27;
+        }
+
+        public int getValue28() {
+            return value28;
+        }
+
+        public String getValue29() {
+            return value29;
+        }
+
+        public int getValue30() {
+            return value30;
+        }
+
+        public String getValue31() {
+            return value31;
+        }
+
+        public int getValue32() {
+            return value32;
+        }
+
+        public String getValue33() {
+            return value33;
+        }
+
+        public int getValue34() {
+            return value34;
+        }
+
+        public String getValue35() {
+            return value35;
+        }
+
+        public int getValue36() {
+            return value36;
+        }
+
+        public String getValue37() {
+            return value37;
+        }
+
+        public int getValue38() {
+            return value38;
+        }
+
+        public String getValue39() {
+            return value39;
+        }
+
+        public int getValue40() {
+            return value40;
+        }
+
+        public String getValue41() {
+            return value41;
+        }
+
+        public int getValue42() {
+            return value42;
+        }
+
+        public String getValue43() {
+            return value43;
+        }
+
+        public int getValue44() {
+            return value44;
+        }
+
+        public String getValue45() {
+            return value45;
+        }
+
+        public int getValue46() {
+            return value46;
+        }
+
+        public String getValue47() {
+            return value47;
+        }
+
+        public int getValue48() {
+            return value48;
+        }
+
+        public String getValue49() {
+            return value49;
+        }
+
+        public int getValue50() {
+            return value50;
+        }
+    }
+}
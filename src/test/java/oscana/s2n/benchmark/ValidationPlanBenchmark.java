@@ -0,0 +1,675 @@
+package oscana.s2n.benchmark;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+
+import nablarch.core.ThreadContext;
+import nablarch.core.message.ApplicationException;
+import nablarch.core.validation.ee.ValidatorUtil;
+import oscana.s2n.common.S2NConstants;
+import oscana.s2n.common.web.interceptor.ValidationPlan;
+import oscana.s2n.validation.Required;
+import oscana.s2n.validation.ValidateTarget;
+
+/**
+ * {@link ValidationPlan}による単項目バリデーションと、変更前の{@link ValidatorUtil#validate(Object, Class[])}による
+ * フォーム全体の単項目バリデーションの比較。<br>
+ * <br>
+ * 200項目のプロパティを持ち、各プロパティの制約のtarget属性に10個のアクションメソッドのいずれかを指定したフォームを、
+ * 1つのアクションメソッドで検証する時間を計測する（検証されるプロパティは20項目）。
+ * 全てのプロパティに値を設定し、バリデーションエラーは発生させない。
+ * 実行方法は{@link BenchmarkRunner}を参照。
+ */
+public final class ValidationPlanBenchmark {
+
+    /** 検証するアクションメソッド名 */
+    private static final String METHOD_NAME = "method0";
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ValidationPlanBenchmark() {
+    }
+
+    /**
+     * ベンチマークを実行する。
+     * @param args 使用しない
+     * @throws Exception 処理に失敗した場合
+     */
+    public static void main(String[] args) throws Exception {
+        final Form form = new Form();
+        for (Field field : Form.class.getFields()) {
+            field.set(form, "value");
+        }
+        ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, METHOD_NAME);
+
+        final ValidationPlan plan = ValidationPlan.get(Form.class, METHOD_NAME);
+        if (plan.isAll() || plan.getProperties().size() != 20) {
+            throw new IllegalStateException("unexpected plan. properties=[" + plan.getProperties() + "]");
+        }
+        // バリデータを初期化し、対象メソッド名に番号を割り当ててから、アクションメソッドのバインド時と同様に番号を設定する
+        plan.validate(form);
+        ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID, ValidateTarget.findMethodId(METHOD_NAME));
+        try {
+            new BenchmarkRunner("validate 200 properties").compare(
+                    new String[] {"ValidatorUtil (baseline)", "ValidationPlan"},
+                    () -> {
+                        try {
+                            ValidatorUtil.validate(form);
+                            return null;
+                        } catch (ApplicationException e) {
+                            return e.getMessages();
+                        }
+                    },
+                    () -> plan.validate(form));
+        } finally {
+            ThreadContext.clear();
+        }
+    }
+
+    /**
+     * テスト用のフォーム。
+     */
+    public static class Form implements Serializable {
+
+        @Required(target = "method0")
+        public String field000;
+
+        @Required(target = "method1")
+        public String field001;
+
+        @Required(target = "method2")
+        public String field002;
+
+        @Required(target = "method3")
+        public String field003;
+
+        @Required(target = "method4")
+        public String field004;
+
+        @Required(target = "method5")
+        public String field005;
+
+        @Required(target = "method6")
+        public String field006;
+
+        @Required(target = "method7")
+        public String field007;
+
+        @Required(target = "method8")
+        public String field008;
+
+        @Required(target = "method9")
+        public String field009;
+
+        @Required(target = "method0")
+        public String field010;
+
+        @Required(target = "method1")
+        public String field011;
+
+        @Required(target = "method2")
+        public String field012;
+
+        @Required(target = "method3")
+        public String field013;
+
+        @Required(target = "method4")
+        public String field014;
+
+        @Required(target = "method5")
+        public String field015;
+
+        @Required(target = "method6")
+        public String field016;
+
+        @Required(target = "method7")
+        public String field017;
+
+        @Required(target = "method8")
+        public String field018;
+
+        @Required(target = "method9")
+        public String field019;
+
+        @Required(target = "method0")
+        public String field020;
+
+        @Required(target = "method1")
+        public String field021;
+
+        @Required(target = "method2")
+        public String field022;
+
+        @Required(target = "method3")
+        public String field023;
+
+        @Required(target = "method4")
+        public String field024;
+
+        @Required(target = "method5")
+        public String field025;
+
+        @Required(target = "method6")
+        public String field026;
+
+        @Required(target = "method7")
+        public String field027;
+
+        @Required(target = "method8")
+        public String field028;
+
+        @Required(target = "method9")
+        public String field029;
+
+        @Required(target = "method0")
+        public String field030;
+
+        @Required(target = "method1")
+        public String field031;
+
+        @Required(target = "method2")
+        public String field032;
+
+        @Required(target = "method3")
+        public String field033;
+
+        @Required(target = "method4")
+        public String field034;
+
+        @Required(target = "method5")
+        public String field035;
+
+        @Required(target = "method6")
+        public String field036;
+
+        @Required(target = "method7")
+        public String field037;
+
+        @Required(target = "method8")
+        public String field038;
+
+        @Required(target = "method9")
+        public String field039;
+
+        @Required(target = "method0")
+        public String field040;
+
+        @Required(target = "method1")
+        public String field041;
+
+        @Required(target = "method2")
+        public String field042;
+
+        @Required(target = "method3")
+        public String field043;
+
+        @Required(target = "method4")
+        public String field044;
+
+        @Required(target = "method5")
+        public String field045;
+
+        @Required(target = "method6")
+        public String field046;
+
+        @Required(target = "method7")
+        public String field047;
+
+        @Required(target = "method8")
+        public String field048;
+
+        @Required(target = "method9")
+        public String field049;
+
+        @Required(target = "method0")
+        public String field050;
+
+        @Required(target = "method1")
+        public String field051;
+
+        @Required(target = "method2")
+        public String field052;
+
+        @Required(target = "method3")
+        public String field053;
+
+        @Required(target = "method4")
+        public String field054;
+
+        @Required(target = "method5")
+        public String field055;
+
+        @Required(target = "method6")
+        public String field056;
+
+        @Required(target = "method7")
+        public String field057;
+
+        @Required(target = "method8")
+        public String field058;
+
+        @Required(target = "method9")
+        public String field059;
+
+        @Required(target = "method0")
+        public String field060;
+
+        @Required(target = "method1")
+        public String field061;
+
+        @Required(target = "method2")
+        public String field062;
+
+        @Required(target = "method3")
+        public String field063;
+
+        @Required(target = "method4")
+        public String field064;
+
+        @Required(target = "method5")
+        public String field065;
+
+        @Required(target = "method6")
+        public String field066;
+
+        @Required(target = "method7")
+        public String field067;
+
+        @Required(target = "method8")
+        public String field068;
+
+        @Required(target = "method9")
+        public String field069;
+
+        @Required(target = "method0")
+        public String field070;
+
+        @Required(target = "method1")
+        public String field071;
+
+        @Required(target = "method2")
+        public String field072;
+
+        @Required(target = "method3")
+        public String field073;
+
+        @Required(target = "method4")
+        public String field074;
+
+        @Required(target = "method5")
+        public String field075;
+
+        @Required(target = "method6")
+        public String field076;
+
+        @Required(target = "method7")
+        public String field077;
+
+        @Required(target = "method8")
+        public String field078;
+
+        @Required(target = "method9")
+        public String field079;
+
+        @Required(target = "method0")
+        public String field080;
+
+        @Required(target = "method1")
+        public String field081;
+
+        @Required(target = "method2")
+        public String field082;
+
+        @Required(target = "method3")
+        public String field083;
+
+        @Required(target = "method4")
+        public String field084;
+
+        @Required(target = "method5")
+        public String field085;
+
+        @Required(target = "method6")
+        public String field086;
+
+        @Required(target = "method7")
+        public String field087;
+
+        @Required(target = "method8")
+        public String field088;
+
+        @Required(target = "method9")
+        public String field089;
+
+        @Required(target = "method0")
+        public String field090;
+
+        @Required(target = "method1")
+        public String field091;
+
+        @Required(target = "method2")
+        public String field092;
+
+        @Required(target = "method3")
+        public String field093;
+
+        @Required(target = "method4")
+        public String field094;
+
+        @Required(target = "method5")
+        public String field095;
+
+        @Required(target = "method6")
+        public String field096;
+
+        @Required(target = "method7")
+        public String field097;
+
+        @Required(target = "method8")
+        public String field098;
+
+        @Required(target = "method9")
+        public String field099;
+
+        @Required(target = "method0")
+        public String field100;
+
+        @Required(target = "method1")
+        public String field101;
+
+        @Required(target = "method2")
+        public String field102;
+
+        @Required(target = "method3")
+        public String field103;
+
+        @Required(target = "method4")
+        public String field104;
+
+        @Required(target = "method5")
+        public String field105;
+
+        @Required(target = "method6")
+        public String field106;
+
+        @Required(target = "method7")
+        public String field107;
+
+        @Required(target = "method8")
+        public String field108;
+
+        @Required(target = "method9")
+        public String field109;
+
+        @Required(target = "method0")
+        public String field110;
+
+        @Required(target = "method1")
+        public String field111;
+
+        @Required(target = "method2")
+        public String field112;
+
+        @Required(target = "method3")
+        public String field113;
+
+        @Required(target = "method4")
+        public String field114;
+
+        @Required(target = "method5")
+        public String field115;
+
+        @Required(target = "method6")
+        public String field116;
+
+        @Required(target = "method7")
+        public String field117;
+
+        @Required(target = "method8")
+        public String field118;
+
+        @Required(target = "method9")
+        public String field119;
+
+        @Required(target = "method0")
+        public String field120;
+
+        @Required(target = "method1")
+        public String field121;
+
+        @Required(target = "method2")
+        public String field122;
+
+        @Required(target = "method3")
+        public String field123;
+
+        @Required(target = "method4")
+        public String field124;
+
+        @Required(target = "method5")
+        public String field125;
+
+        @Required(target = "method6")
+        public String field126;
+
+        @Required(target = "method7")
+        public String field127;
+
+        @Required(target = "method8")
+        public String field128;
+
+        @Required(target = "method9")
+        public String field129;
+
+        @Required(target = "method0")
+        public String field130;
+
+        @Required(target = "method1")
+        public String field131;
+
+        @Required(target = "method2")
+        public String field132;
+
+        @Required(target = "method3")
+        public String field133;
+
+        @Required(target = "method4")
+        public String field134;
+
+        @Required(target = "method5")
+        public String field135;
+
+        @Required(target = "method6")
+        public String field136;
+
+        @Required(target = "method7")
+        public String field137;
+
+        @Required(target = "method8")
+        public String field138;
+
+        @Required(target = "method9")
+        public String field139;
+
+        @Required(target = "method0")
+        public String field140;
+
+        @Required(target = "method1")
+        public String field141;
+
+        @Required(target = "method2")
+        public String field142;
+
+        @Required(target = "method3")
+        public String field143;
+
+        @Required(target = "method4")
+        public String field144;
+
+        @Required(target = "method5")
+        public String field145;
+
+        @Required(target = "method6")
+        public String field146;
+
+        @Required(target = "method7")
+        public String field147;
+
+        @Required(target = "method8")
+        public String field148;
+
+        @Required(target = "method9")
+        public String field149;
+
+        @Required(target = "method0")
+        public String field150;
+
+        @Required(target = "method1")
+        public String field151;
+
+        @Required(target = "method2")
+        public String field152;
+
+        @Required(target = "method3")
+        public String field153;
+
+        @Required(target = "method4")
+        public String field154;
+
+        @Required(target = "method5")
+        public String field155;
+
+        @Required(target = "method6")
+        public String field156;
+
+        @Required(target = "method7")
+        public String field157;
+
+        @Required(target = "method8")
+        public String field158;
+
+        @Required(target = "method9")
+        public String field159;
+
+        @Required(target = "method0")
+        public String field160;
+
+        @Required(target = "method1")
+        public String field161;
+
+        @Required(target = "method2")
+        public String field162;
+
+        @Required(target = "method3")
+        public String field163;
+
+        @Required(target = "method4")
+        public String field164;
+
+        @Required(target = "method5")
+        public String field165;
+
+        @Required(target = "method6")
+        public String field166;
+
+        @Required(target = "method7")
+        public String field167;
+
+        @Required(target = "method8")
+        public String field168;
+
+        @Required(target = "method9")
+        public String field169;
+
+        @Required(target = "method0")
+        public String field170;
+
+        @Required(target = "method1")
+        public String field171;
+
+        @Required(target = "method2")
+        public String field172;
+
+        @Required(target = "method3")
+        public String field173;
+
+        @Required(target = "method4")
+        public String field174;
+
+        @Required(target = "method5")
+        public String field175;
+
+        @Required(target = "method6")
+        public String field176;
+
+        @Required(target = "method7")
+        public String field177;
+
+        @Required(target = "method8")
+        public String field178;
+
+        @Required(target = "method9")
+        public String field179;
+
+        @Required(target = "method0")
+        public String field180;
+
+        @Required(target = "method1")
+        public String field181;
+
+        @Required(target = "method2")
+        public String field182;
+
+        @Required(target = "method3")
+        public String field183;
+
+        @Required(target = "method4")
+        public String field184;
+
+        @Required(target = "method5")
+        public String field185;
+
+        @Required(target = "method6")
+        public String field186;
+
+        @Required(target = "method7")
+        public String field187;
+
+        @Required(target = "method8")
+        public String field188;
+
+        @Required(target = "method9")
+        public String field189;
+
+        @Required(target = "method0")
+        public String field190;
+
+        @Required(target = "method1")
+        public String field191;
+
+        @Required(target = "method2")
+        public String field192;
+
+        @Required(target = "method3")
+        public String field193;
+
+        @Required(target = "method4")
+        public String field194;
+
+        @Required(target = "method5")
+        public String field195;
+
+        @Required(target = "method6")
+        public String field196;
+
+        @Required(target = "method7")
+        public String field197;
+
+        @Required(target = "method8")
+        public String field198;
+
+        @Required(target = "method9")
+        public String field199;
+    }
+}
@@ -0,0 +1,174 @@
+package oscana.s2n.common;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import nablarch.core.ThreadContext;
+import nablarch.core.message.MessageLevel;
+import nablarch.core.message.MessageNotFoundException;
+import nablarch.core.message.MessageUtil;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+
+/**
+ * {@link MessageCatalogHolder}のテスト。
+ */
+public class MessageCatalogHolderTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MessageCatalogHolder holder;
+
+    @After
+    public void tearDown() throws Exception {
+        if (holder != null) {
+            holder.dispose();
+        }
+        ThreadContext.clear();
+    }
+
+    /**
+     * クラスパス上のメッセージファイルを読み込み、{@link MessageUtil}からメッセージを取得できること
+     */
+    @Test
+    public void testClasspath() {
+        holder = new MessageCatalogHolder();
+        holder.setDefaultLocale("ja");
+        holder.setLocales(Arrays.asList("ja", "en"));
+        holder.initialize();
+        repositoryResource.addComponent("stringResourceHolder", holder);
+
+        ThreadContext.setLanguage(Locale.ENGLISH);
+        assertEquals("name is required.",
+                MessageUtil.createMessage(MessageLevel.ERROR, "errors.required", "name").formatMessage());
+        ThreadContext.setLanguage(Locale.JAPANESE);
+        assertEquals("電話番号", MessageUtil.createMessage(MessageLevel.ERROR, "label.phone").formatMessage());
+        assertEquals("{fieldName}は必須です。",
+                holder.get("nablarch.core.validation.ee.Required.message").getValue(Locale.JAPANESE));
+    }
+
+    /**
+     * メッセージが存在しない場合は例外が送出されること
+     */
+    @Test(expected = MessageNotFoundException.class)
+    public void testNotFound() throws Exception {
+        holder = createHolder(false);
+        holder.get("notExist");
+    }
+
+    /**
+     * デフォルトの言語のメッセージファイルが存在しない場合は例外が送出されること
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testFileNotFound() {
+        holder = new MessageCatalogHolder();
+        holder.setDirectory(folder.getRoot().getAbsolutePath());
+        holder.initialize();
+    }
+
+    /**
+     * 読み直した場合はメッセージの一覧が置き換えられ、読み直しに失敗した場合は置き換えられないこと
+     */
+    @Test
+    public void testReload() throws Exception {
+        holder = createHolder(false);
+        MessageCatalog before = holder.getCatalog();
+        assertEquals("初期値", holder.get("message").getValue(Locale.JAPANESE));
+
+        write("messages.properties", "message=変更後\nadded=追加\n");
+        assertTrue(holder.reload());
+        assertNotSame(before, holder.getCatalog());
+        assertEquals("変更後", holder.get("message").getValue(Locale.JAPANESE));
+        assertEquals("追加", holder.get("added").getValue(Locale.JAPANESE));
+
+        MessageCatalog reloaded = holder.getCatalog();
+        Files.delete(new File(folder.getRoot(), "messages.properties").toPath());
+        assertFalse(holder.reload());
+        assertSame(reloaded, holder.getCatalog());
+    }
+
+    /**
+     * 読み直したメッセージに現在のメッセージIDが存在しない場合、置き換えられないこと
+     */
+    @Test
+    public void testReloadMissingId() throws Exception {
+        holder = createHolder(false);
+        MessageCatalog before = holder.getCatalog();
+
+        write("messages.properties", "added=追加\n");
+        assertFalse(holder.reload());
+        assertSame(before, holder.getCatalog());
+        assertEquals("初期値", holder.get("message").getValue(Locale.JAPANESE));
+    }
+
+    /**
+     * 廃棄した場合、変更を検知するスレッドが終了すること
+     */
+    @Test
+    public void testDispose() throws Exception {
+        holder = createHolder(true);
+        assertTrue(isWatching());
+
+        holder.dispose();
+        assertFalse(isWatching());
+        holder.dispose();
+    }
+
+    /**
+     * メッセージファイルの変更を検知して読み直すこと
+     */
+    @Test
+    public void testWatch() throws Exception {
+        holder = createHolder(true);
+        assertEquals("initial", holder.get("message").getValue(Locale.ENGLISH));
+
+        write("messages_en.properties", "message=changed\n");
+        long limit = System.currentTimeMillis() + 10000;
+        while (!"changed".equals(holder.get("message").getValue(Locale.ENGLISH))
+                && System.currentTimeMillis() < limit) {
+            Thread.sleep(50);
+        }
+        assertEquals("changed", holder.get("message").getValue(Locale.ENGLISH));
+        assertEquals("初期値", holder.get("message").getValue(Locale.JAPANESE));
+    }
+
+    private static boolean isWatching() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("message-catalog-watcher".equals(thread.getName()) && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MessageCatalogHolder createHolder(boolean watch) throws IOException {
+        write("messages.properties", "message=初期値\n");
+        write("messages_en.properties", "message=initial\n");
+        MessageCatalogHolder holder = new MessageCatalogHolder();
+        holder.setDirectory(folder.getRoot().getAbsolutePath());
+        holder.setDefaultLocale("ja");
+        holder.setLocales(Arrays.asList("en"));
+        holder.setWatch(watch);
+        holder.setDebounceInterval(100L);
+        holder.initialize();
+        return holder;
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        Files.write(new File(folder.getRoot(), fileName).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
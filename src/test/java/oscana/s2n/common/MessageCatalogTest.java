@@ -0,0 +1,107 @@
+package oscana.s2n.common;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+import nablarch.core.message.MessageNotFoundException;
+import nablarch.core.message.StringResource;
+
+/**
+ * {@link MessageCatalog}のテスト。
+ */
+public class MessageCatalogTest {
+
+    /**
+     * メッセージIDでメッセージを検索でき、言語に対応する文言を取得できること
+     */
+    @Test
+    public void testFind() {
+        MessageCatalog catalog = createCatalog();
+        assertEquals(3, catalog.size());
+
+        StringResource required = catalog.find("errors.required");
+        assertEquals("errors.required", required.getId());
+        assertEquals("{0}を入力してください。", required.getValue(Locale.JAPANESE));
+        assertEquals("{0} is required.", required.getValue(Locale.ENGLISH));
+        assertEquals("{0}を入力してください。", required.getValue(Locale.JAPAN));
+
+        assertNull(catalog.find("notExist"));
+        assertNull(catalog.find(null));
+    }
+
+    /**
+     * 言語の文言が存在しない場合、デフォルトの言語の文言を取得すること
+     */
+    @Test
+    public void testDefaultLanguage() {
+        MessageCatalog catalog = createCatalog();
+        StringResource phone = catalog.find("label.phone");
+        assertEquals("電話番号", phone.getValue(Locale.ENGLISH));
+        assertEquals("電話番号", phone.getValue(Locale.FRENCH));
+        assertEquals("電話番号", phone.getValue(null));
+    }
+
+    /**
+     * 言語、デフォルトの言語のいずれにも文言が存在しない場合は例外が送出されること
+     */
+    @Test(expected = MessageNotFoundException.class)
+    public void testNotFound() {
+        createCatalog().find("label.englishOnly").getValue(Locale.JAPANESE);
+    }
+
+    /**
+     * メッセージIDは共有された文字列を保持すること
+     */
+    @Test
+    public void testIntern() {
+        String id = new String("errors.required");
+        assertSame("errors.required", createCatalog().find(id).getId());
+    }
+
+    /**
+     * デフォルトの言語のメッセージが含まれていない場合は例外が送出されること
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoDefaultLanguage() {
+        MessageCatalog.create("fr", new HashMap<String, Map<String, String>>());
+    }
+
+    /**
+     * 指定したメッセージの一覧のメッセージIDのうち、存在しないものを検索できること
+     */
+    @Test
+    public void testFindMissingId() {
+        MessageCatalog catalog = createCatalog();
+        assertNull(catalog.findMissingId(catalog));
+        assertNull(catalog.findMissingId(MessageCatalog.EMPTY));
+
+        Map<String, String> ja = new HashMap<String, String>();
+        ja.put("errors.required", "{0}を入力してください。");
+        ja.put("label.name", "氏名");
+        ja.put("label.phone", "電話番号");
+        MessageCatalog other = MessageCatalog.create("ja", Collections.singletonMap("ja", ja));
+        assertEquals("label.name", catalog.findMissingId(other));
+        assertEquals("label.englishOnly", other.findMissingId(catalog));
+        assertEquals("errors.required", MessageCatalog.EMPTY.findMissingId(catalog));
+    }
+
+    private static MessageCatalog createCatalog() {
+        Map<String, String> ja = new HashMap<String, String>();
+        ja.put("errors.required", "{0}を入力してください。");
+        ja.put("label.phone", "電話番号");
+        Map<String, String> en = new HashMap<String, String>();
+        en.put("errors.required", "{0} is required.");
+        en.put("label.englishOnly", "English only");
+        Map<String, Map<String, String>> messages = new LinkedHashMap<String, Map<String, String>>();
+        messages.put("en", en);
+        messages.put("ja", ja);
+        return MessageCatalog.create("ja", messages);
+    }
+}
@@ -0,0 +1,212 @@
+package oscana.s2n.common;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import nablarch.core.ThreadContext;
+import nablarch.core.message.MessageLevel;
+import nablarch.core.message.MessageUtil;
+import nablarch.core.message.StringResource;
+import nablarch.core.message.StringResourceHolder;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+import oscana.s2n.sample.support.message.MockStringResourceHolder;
+
+/**
+ * {@link MessageTemplateCache}のテスト。
+ */
+public class MessageTemplateCacheTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    private final S2NConfig config = new S2NConfig();
+
+    @Before
+    public void setUp() {
+        MockStringResourceHolder holder = new MockStringResourceHolder();
+        holder.setMessages(new String[][] {
+                { "required", "ja", "{0}は必須です。", "en", "{0} is required." },
+                { "range", "ja", "{0}は{1}から{2}の範囲で入力してください。" },
+                { "quoted", "ja", "'{0}'は{0}です。" },
+                { "itemName", "ja", "氏名", "en", "Name" },
+        });
+        repositoryResource.addComponent("stringResourceHolder", holder);
+        config.setMessageTemplateCacheSize(3);
+        repositoryResource.addComponent("s2nConfig", config);
+        ThreadContext.setLanguage(Locale.JAPANESE);
+        MessageTemplateCache.clear();
+        MessageTemplateCache.resetStatistics();
+    }
+
+    @After
+    public void tearDown() {
+        MessageTemplateCache.clear();
+        MessageTemplateCache.resetStatistics();
+        ThreadContext.clear();
+    }
+
+    /**
+     * {@link MessageUtil}で生成した場合と同じメッセージが生成されること
+     */
+    @Test
+    public void testFormat() {
+        assertEquals(MessageUtil.createMessage(MessageLevel.ERROR, "required", "氏名").formatMessage(),
+                MessageTemplateCache.format(null, "required", "氏名"));
+        assertEquals(MessageUtil.createMessage(MessageLevel.ERROR, "range", "年齢", 1, 100).formatMessage(),
+                MessageTemplateCache.format(null, "range", "年齢", 1, 100));
+        assertEquals(MessageUtil.createMessage(MessageLevel.ERROR, "quoted", "x").formatMessage(),
+                MessageTemplateCache.format(null, "quoted", "x"));
+        assertEquals("{0} is required.", MessageTemplateCache.format(Locale.ENGLISH, "required"));
+        assertEquals("Name is required.", MessageTemplateCache.format(Locale.ENGLISH, "required",
+                MessageUtil.getStringResource("itemName")));
+    }
+
+    /**
+     * メッセージIDと言語単位にテンプレートが保持され、統計値が記録されること
+     */
+    @Test
+    public void testStatistics() {
+        assertEquals("氏名は必須です。", MessageTemplateCache.format(null, "required", "氏名"));
+        assertEquals("年齢は必須です。", MessageTemplateCache.format(null, "required", "年齢"));
+        assertEquals("Age is required.", MessageTemplateCache.format(Locale.ENGLISH, "required", "Age"));
+        assertEquals(2, MessageTemplateCache.size());
+        assertEquals(1L, MessageTemplateCache.getHitCount());
+        assertEquals(2L, MessageTemplateCache.getMissCount());
+
+        MessageTemplateCache.clear();
+        assertEquals(0, MessageTemplateCache.size());
+        MessageTemplateCache.format(null, "required", "氏名");
+        assertEquals(3L, MessageTemplateCache.getMissCount());
+    }
+
+    /**
+     * 保持する件数を超えた場合は、最も長く使用されていないテンプレートを破棄すること
+     */
+    @Test
+    public void testBounded() {
+        MessageTemplateCache.format(null, "required", "氏名");
+        MessageTemplateCache.format(null, "range", "年齢", 1, 100);
+        MessageTemplateCache.format(null, "quoted", "x");
+        assertEquals(3, MessageTemplateCache.size());
+
+        // 使用された"required"は破棄されず、最も長く使用されていない"range"が破棄される
+        assertEquals("年齢は必須です。", MessageTemplateCache.format(null, "required", "年齢"));
+        assertEquals("氏名", MessageTemplateCache.format(null, "itemName"));
+        assertEquals("氏名", MessageTemplateCache.format(null, "itemName"));
+        assertEquals(3, MessageTemplateCache.size());
+        assertEquals(2L, MessageTemplateCache.getHitCount());
+        assertEquals(4L, MessageTemplateCache.getMissCount());
+
+        assertEquals("年齢は1から100の範囲で入力してください。", MessageTemplateCache.format(null, "range", "年齢", 1, 100));
+        assertEquals(3, MessageTemplateCache.size());
+        assertEquals(5L, MessageTemplateCache.getMissCount());
+        assertEquals("xは必須です。", MessageTemplateCache.format(null, "required", "x"));
+        assertEquals(3L, MessageTemplateCache.getHitCount());
+    }
+
+    /**
+     * 設定は最初のメッセージの生成時に読み込み、破棄するまで読み込み直さないこと
+     */
+    @Test
+    public void testSettingsResolvedOnce() {
+        MessageTemplateCache.format(null, "required", "氏名");
+        config.setMessageTemplateCacheSize(0);
+        MessageTemplateCache.format(null, "required", "氏名");
+        assertEquals(1, MessageTemplateCache.size());
+        assertEquals(1L, MessageTemplateCache.getHitCount());
+
+        MessageTemplateCache.clear();
+        MessageTemplateCache.format(null, "required", "氏名");
+        assertEquals(0, MessageTemplateCache.size());
+        assertEquals(1L, MessageTemplateCache.getHitCount());
+        assertEquals(1L, MessageTemplateCache.getMissCount());
+    }
+
+    /**
+     * テンプレートの取得中に破棄された場合、取得したテンプレートは次回以降に使用されないこと
+     */
+    @Test
+    public void testClearedWhileResolving() {
+        final String[] value = { "旧{0}" };
+        repositoryResource.addComponent("stringResourceHolder", new StringResourceHolder() {
+            @Override
+            public StringResource get(String messageId) {
+                return new StringResource() {
+                    @Override
+                    public String getId() {
+                        return messageId;
+                    }
+
+                    @Override
+                    public String getValue(Locale locale) {
+                        final String current = value[0];
+                        // 取得中にメッセージが置き換えられ、テンプレートが破棄される
+                        value[0] = "新{0}";
+                        MessageTemplateCache.clear();
+                        return current;
+                    }
+                };
+            }
+        });
+
+        assertEquals("旧1", MessageTemplateCache.format(null, "changed", 1));
+        assertEquals("新1", MessageTemplateCache.format(null, "changed", 1));
+        assertEquals(0L, MessageTemplateCache.getHitCount());
+        assertEquals(2L, MessageTemplateCache.getMissCount());
+    }
+
+    /**
+     * 複数のスレッドから同時に同じテンプレートでメッセージを生成できること
+     */
+    @Test
+    public void testConcurrentFormat() throws Exception {
+        MessageTemplateCache.format(null, "range", "年齢", 1, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 4; i++) {
+                final int thread = i;
+                results.add(executor.submit(() -> {
+                    ThreadContext.setLanguage(Locale.JAPANESE);
+                    for (int j = 0; j < 500; j++) {
+                        String expected = "項目" + thread + "は" + j + "から" + (j + thread) + "の範囲で入力してください。";
+                        if (!expected.equals(MessageTemplateCache.format(null, "range", "項目" + thread, j, j + thread))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, MessageTemplateCache.size());
+    }
+
+    /**
+     * 保持する件数が0の場合は保持しないこと
+     */
+    @Test
+    public void testDisabled() {
+        config.setMessageTemplateCacheSize(0);
+        assertEquals("氏名は必須です。", MessageTemplateCache.format(null, "required", "氏名"));
+        assertEquals("氏名は必須です。", MessageTemplateCache.format(null, "required", "氏名"));
+        assertEquals(0, MessageTemplateCache.size());
+        assertEquals(0L, MessageTemplateCache.getHitCount());
+        assertEquals(0L, MessageTemplateCache.getMissCount());
+    }
+}
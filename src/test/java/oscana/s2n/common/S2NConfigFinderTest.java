@@ -0,0 +1,44 @@
+package oscana.s2n.common;
+
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import oscana.s2n.sample.support.SystemRepositoryResource;
+
+/**
+ * {@link S2NConfigFinder}のテスト。
+ */
+public class S2NConfigFinderTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    /**
+     * 設定が登録されていない場合、デフォルト値が使用されること
+     */
+    @Test
+    public void testDefaultConfig() {
+        S2NConfig config = S2NConfigFinder.getConfig();
+        assertNotNull(config);
+        assertEquals(10000, config.getMaxGridIndex());
+        assertEquals("routes.xml", config.getRoutes());
+        assertEquals(0L, config.getRoutesCheckInterval());
+        assertFalse(config.isDirectForward());
+        assertEquals(0, config.getMessageTemplateCacheSize());
+    }
+
+    /**
+     * 設定が登録されている場合、登録された設定が使用されること
+     */
+    @Test
+    public void testConfig() {
+        S2NConfig config = new S2NConfig();
+        config.setMaxGridIndex(10);
+        repositoryResource.addComponent("s2nConfig", config);
+
+        assertSame(config, S2NConfigFinder.getConfig());
+        assertEquals(10, S2NConfigFinder.getConfig().getMaxGridIndex());
+    }
+}
@@ -0,0 +1,204 @@
+package oscana.s2n.common.web.el;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import javax.el.ELContext;
+import javax.el.ELResolver;
+import javax.el.FunctionMapper;
+import javax.el.PropertyNotWritableException;
+import javax.el.VariableMapper;
+import javax.servlet.ServletRequest;
+import javax.servlet.jsp.JspContext;
+import javax.servlet.jsp.PageContext;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import nablarch.fw.ExecutionContext;
+import oscana.s2n.common.S2NConstants;
+import oscana.s2n.common.web.interceptor.LazyProperties;
+import oscana.s2n.common.web.interceptor.PropertyExporter;
+
+/**
+ * {@link LazyPropertyELResolver}のテスト。
+ */
+public class LazyPropertyELResolverTest {
+
+    @Mocked
+    private PageContext pageContext;
+
+    @Mocked
+    private ServletRequest request;
+
+    private final LazyPropertyELResolver resolver = new LazyPropertyELResolver();
+
+    private ELContext elContext;
+
+    private LazyProperties properties;
+
+    @Before
+    public void setUp() {
+        ExecutionContext ctx = new ExecutionContext();
+        PropertyExporter.of(TestBean.class).exportLazily(new TestBean(), ctx);
+        properties = ctx.getRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+
+        elContext = new TestELContext();
+        elContext.putContext(JspContext.class, pageContext);
+    }
+
+    /**
+     * 遅延評価で設定された値が解決されること
+     */
+    @Test
+    public void testGetValue() {
+        new Expectations() {{
+            pageContext.getRequest();
+            result = request;
+            request.getAttribute(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+            result = properties;
+        }};
+
+        assertThat(resolver.getValue(elContext, null, "name"), is((Object) "name"));
+        assertTrue(elContext.isPropertyResolved());
+    }
+
+    /**
+     * 登録されていない変数は解決されないこと
+     */
+    @Test
+    public void testGetValueNotRegistered() {
+        new Expectations() {{
+            pageContext.getRequest();
+            result = request;
+            request.getAttribute(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+            result = properties;
+        }};
+
+        assertNull(resolver.getValue(elContext, null, "notExist"));
+        assertFalse(elContext.isPropertyResolved());
+    }
+
+    /**
+     * 同じ名前の変数がページスコープに存在する場合は解決されず、後続のELResolverに委譲されること
+     */
+    @Test
+    public void testGetValueShadowedByPageScope() {
+        new Expectations() {{
+            pageContext.getRequest();
+            result = request;
+            request.getAttribute(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+            result = properties;
+            pageContext.getAttribute("name", PageContext.PAGE_SCOPE);
+            result = "item";
+        }};
+
+        assertNull(resolver.getValue(elContext, null, "name"));
+        assertFalse(elContext.isPropertyResolved());
+        assertFalse(resolver.isReadOnly(elContext, null, "name"));
+        assertFalse(elContext.isPropertyResolved());
+    }
+
+    /**
+     * 同じ名前の変数がリクエストスコープに存在する場合は解決されず、後続のELResolverに委譲されること
+     */
+    @Test
+    public void testGetValueShadowedByRequestScope() {
+        new Expectations() {{
+            pageContext.getRequest();
+            result = request;
+            request.getAttribute(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+            result = properties;
+            request.getAttribute("name");
+            result = "set";
+        }};
+
+        assertNull(resolver.getValue(elContext, null, "name"));
+        assertFalse(elContext.isPropertyResolved());
+        resolver.setValue(elContext, null, "name", "value");
+        assertFalse(elContext.isPropertyResolved());
+    }
+
+    /**
+     * リクエストスコープに値が存在しない場合は解決されないこと
+     */
+    @Test
+    public void testGetValueNoLazyProperties() {
+        new Expectations() {{
+            pageContext.getRequest();
+            result = request;
+            request.getAttribute(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+            result = null;
+        }};
+
+        assertNull(resolver.getValue(elContext, null, "name"));
+        assertFalse(elContext.isPropertyResolved());
+    }
+
+    /**
+     * 遅延評価で設定された変数は参照専用であること
+     */
+    @Test
+    public void testReadOnly() {
+        new Expectations() {{
+            pageContext.getRequest();
+            result = request;
+            request.getAttribute(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+            result = properties;
+        }};
+
+        assertTrue(resolver.isReadOnly(elContext, null, "name"));
+        assertTrue(elContext.isPropertyResolved());
+
+        elContext.setPropertyResolved(false);
+        assertFalse(resolver.isReadOnly(elContext, null, "notExist"));
+        assertFalse(elContext.isPropertyResolved());
+
+        resolver.setValue(elContext, null, "notExist", "value");
+        assertFalse(elContext.isPropertyResolved());
+        try {
+            resolver.setValue(elContext, null, "name", "value");
+            fail();
+        } catch (PropertyNotWritableException e) {
+            assertTrue(elContext.isPropertyResolved());
+        }
+    }
+
+    /**
+     * 最上位の変数以外は解決されないこと
+     */
+    @Test
+    public void testGetValueWithBase() {
+        assertNull(resolver.getValue(elContext, new TestBean(), "name"));
+        assertFalse(elContext.isPropertyResolved());
+        assertThat(resolver.getCommonPropertyType(elContext, null), is((Object) String.class));
+        assertNull(resolver.getCommonPropertyType(elContext, new TestBean()));
+    }
+
+    /** テスト用のBean */
+    public static class TestBean {
+        public String getName() {
+            return "name";
+        }
+    }
+
+    /** テスト用の{@link ELContext} */
+    private static class TestELContext extends ELContext {
+        @Override
+        public ELResolver getELResolver() {
+            return null;
+        }
+
+        @Override
+        public FunctionMapper getFunctionMapper() {
+            return null;
+        }
+
+        @Override
+        public VariableMapper getVariableMapper() {
+            return null;
+        }
+    }
+}
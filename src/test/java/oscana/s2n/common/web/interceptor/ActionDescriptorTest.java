@@ -0,0 +1,128 @@
+package oscana.s2n.common.web.interceptor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.junit.Test;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.web.HttpRequest;
+import oscana.s2n.common.web.interceptor.ActionDescriptor.ValidationStep;
+import oscana.s2n.sample.form.ExecuteErrTestForm;
+import oscana.s2n.sample.form.ExecuteTestForm;
+import oscana.s2n.sample.support.ExecuteErrTestAction;
+import oscana.s2n.sample.support.ExecuteNoFieldTestAction;
+import oscana.s2n.sample.support.ExecuteNoFormTestAction;
+import oscana.s2n.sample.support.ExecuteTestAction;
+import oscana.s2n.sample.support.S2NValidationStrategyAction;
+
+/**
+ * {@link ActionDescriptor}のテスト。
+ */
+public class ActionDescriptorTest {
+
+    /**
+     * アクションメソッド単位にキャッシュされること
+     */
+    @Test
+    public void testCached() throws Exception {
+        Method method = actionMethod(ExecuteTestAction.class, "defaultExecute");
+        ActionDescriptor descriptor = ActionDescriptor.get(method, method.getAnnotation(Execute.class));
+
+        assertSame(descriptor, ActionDescriptor.get(method, method.getAnnotation(Execute.class)));
+        assertEquals(ExecuteTestAction.class, descriptor.getActionClass());
+        assertEquals(ExecuteTestForm.class, descriptor.getFormClass());
+        assertEquals(ExecuteTestAction.class, descriptor.getActionExporter().getTargetClass());
+        assertEquals(ExecuteTestForm.class, descriptor.getFormExporter().getTargetClass());
+    }
+
+    /**
+     * フォームが存在しない場合、フォームに関する情報を保持しないこと
+     */
+    @Test
+    public void testNoForm() throws Exception {
+        Method method = actionMethod(ExecuteNoFormTestAction.class, "hasNoForm");
+        ActionDescriptor descriptor = ActionDescriptor.get(method, method.getAnnotation(Execute.class));
+
+        assertNull(descriptor.getFormClass());
+        assertNull(descriptor.getFormExporter());
+        assertTrue(descriptor.getValidationSteps().isEmpty());
+    }
+
+    /**
+     * 「@」の指定がない場合、単項目バリデーションが先頭に追加されること
+     */
+    @Test
+    public void testValidationStepsWithoutBeanValidation() throws Exception {
+        Method method = actionMethod(S2NValidationStrategyAction.class, "doValidNotStopWithErr04");
+        List<ValidationStep> steps = ActionDescriptor.get(method, method.getAnnotation(Execute.class))
+                .getValidationSteps();
+
+        assertThat(steps.size(), is(3));
+        assertThat(steps.get(0).getKind(), is(ValidationStep.Kind.BEAN));
+        assertThat(steps.get(1).getName(), is("validateForm"));
+        assertThat(steps.get(1).getKind(), is(ValidationStep.Kind.FORM));
+        assertThat(steps.get(2).getName(), is("validateCommon"));
+        assertThat(steps.get(2).getKind(), is(ValidationStep.Kind.ACTION));
+    }
+
+    /**
+     * 「@」の指定がある場合、指定された順序でバリデーションが実行されること
+     */
+    @Test
+    public void testValidationStepsWithBeanValidation() throws Exception {
+        Method method = actionMethod(S2NValidationStrategyAction.class, "doValidNotStopWithErr03");
+        List<ValidationStep> steps = ActionDescriptor.get(method, method.getAnnotation(Execute.class))
+                .getValidationSteps();
+
+        assertThat(steps.size(), is(3));
+        assertThat(steps.get(0).getKind(), is(ValidationStep.Kind.FORM));
+        assertThat(steps.get(1).getKind(), is(ValidationStep.Kind.BEAN));
+        assertThat(steps.get(2).getKind(), is(ValidationStep.Kind.ACTION));
+        assertEquals(1, steps.get(0).invoke(new S2NValidationStrategyAction(), new ExecuteTestForm()).size());
+    }
+
+    /**
+     * リセットメソッドが呼び出されること
+     */
+    @Test
+    public void testReset() throws Exception {
+        Method method = actionMethod(ExecuteTestAction.class, "testForReset");
+        ExecuteTestForm form = new ExecuteTestForm();
+        ActionDescriptor.get(method, method.getAnnotation(Execute.class)).reset(form);
+        assertEquals("test", form.getResetVal());
+    }
+
+    /**
+     * デフォルトのリセットメソッドがフォームに存在しない場合、何もしないこと
+     */
+    @Test
+    public void testDefaultResetNotExist() throws Exception {
+        Method method = actionMethod(ExecuteErrTestAction.class, "hasNoReset");
+        ExecuteErrTestForm form = new ExecuteErrTestForm();
+        form.setResetVal("a");
+        ActionDescriptor.get(method, method.getAnnotation(Execute.class)).reset(form);
+        assertEquals("a", form.getResetVal());
+    }
+
+    /**
+     * 指定したリセットメソッドがフォームに存在しない場合、例外が送出されること
+     */
+    @Test
+    public void testResetNotExist() throws Exception {
+        Method method = actionMethod(ExecuteNoFieldTestAction.class, "hasNoField");
+        try {
+            ActionDescriptor.get(method, method.getAnnotation(Execute.class)).reset(new ExecuteErrTestForm());
+            fail();
+        } catch (RuntimeException e) {
+            assertThat(e.getCause(), instanceOf(NoSuchMethodException.class));
+        }
+    }
+
+    private static Method actionMethod(Class<?> actionClass, String name) throws NoSuchMethodException {
+        return actionClass.getMethod(name, HttpRequest.class, ExecutionContext.class);
+    }
+}
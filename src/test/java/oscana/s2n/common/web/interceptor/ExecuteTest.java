@@ -349,6 +349,29 @@ public class ExecuteTest extends S2NNablarchTestCase {
         assertEquals("trimVal= 123 ",vals[1]);
     }
 
+    /**
+     * ノーマライズ処理後はリクエストパラメータの値がノーマライズされていること。
+     */
+    @Test
+    public void testNormalizeRequestParameter() {
+        HttpResponse res = sendReq("/normalizeParam?trimVal=%20123%20");
+        assertEquals(200, res.getStatusCode());
+        assertEquals("trimVal=123", res.getBodyString());
+    }
+
+    /**
+     * 一覧の行の値は、バリデーションではノーマライズした値を使用し、アクションではノーマライズ前の値を参照できること。
+     */
+    @Test
+    public void testNormalizeGridRow() {
+        HttpResponse res = sendReq("/gridNormalize?rows%5B0%5D.code=%20123%20");
+        assertEquals(200, res.getStatusCode());
+        assertEquals("code= 123 ", res.getBodyString());
+
+        res = sendReq("/gridNormalize?rows%5B0%5D.code=%201234%20");
+        assertEquals(400, res.getStatusCode());
+    }
+
     /**
      * ノーマライズ処理をテストする。
      * @throws UnsupportedEncodingException
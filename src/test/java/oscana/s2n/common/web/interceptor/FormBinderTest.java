@@ -0,0 +1,477 @@
+package oscana.s2n.common.web.interceptor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import mockit.Mocked;
+import mockit.Verifications;
+import nablarch.core.beans.BeanUtil;
+import nablarch.core.beans.CopyOptions;
+import nablarch.fw.results.BadRequest;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+import oscana.s2n.struts.upload.FormFile;
+
+/**
+ * {@link FormBinder}のテスト。
+ */
+public class FormBinderTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    /**
+     * クラス単位にキャッシュされること
+     */
+    @Test
+    public void testCached() {
+        assertSame(FormBinder.of(TestForm.class), FormBinder.of(TestForm.class));
+    }
+
+    /**
+     * 事前に変換処理を決定できる型の値が設定されること
+     */
+    @Test
+    public void testBind() {
+        Map<String, String[]> params = new HashMap<String, String[]>();
+        params.put("name", new String[] {" name "});
+        params.put("empty", new String[] {""});
+        params.put("values", new String[] {"a", "b"});
+        params.put("intValue", new String[] {"1"});
+        params.put("integerValue", new String[] {"-2"});
+        params.put("longValue", new String[] {"3000000000"});
+        params.put("shortValue", new String[] {"4"});
+        params.put("byteValue", new String[] {"5"});
+        params.put("doubleValue", new String[] {"6.5"});
+        params.put("floatValue", new String[] {"7.25"});
+        params.put("booleanValue", new String[] {"true"});
+        params.put("decimal", new String[] {"123.450"});
+        params.put("notExist", new String[] {"x"});
+
+        TestForm form = new TestForm();
+        FormBinder.of(TestForm.class).bind(form, params);
+
+        assertThat(form.getName(), is(" name "));
+        assertThat(form.getEmpty(), is(""));
+        assertThat(form.getValues(), is(new String[] {"a", "b"}));
+        assertNotSame(params.get("values"), form.getValues());
+        assertThat(form.getIntValue(), is(1));
+        assertThat(form.getIntegerValue(), is(-2));
+        assertThat(form.getLongValue(), is(3000000000L));
+        assertThat(form.getShortValue(), is((short) 4));
+        assertThat(form.getByteValue(), is((byte) 5));
+        assertThat(form.getDoubleValue(), is(6.5d));
+        assertThat(form.getFloatValue(), is(7.25f));
+        assertThat(form.isBooleanValue(), is(true));
+        assertThat(form.getDecimal(), is(new BigDecimal("123.450")));
+    }
+
+    /**
+     * 事前に変換処理を決定できない場合、{@link BeanUtil}で設定されること
+     */
+    @Test
+    public void testBindFallback(@Mocked BeanUtil beanUtil) {
+        Map<String, String[]> params = new HashMap<String, String[]>();
+        params.put("name", new String[] {"name"});
+        params.put("intValue", new String[] {"abc"});
+        params.put("integerValue", new String[] {""});
+        params.put("booleanValue", new String[] {"on"});
+        params.put("list", new String[] {"a"});
+        params.put("child.name", new String[] {"child"});
+        params.put("values[0]", new String[] {"a"});
+
+        final TestForm form = new TestForm();
+        FormBinder.of(TestForm.class).bind(form, params);
+
+        assertThat(form.getName(), is("name"));
+        new Verifications() {{
+            Map<String, String[]> fallback;
+            BeanUtil.copy(TestForm.class, form, fallback = withCapture(), withInstanceOf(CopyOptions.class));
+            times = 1;
+            assertThat(fallback.size(), is(6));
+            assertFalse(fallback.containsKey("name"));
+            assertTrue(fallback.containsKey("intValue"));
+            assertTrue(fallback.containsKey("integerValue"));
+            assertTrue(fallback.containsKey("booleanValue"));
+            assertTrue(fallback.containsKey("list"));
+            assertTrue(fallback.containsKey("child.name"));
+            assertTrue(fallback.containsKey("values[0]"));
+        }};
+    }
+
+    /**
+     * アップロードファイルが設定されること
+     */
+    @Test
+    public void testSetProperty() {
+        TestForm form = new TestForm();
+        FormFile file = new FormFile();
+        FormFile[] files = new FormFile[] {new FormFile(), new FormFile()};
+
+        FormBinder binder = FormBinder.of(TestForm.class);
+        binder.setProperty(form, "file", file);
+        binder.setProperty(form, "files", files);
+
+        assertSame(file, form.getFile());
+        assertSame(files, form.getFiles());
+    }
+
+    /**
+     * 値の型がプロパティの型と一致しない場合、{@link BeanUtil}で設定されること
+     */
+    @Test
+    public void testSetPropertyFallback(@Mocked BeanUtil beanUtil) {
+        final TestForm form = new TestForm();
+        final FormFile file = new FormFile();
+        FormBinder.of(TestForm.class).setProperty(form, "files", file);
+
+        new Verifications() {{
+            BeanUtil.setProperty(form, "files", file);
+            times = 1;
+        }};
+    }
+
+    /**
+     * インデックス付きのリクエストパラメータがListの要素に設定されること
+     */
+    @Test
+    public void testBindGridList() {
+        Map<String, String[]> params = new HashMap<String, String[]>();
+        params.put("rows[0].name", new String[] {"name0"});
+        params.put("rows[0].price", new String[] {"100"});
+        params.put("rows[2].name", new String[] {"name2"});
+        params.put("rows[2].children[1].name", new String[] {"child"});
+
+        GridForm form = new GridForm();
+        FormBinder.of(GridForm.class).bind(form, params);
+
+        List<Row> rows = form.getRows();
+        assertThat(rows.size(), is(3));
+        assertThat(rows.get(0).getName(), is("name0"));
+        assertThat(rows.get(0).getPrice(), is(new BigDecimal("100")));
+        assertThat(rows.get(1).getName(), is(nullValue()));
+        assertThat(rows.get(2).getName(), is("name2"));
+        assertThat(rows.get(2).getChildren().size(), is(2));
+        assertThat(rows.get(2).getChildren().get(1).getName(), is("child"));
+    }
+
+    /**
+     * インデックス付きのリクエストパラメータが配列の要素に設定され、既存の要素が再利用されること
+     */
+    @Test
+    public void testBindGridArray() {
+        Map<String, String[]> params = new HashMap<String, String[]>();
+        params.put("rowArray[1].name", new String[] {"name1"});
+
+        GridForm form = new GridForm();
+        Row existing = new Row();
+        existing.setName("existing");
+        Row other = new Row();
+        other.setName("other");
+        form.setRowArray(new Row[] {other, existing, new Row()});
+        FormBinder.of(GridForm.class).bind(form, params);
+
+        Row[] rows = form.getRowArray();
+        assertThat(rows.length, is(3));
+        assertSame(other, rows[0]);
+        assertThat(rows[0].getName(), is("other"));
+        assertSame(existing, rows[1]);
+        assertThat(rows[1].getName(), is("name1"));
+    }
+
+    /**
+     * 大量のインデックス付きのリクエストパラメータが設定されること
+     */
+    @Test
+    public void testBindGridLarge() {
+        Map<String, String[]> params = new HashMap<String, String[]>();
+        for (int i = 0; i < 3000; i++) {
+            params.put("rows[" + i + "].name", new String[] {"name" + i});
+            params.put("rows[" + i + "].price", new String[] {String.valueOf(i)});
+        }
+
+        GridForm form = new GridForm();
+        FormBinder.of(GridForm.class).bind(form, params);
+
+        assertThat(form.getRows().size(), is(3000));
+        assertThat(form.getRows().get(2999).getName(), is("name2999"));
+        assertThat(form.getRows().get(2999).getPrice(), is(new BigDecimal("2999")));
+    }
+
+    /**
+     * インデックスが最大値を超える場合、{@link BadRequest}が送出されること
+     */
+    @Test
+    public void testBindGridExceedsMaxIndex() {
+        Map<String, String[]> params = new HashMap<String, String[]>();
+        params.put("rows[10001].name", new String[] {"name"});
+        try {
+            FormBinder.of(GridForm.class).bind(new GridForm(), params);
+            fail();
+        } catch (BadRequest e) {
+            assertThat(e.getMessage(), containsString("rows[10001].name"));
+        }
+    }
+
+    /**
+     * インデックスの最大値を設定で変更できること
+     */
+    @Test
+    public void testBindGridConfiguredMaxIndex() {
+        S2NConfig config = new S2NConfig();
+        config.setMaxGridIndex(1);
+        repositoryResource.addComponent("s2nConfig", config);
+
+        Map<String, String[]> params = new HashMap<String, String[]>();
+        params.put("rows[1].name", new String[] {"name"});
+        FormBinder.of(GridForm.class).bind(new GridForm(), params);
+
+        params.put("rows[2].name", new String[] {"name"});
+        try {
+            FormBinder.of(GridForm.class).bind(new GridForm(), params);
+            fail();
+        } catch (BadRequest e) {
+            assertThat(e.getMessage(), containsString("max=[1]"));
+        }
+    }
+
+    /**
+     * 要素がBeanでない場合、インデックスが数値でない場合は{@link BeanUtil}で設定されること
+     */
+    @Test
+    public void testBindGridFallback(@Mocked BeanUtil beanUtil) {
+        Map<String, String[]> params = new HashMap<String, String[]>();
+        params.put("names[0]", new String[] {"a"});
+        params.put("rows[x].name", new String[] {"a"});
+        params.put("rows[0]", new String[] {"a"});
+
+        final GridForm form = new GridForm();
+        FormBinder.of(GridForm.class).bind(form, params);
+
+        new Verifications() {{
+            Map<String, String[]> fallback;
+            BeanUtil.copy(GridForm.class, form, fallback = withCapture(), withInstanceOf(CopyOptions.class));
+            times = 1;
+            assertThat(fallback.size(), is(3));
+        }};
+    }
+
+    /** テスト用のフォーム */
+    public static class TestForm implements Serializable {
+        private String name;
+        private String empty;
+        private String[] values;
+        private int intValue;
+        private Integer integerValue;
+        private long longValue;
+        private short shortValue;
+        private byte byteValue;
+        private double doubleValue;
+        private float floatValue;
+        private boolean booleanValue;
+        private BigDecimal decimal;
+        private List<String> list;
+        private TestForm child;
+        private FormFile file;
+        private FormFile[] files;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getEmpty() {
+            return empty;
+        }
+
+        public void setEmpty(String empty) {
+            this.empty = empty;
+        }
+
+        public String[] getValues() {
+            return values;
+        }
+
+        public void setValues(String[] values) {
+            this.values = values;
+        }
+
+        public int getIntValue() {
+            return intValue;
+        }
+
+        public void setIntValue(int intValue) {
+            this.intValue = intValue;
+        }
+
+        public Integer getIntegerValue() {
+            return integerValue;
+        }
+
+        public void setIntegerValue(Integer integerValue) {
+            this.integerValue = integerValue;
+        }
+
+        public long getLongValue() {
+            return longValue;
+        }
+
+        public void setLongValue(long longValue) {
+            this.longValue = longValue;
+        }
+
+        public short getShortValue() {
+            return shortValue;
+        }
+
+        public void setShortValue(short shortValue) {
+            this.shortValue = shortValue;
+        }
+
+        public byte getByteValue() {
+            return byteValue;
+        }
+
+        public void setByteValue(byte byteValue) {
+            this.byteValue = byteValue;
+        }
+
+        public double getDoubleValue() {
+            return doubleValue;
+        }
+
+        public void setDoubleValue(double doubleValue) {
+            this.doubleValue = doubleValue;
+        }
+
+        public float getFloatValue() {
+            return floatValue;
+        }
+
+        public void setFloatValue(float floatValue) {
+            this.floatValue = floatValue;
+        }
+
+        public boolean isBooleanValue() {
+            return booleanValue;
+        }
+
+        public void setBooleanValue(boolean booleanValue) {
+            this.booleanValue = booleanValue;
+        }
+
+        public BigDecimal getDecimal() {
+            return decimal;
+        }
+
+        public void setDecimal(BigDecimal decimal) {
+            this.decimal = decimal;
+        }
+
+        public List<String> getList() {
+            return list;
+        }
+
+        public void setList(List<String> list) {
+            this.list = list;
+        }
+
+        public TestForm getChild() {
+            return child;
+        }
+
+        public void setChild(TestForm child) {
+            this.child = child;
+        }
+
+        public FormFile getFile() {
+            return file;
+        }
+
+        public void setFile(FormFile file) {
+            this.file = file;
+        }
+
+        public FormFile[] getFiles() {
+            return files;
+        }
+
+        public void setFiles(FormFile[] files) {
+            this.files = files;
+        }
+    }
+
+    /** テスト用の一覧のフォーム */
+    public static class GridForm implements Serializable {
+        private List<Row> rows;
+        private Row[] rowArray;
+        private List<String> names;
+
+        public List<Row> getRows() {
+            return rows;
+        }
+
+        public void setRows(List<Row> rows) {
+            this.rows = rows;
+        }
+
+        public Row[] getRowArray() {
+            return rowArray;
+        }
+
+        public void setRowArray(Row[] rowArray) {
+            this.rowArray = rowArray;
+        }
+
+        public List<String> getNames() {
+            return names;
+        }
+
+        public void setNames(List<String> names) {
+            this.names = names;
+        }
+    }
+
+    /** テスト用の一覧の要素 */
+    public static class Row implements Serializable {
+        private String name;
+        private BigDecimal price;
+        private List<Row> children;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+
+        public List<Row> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<Row> children) {
+            this.children = children;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package oscana.s2n.common.web.interceptor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * {@link FormCopier}のテスト。
+ */
+public class FormCopierTest {
+
+    /**
+     * クラス単位にキャッシュされること
+     */
+    @Test
+    public void testCached() {
+        assertSame(FormCopier.of(TestForm.class), FormCopier.of(TestForm.class));
+    }
+
+    /**
+     * 親クラスを含むインスタンスフィールドがコピーされること
+     */
+    @Test
+    public void testCopy() {
+        TestForm form = new TestForm();
+        form.name = "name";
+        form.count = 3;
+        form.values = new String[] {"a", "b"};
+        form.rows = new ArrayList<String>();
+        form.setParentValue("parent");
+
+        TestForm copy = FormCopier.of(TestForm.class).copy(form);
+
+        assertNotSame(form, copy);
+        assertThat(copy.name, is("name"));
+        assertThat(copy.count, is(3));
+        assertSame(form.values, copy.values);
+        assertSame(form.rows, copy.rows);
+        assertThat(copy.getParentValue(), is("parent"));
+        assertThat(copy.fixed, is("fixed"));
+    }
+
+    /**
+     * 要素がBeanの配列、Listは要素ごとにコピーされること
+     */
+    @Test
+    public void testCopyRows() {
+        TestForm form = new TestForm();
+        Row row = new Row();
+        row.code = " 001 ";
+        form.beanRows = new ArrayList<Row>();
+        form.beanRows.add(row);
+        form.beanRows.add(null);
+        form.beanArray = new Row[] {row};
+
+        TestForm copy = FormCopier.of(TestForm.class).copy(form);
+
+        assertNotSame(form.beanRows, copy.beanRows);
+        assertThat(copy.beanRows.size(), is(2));
+        assertNotSame(row, copy.beanRows.get(0));
+        assertThat(copy.beanRows.get(0).code, is(" 001 "));
+        assertNull(copy.beanRows.get(1));
+        assertNotSame(form.beanArray, copy.beanArray);
+        assertNotSame(row, copy.beanArray[0]);
+
+        copy.beanRows.get(0).code = "001";
+        copy.beanArray[0].code = "001";
+        assertThat(row.code, is(" 001 "));
+    }
+
+    /**
+     * コピー後の変更がコピー元に影響しないこと
+     */
+    @Test
+    public void testCopyIndependent() {
+        TestForm form = new TestForm();
+        form.name = " name ";
+
+        TestForm copy = FormCopier.of(TestForm.class).copy(form);
+        copy.name = "name";
+
+        assertThat(form.name, is(" name "));
+    }
+
+    /** テスト用の親フォーム */
+    public static class ParentForm implements Serializable {
+        private String parentValue;
+
+        public String getParentValue() {
+            return parentValue;
+        }
+
+        public void setParentValue(String parentValue) {
+            this.parentValue = parentValue;
+        }
+    }
+
+    /** テスト用のフォーム */
+    public static class TestForm extends ParentForm {
+        public static String staticValue = "static";
+        public final String fixed = "fixed";
+        public String name;
+        public int count;
+        public String[] values;
+        public List<String> rows;
+        public List<Row> beanRows;
+        public Row[] beanArray;
+    }
+
+    /** テスト用の行 */
+    public static class Row {
+        public String code;
+    }
+}
@@ -0,0 +1,195 @@
+package oscana.s2n.common.web.interceptor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import nablarch.fw.ExecutionContext;
+import oscana.s2n.common.S2NConstants;
+
+/**
+ * {@link PropertyExporter}のテスト。
+ */
+public class PropertyExporterTest {
+
+    /**
+     * クラス単位にキャッシュされること
+     */
+    @Test
+    public void testCached() {
+        assertSame(PropertyExporter.of(PublicBean.class), PropertyExporter.of(PublicBean.class));
+        assertEquals(PublicBean.class, PropertyExporter.of(PublicBean.class).getTargetClass());
+    }
+
+    /**
+     * publicクラスのフィールド、getterメソッドの値がリクエストスコープに設定されること
+     */
+    @Test
+    public void testExportPublicClass() {
+        ExecutionContext ctx = new ExecutionContext();
+        PublicBean bean = new PublicBean();
+        bean.field = "field";
+        PropertyExporter.of(PublicBean.class).export(bean, ctx);
+
+        assertThat(ctx.<String> getRequestScopedVar("field"), is("field"));
+        assertThat(ctx.<String> getRequestScopedVar("constant"), is("constant"));
+        assertThat(ctx.<String> getRequestScopedVar("name"), is("name"));
+        assertThat(ctx.<Integer> getRequestScopedVar("count"), is(10));
+        assertThat(ctx.<Boolean> getRequestScopedVar("enabled"), is(true));
+        assertThat(ctx.<String> getRequestScopedVar("staticValue"), is("static"));
+        assertThat(ctx.<String> getRequestScopedVar("URL"), is("url"));
+        assertThat(ctx.<String> getRequestScopedVar("parent"), is("parent"));
+        assertNull(ctx.getRequestScopedVar("class"));
+        assertNull(ctx.getRequestScopedVar("wrapped"));
+        assertNull(ctx.getRequestScopedVar("hidden"));
+    }
+
+    /**
+     * 値が変更された場合、変更後の値が設定されること
+     */
+    @Test
+    public void testExportCurrentValue() {
+        PublicBean bean = new PublicBean();
+        PropertyExporter exporter = PropertyExporter.of(PublicBean.class);
+
+        bean.name = "first";
+        ExecutionContext ctx = new ExecutionContext();
+        exporter.export(bean, ctx);
+        assertThat(ctx.<String> getRequestScopedVar("name"), is("first"));
+
+        bean.name = "second";
+        ctx = new ExecutionContext();
+        exporter.export(bean, ctx);
+        assertThat(ctx.<String> getRequestScopedVar("name"), is("second"));
+    }
+
+    /**
+     * publicでないクラスの場合も値がリクエストスコープに設定されること
+     */
+    @Test
+    public void testExportNonPublicClass() {
+        ExecutionContext ctx = new ExecutionContext();
+        PropertyExporter.of(NonPublicBean.class).export(new NonPublicBean(), ctx);
+
+        assertThat(ctx.<String> getRequestScopedVar("value"), is("value"));
+        assertThat(ctx.<Long> getRequestScopedVar("number"), is(1L));
+    }
+
+    /**
+     * getterメソッドで発生した例外がそのまま送出されること
+     */
+    @Test
+    public void testExportThrowsException() {
+        try {
+            PropertyExporter.of(ErrorBean.class).export(new ErrorBean(), new ExecutionContext());
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("error"));
+        }
+    }
+
+    /**
+     * 遅延評価の場合、参照されるまでgetterメソッドが呼び出されず、参照結果が再利用されること
+     */
+    @Test
+    public void testExportLazily() {
+        ExecutionContext ctx = new ExecutionContext();
+        CountBean bean = new CountBean();
+        PropertyExporter.of(CountBean.class).exportLazily(bean, ctx);
+
+        LazyProperties properties = ctx.getRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+        assertNull(ctx.getRequestScopedVar("value"));
+        assertTrue(properties.contains("value"));
+        assertFalse(properties.contains("class"));
+        assertThat(bean.count, is(0));
+
+        assertThat(properties.get("value"), is((Object) "value1"));
+        assertThat(properties.get("value"), is((Object) "value1"));
+        assertThat(bean.count, is(1));
+        assertNull(properties.get("notExist"));
+    }
+
+    /**
+     * 遅延評価の場合、後から登録した値が有効となること
+     */
+    @Test
+    public void testExportLazilyOverride() {
+        ExecutionContext ctx = new ExecutionContext();
+        PublicBean bean = new PublicBean();
+        PropertyExporter.of(PublicBean.class).exportLazily(bean, ctx);
+        PropertyExporter.of(NonPublicBean.class).exportLazily(new NonPublicBean(), ctx);
+
+        LazyProperties properties = ctx.getRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_LAZY_PROPERTIES);
+        assertThat(properties.get("name"), is((Object) "name"));
+        assertThat(properties.get("value"), is((Object) "value"));
+        assertTrue(properties.names().contains("count"));
+    }
+
+    /** テスト用の親クラス */
+    public static class ParentBean {
+        public String getParent() {
+            return "parent";
+        }
+    }
+
+    /** テスト用のpublicクラス */
+    public static class PublicBean extends ParentBean {
+        public static final String constant = "constant";
+        public String field;
+        protected String hidden = "hidden";
+        private String name = "name";
+
+        public static String getStaticValue() {
+            return "static";
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return 10;
+        }
+
+        public boolean isEnabled() {
+            return true;
+        }
+
+        public Boolean isWrapped() {
+            return Boolean.TRUE;
+        }
+
+        public String getURL() {
+            return "url";
+        }
+    }
+
+    /** テスト用のpublicでないクラス */
+    private static class NonPublicBean {
+        public String getValue() {
+            return "value";
+        }
+
+        public long getNumber() {
+            return 1L;
+        }
+    }
+
+    /** テスト用のgetterメソッドの呼び出し回数を数えるクラス */
+    public static class CountBean {
+        private int count;
+
+        public String getValue() {
+            count++;
+            return "value" + count;
+        }
+    }
+
+    /** テスト用の例外を送出するクラス */
+    public static class ErrorBean {
+        public String getError() {
+            throw new IllegalStateException("error");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package oscana.s2n.common.web.interceptor;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.validation.GroupSequence;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import org.hibernate.validator.group.GroupSequenceProvider;
+import org.hibernate.validator.spi.group.DefaultGroupSequenceProvider;
+import org.junit.After;
+import org.junit.Test;
+
+import nablarch.core.ThreadContext;
+import nablarch.core.message.Message;
+import nablarch.core.validation.ValidationResultMessage;
+import oscana.s2n.common.S2NConstants;
+import oscana.s2n.validation.Length;
+import oscana.s2n.validation.Required;
+
+/**
+ * {@link ValidationPlan}のテスト。
+ */
+public class ValidationPlanTest {
+
+    @After
+    public void tearDown() {
+        ThreadContext.clear();
+    }
+
+    /**
+     * アクションメソッドで検証される制約を持つプロパティのみが検証対象となること
+     */
+    @Test
+    public void testGet() {
+        ValidationPlan register = ValidationPlan.get(TargetForm.class, "register");
+        assertFalse(register.isAll());
+        assertThat(sorted(register.getProperties()), is(Arrays.asList("always", "name", "notNull", "shared")));
+
+        ValidationPlan update = ValidationPlan.get(TargetForm.class, "update");
+        assertThat(sorted(update.getProperties()), is(Arrays.asList("always", "code", "notNull", "shared")));
+
+        ValidationPlan other = ValidationPlan.get(TargetForm.class, "other");
+        assertThat(sorted(other.getProperties()), is(Arrays.asList("always", "notNull")));
+
+        assertSame(register, ValidationPlan.get(TargetForm.class, "register"));
+    }
+
+    /**
+     * 省略できない場合はフォーム全体が検証対象となること
+     */
+    @Test
+    public void testGetAll() {
+        assertTrue(ValidationPlan.get(TargetForm.class, null).isAll());
+        assertTrue(ValidationPlan.get(NoTargetForm.class, "register").isAll());
+        assertTrue(ValidationPlan.get(CascadeForm.class, "register").isAll());
+        assertTrue(ValidationPlan.get(SequenceForm.class, "register").isAll());
+        assertTrue(ValidationPlan.get(SubSequenceForm.class, "register").isAll());
+        assertTrue(ValidationPlan.get(SequenceProviderForm.class, "register").isAll());
+        assertNull(ValidationPlan.get(NoTargetForm.class, "register").getProperties());
+    }
+
+    /**
+     * 省略した場合とフォーム全体を検証した場合で、バリデーションエラーが同じであること
+     */
+    @Test
+    public void testValidate() {
+        for (String methodName : Arrays.asList("register", "update", "other")) {
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, methodName);
+            TargetForm form = new TargetForm();
+            form.code = "123";
+
+            List<String> pruned = propertyNames(ValidationPlan.get(TargetForm.class, methodName).validate(form));
+            List<String> all = propertyNames(ValidationPlan.get(TargetForm.class, null).validate(form));
+            assertThat(methodName, pruned, is(all));
+        }
+
+        ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, "update");
+        TargetForm form = new TargetForm();
+        form.always = "a";
+        form.notNull = "b";
+        form.shared = "c";
+        form.code = "12";
+        assertTrue(ValidationPlan.get(TargetForm.class, "update").validate(form).isEmpty());
+    }
+
+    private static List<String> propertyNames(List<Message> messages) {
+        List<String> names = new ArrayList<String>();
+        for (Message message : messages) {
+            names.add(((ValidationResultMessage) message).getPropertyName());
+        }
+        return sorted(names);
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> result = new ArrayList<String>(values);
+        Collections.sort(result);
+        return result;
+    }
+
+    public static class TargetForm implements Serializable {
+
+        @Required
+        public String always;
+
+        @NotNull
+        public String notNull;
+
+        @Required(target = "register")
+        public String name;
+
+        @Length(min = 2, max = 2, target = "update")
+        public String code;
+
+        @Required(target = "register, update")
+        public String shared;
+
+        @Required(target = "delete")
+        public String deleteOnly;
+    }
+
+    public static class NoTargetForm implements Serializable {
+
+        @Required
+        public String name;
+    }
+
+    public interface Second {
+    }
+
+    @GroupSequence({SequenceForm.class, Second.class})
+    public static class SequenceForm implements Serializable {
+
+        @Required(target = "update")
+        public String name;
+
+        @Required(groups = Second.class)
+        public String code;
+    }
+
+    public static class SubSequenceForm extends SequenceForm {
+    }
+
+    @GroupSequenceProvider(SequenceProvider.class)
+    public static class SequenceProviderForm implements Serializable {
+
+        @Required(target = "update")
+        public String name;
+    }
+
+    public static class SequenceProvider implements DefaultGroupSequenceProvider<SequenceProviderForm> {
+
+        @Override
+        public List<Class<?>> getValidationGroups(SequenceProviderForm form) {
+            return Collections.<Class<?>> singletonList(SequenceProviderForm.class);
+        }
+    }
+
+    public static class CascadeForm implements Serializable {
+
+        @Required(target = "update")
+        public String name;
+
+        @Valid
+        public NoTargetForm child = new NoTargetForm();
+    }
+}
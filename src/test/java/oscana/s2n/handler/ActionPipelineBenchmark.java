@@ -0,0 +1,144 @@
+package oscana.s2n.handler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.Handler;
+import nablarch.fw.Interceptor;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.HttpResponse;
+import nablarch.fw.web.MockHttpRequest;
+import oscana.s2n.benchmark.BenchmarkRunner;
+
+/**
+ * {@link ActionPipeline}と、変更前の{@link Method#invoke(Object, Object...)}によるアクションメソッドの呼び出しの比較。<br>
+ * <br>
+ * beforeExecute、アクションメソッド、afterExecuteを持つアクションを1リクエスト分呼び出す時間（ディスパッチのレイテンシ）を計測する。
+ * 変更前の処理は、リクエスト毎のメソッドの検索、インターセプタの適用、{@link Method#invoke(Object, Object...)}による呼び出しを再現する。
+ * 実行方法は{@link BenchmarkRunner}を参照。
+ */
+public final class ActionPipelineBenchmark {
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ActionPipelineBenchmark() {
+    }
+
+    /**
+     * ベンチマークを実行する。
+     * @param args 使用しない
+     * @throws Exception 処理に失敗した場合
+     */
+    public static void main(String[] args) throws Exception {
+        final Action action = new Action();
+        final HttpRequest request = new MockHttpRequest("GET /benchmark HTTP/1.1");
+        final ExecutionContext context = new ExecutionContext();
+        HttpResourceHolder.bind(new HttpResourceHolder());
+        try {
+            new BenchmarkRunner("dispatch action method").compare(
+                    new String[] {"Method.invoke (baseline)", "ActionPipeline"},
+                    () -> invokeByReflection(action, "handle", request, context),
+                    () -> ActionPipeline.get(Action.class, "handle").handle(action, request, context));
+        } finally {
+            HttpResourceHolder.unbind();
+        }
+    }
+
+    /**
+     * 変更前の{@code S2NRoutesMethodBinder}と同じ手順でアクションメソッドを呼び出す。
+     *
+     * @param action アクション
+     * @param methodName アクションメソッド名
+     * @param request リクエスト
+     * @param context 実行コンテキスト
+     * @return レスポンス
+     * @throws NoSuchMethodException アクションメソッドが存在しない場合
+     */
+    private static Object invokeByReflection(final Object action, String methodName, HttpRequest request,
+            ExecutionContext context) throws NoSuchMethodException {
+        final Method boundMethod = action.getClass().getMethod(methodName, HttpRequest.class, ExecutionContext.class);
+        final Handler<HttpRequest, Object> handler = new Handler<HttpRequest, Object>() {
+            @Override
+            public Object handle(HttpRequest req, ExecutionContext ctx) {
+                Object response = null;
+                HttpResourceHolder.current().setCurrentRequestId(req.getRequestPath());
+                final Method beforeExecute = getExecuteMethod(action, "beforeExecute");
+                if (beforeExecute != null) {
+                    invoke(beforeExecute, action, boundMethod, null);
+                }
+                if (response == null) {
+                    response = invoke(boundMethod, action, req, ctx);
+                }
+                final Method afterExecute = getExecuteMethod(action, "afterExecute");
+                if (afterExecute != null) {
+                    invoke(afterExecute, action, boundMethod, null);
+                }
+                return response;
+            }
+        };
+        return Interceptor.Factory.wrap(handler, boundMethod.getAnnotations()).handle(request, context);
+    }
+
+    /**
+     * beforeExecute、afterExecuteメソッドを検索する。
+     *
+     * @param action アクション
+     * @param methodName メソッド名
+     * @return メソッド。存在しない場合はnull
+     */
+    private static Method getExecuteMethod(Object action, String methodName) {
+        try {
+            return action.getClass().getMethod(methodName, Method.class, Object.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * メソッドを呼び出し、{@link InvocationTargetException}の原因を送出する。
+     *
+     * @param method メソッド
+     * @param target 呼び出し対象
+     * @param params 引数
+     * @return 戻り値
+     */
+    private static Object invoke(Method method, Object target, Object... params) {
+        try {
+            return method.invoke(target, params);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * テスト用のアクション。
+     */
+    public static class Action {
+
+        /** レスポンス */
+        private static final HttpResponse RESPONSE = new HttpResponse(200);
+
+        public String beforeExecute(Method method, Object form) {
+            return null;
+        }
+
+        public HttpResponse handle(HttpRequest request, ExecutionContext context) {
+            return RESPONSE;
+        }
+
+        public String afterExecute(Method method, Object form) {
+            return null;
+        }
+    }
+}
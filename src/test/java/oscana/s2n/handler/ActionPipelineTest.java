@@ -0,0 +1,430 @@
+package oscana.s2n.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import nablarch.common.web.session.SessionStoreHandler;
+import nablarch.core.ThreadContext;
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.Handler;
+import nablarch.fw.Interceptor;
+import nablarch.fw.dicontainer.nablarch.Containers;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.servlet.WebFrontController;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConstants;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+import oscana.s2n.testCommon.S2NBaseTest;
+
+/**
+ * {@link ActionPipeline}のテスト。
+ */
+public class ActionPipelineTest extends S2NBaseTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    @Mocked
+    private HttpRequest request;
+
+    @Mocked
+    private AsyncContext asyncContext;
+
+    @After
+    public void clearThreadContext() {
+        ThreadContext.clear();
+    }
+
+    /**
+     * アクションクラスとメソッド名の組み合わせ単位にキャッシュされること
+     */
+    @Test
+    public void testCached() throws Exception {
+        ActionPipeline pipeline = ActionPipeline.get(Action.class, "handle");
+
+        assertSame(pipeline, ActionPipeline.get(Action.class, "handle"));
+        assertNotSame(pipeline, ActionPipeline.get(Action.class, "other"));
+        assertEquals(Action.class, pipeline.getActionClass());
+        assertEquals(Action.class.getMethod("handle", HttpRequest.class, ExecutionContext.class),
+                pipeline.getActionMethod());
+    }
+
+    /**
+     * アクションメソッドが存在しない場合、例外が送出されること
+     */
+    @Test
+    public void testMethodNotFound() {
+        try {
+            ActionPipeline.get(Action.class, "notExist");
+            fail();
+        } catch (RuntimeException e) {
+            assertThat(e.getCause(), instanceOf(NoSuchMethodException.class));
+        }
+    }
+
+    /**
+     * キャッシュした呼び出し処理で、リクエスト毎に渡されたアクションが呼び出されること
+     */
+    @Test
+    public void testHandleWithDifferentAction() {
+        final ActionPipeline pipeline = ActionPipeline.get(Action.class, "handle");
+
+        Object first = this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(new Action("first"), request, executionContext)));
+        Object second = this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(new Action("second"), request, executionContext)));
+
+        assertThat(first, is((Object) "first"));
+        assertThat(second, is((Object) "second"));
+    }
+
+    /**
+     * アクションメソッドで発生した非検査例外がそのまま送出されること
+     */
+    @Test
+    public void testHandleThrowsRuntimeException() {
+        final ActionPipeline pipeline = ActionPipeline.get(Action.class, "runtimeError");
+        try {
+            this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                    (data, context) -> pipeline.handle(new Action(), request, executionContext)));
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("runtime"));
+        }
+    }
+
+    /**
+     * アクションメソッドで発生した検査例外が{@link RuntimeException}でラップされて送出されること
+     */
+    @Test
+    public void testHandleThrowsCheckedException() {
+        final ActionPipeline pipeline = ActionPipeline.get(Action.class, "checkedError");
+        try {
+            this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                    (data, context) -> pipeline.handle(new Action(), request, executionContext)));
+            fail();
+        } catch (RuntimeException e) {
+            assertThat(e.getCause(), instanceOf(IOException.class));
+        }
+    }
+
+    /**
+     * beforeExecute、afterExecuteにアクションメソッドとフォームが渡されること
+     */
+    @Test
+    public void testHandleExecuteMethods() {
+        final ActionPipeline pipeline = ActionPipeline.get(ExecuteMethodAction.class, "handle");
+        final ExecuteMethodAction action = new ExecuteMethodAction();
+
+        Object response = this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(action, request, executionContext)));
+
+        assertThat(response, is((Object) "handle"));
+        assertThat(action.calls, is("before:handle,handle,after:handle"));
+    }
+
+    /**
+     * アプリケーションのインターセプタが付与されている場合、リクエストごとにインターセプタが生成されること
+     */
+    @Test
+    public void testApplicationInterceptorPerRequest() {
+        final ActionPipeline pipeline = ActionPipeline.get(InterceptedAction.class, "handle");
+        Recording.Impl.instances.clear();
+
+        Object first = this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(new InterceptedAction(), request, executionContext)));
+        Object second = this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(new InterceptedAction(), request, executionContext)));
+
+        assertThat(first, is((Object) "handle:1"));
+        assertThat(second, is((Object) "handle:1"));
+        assertThat(Recording.Impl.instances.size(), is(2));
+        assertNotSame(Recording.Impl.instances.get(0), Recording.Impl.instances.get(1));
+    }
+
+    /**
+     * インターセプタを共有する設定の場合、アプリケーションのインターセプタも複数のリクエストで共有されること
+     */
+    @Test
+    public void testShareInterceptors() {
+        S2NConfig config = new S2NConfig();
+        config.setShareInterceptors(true);
+        repositoryResource.addComponent("s2nConfig", config);
+        Recording.Impl.instances.clear();
+        final ActionPipeline pipeline = ActionPipeline.get(SharedInterceptedAction.class, "handle");
+
+        Object first = this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(new SharedInterceptedAction(), request, executionContext)));
+        Object second = this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(new SharedInterceptedAction(), request, executionContext)));
+
+        assertThat(first, is((Object) "handle:1"));
+        assertThat(second, is((Object) "handle:2"));
+        assertThat(Recording.Impl.instances.size(), is(1));
+    }
+
+    /**
+     * 非同期アクションの場合、リクエストを中断し、完了時のスレッドでThreadContextを引き継いでディスパッチすること
+     */
+    @Test
+    public void testHandleAsyncAction() throws Exception {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<Object> dispatched = new ArrayList<>();
+        new Expectations() {{
+            httpServletRequest.startAsync();
+            result = asyncContext;
+            asyncContext.getResponse();
+            result = httpServletResponse;
+            minTimes = 0;
+            asyncContext.dispatch(anyString);
+            result = new Delegate<Void>() {
+                @SuppressWarnings("unused")
+                void dispatch(String path) {
+                    dispatched.add(path);
+                    dispatched.add(ThreadContext.getObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME));
+                    dispatched.add(Thread.currentThread());
+                    latch.countDown();
+                }
+            };
+        }};
+        ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, "async");
+        final ActionPipeline pipeline = ActionPipeline.get(AsyncAction.class, "async");
+        final List<HttpResourceHolder> holders = new ArrayList<>();
+
+        Object response = this.handle(Arrays.asList(new HttpResourceHolderHandler(), (data, context) -> {
+            holders.add(Containers.get().getComponent(HttpResourceHolder.class));
+            return pipeline.handle(new AsyncAction(future), request, executionContext);
+        }));
+
+        assertNull(response);
+        assertNotNull(holders.get(0).getHttpServletRequest());
+
+        future.complete("/async.jsp");
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertThat(dispatched.get(0), is((Object) "/WEB-INF/view/async.jsp"));
+        assertThat(dispatched.get(1), is((Object) "async"));
+        assertNotSame(Thread.currentThread(), dispatched.get(2));
+    }
+
+    /**
+     * 非同期アクションが例外で完了した場合、内部エラーで応答すること
+     */
+    @Test
+    public void testHandleAsyncActionFailed() throws Exception {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        new Expectations() {{
+            httpServletRequest.startAsync();
+            result = asyncContext;
+            asyncContext.getResponse();
+            result = httpServletResponse;
+            minTimes = 0;
+            asyncContext.complete();
+            result = new Delegate<Void>() {
+                @SuppressWarnings("unused")
+                void complete() {
+                    latch.countDown();
+                }
+            };
+        }};
+        final ActionPipeline pipeline = ActionPipeline.get(AsyncAction.class, "async");
+
+        Object response = this.handle(Arrays.asList(new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(new AsyncAction(future), request, executionContext)));
+        assertNull(response);
+
+        future.completeExceptionally(new IllegalStateException("async"));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        new Verifications() {{
+            httpServletResponse.sendError(500);
+            times = 1;
+        }};
+    }
+
+    /**
+     * ハンドラキューでSessionStoreHandlerがアクションより前に配置されている場合、
+     * 非同期アクションでリクエストを中断せずに例外が送出されること
+     */
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testHandleAsyncActionWithSessionStoreHandler() throws Exception {
+        final ActionPipeline pipeline = ActionPipeline.get(AsyncAction.class, "async");
+        final Handler<HttpRequest, Object> sessionStoreHandler = (Handler) new PassThroughSessionStoreHandler();
+        final List<Handler<HttpRequest, Object>> handlers = Arrays.asList(sessionStoreHandler,
+                new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(new AsyncAction(new CompletableFuture<String>()), request,
+                        executionContext));
+        repositoryResource.addComponent("webFrontController", new WebFrontController().setHandlerQueue(handlers));
+
+        try {
+            this.handle(handlers);
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString(
+                    "cannot suspend the request because nablarch.common.web.session.SessionStoreHandler"));
+        }
+        new Verifications() {{
+            httpServletRequest.startAsync();
+            times = 0;
+        }};
+    }
+
+    /**
+     * ハンドラキューに中断できないハンドラがアクションより前に配置されていない場合、
+     * 非同期アクションでリクエストが中断されること
+     */
+    @Test
+    public void testHandleAsyncActionWithHandlerQueue() throws Exception {
+        new Expectations() {{
+            httpServletRequest.startAsync();
+            result = asyncContext;
+        }};
+        final ActionPipeline pipeline = ActionPipeline.get(AsyncAction.class, "async");
+        final List<Handler<HttpRequest, Object>> handlers = Arrays.asList(new HttpResourceHolderHandler(),
+                (data, context) -> pipeline.handle(new AsyncAction(new CompletableFuture<String>()), request,
+                        executionContext));
+        repositoryResource.addComponent("webFrontController", new WebFrontController().setHandlerQueue(handlers));
+
+        assertNull(this.handle(handlers));
+        assertTrue(AsyncActionCompletion.isSuspended(executionContext));
+    }
+
+    /** 後続のハンドラに委譲するだけのSessionStoreHandler */
+    private static class PassThroughSessionStoreHandler extends SessionStoreHandler {
+        @Override
+        public Object handle(Object data, ExecutionContext context) {
+            return context.handleNext(data);
+        }
+    }
+
+    public static class Action {
+
+        private final String name;
+
+        public Action() {
+            this("default");
+        }
+
+        public Action(String name) {
+            this.name = name;
+        }
+
+        public String handle(HttpRequest request, ExecutionContext context) {
+            return name;
+        }
+
+        public String other(HttpRequest request, ExecutionContext context) {
+            return "other";
+        }
+
+        public String runtimeError(HttpRequest request, ExecutionContext context) {
+            throw new IllegalStateException("runtime");
+        }
+
+        public String checkedError(HttpRequest request, ExecutionContext context) throws IOException {
+            throw new IOException("checked");
+        }
+    }
+
+    public static class ExecuteMethodAction {
+
+        private String calls = "";
+
+        public String handle(HttpRequest request, ExecutionContext context) {
+            calls += "handle,";
+            return "handle";
+        }
+
+        public String beforeExecute(Method method, Object form) {
+            calls += "before:" + method.getName() + ",";
+            return null;
+        }
+
+        public String afterExecute(Method method, Object form) {
+            calls += "after:" + method.getName();
+            return null;
+        }
+    }
+
+    public static class InterceptedAction {
+
+        @Recording
+        public String handle(HttpRequest request, ExecutionContext context) {
+            return "handle";
+        }
+    }
+
+    public static class SharedInterceptedAction {
+
+        @Recording
+        public String handle(HttpRequest request, ExecutionContext context) {
+            return "handle";
+        }
+    }
+
+    /** 呼び出し回数をフィールドに保持するインターセプタ */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @Interceptor(Recording.Impl.class)
+    public @interface Recording {
+
+        class Impl extends Interceptor.Impl<HttpRequest, Object, Recording> {
+
+            static final List<Impl> instances = new ArrayList<>();
+
+            private int calls;
+
+            public Impl() {
+                instances.add(this);
+            }
+
+            @Override
+            public Object handle(HttpRequest request, ExecutionContext context) {
+                calls++;
+                return getOriginalHandler().handle(request, context) + ":" + calls;
+            }
+        }
+    }
+
+    public static class AsyncAction {
+
+        private final CompletableFuture<String> future;
+
+        public AsyncAction(CompletableFuture<String> future) {
+            this.future = future;
+        }
+
+        public CompletableFuture<String> async(HttpRequest request, ExecutionContext context) {
+            return future;
+        }
+    }
+
+    @Override
+    protected void setClassToRegist() {
+        registClassList = Arrays.asList(HttpResourceHolder.class);
+    }
+}
@@ -0,0 +1,101 @@
+package oscana.s2n.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import nablarch.integration.router.RoutesMapping;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+
+/**
+ * {@link ActionWarmUp}のテスト。
+ */
+public class ActionWarmUpTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    /**
+     * ルーティング定義に記載されたアクションのメタ情報が構築されること。
+     * 解決できないルートは無視されること。
+     */
+    @Test
+    public void testInitialize() {
+        ActionWarmUp sut = createWarmUp("routes.xml");
+        sut.setWarmUpCount(2);
+        sut.initialize();
+    }
+
+    /**
+     * アクションを解決できない場合にエラーとする設定の場合、例外が送出されること
+     */
+    @Test
+    public void testFailOnUnresolvedRoute() {
+        ActionWarmUp sut = createWarmUp("routes.xml");
+        sut.setFailOnUnresolvedRoute(true);
+        try {
+            sut.initialize();
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString(
+                    "action class not found. controller=[NotExist] class=[oscana.s2n.sample.support.NotExistAction]"));
+            assertThat(e.getMessage(), containsString(
+                    "action method not found. class=[oscana.s2n.sample.support.ExecuteTestAction] method=[notExist]"));
+        }
+    }
+
+    /**
+     * バリデーションメソッドが存在しない場合、例外が送出されること
+     */
+    @Test
+    public void testValidateMethodNotFound() {
+        ActionWarmUp sut = createWarmUp("routes-error.xml");
+        try {
+            sut.initialize();
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("validate method not found. method=[notExistValidate]"));
+            assertThat(e.getMessage(), containsString("path=[/validateNotExist]"));
+            assertThat(e.getMessage(), not(containsString("path=[/validateNotExistWithoutValidator]")));
+        }
+    }
+
+    /**
+     * ルーティング定義ファイルが存在しない場合、例外が送出されること
+     */
+    @Test
+    public void testRoutesNotFound() {
+        ActionWarmUp sut = createWarmUp("notExist.xml");
+        try {
+            sut.initialize();
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("routes file not found."));
+        }
+    }
+
+    /**
+     * ルーティングを行うハンドラが{@link S2NRoutesMapping}でない場合、例外が送出されること
+     */
+    @Test
+    public void testNotS2NRoutesMapping() {
+        repositoryResource.addComponent("packageMapping", new RoutesMapping());
+        try {
+            new ActionWarmUp().initialize();
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("action warm-up requires routes mapping to be "
+                    + "oscana.s2n.handler.S2NRoutesMapping."));
+        }
+    }
+
+    private ActionWarmUp createWarmUp(String routes) {
+        S2NRoutesMapping mapping = new S2NRoutesMapping();
+        mapping.setRoutes("oscana/s2n/handler/ActionWarmUpTest/" + routes);
+        mapping.setBasePackage("oscana.s2n.sample.support");
+        repositoryResource.addComponent("packageMapping", mapping);
+        return new ActionWarmUp();
+    }
+}
@@ -0,0 +1,220 @@
+package oscana.s2n.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import nablarch.fw.web.HttpCookie;
+import nablarch.fw.web.HttpResponse;
+
+/**
+ * {@link AsyncResponseWriter}のテスト。
+ */
+public class AsyncResponseWriterTest {
+
+    @Mocked
+    private AsyncContext asyncContext;
+
+    @Mocked
+    private HttpServletRequest servletRequest;
+
+    @Mocked
+    private HttpServletResponse servletResponse;
+
+    /**
+     * サーブレットのパスの場合、ディスパッチすること
+     */
+    @Test
+    public void testDispatch() throws Exception {
+        expectResources();
+
+        AsyncResponseWriter.respond(asyncContext, new HttpResponse("/WEB-INF/view/index.jsp"));
+
+        new Verifications() {{
+            asyncContext.dispatch("/WEB-INF/view/index.jsp");
+            times = 1;
+            asyncContext.complete();
+            times = 0;
+        }};
+    }
+
+    /**
+     * リダイレクトの場合、コンテキストパスを付与してリダイレクトすること
+     */
+    @Test
+    public void testRedirect() throws Exception {
+        expectResources();
+        new Expectations() {{
+            servletRequest.getContextPath();
+            result = "/app";
+            servletResponse.encodeRedirectURL("/app/next");
+            result = "/app/next";
+        }};
+
+        AsyncResponseWriter.respond(asyncContext, new HttpResponse("redirect:///next"));
+
+        new Verifications() {{
+            servletResponse.sendRedirect("/app/next");
+            times = 1;
+            asyncContext.complete();
+            times = 1;
+        }};
+    }
+
+    /**
+     * パスが存在しない場合、ステータスコードとボディを書き込むこと
+     */
+    @Test
+    public void testWriteBody() throws Exception {
+        expectResources();
+        final ByteArrayOutputStream body = expectBody();
+
+        AsyncResponseWriter.respond(asyncContext, new HttpResponse(201).write("created"));
+
+        assertThat(body.toString("UTF-8"), is("created"));
+        new Verifications() {{
+            servletResponse.setStatus(201);
+            times = 1;
+            asyncContext.complete();
+            times = 1;
+        }};
+    }
+
+    /**
+     * Cookieを書き込むこと
+     */
+    @Test
+    public void testWriteCookie() throws Exception {
+        expectResources();
+        final ByteArrayOutputStream body = expectBody();
+        HttpCookie cookie = new HttpCookie();
+        cookie.put("theme", "dark");
+        HttpResponse response = new HttpResponse(200).write("ok");
+        response.setCookie(cookie);
+
+        AsyncResponseWriter.respond(asyncContext, response);
+
+        assertThat(body.toString("UTF-8"), is("ok"));
+        new Verifications() {{
+            Cookie written;
+            servletResponse.addCookie(written = withCapture());
+            times = 1;
+            assertThat(written.getName(), is("theme"));
+            assertThat(written.getValue(), is("dark"));
+            asyncContext.complete();
+            times = 1;
+        }};
+    }
+
+    /**
+     * クラスパス上のファイルの内容を書き込むこと
+     */
+    @Test
+    public void testWriteClasspathContent() throws Exception {
+        expectResources();
+        final ByteArrayOutputStream body = expectBody();
+
+        AsyncResponseWriter.respond(asyncContext,
+                new HttpResponse(200, "classpath://oscana/s2n/handler/async-response.txt"));
+
+        assertThat(body.toString("UTF-8"), is("async response"));
+        new Verifications() {{
+            asyncContext.dispatch(anyString);
+            times = 0;
+            asyncContext.complete();
+            times = 1;
+        }};
+    }
+
+    /**
+     * 内部フォワードの場合、ディスパッチすること
+     */
+    @Test
+    public void testForward() throws Exception {
+        expectResources();
+
+        AsyncResponseWriter.respond(asyncContext, new HttpResponse("forward:///next"));
+
+        new Verifications() {{
+            asyncContext.dispatch("/next");
+            times = 1;
+            asyncContext.complete();
+            times = 0;
+        }};
+    }
+
+    /**
+     * 内部エラーで応答すること
+     */
+    @Test
+    public void testSendError() throws Exception {
+        expectResources();
+
+        AsyncResponseWriter.sendError(asyncContext);
+
+        new Verifications() {{
+            servletResponse.sendError(500);
+            times = 1;
+            asyncContext.complete();
+            times = 1;
+        }};
+    }
+
+    private void expectResources() {
+        new Expectations() {{
+            asyncContext.getRequest();
+            result = servletRequest;
+            minTimes = 0;
+            asyncContext.getResponse();
+            result = servletResponse;
+            minTimes = 0;
+            servletRequest.getRequestURI();
+            result = "/app/async";
+            minTimes = 0;
+            servletRequest.getContextPath();
+            result = "/app";
+            minTimes = 0;
+            servletRequest.getMethod();
+            result = "GET";
+            minTimes = 0;
+        }};
+    }
+
+    private ByteArrayOutputStream expectBody() throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        new Expectations() {{
+            servletResponse.getOutputStream();
+            result = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    body.write(b);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+            };
+            minTimes = 0;
+        }};
+        return body;
+    }
+}
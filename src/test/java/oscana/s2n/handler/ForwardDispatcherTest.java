@@ -0,0 +1,203 @@
+package oscana.s2n.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import nablarch.core.ThreadContext;
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.dicontainer.nablarch.Containers;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.HttpResponse;
+import nablarch.fw.web.MockHttpRequest;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConstants;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+import oscana.s2n.testCommon.S2NBaseTest;
+import oscana.s2n.validation.ValidateTarget;
+
+/**
+ * {@link ForwardDispatcher}のテスト。
+ */
+public class ForwardDispatcherTest extends S2NBaseTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    private final HttpRequest request = new MockHttpRequest("GET /forward/source HTTP/1.1");
+
+    @After
+    public void clearIndex() {
+        RouteIndex.clear();
+    }
+
+    /**
+     * フォーワード先のアクションが直接呼び出され、リクエストパス、パスパラメータ、
+     * 呼び出しメソッドがフォーワード先のものになること
+     */
+    @Test
+    public void testDispatch() throws Exception {
+        config(true);
+
+        HttpResponse response = (HttpResponse) invoke("forward");
+
+        assertThat(response.getBodyString(), is("target:10"));
+        assertThat(request.getRequestPath(), is("/forward/target/10"));
+        assertThat(request.getParam("id")[0], is("10"));
+        Method method = executionContext.getRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_CALL_METHOD);
+        assertThat(method.getName(), is("show"));
+        assertThat(method.getDeclaringClass(), is((Object) TargetAction.class));
+        assertThat(ThreadContext.getObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME), is((Object) "show"));
+        assertThat(ThreadContext.getObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID),
+                is((Object) ValidateTarget.findMethodId("show")));
+        assertThat(TargetAction.requestId, is("/forward/target/10"));
+    }
+
+    /**
+     * フォーワード先のアクションが更に内部フォーワードを返した場合も直接呼び出されること
+     */
+    @Test
+    public void testDispatchChain() throws Exception {
+        config(true);
+
+        HttpResponse response = (HttpResponse) invoke("chain");
+
+        assertThat(response.getBodyString(), is("target:10"));
+        assertThat(request.getRequestPath(), is("/forward/target/10"));
+    }
+
+    /**
+     * 設定が無効の場合、内部フォーワードのレスポンスがそのまま返されること
+     */
+    @Test
+    public void testDisabled() throws Exception {
+        config(false);
+
+        HttpResponse response = (HttpResponse) invoke("forward");
+
+        assertThat(response.getContentPath().toString(), is("forward:///forward/target/10"));
+        assertThat(request.getRequestPath(), is("/forward/source"));
+    }
+
+    /**
+     * フォーワード先のアクションを解決できない場合、内部フォーワードのレスポンスがそのまま返されること
+     */
+    @Test
+    public void testNotDispatched() throws Exception {
+        config(true);
+
+        assertThat(((HttpResponse) invoke("unknown")).getContentPath().toString(),
+                is("forward:///forward/unknown"));
+        assertThat(((HttpResponse) invoke("notFound")).getContentPath().toString(),
+                is("forward:///forward/notFound"));
+        assertThat(((HttpResponse) invoke("query")).getContentPath().toString(),
+                is("forward:///forward/target/10?a=b"));
+        assertThat(((HttpResponse) invoke("jsp")).getContentPath().toString(),
+                is("servlet:///WEB-INF/view/forward/source.jsp"));
+        assertThat(request.getRequestPath(), is("/forward/source"));
+    }
+
+    /**
+     * GET以外のリクエストの場合、内部フォーワードのレスポンスがそのまま返されること
+     */
+    @Test
+    public void testNotGet() throws Exception {
+        config(true);
+        HttpRequest post = new MockHttpRequest("POST /forward/source HTTP/1.1");
+
+        HttpResponse response = (HttpResponse) invoke("forward", post);
+
+        assertThat(response.getContentPath().toString(), is("forward:///forward/target/10"));
+        assertThat(post.getRequestPath(), is("/forward/source"));
+    }
+
+    /**
+     * 直接呼び出した回数が上限に達した場合、内部フォーワードのレスポンスがそのまま返されること
+     */
+    @Test
+    public void testTooManyForwards() throws Exception {
+        config(true);
+        SourceAction.loops = 0;
+
+        HttpResponse response = (HttpResponse) invoke("loop");
+
+        assertThat(response.getContentPath().toString(), is("forward:///forward/loop"));
+        assertThat(SourceAction.loops, is(ForwardDispatcher.MAX_FORWARDS + 1));
+    }
+
+    private Object invoke(String methodName) {
+        return invoke(methodName, request);
+    }
+
+    private Object invoke(String methodName, final HttpRequest request) {
+        final S2NRoutesMethodBinder sut = new S2NRoutesMethodBinder(methodName);
+        return this.handle(Arrays.asList(new HttpResourceHolderHandler(), (data, context) -> {
+            return sut.bind(Containers.get().getComponent(SourceAction.class)).handle(request, executionContext);
+        }));
+    }
+
+    private void config(boolean directForward) {
+        S2NRoutesMapping mapping = new S2NRoutesMapping();
+        mapping.setRoutes("oscana/s2n/handler/ForwardDispatcherTest/routes.xml");
+        mapping.setBasePackage("oscana.s2n.handler");
+        repositoryResource.addComponent("packageMapping", mapping);
+        S2NConfig config = new S2NConfig();
+        config.setDirectForward(directForward);
+        repositoryResource.addComponent("s2nConfig", config);
+    }
+
+    public static class SourceAction {
+
+        static int loops;
+
+        public HttpResponse forward(HttpRequest request, ExecutionContext context) {
+            return new HttpResponse("forward:///forward/target/10");
+        }
+
+        public HttpResponse chain(HttpRequest request, ExecutionContext context) {
+            return new HttpResponse("forward:///forward/source");
+        }
+
+        public HttpResponse unknown(HttpRequest request, ExecutionContext context) {
+            return new HttpResponse("forward:///forward/unknown");
+        }
+
+        public HttpResponse notFound(HttpRequest request, ExecutionContext context) {
+            return new HttpResponse("forward:///forward/notFound");
+        }
+
+        public HttpResponse query(HttpRequest request, ExecutionContext context) {
+            return new HttpResponse("forward:///forward/target/10?a=b");
+        }
+
+        public HttpResponse jsp(HttpRequest request, ExecutionContext context) {
+            return new HttpResponse("/WEB-INF/view/forward/source.jsp");
+        }
+
+        public HttpResponse loop(HttpRequest request, ExecutionContext context) {
+            loops++;
+            return new HttpResponse("forward:///forward/loop");
+        }
+    }
+
+    public static class TargetAction {
+
+        static String requestId;
+
+        public HttpResponse show(HttpRequest request, ExecutionContext context) {
+            requestId = HttpResourceHolder.current().getCurrentRequestId();
+            return new HttpResponse(200).write("target:" + request.getParam("id")[0]);
+        }
+    }
+
+    @Override
+    protected void setClassToRegist() {
+        registClassList = Arrays.asList(HttpResourceHolder.class, SourceAction.class, TargetAction.class);
+    }
+}
@@ -6,6 +6,8 @@ import java.util.Arrays;
 
 import org.junit.Test;
 
+import mockit.Expectations;
+import mockit.Verifications;
 import nablarch.fw.dicontainer.nablarch.Containers;
 import nablarch.fw.web.servlet.ServletExecutionContext;
 import oscana.s2n.testCommon.S2NBaseTest;
@@ -34,6 +36,51 @@ public class HttpResourceHolderTest extends S2NBaseTest {
 
     }
 
+    /**
+     * セッションが存在しない場合、必要になった時点でセッションを作成すること
+     */
+    @Test
+    public void testGetHttpSessionLazily() {
+        new Expectations() {{
+            httpServletRequest.getSession(false);
+            result = null;
+        }};
+
+        this.handle(Arrays.asList(new HttpResourceHolderHandler(), (data, context) -> {
+            HttpResourceHolder httpResourceHolder = Containers.get().getComponent(HttpResourceHolder.class);
+            assertNull(httpResourceHolder.getHttpSession(false));
+            new Verifications() {{
+                httpServletRequest.getSession(true);
+                times = 0;
+            }};
+
+            assertNotNull(httpResourceHolder.getHttpSession());
+            assertSame(httpResourceHolder.getHttpSession(), httpResourceHolder.getHttpSession(false));
+            new Verifications() {{
+                httpServletRequest.getSession(true);
+                times = 1;
+            }};
+            return null;
+        }));
+    }
+
+    /**
+     * リクエストの処理中はスレッドに関連付けられ、処理後に関連付けが解除されること
+     */
+    @Test
+    public void testBound() {
+        assertNull(HttpResourceHolder.bound());
+
+        this.handle(Arrays.asList(new HttpResourceHolderHandler(), (data, context) -> {
+            HttpResourceHolder httpResourceHolder = Containers.get().getComponent(HttpResourceHolder.class);
+            assertSame(httpResourceHolder, HttpResourceHolder.bound());
+            assertSame(httpResourceHolder, HttpResourceHolder.current());
+            return null;
+        }));
+
+        assertNull(HttpResourceHolder.bound());
+    }
+
     @Override
     protected void setClassToRegist() {
         registClassList = Arrays.asList(HttpResourceHolder.class);
@@ -0,0 +1,205 @@
+package oscana.s2n.handler;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import nablarch.integration.router.RoutesMapping;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+
+/**
+ * {@link RouteIndex}のテスト。
+ */
+public class RouteIndexTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    @After
+    public void tearDown() {
+        RouteIndex.clear();
+    }
+
+    /**
+     * routes.xmlに定義されたGETリクエストのパスを判定できること
+     */
+    @Test
+    public void testContains() {
+        RouteIndex index = RouteIndex.current();
+
+        assertTrue(index.isSupported());
+        assertTrue(index.contains("/defaultExecute"));
+        assertTrue(index.contains("/sample/sampleSearchList/index"));
+        assertTrue(index.contains("/sample/sampleSearchList/doSearch/1"));
+        assertTrue(index.contains("/sample/sampleSearchList/fwCreate/1/2/3/4"));
+        assertFalse(index.contains("/sample/sampleSearchList"));
+        assertFalse(index.contains("/sample/sampleSearchList/doSearch"));
+        assertFalse(index.contains("/sample/sampleSearchList/doSearch/1/2"));
+        assertFalse(index.contains("/sample/sampleSearchList/doSearch/1.json"));
+        assertFalse(index.contains("/test"));
+    }
+
+    /**
+     * パスに一致するルートとパスパラメータを取得できること
+     */
+    @Test
+    public void testFind() {
+        RouteIndex.Route route = RouteIndex.current().find("/sample/sampleSearchList/fwCreate/1/2/3/4");
+
+        assertEquals("sample.sampleSearchList", route.getController());
+        assertEquals("fwCreate", route.getAction());
+        Map<String, String> parameters = route.getParameters("/sample/sampleSearchList/fwCreate/1/2/3/4");
+        assertEquals(Arrays.asList("kbn", "userId", "afileId", "bfileId"), new ArrayList<>(parameters.keySet()));
+        assertEquals(Arrays.asList("1", "2", "3", "4"), new ArrayList<>(parameters.values()));
+
+        assertTrue(RouteIndex.current().find("/defaultExecute").getParameters("/defaultExecute").isEmpty());
+        assertNull(RouteIndex.current().find("/test"));
+    }
+
+    /**
+     * 再構築するまでは同じ索引が使用されること
+     */
+    @Test
+    public void testCached() {
+        RouteIndex index = RouteIndex.current();
+        assertSame(index, RouteIndex.current());
+
+        RouteIndex.clear();
+        assertNotSame(index, RouteIndex.current());
+    }
+
+    /**
+     * GETリクエスト以外のルートは索引に含まれないこと
+     */
+    @Test
+    public void testMethod() {
+        config("oscana/s2n/handler/RouteIndexTest/routes-method.xml", 0);
+        RouteIndex index = RouteIndex.current();
+
+        assertTrue(index.isSupported());
+        assertTrue(index.contains("/user/1"));
+        assertFalse(index.contains("/user/1/update"));
+    }
+
+    /**
+     * 索引で再現できない定義を含む場合、索引が使用不可となること
+     */
+    @Test
+    public void testUnsupported() {
+        config("oscana/s2n/handler/RouteIndexTest/routes-unsupported.xml", 0);
+        RouteIndex index = RouteIndex.current();
+
+        assertFalse(index.isSupported());
+        try {
+            index.contains("/defaultExecute");
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("route index is not supported. routes=[oscana/s2n/handler/RouteIndexTest/routes-unsupported.xml]",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * ルーティング定義ファイルが存在しない場合、索引が使用不可となること
+     */
+    @Test
+    public void testRoutesNotFound() {
+        config("oscana/s2n/handler/RouteIndexTest/notFound.xml", 0);
+        assertFalse(RouteIndex.current().isSupported());
+    }
+
+    /**
+     * ルーティングを行うハンドラが{@link S2NRoutesMapping}でない場合、例外を送出せず索引が使用不可となること。
+     * {@link S2NRoutesMapping}に戻した場合は索引が構築されること
+     */
+    @Test
+    public void testNotS2NRoutesMapping() {
+        repositoryResource.addComponent("packageMapping", new RoutesMapping());
+
+        RouteIndex index = RouteIndex.current();
+        assertFalse(index.isSupported());
+        assertSame(index, RouteIndex.current());
+
+        config("routes.xml", 0);
+        assertTrue(RouteIndex.current().contains("/defaultExecute"));
+    }
+
+    /**
+     * ベースURIが設定されている場合、索引が使用不可となること
+     */
+    @Test
+    public void testBaseUri() {
+        S2NRoutesMapping mapping = new S2NRoutesMapping();
+        mapping.setBaseUri("/app");
+        repositoryResource.addComponent("packageMapping", mapping);
+        assertFalse(RouteIndex.current().isSupported());
+
+        mapping.setBaseUri("");
+        assertTrue(RouteIndex.current().isSupported());
+    }
+
+    /**
+     * 設定したルーティング定義ファイルが変更された場合、索引が再構築されること
+     */
+    @Test
+    public void testRoutesChanged() {
+        assertTrue(RouteIndex.current().contains("/defaultExecute"));
+
+        config("oscana/s2n/handler/RouteIndexTest/routes-method.xml", 0);
+        assertFalse(RouteIndex.current().contains("/defaultExecute"));
+        assertTrue(RouteIndex.current().contains("/user/1"));
+    }
+
+    /**
+     * 確認間隔を過ぎてルーティング定義ファイルが更新されている場合、索引が再構築されること
+     */
+    @Test
+    public void testReload() throws Exception {
+        URL url = Thread.currentThread().getContextClassLoader()
+                .getResource("oscana/s2n/handler/RouteIndexTest/routes-method.xml");
+        File dir = new File(URLDecoder.decode(url.getPath(), "UTF-8")).getParentFile();
+        File file = new File(dir, "routes-reload.xml");
+        try {
+            write(file, "<routes><match path=\"/before\" action=\"a\" controller=\"A\" /></routes>", 1000L);
+            config("oscana/s2n/handler/RouteIndexTest/routes-reload.xml", 1);
+
+            RouteIndex index = RouteIndex.current();
+            assertTrue(index.contains("/before"));
+
+            Thread.sleep(10);
+            assertTrue(RouteIndex.current().contains("/before"));
+
+            write(file, "<routes><match path=\"/after\" action=\"a\" controller=\"A\" /></routes>", 2000L);
+            Thread.sleep(10);
+            RouteIndex reloaded = RouteIndex.current();
+            assertFalse(reloaded.contains("/before"));
+            assertTrue(reloaded.contains("/after"));
+            assertTrue(index.contains("/before"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private void config(String routes, long interval) {
+        S2NRoutesMapping mapping = new S2NRoutesMapping();
+        mapping.setRoutes(routes);
+        mapping.setCheckInterval(interval);
+        repositoryResource.addComponent("packageMapping", mapping);
+    }
+
+    private static void write(File file, String content, long lastModified) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        assertTrue(file.setLastModified(lastModified));
+    }
+}
@@ -0,0 +1,88 @@
+package oscana.s2n.handler;
+
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import nablarch.integration.router.RoutesMapping;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConfigFinder;
+import oscana.s2n.sample.support.ExecuteTestAction;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+
+/**
+ * {@link S2NRoutesMapping}のテスト。
+ */
+public class S2NRoutesMappingTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    /**
+     * controller属性の最後の要素の先頭を大文字に変換し、"Action"を付与したクラス名となること
+     */
+    @Test
+    public void testToActionClassName() {
+        assertEquals("oscana.s2n.sample.support.ExecuteTestAction",
+                S2NRoutesMapping.toActionClassName("oscana.s2n.sample.support", "ExecuteTest"));
+        assertEquals("app.sample.SampleSearchListAction",
+                S2NRoutesMapping.toActionClassName("app", "sample.sampleSearchList"));
+        assertEquals("SampleAction", S2NRoutesMapping.toActionClassName(null, "sample"));
+        assertEquals("app.ProjectActionAction", S2NRoutesMapping.toActionClassName("app", "ProjectAction"));
+    }
+
+    /**
+     * アクションクラスをロードでき、存在しない場合はnullとなること
+     */
+    @Test
+    public void testLoadActionClass() {
+        assertSame(ExecuteTestAction.class,
+                S2NRoutesMapping.loadActionClass("oscana.s2n.sample.support", "executeTest"));
+        assertNull(S2NRoutesMapping.loadActionClass("oscana.s2n.sample.support", "ExecuteTestAction"));
+    }
+
+    /**
+     * 登録された{@link S2NRoutesMapping}の設定を互換ライブラリの設定から参照できること
+     */
+    @Test
+    public void testConfig() {
+        S2NConfig config = new S2NConfig();
+        assertEquals("routes.xml", config.getRoutes());
+        assertEquals(0L, config.getRoutesCheckInterval());
+        assertNull(config.getBasePackage());
+        assertEquals("", config.getRoutesBaseUri());
+
+        S2NRoutesMapping mapping = new S2NRoutesMapping();
+        mapping.setBaseUri("/app");
+        mapping.setRoutes("app-routes.xml");
+        mapping.setCheckInterval(1000L);
+        mapping.setBasePackage("app.action");
+        repositoryResource.addComponent("routesMapping", mapping);
+        config.setRoutesMappingName("routesMapping");
+
+        assertEquals("app-routes.xml", config.getRoutes());
+        assertEquals(1000L, config.getRoutesCheckInterval());
+        assertEquals("app.action", config.getBasePackage());
+        assertEquals("/app", config.getRoutesBaseUri());
+    }
+
+    /**
+     * 登録されたコンポーネントが{@link S2NRoutesMapping}でない場合、設定を参照できないと判定され、デフォルト値となること
+     */
+    @Test
+    public void testNotS2NRoutesMapping() {
+        S2NConfig config = S2NConfigFinder.getConfig();
+        assertTrue(config.isRoutesMappingSupported());
+
+        RoutesMapping mapping = new RoutesMapping();
+        mapping.setRoutes("app-routes.xml");
+        mapping.setBasePackage("app.action");
+        repositoryResource.addComponent("packageMapping", mapping);
+
+        assertFalse(config.isRoutesMappingSupported());
+        assertEquals("routes.xml", config.getRoutes());
+        assertEquals(0L, config.getRoutesCheckInterval());
+        assertNull(config.getBasePackage());
+    }
+}
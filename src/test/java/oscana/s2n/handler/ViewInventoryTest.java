@@ -0,0 +1,139 @@
+package oscana.s2n.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+
+/**
+ * {@link ViewInventory}のテスト。
+ */
+public class ViewInventoryTest {
+
+    private static final String ROUTES = "oscana/s2n/handler/ViewInventoryTest/routes.xml";
+
+    private static final String BASE_PACKAGE = "oscana.s2n.sample.action";
+
+    @Mocked
+    private ServletContext servletContext;
+
+    @Mocked
+    private HttpServletRequest request;
+
+    @Mocked
+    private HttpServletResponse response;
+
+    @Mocked
+    private RequestDispatcher dispatcher;
+
+    /**
+     * ビューのディレクトリ配下のJSPが列挙され、ビューが存在しないアクションが報告されること。
+     * フォーワード先を定義したアクションは、定義した各JSPの存在が確認されること
+     */
+    @Test
+    public void testScan() {
+        resources();
+
+        ViewInventory inventory = ViewInventory.scan(servletContext, ROUTES, BASE_PACKAGE);
+
+        assertThat(inventory.getViews(), is((Object) new HashSet<String>(Arrays.asList(
+                "/WEB-INF/view/index.jsp", "/WEB-INF/view/inventory/list/index.jsp",
+                "/WEB-INF/view/inventory/list/detail/show.jsp"))));
+        assertThat(inventory.getUnresolved().size(), is(2));
+        assertThat(inventory.getUnresolved().get("oscana.s2n.sample.action.inventory.EditAction"),
+                is((Object) Collections.singleton("/WEB-INF/view/inventory/edit/")));
+        assertThat(inventory.getUnresolved().get("oscana.s2n.sample.action.inventory.DetailAction"),
+                is((Object) Collections.singleton("/WEB-INF/view/inventory/list/detail/missing.jsp")));
+    }
+
+    /**
+     * ビューのディレクトリが存在しない場合、ビューが空になること
+     */
+    @Test
+    public void testScanNoViews() {
+        new Expectations() {{
+            servletContext.getResourcePaths("/WEB-INF/view/");
+            result = null;
+        }};
+
+        ViewInventory inventory = ViewInventory.scan(servletContext, ROUTES, BASE_PACKAGE);
+
+        assertTrue(inventory.getViews().isEmpty());
+        assertThat(inventory.getUnresolved().size(), is(3));
+        assertThat(inventory.getUnresolved().get("oscana.s2n.sample.action.inventory.DetailAction"),
+                is((Object) new HashSet<String>(Arrays.asList("/WEB-INF/view/inventory/list/detail/missing.jsp",
+                        "/WEB-INF/view/inventory/list/detail/show.jsp"))));
+    }
+
+    /**
+     * 各ビューがクエリ文字列を付与せずに、「jsp_precompile」パラメータのみを持つリクエストでインクルードされ、
+     * 失敗したビューが返されること
+     */
+    @Test
+    public void testPrecompile() throws Exception {
+        resources();
+        new Expectations() {{
+            request.getRequestDispatcher(anyString);
+            result = dispatcher;
+            dispatcher.include((ServletRequest) any, response);
+            result = null;
+            result = new ServletException("compile error");
+            result = null;
+        }};
+
+        List<String> failures = ViewInventory.scan(servletContext, ROUTES, BASE_PACKAGE)
+                .precompile(request, response);
+
+        assertThat(failures, is(Arrays.asList("/WEB-INF/view/inventory/list/detail/show.jsp")));
+        new Verifications() {{
+            request.getRequestDispatcher("/WEB-INF/view/index.jsp");
+            times = 1;
+            request.getRequestDispatcher("/WEB-INF/view/inventory/list/detail/show.jsp");
+            times = 1;
+            request.getRequestDispatcher("/WEB-INF/view/inventory/list/index.jsp");
+            times = 1;
+            List<ServletRequest> included = new ArrayList<ServletRequest>();
+            dispatcher.include(withCapture(included), response);
+            times = 3;
+
+            HttpServletRequest precompile = (HttpServletRequest) included.get(0);
+            assertThat(precompile.getQueryString(), is("jsp_precompile=true"));
+            assertThat(precompile.getParameter("jsp_precompile"), is("true"));
+            assertThat(precompile.getParameterValues("jsp_precompile"), is(new String[] {"true"}));
+            assertThat(precompile.getParameterMap().keySet(), is(Collections.singleton("jsp_precompile")));
+            assertNull(precompile.getParameter("id"));
+        }};
+    }
+
+    private void resources() {
+        new Expectations() {{
+            servletContext.getResourcePaths("/WEB-INF/view/");
+            result = new HashSet<String>(Arrays.asList(
+                    "/WEB-INF/view/index.jsp", "/WEB-INF/view/readme.txt", "/WEB-INF/view/inventory/"));
+            servletContext.getResourcePaths("/WEB-INF/view/inventory/");
+            result = Collections.singleton("/WEB-INF/view/inventory/list/");
+            servletContext.getResourcePaths("/WEB-INF/view/inventory/list/");
+            result = new HashSet<String>(Arrays.asList(
+                    "/WEB-INF/view/inventory/list/index.jsp", "/WEB-INF/view/inventory/list/detail/"));
+            servletContext.getResourcePaths("/WEB-INF/view/inventory/list/detail/");
+            result = Collections.singleton("/WEB-INF/view/inventory/list/detail/show.jsp");
+        }};
+    }
+}
@@ -0,0 +1,152 @@
+package oscana.s2n.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletRequest;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import nablarch.fw.web.HttpResponse;
+import nablarch.fw.web.MockHttpRequest;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+import oscana.s2n.testCommon.S2NBaseTest;
+
+/**
+ * {@link ViewPrecompileHandler}のテスト。
+ */
+public class ViewPrecompileHandlerTest extends S2NBaseTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    @Mocked
+    private RequestDispatcher dispatcher;
+
+    private final ViewPrecompileHandler sut = new ViewPrecompileHandler();
+
+    /**
+     * 指定したパスへのリクエストの場合、ビューが事前コンパイルされ、結果が返されること
+     */
+    @Test
+    public void testPrecompile() throws Exception {
+        config();
+        new Expectations() {{
+            httpServletRequest.getHeader(ViewPrecompileHandler.SECRET_HEADER);
+            result = "secret";
+            servletContext.getResourcePaths("/WEB-INF/view/");
+            result = Collections.singleton("/WEB-INF/view/inventory/");
+            servletContext.getResourcePaths("/WEB-INF/view/inventory/");
+            result = Collections.singleton("/WEB-INF/view/inventory/list/");
+            servletContext.getResourcePaths("/WEB-INF/view/inventory/list/");
+            result = Collections.singleton("/WEB-INF/view/inventory/list/index.jsp");
+            httpServletRequest.getRequestDispatcher("/WEB-INF/view/inventory/list/index.jsp");
+            result = dispatcher;
+            dispatcher.include((ServletRequest) any, httpServletResponse);
+            times = 1;
+        }};
+
+        HttpResponse response = (HttpResponse) handle("/precompileViews");
+
+        assertThat(response.getStatusCode(), is(200));
+        assertThat(response.getBodyString(), containsString("views=[1] failed=[0] unresolved=[2]"));
+        assertThat(response.getBodyString(),
+                containsString("unresolved: oscana.s2n.sample.action.inventory.EditAction /WEB-INF/view/inventory/edit/"));
+        assertThat(response.getBodyString(), containsString(
+                "unresolved: oscana.s2n.sample.action.inventory.DetailAction /WEB-INF/view/inventory/list/detail/missing.jsp"));
+        assertThat(response.getBodyString(), containsString(
+                "unresolved: oscana.s2n.sample.action.inventory.DetailAction /WEB-INF/view/inventory/list/detail/show.jsp"));
+    }
+
+    /**
+     * 指定したパス以外へのリクエストの場合、後続のハンドラに委譲されること
+     */
+    @Test
+    public void testOtherPath() {
+        config();
+        assertThat(handle("/inventory/list"), is((Object) "next"));
+    }
+
+    /**
+     * 共有シークレットが一致しない場合、指定されていない場合、後続のハンドラに委譲されること
+     */
+    @Test
+    public void testSecretMismatch() {
+        config();
+        new Expectations() {{
+            httpServletRequest.getHeader(ViewPrecompileHandler.SECRET_HEADER);
+            returns("other", null);
+        }};
+        assertThat(handle("/precompileViews"), is((Object) "next"));
+        assertThat(handle("/precompileViews"), is((Object) "next"));
+        new Verifications() {{
+            servletContext.getResourcePaths(anyString);
+            times = 0;
+        }};
+    }
+
+    /**
+     * 共有シークレットが設定されていない場合、後続のハンドラに委譲されること
+     */
+    @Test
+    public void testSecretNotConfigured() {
+        config();
+        sut.setSecret("");
+        new Expectations() {{
+            httpServletRequest.getHeader(ViewPrecompileHandler.SECRET_HEADER);
+            result = "";
+            minTimes = 0;
+        }};
+        sut.setPath("/precompileViews");
+        sut.setEnabled(true);
+        executionContext.addHandler((data, context) -> "next");
+        assertThat(sut.handle(new MockHttpRequest("GET /precompileViews HTTP/1.1"), executionContext),
+                is((Object) "next"));
+    }
+
+    /**
+     * デフォルト（無効）の場合、後続のハンドラに委譲されること
+     */
+    @Test
+    public void testDisabledByDefault() {
+        config();
+        ViewPrecompileHandler handler = new ViewPrecompileHandler();
+        handler.setPath("/precompileViews");
+        handler.setSecret("secret");
+        executionContext.addHandler((data, context) -> "next");
+        assertThat(handler.handle(new MockHttpRequest("GET /precompileViews HTTP/1.1"), executionContext),
+                is((Object) "next"));
+        new Verifications() {{
+            servletContext.getResourcePaths(anyString);
+            times = 0;
+        }};
+    }
+
+    private Object handle(String path) {
+        sut.setEnabled(true);
+        sut.setPath("/precompileViews");
+        sut.setSecret("secret");
+        executionContext.addHandler((data, context) -> "next");
+        return sut.handle(new MockHttpRequest("GET " + path + " HTTP/1.1"), executionContext);
+    }
+
+    private void config() {
+        S2NRoutesMapping mapping = new S2NRoutesMapping();
+        mapping.setRoutes("oscana/s2n/handler/ViewInventoryTest/routes.xml");
+        mapping.setBasePackage("oscana.s2n.sample.action");
+        repositoryResource.addComponent("packageMapping", mapping);
+    }
+
+    @Override
+    protected void setClassToRegist() {
+        registClassList = Arrays.asList(HttpResourceHolder.class);
+    }
+}
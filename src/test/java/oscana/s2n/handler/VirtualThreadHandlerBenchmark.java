@@ -0,0 +1,194 @@
+package oscana.s2n.handler;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import oscana.s2n.benchmark.BenchmarkRunner;
+
+/**
+ * {@link VirtualThreadHandler}の有効時と無効時の負荷試験。<br>
+ * <br>
+ * ブロッキングするデータベースアクセスを行うリクエストを、サーブレットコンテナのスレッドプールを模した固定数のスレッドで同時に処理し、
+ * 全てのリクエストの完了までの時間からスループットを求める。
+ * <ul>
+ * <li>無効時：コンテナのスレッドでデータベースにアクセスする。</li>
+ * <li>有効時：コンテナのスレッドは{@link VirtualThreadHandler}と同様に仮想スレッドに処理を渡して即座に戻り、
+ * 仮想スレッドでデータベースにアクセスする。</li>
+ * </ul>
+ * データベースはテスト用のH2（インメモリ）を使用し、リモートのデータベースの待ち時間はH2に登録したSLEEP関数で再現する。
+ * H2はセッション単位にsynchronizedで排他するため、Java 21から23では待ち時間の間、仮想スレッドがキャリアスレッドに固定され、
+ * 有効時の効果が小さくなることに注意すること。<br>
+ * 仮想スレッドをサポートしない実行環境では無効時のみ計測する。
+ * 実行方法は{@link BenchmarkRunner}を参照。計測条件は以下のシステムプロパティで変更できる。
+ * <ul>
+ * <li>benchmark.requests：1回の計測でのリクエスト数（デフォルトは2000）</li>
+ * <li>benchmark.threads：コンテナのスレッド数（デフォルトは200）</li>
+ * <li>benchmark.latency：1リクエストあたりのデータベースの待ち時間（ミリ秒、デフォルトは10）</li>
+ * <li>benchmark.iterations：計測の回数（デフォルトは5）</li>
+ * </ul>
+ */
+public final class VirtualThreadHandlerBenchmark {
+
+    /** データベースのURL */
+    private static final String URL = "jdbc:h2:mem:virtualThreadBenchmark;DB_CLOSE_DELAY=-1";
+
+    /** 1回の計測でのリクエスト数 */
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2000);
+
+    /** コンテナのスレッド数 */
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 200);
+
+    /** 1リクエストあたりのデータベースの待ち時間（ミリ秒） */
+    private static final int LATENCY = Integer.getInteger("benchmark.latency", 10);
+
+    /** 計測の回数 */
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 5);
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private VirtualThreadHandlerBenchmark() {
+    }
+
+    /**
+     * ベンチマークを実行する。
+     * @param args 使用しない
+     * @throws Exception 処理に失敗した場合
+     */
+    public static void main(String[] args) throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL);
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR \"java.lang.Thread.sleep\"");
+            statement.execute("CREATE TABLE IF NOT EXISTS USERS (ID INT PRIMARY KEY, NAME VARCHAR(100))");
+            for (int i = 0; i < 100; i++) {
+                statement.execute("MERGE INTO USERS VALUES (" + i + ", 'user" + i + "')");
+            }
+
+            final ExecutorService container = Executors.newFixedThreadPool(THREADS);
+            final ExecutorService virtualThreads = createVirtualThreadExecutor();
+            try {
+                System.out.println("[virtual thread handler] requests=" + REQUESTS + " threads=" + THREADS
+                        + " latency=" + LATENCY + "ms iterations=" + ITERATIONS);
+                // ウォームアップ
+                run(container, null);
+                final double disabled = measure(container, null);
+                print("disabled (container threads)", disabled, disabled);
+                if (virtualThreads == null) {
+                    System.out.println("  virtual threads are not supported. enabled mode is skipped.");
+                    return;
+                }
+                run(container, virtualThreads);
+                print("enabled (virtual threads)", measure(container, virtualThreads), disabled);
+            } finally {
+                container.shutdownNow();
+                if (virtualThreads != null) {
+                    virtualThreads.shutdownNow();
+                }
+            }
+        }
+    }
+
+    /**
+     * 指定回数計測し、平均のスループットを求める。
+     *
+     * @param container コンテナのスレッド
+     * @param virtualThreads 仮想スレッド（無効時はnull）
+     * @return スループット（リクエスト/秒）
+     * @throws Exception 処理に失敗した場合
+     */
+    private static double measure(ExecutorService container, ExecutorService virtualThreads) throws Exception {
+        long total = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            total += run(container, virtualThreads);
+        }
+        return REQUESTS * (double) TimeUnit.SECONDS.toNanos(1) / (total / ITERATIONS);
+    }
+
+    /**
+     * 全てのリクエストを同時に処理する。
+     *
+     * @param container コンテナのスレッド
+     * @param virtualThreads 仮想スレッド（無効時はnull）
+     * @return 全てのリクエストの完了までの時間（ナノ秒）
+     * @throws Exception 処理に失敗した場合
+     */
+    private static long run(ExecutorService container, final ExecutorService virtualThreads) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(REQUESTS);
+        final AtomicInteger failures = new AtomicInteger();
+        final Runnable request = () -> {
+            try {
+                query();
+            } catch (SQLException e) {
+                failures.incrementAndGet();
+            } finally {
+                latch.countDown();
+            }
+        };
+        final long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            if (virtualThreads == null) {
+                container.execute(request);
+            } else {
+                container.execute(() -> virtualThreads.execute(request));
+            }
+        }
+        latch.await();
+        final long elapsed = System.nanoTime() - start;
+        if (failures.get() != 0) {
+            throw new IllegalStateException("requests failed. failures=[" + failures.get() + "]");
+        }
+        return elapsed;
+    }
+
+    /**
+     * 1リクエスト分のデータベースアクセスを行う。
+     *
+     * @throws SQLException データベースアクセスに失敗した場合
+     */
+    private static void query() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL);
+                Statement statement = connection.createStatement()) {
+            statement.execute("CALL SLEEP(" + LATENCY + ")");
+            try (ResultSet rs = statement.executeQuery("SELECT NAME FROM USERS WHERE ID = 1")) {
+                rs.next();
+            }
+        }
+    }
+
+    /**
+     * 仮想スレッドでタスクを実行する{@link ExecutorService}を生成する。
+     *
+     * @return {@link ExecutorService}。実行環境が仮想スレッドをサポートしない場合はnull
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        if (!VirtualThreadHandler.isSupported()) {
+            return null;
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 計測結果を出力する。
+     *
+     * @param label 処理の名前
+     * @param throughput スループット（リクエスト/秒）
+     * @param baseline 比較対象のスループット（リクエスト/秒）
+     */
+    private static void print(String label, double throughput, double baseline) {
+        System.out.println(String.format(Locale.ROOT, "  %-30s %12.1f req/s (x%.2f)",
+                label, throughput, throughput / baseline));
+    }
+}
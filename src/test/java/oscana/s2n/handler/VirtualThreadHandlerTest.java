@@ -0,0 +1,273 @@
+package oscana.s2n.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import nablarch.common.handler.threadcontext.ThreadContextHandler;
+import nablarch.core.ThreadContext;
+import nablarch.fw.Handler;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.HttpResponse;
+import nablarch.fw.web.handler.HttpResponseHandler;
+import nablarch.fw.web.servlet.WebFrontController;
+import oscana.s2n.common.S2NConfig;
+import oscana.s2n.common.S2NConstants;
+import oscana.s2n.sample.support.SystemRepositoryResource;
+import oscana.s2n.testCommon.S2NBaseTest;
+
+/**
+ * {@link VirtualThreadHandler}のテスト。
+ */
+public class VirtualThreadHandlerTest extends S2NBaseTest {
+
+    @Rule
+    public SystemRepositoryResource repositoryResource = new SystemRepositoryResource(null);
+
+    @Mocked
+    private AsyncContext asyncContext;
+
+    @After
+    public void clearThreadContext() {
+        ThreadContext.clear();
+    }
+
+    /**
+     * 無効の場合、後続のハンドラを現在のスレッドで実行すること
+     */
+    @Test
+    public void testDisabled() {
+        VirtualThreadHandler handler = new VirtualThreadHandler();
+        handler.setEnabled(false);
+        final List<Thread> threads = new ArrayList<>();
+
+        Object result = this.handle(Arrays.asList(handler, (data, context) -> {
+            threads.add(Thread.currentThread());
+            return "next";
+        }));
+
+        assertThat(result, is((Object) "next"));
+        assertSame(Thread.currentThread(), threads.get(0));
+        new Verifications() {{
+            httpServletRequest.startAsync();
+            times = 0;
+        }};
+    }
+
+    /**
+     * リクエストが非同期処理をサポートしない場合、後続のハンドラを現在のスレッドで実行すること
+     */
+    @Test
+    public void testAsyncNotSupported() {
+        new Expectations() {{
+            httpServletRequest.isAsyncSupported();
+            result = false;
+            minTimes = 0;
+        }};
+
+        Object result = this.handle(Arrays.asList(new VirtualThreadHandler(), (data, context) -> "next"));
+
+        assertThat(result, is((Object) "next"));
+        new Verifications() {{
+            httpServletRequest.startAsync();
+            times = 0;
+        }};
+    }
+
+    /**
+     * 仮想スレッドをサポートする場合、後続のハンドラを仮想スレッドで実行し、ThreadContextを引き継いで応答すること
+     */
+    @Test
+    public void testHandleOnVirtualThread() throws Exception {
+        assumeTrue(VirtualThreadHandler.isSupported());
+        assertHandleOnExecutor(new VirtualThreadHandler());
+    }
+
+    /**
+     * 指定した{@link ExecutorService}で後続のハンドラを実行し、ThreadContextを引き継いで応答すること
+     */
+    @Test
+    public void testHandleOnExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertHandleOnExecutor(new VirtualThreadHandler(executor));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 後続のハンドラで応答が保留された場合、応答しないこと
+     */
+    @Test
+    public void testSuspended() throws Exception {
+        expectAsync();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Object result = this.handle(Arrays.asList(new VirtualThreadHandler(executor), (data, context) -> {
+            context.setRequestScopedVar(S2NConstants.REQUEST_SCOPED_KEY_ASYNC_SUSPENDED, Boolean.TRUE);
+            return null;
+        }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertNull(result);
+        new Verifications() {{
+            asyncContext.dispatch(anyString);
+            times = 0;
+            asyncContext.complete();
+            times = 0;
+        }};
+    }
+
+    /**
+     * 後続のハンドラで例外が発生した場合、内部エラーで応答すること
+     */
+    @Test
+    public void testError() throws Exception {
+        expectAsync();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Object result = this.handle(Arrays.asList(new VirtualThreadHandler(executor), (data, context) -> {
+            throw new IllegalArgumentException("error");
+        }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertNull(result);
+        new Verifications() {{
+            httpServletResponse.sendError(500);
+            times = 1;
+            asyncContext.complete();
+            times = 1;
+        }};
+    }
+
+    /**
+     * 後続のハンドラに{@link HttpResponseHandler}が存在する場合は例外が送出されること
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testMisplaced() {
+        this.handle(Arrays.asList(new VirtualThreadHandler(null),
+                new HttpResponseHandler(), (data, context) -> "next"));
+    }
+
+    /**
+     * ハンドラキューでThreadContextHandlerが前に配置されている場合は例外が送出されること
+     */
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testMisplacedAfterThreadContextHandler() {
+        final Handler<HttpRequest, Object> threadContextHandler = (Handler) new ThreadContextHandler();
+        final List<Handler<HttpRequest, Object>> queue = Arrays.asList(threadContextHandler,
+                new VirtualThreadHandler(null), (data, context) -> "next");
+        repositoryResource.addComponent("webFrontController", new WebFrontController().setHandlerQueue(queue));
+
+        try {
+            this.handle(queue.subList(1, queue.size()));
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("VirtualThreadHandler cannot suspend the request because "
+                    + "nablarch.common.handler.threadcontext.ThreadContextHandler is placed before it"));
+        }
+    }
+
+    /**
+     * 設定したThreadContextのキーの値が仮想スレッドに引き継がれること
+     */
+    @Test
+    public void testThreadContextKeys() throws Exception {
+        S2NConfig config = new S2NConfig();
+        config.setThreadContextKeys(Arrays.asList("custom"));
+        repositoryResource.addComponent("s2nConfig", config);
+        expectAsync();
+        ThreadContext.setObject("custom", "value");
+        ThreadContext.setObject("notCopied", "value");
+        final List<Object> handled = new ArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        this.handle(Arrays.asList(new VirtualThreadHandler(executor), (data, context) -> {
+            handled.add(ThreadContext.getObject("custom"));
+            handled.add(ThreadContext.getObject("notCopied"));
+            return null;
+        }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertThat(handled.get(0), is((Object) "value"));
+        assertNull(handled.get(1));
+    }
+
+    private void assertHandleOnExecutor(VirtualThreadHandler handler) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<Object> handled = new ArrayList<>();
+        expectAsync();
+        new Expectations() {{
+            asyncContext.dispatch(anyString);
+            result = new Delegate<Void>() {
+                @SuppressWarnings("unused")
+                void dispatch(String path) {
+                    handled.add(path);
+                    latch.countDown();
+                }
+            };
+        }};
+        ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, "index");
+        ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID, Integer.valueOf(7));
+
+        Object result = this.handle(Arrays.asList(handler, (data, context) -> {
+            handled.add(Thread.currentThread());
+            handled.add(ThreadContext.getObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME));
+            handled.add(ThreadContext.getObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID));
+            return new HttpResponse("/WEB-INF/view/index.jsp");
+        }));
+
+        assertNull(result);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), handled.get(0));
+        assertThat(handled.get(1), is((Object) "index"));
+        assertThat(handled.get(2), is((Object) Integer.valueOf(7)));
+        assertThat(handled.get(3), is((Object) "/WEB-INF/view/index.jsp"));
+    }
+
+    private void expectAsync() {
+        new Expectations() {{
+            httpServletRequest.isAsyncSupported();
+            result = true;
+            httpServletRequest.isAsyncStarted();
+            result = false;
+            minTimes = 0;
+            httpServletRequest.startAsync();
+            result = asyncContext;
+            asyncContext.getRequest();
+            result = httpServletRequest;
+            minTimes = 0;
+            asyncContext.getResponse();
+            result = httpServletResponse;
+            minTimes = 0;
+        }};
+    }
+
+    @Override
+    protected void setClassToRegist() {
+        registClassList = Arrays.asList(HttpResourceHolder.class);
+    }
+}
@@ -0,0 +1,19 @@
+package oscana.s2n.sample.action.inventory;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.web.HttpRequest;
+import oscana.s2n.handler.ViewInventory;
+import oscana.s2n.struts.action.Forward;
+
+/**
+ * {@link ViewInventory}のテスト用アクション。
+ */
+@Forward(name = "success", path = "/WEB-INF/view/inventory/list/detail/show.jsp")
+@Forward(name = "missing", path = "/WEB-INF/view/inventory/list/detail/missing.jsp")
+@Forward(name = "back", path = "/inventory/list")
+public class DetailAction {
+
+    public String index(HttpRequest req, ExecutionContext ctx) {
+        return "index.jsp";
+    }
+}
@@ -0,0 +1,15 @@
+package oscana.s2n.sample.action.inventory;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.web.HttpRequest;
+import oscana.s2n.handler.ViewInventory;
+
+/**
+ * {@link ViewInventory}のテスト用アクション。
+ */
+public class EditAction {
+
+    public String index(HttpRequest req, ExecutionContext ctx) {
+        return "index.jsp";
+    }
+}
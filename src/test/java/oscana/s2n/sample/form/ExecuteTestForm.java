@@ -1,8 +1,11 @@
 package oscana.s2n.sample.form;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Map;
 
+import javax.validation.Valid;
+
 import nablarch.core.validation.PropertyName;
 import nablarch.fw.dicontainer.web.SessionScoped;
 import oscana.s2n.common.web.interceptor.Execute;
@@ -36,6 +39,9 @@ public class ExecuteTestForm implements Serializable {
 
     private FormFile[] formFiles;
 
+    @Valid
+    private List<ExecuteTestRow> rows;
+
     @Required(target="notRemove, doValidNotStopWithErr, defaultExecute")
     private String requiredVal;
 
@@ -194,4 +200,18 @@ public class ExecuteTestForm implements Serializable {
     public void setFormFiles(FormFile[] formFiles) {
         this.formFiles = formFiles;
     }
+
+    /**
+     * @return rows
+     */
+    public List<ExecuteTestRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * @param rows セットする rows
+     */
+    public void setRows(List<ExecuteTestRow> rows) {
+        this.rows = rows;
+    }
 }
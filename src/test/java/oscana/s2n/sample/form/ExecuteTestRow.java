@@ -0,0 +1,31 @@
+package oscana.s2n.sample.form;
+
+import java.io.Serializable;
+
+import oscana.s2n.common.web.interceptor.Execute;
+import oscana.s2n.validation.Length;
+
+/**
+ * {@link Execute}のテスト用フォームの一覧の行。
+ */
+public class ExecuteTestRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Length(max = 3, target = "gridNormalizeTest")
+    private String code;
+
+    /**
+     * @return code
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @param code セットする code
+     */
+    public void setCode(String code) {
+        this.code = code;
+    }
+}
@@ -112,6 +112,22 @@ public class ExecuteTestAction {
                 .write("trimVal=" + form.getTrimVal());
     }
 
+    /**
+     * Executeのnormalize後のリクエストパラメータのテスト用
+     */
+    @Execute
+    public HttpResponse normalizeParamTest(HttpRequest req, ExecutionContext ctx) {
+        return new HttpResponse(200).write("trimVal=" + req.getParam("trimVal")[0]);
+    }
+
+    /**
+     * Executeの一覧の行のnormalizeテスト用
+     */
+    @Execute
+    public HttpResponse gridNormalizeTest(HttpRequest req, ExecutionContext ctx) {
+        return new HttpResponse(200).write("code=" + form.getRows().get(0).getCode());
+    }
+
     /**
      * Executeのvalid時Formに値を設定することをテスト用
      */
@@ -0,0 +1,34 @@
+package oscana.s2n.sample.support;
+
+import nablarch.fw.ExecutionContext;
+import nablarch.fw.web.HttpRequest;
+import nablarch.fw.web.HttpResponse;
+import oscana.s2n.common.OscanaActionForm;
+import oscana.s2n.common.web.interceptor.Execute;
+import oscana.s2n.handler.ActionWarmUp;
+import oscana.s2n.sample.form.ExecuteTestForm;
+
+/**
+ * {@link ActionWarmUp}のテスト用アクション。
+ */
+public class WarmUpErrTestAction {
+
+    @OscanaActionForm
+    ExecuteTestForm form;
+
+    /**
+     * 存在しないバリデーションメソッドを指定
+     */
+    @Execute(validator = true, validate = "notExistValidate,@")
+    public HttpResponse validateNotExist(HttpRequest req, ExecutionContext ctx) {
+        return new HttpResponse(200);
+    }
+
+    /**
+     * バリデーションを行わない場合に存在しないバリデーションメソッドを指定
+     */
+    @Execute(validator = false, validate = "notExistValidate")
+    public HttpResponse validateNotExistWithoutValidator(HttpRequest req, ExecutionContext ctx) {
+        return new HttpResponse(200);
+    }
+}
@@ -141,6 +141,43 @@ public class HttpSessionHolderTest extends S2NBaseTest {
         }));
     }
 
+    /**
+     * セッションが存在しない場合、参照は空のセッションとして振る舞い、設定時にセッションを作成すること
+     */
+    @Test
+    public void testNoSession() {
+        new Expectations() {{
+            httpServletRequest.getSession(false);
+            result = null;
+        }};
+
+        this.handle(Arrays.asList(new HttpResourceHolderHandler(), (data, context) -> {
+
+            HttpSessionHolder httpSessionHolder = new HttpSessionHolder();
+            httpSessionHolder.holder = Containers.get().getComponent(HttpResourceHolder.class);
+
+            assertNull(httpSessionHolder.getAttribute("test"));
+            assertNull(httpSessionHolder.getValue("key"));
+            assertFalse(httpSessionHolder.getAttributeNames().hasMoreElements());
+            assertEquals(0, httpSessionHolder.getValueNames().length);
+            assertEquals(httpSessionHolder.holder.getServletContext(), httpSessionHolder.getServletContext());
+            httpSessionHolder.removeAttribute("test");
+            httpSessionHolder.removeValue("key");
+            httpSessionHolder.setAttribute("test", null);
+            httpSessionHolder.invalidate();
+            new Verifications() {{
+                httpServletRequest.getSession(true);
+                times = 0;
+            }};
+
+            httpSessionHolder.setAttribute("test", "value");
+            new Verifications() {{
+                httpServletRequest.getSession(true);
+                times = 1;
+            }};
+            return null;
+        }));
+    }
 
     @Override
     protected void setClassToRegist() {
@@ -0,0 +1,88 @@
+package oscana.s2n.servlet;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import mockit.Expectations;
+import nablarch.fw.dicontainer.nablarch.Containers;
+import nablarch.fw.web.HttpResponse;
+import oscana.s2n.handler.HttpResourceHolder;
+import oscana.s2n.handler.HttpResourceHolderHandler;
+import oscana.s2n.testCommon.S2NBaseTest;
+
+/**
+ * {@link ServletResourceHolders}のテスト。
+ */
+public class ServletResourceHoldersTest extends S2NBaseTest {
+
+    /**
+     * 共有するリソースホルダが同一のインスタンスであること
+     */
+    @Test
+    public void testShared() {
+        assertSame(ServletResourceHolders.request(), ServletResourceHolders.request());
+        assertSame(ServletResourceHolders.response(), ServletResourceHolders.response());
+        assertSame(ServletResourceHolders.session(), ServletResourceHolders.session());
+        assertSame(ServletResourceHolders.servletContext(), ServletResourceHolders.servletContext());
+    }
+
+    /**
+     * スレッドに関連付けられた参照がDIコンテナから取得した参照と同一であり、共有するリソースホルダが現在のリクエストに移譲すること
+     */
+    @Test
+    public void testBound() {
+        new Expectations() {{
+            httpServletRequest.getHeader("X-Test");
+            result = "shared";
+        }};
+
+        this.handle(Arrays.asList(new HttpResourceHolderHandler(), (data, context) -> {
+            HttpResourceHolder bound = HttpResourceHolder.bound();
+            assertNotNull(bound);
+            assertSame(Containers.get().getComponent(HttpResourceHolder.class), bound);
+            assertSame(bound, HttpResourceHolder.current());
+
+            HttpResponse forced = new HttpResponse(404);
+            Containers.get().getComponent(HttpResourceHolder.class).setForcedNextResponse(forced);
+            assertSame(forced, HttpResourceHolder.current().getForcedNextResponse());
+
+            assertEquals("shared", ServletResourceHolders.request().getHeader("X-Test"));
+            return null;
+        }));
+    }
+
+    /**
+     * DIコンテナに登録されたリソースホルダがリクエストをまたいで共有され、現在のリクエストに移譲すること
+     */
+    @Test
+    public void testSingleton() {
+        new Expectations() {{
+            httpServletRequest.getHeader("X-Test");
+            returns("first", "second");
+        }};
+        final List<HttpServletRequestHolder> holders = new ArrayList<HttpServletRequestHolder>();
+        final List<String> headers = new ArrayList<String>();
+
+        for (int i = 0; i < 2; i++) {
+            this.handle(Arrays.asList(new HttpResourceHolderHandler(), (data, context) -> {
+                HttpServletRequestHolder holder = Containers.get().getComponent(HttpServletRequestHolder.class);
+                holders.add(holder);
+                headers.add(holder.getHeader("X-Test"));
+                return null;
+            }));
+        }
+
+        assertSame(holders.get(0), holders.get(1));
+        assertEquals(Arrays.asList("first", "second"), headers);
+    }
+
+    @Override
+    protected void setClassToRegist() {
+        registClassList = Arrays.asList(HttpResourceHolder.class, HttpServletRequestHolder.class);
+    }
+}
@@ -439,6 +439,27 @@ public class OscanaHttpResourceConverUtilTest extends S2NBaseTest {
 
     }
 
+    /**
+     * 同じ戻り値でもアクションクラス単位に変換され、繰り返し変換しても同じ結果となること。
+     */
+    @Test
+    public void testCreateHttpResponse_cachedPerActionClass() {
+
+        this.handle(Arrays.asList(new HttpResourceHolderHandler(), (data, context) -> {
+            String text = "test";
+            String actionName = "actionName";
+            ActionForm action = new ActionForm();
+
+            for (int i = 0; i < 2; i++) {
+                assertEquals("servlet:///WEB-INF/view/test", OscanaHttpResourceConverUtil.createHttpResponse(text,
+                        this, mockHttpRequest, context, actionName).getContentPath().toString());
+                assertEquals("servlet:///WEB-INF/view/act/test", OscanaHttpResourceConverUtil.createHttpResponse(text,
+                        action, mockHttpRequest, context, actionName).getContentPath().toString());
+            }
+            return null;
+        }));
+    }
+
     @Override
     protected void setClassToRegist() {
         registClassList = Arrays.asList(HttpResourceHolder.class);
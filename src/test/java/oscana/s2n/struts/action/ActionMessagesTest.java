@@ -2,9 +2,16 @@ package oscana.s2n.struts.action;
 
 import static org.junit.Assert.*;
 
+import java.util.HashMap;
+import java.util.Iterator;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import nablarch.core.message.BasicStringResource;
+import nablarch.core.message.Message;
+import nablarch.core.message.MessageLevel;
+
 /**
  * {@link ActionMessages}のテスト。
  *
@@ -35,7 +42,22 @@ public class ActionMessagesTest {
     public void testNotEmpty() {
         aMsgs.add("myProp", msg);
         assertFalse(aMsgs.isEmpty());
-        assertFalse(aMsgsForAdd.isEmpty());
+        // 複製元のメッセージとリストは共有しない
+        assertTrue(aMsgsForAdd.isEmpty());
+    }
+
+    @Test
+    public void testCopy() {
+        aMsgs.add("myProp", msg);
+        ActionMessages copy = new ActionMessages(aMsgs);
+        assertEquals(1, copy.size());
+        assertNotSame(aMsgs.getMessages(), copy.getMessages());
+
+        copy.add("otherProp", "aMessage");
+        assertEquals(1, aMsgs.size());
+        assertEquals(2, copy.size());
+
+        assertTrue(new ActionMessages((ActionMessages) null).isEmpty());
     }
 
     @Test
@@ -72,4 +94,58 @@ public class ActionMessagesTest {
         assertEquals("messageId=[aMessage] propertyName=[actionMessage]", aMsgs.getMessages().get(0).toString());
     }
 
+    @Test
+    public void testGetByProperty() {
+        aMsgs.add("prop1", "aMessage");
+        aMsgs.add("prop2", msg);
+        aMsgs.add("prop1", "bMessage");
+
+        assertEquals(2, aMsgs.size("prop1"));
+        assertEquals(1, aMsgs.size("prop2"));
+        assertEquals(0, aMsgs.size("notExist"));
+
+        Iterator<Message> prop1 = aMsgs.get("prop1");
+        assertEquals("messageId=[aMessage] propertyName=[prop1]", prop1.next().toString());
+        assertEquals("messageId=[bMessage] propertyName=[prop1]", prop1.next().toString());
+        assertFalse(prop1.hasNext());
+        assertFalse(aMsgs.get("notExist").hasNext());
+
+        Iterator<String> properties = aMsgs.properties();
+        assertEquals("prop1", properties.next());
+        assertEquals("prop2", properties.next());
+        assertFalse(properties.hasNext());
+    }
+
+    @Test
+    public void testGetByProperty_global() {
+        aMsgs.getMessages().add(new Message(MessageLevel.ERROR,
+                new BasicStringResource("aMessage", new HashMap<String, String>())));
+        aMsgs.add("prop1", "aMessage");
+
+        assertEquals(1, aMsgs.size(ActionMessages.GLOBAL_MESSAGE));
+        assertEquals(ActionMessages.GLOBAL_MESSAGE, aMsgs.properties().next());
+    }
+
+    @Test
+    public void testGetByProperty_modified() {
+        aMsgs.add("prop1", "aMessage");
+        aMsgs.add("prop2", "aMessage");
+        assertEquals(1, aMsgs.size("prop1"));
+
+        // getMessages()のリストを直接変更した場合も索引に反映されること
+        aMsgs.getMessages().remove(0);
+        assertEquals(0, aMsgs.size("prop1"));
+        assertEquals(1, aMsgs.size("prop2"));
+
+        aMsgs.getMessages().set(0, aMsgs.getMessages().get(0));
+        anMsgs.add("prop3", "aMessage");
+        aMsgs.getMessages().set(0, anMsgs.getMessages().get(0));
+        assertEquals(0, aMsgs.size("prop2"));
+        assertEquals(1, aMsgs.size("prop3"));
+
+        aMsgs.clear();
+        assertFalse(aMsgs.properties().hasNext());
+        aMsgs.add("prop1", msg);
+        assertEquals(1, aMsgs.size("prop1"));
+    }
 }
@@ -125,8 +125,9 @@ public class ActionTest extends S2NBaseTest {
             messages.getMessages();
             result = msgs;
 
+            // 文言は参照時に生成するため、格納時には生成しない
             msg.formatMessage();
-            result = "";
+            times = 0;
         }};
 
         // テストコードを実施
@@ -136,7 +137,7 @@ public class ActionTest extends S2NBaseTest {
             action.saveMessages(request, messages);
             new Verifications() {
                 {
-                    httpServletRequest.setAttribute(anyString, any);
+                    httpServletRequest.setAttribute(Globals.MESSAGE_KEY, withInstanceOf(MessageList.class));
                     times = 1;
                     httpServletRequest.removeAttribute(anyString);
                     times = 0;
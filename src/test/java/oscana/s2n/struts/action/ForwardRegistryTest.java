@@ -0,0 +1,124 @@
+package oscana.s2n.struts.action;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * {@link ForwardRegistry}のテスト。
+ */
+public class ForwardRegistryTest {
+
+    /**
+     * アノテーションで定義したフォーワード先を取得でき、レスポンスが生成できること
+     */
+    @Test
+    public void testFindForward() {
+        ActionMapping mapping = ForwardRegistry.getMapping(SampleAction.class);
+
+        ActionForward success = mapping.findForward("success");
+        assertThat(success.getName(), is("success"));
+        assertThat(success.getPath(), is("/WEB-INF/view/sample/success.jsp"));
+        assertThat(success.toResponse().getContentPath().toString(), is("servlet:///WEB-INF/view/sample/success.jsp"));
+
+        ActionForward back = mapping.findForward("back");
+        assertThat(back.toResponse().getContentPath().toString(), is("forward:///sample/index"));
+        assertNotSame(back.toResponse(), back.toResponse());
+
+        assertNull(mapping.findForward("notExist"));
+    }
+
+    /**
+     * アクションクラス単位に同じインスタンスが共有されること
+     */
+    @Test
+    public void testShared() {
+        ActionMapping mapping = ForwardRegistry.getMapping(SampleAction.class);
+        assertSame(mapping, ForwardRegistry.getMapping(SampleAction.class));
+        assertSame(mapping.findForward("success"), ForwardRegistry.getMapping(SampleAction.class).findForward("success"));
+        assertSame(mapping, new SampleAction().getActionMapping());
+    }
+
+    /**
+     * スーパークラスの定義を引き継ぎ、同じ名前の場合はサブクラスの定義が優先されること
+     */
+    @Test
+    public void testInherited() {
+        ActionMapping mapping = ForwardRegistry.getMapping(SubSampleAction.class);
+
+        assertThat(mapping.findForward("success").getPath(), is("/WEB-INF/view/sample/sub.jsp"));
+        assertThat(mapping.findForward("back").getPath(), is("/sample/index"));
+        assertThat(mapping.findForward("next").getPath(), is("/sample/next"));
+    }
+
+    /**
+     * フォーワード先のうち、JSPのパスのみを取得できること
+     */
+    @Test
+    public void testGetViews() {
+        assertThat(ForwardRegistry.getViews(SampleAction.class),
+                is((Object) Collections.singleton("/WEB-INF/view/sample/success.jsp")));
+        assertThat(ForwardRegistry.getViews(SubSampleAction.class),
+                is((Object) Collections.singleton("/WEB-INF/view/sample/sub.jsp")));
+        assertTrue(ForwardRegistry.getViews(Action.class).isEmpty());
+    }
+
+    /**
+     * フォーワード先が定義されていない場合、空のActionMappingが返されること
+     */
+    @Test
+    public void testNoForward() {
+        assertNull(ForwardRegistry.getMapping(Action.class).findForward("success"));
+    }
+
+    /**
+     * 同じクラスに同じ名前のフォーワード先が定義されている場合、例外が送出されること
+     */
+    @Test
+    public void testDuplicate() {
+        try {
+            ForwardRegistry.getMapping(DuplicateAction.class);
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("duplicate forward name."));
+        }
+    }
+
+    /**
+     * 共有するインスタンスの設定を変更できないこと
+     */
+    @Test
+    public void testImmutable() {
+        ActionMapping mapping = ForwardRegistry.getMapping(SampleAction.class);
+        try {
+            mapping.setPath("/changed");
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertNull(mapping.getPath());
+        }
+        try {
+            mapping.findForward("success").setPath("/changed.jsp");
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertThat(mapping.findForward("success").getPath(), is("/WEB-INF/view/sample/success.jsp"));
+        }
+    }
+
+    @Forward(name = "success", path = "/WEB-INF/view/sample/success.jsp")
+    @Forward(name = "back", path = "/sample/index")
+    public static class SampleAction extends Action {
+    }
+
+    @Forward(name = "success", path = "/WEB-INF/view/sample/sub.jsp")
+    @Forward(name = "next", path = "/sample/next")
+    public static class SubSampleAction extends SampleAction {
+    }
+
+    @Forward(name = "success", path = "/a.jsp")
+    @Forward(name = "success", path = "/b.jsp")
+    public static class DuplicateAction extends Action {
+    }
+}
@@ -0,0 +1,175 @@
+package oscana.s2n.struts.action;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Test;
+
+import nablarch.core.ThreadContext;
+import nablarch.core.message.Message;
+import nablarch.core.message.MessageLevel;
+import nablarch.core.message.MessageNotFoundException;
+import nablarch.core.message.StringResource;
+import nablarch.core.validation.ValidationResultMessage;
+
+/**
+ * {@link MessageList}のテスト。
+ */
+public class MessageListTest {
+
+    @After
+    public void tearDown() {
+        ThreadContext.clear();
+    }
+
+    /**
+     * 文言は参照時に生成され、言語単位にキャッシュされること
+     */
+    @Test
+    public void testGet() {
+        CountingResource first = new CountingResource("first");
+        CountingResource second = new CountingResource("second");
+        MessageList list = new MessageList(Arrays.asList(
+                new Message(MessageLevel.ERROR, first, new Object[0]),
+                new Message(MessageLevel.ERROR, second, new Object[0])));
+
+        assertThat(list.size(), is(2));
+        assertThat(first.count, is(0));
+        assertThat(second.count, is(0));
+
+        ThreadContext.setLanguage(Locale.JAPANESE);
+        assertThat(list.get(0), is("first_ja"));
+        assertThat(list.get(0), is("first_ja"));
+        assertThat(first.count, is(1));
+        assertThat(second.count, is(0));
+
+        ThreadContext.setLanguage(Locale.ENGLISH);
+        assertThat(list.get(0), is("first_en"));
+        assertThat(first.count, is(2));
+
+        ThreadContext.setLanguage(Locale.JAPANESE);
+        assertThat(list, is(Arrays.asList("first_ja", "second_ja")));
+        assertThat(first.count, is(2));
+        assertThat(second.count, is(1));
+    }
+
+    /**
+     * 言語が設定されていない場合も文言がキャッシュされること
+     */
+    @Test
+    public void testGetWithoutLanguage() {
+        CountingResource resource = new CountingResource("message");
+        MessageList list = new MessageList(Arrays.asList(new Message(MessageLevel.INFO, resource, new Object[0])));
+
+        String message = list.get(0);
+        assertThat(message, startsWith("message_"));
+        assertSame(message, list.get(0));
+        assertThat(resource.count, is(1));
+    }
+
+    /**
+     * プロパティ単位にメッセージを参照できること
+     */
+    @Test
+    public void testGetByProperty() {
+        CountingResource name = new CountingResource("name");
+        MessageList list = new MessageList(Arrays.<Message> asList(
+                new ValidationResultMessage("form.name", name, new Object[0]),
+                new Message(MessageLevel.ERROR, new CountingResource("global"), new Object[0]),
+                new ValidationResultMessage("form.age", new CountingResource("age"), new Object[0]),
+                new ValidationResultMessage("form.name", new CountingResource("name2"), new Object[0])));
+        ThreadContext.setLanguage(Locale.JAPANESE);
+
+        Map<String, List<String>> byProperty = list.getByProperty();
+        assertThat(name.count, is(0));
+        assertThat(byProperty.keySet(),
+                is((Set<String>) new LinkedHashSet<String>(
+                        Arrays.asList("form.name", ActionMessages.GLOBAL_MESSAGE, "form.age"))));
+        assertThat(byProperty.get("form.name"), is(Arrays.asList("name_ja", "name2_ja")));
+        assertThat(byProperty.get(ActionMessages.GLOBAL_MESSAGE), is(Arrays.asList("global_ja")));
+        assertThat(byProperty.get("form.age"), is(Arrays.asList("age_ja")));
+        assertNull(byProperty.get("form.notExist"));
+
+        assertThat(list.get(0), is("name_ja"));
+        assertThat(name.count, is(1));
+        assertSame(byProperty, list.getByProperty());
+    }
+
+    /**
+     * メッセージIDから生成したメッセージは、生成時にメッセージテンプレートが取得されること
+     */
+    @Test
+    public void testResolveTemplate() {
+        ThreadContext.setLanguage(Locale.JAPANESE);
+        CountingResource resource = new CountingResource("name");
+        MessageList list = new MessageList(Arrays.<Message> asList(
+                new ResourceMessage("form.name", resource, new Object[0])));
+        assertThat(resource.count, is(1));
+
+        assertThat(list.get(0), is("name_ja"));
+        assertThat(resource.count, is(2));
+        assertThat(list.getByProperty().get("form.name"), is(Arrays.asList("name_ja")));
+    }
+
+    /**
+     * メッセージテンプレートが存在しない場合、生成時に例外が送出されること
+     */
+    @Test(expected = MessageNotFoundException.class)
+    public void testResolveTemplateNotFound() {
+        ThreadContext.setLanguage(Locale.JAPANESE);
+        new MessageList(Arrays.<Message> asList(new ResourceMessage("form.name", new StringResource() {
+            @Override
+            public String getId() {
+                return "notFound";
+            }
+
+            @Override
+            public String getValue(Locale locale) {
+                throw new MessageNotFoundException("message was not found. message id = notFound");
+            }
+        }, new Object[0])));
+    }
+
+    /**
+     * 変更できないこと
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmodifiable() {
+        MessageList list = new MessageList(Arrays.asList(
+                new Message(MessageLevel.ERROR, new CountingResource("message"), new Object[0])));
+        list.add("added");
+    }
+
+    /**
+     * 文言の生成回数を数える{@link StringResource}。
+     */
+    private static class CountingResource implements StringResource {
+
+        private final String id;
+
+        private int count;
+
+        CountingResource(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getValue(Locale locale) {
+            count++;
+            return id + "_" + locale;
+        }
+    }
+}
@@ -7,6 +7,9 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
@@ -156,6 +159,76 @@ public class ParseDateTest {
         assertThat(v.getMessage(), is("{fieldName}はDate型として不正です。"));
     }
 
+    /**
+     * 厳密に解析しない場合、存在しない日付、余分な文字列が続く値でも精査エラーが発生しないこと
+     */
+    @Test
+    public void testLenient() {
+        ValueTestBean bean = new ValueTestBean();
+        bean.setValue("2020/02/30");
+        assertThat(validator.validate(bean).size(), is(0));
+        bean.setValue("2020/05/18abc");
+        assertThat(validator.validate(bean).size(), is(0));
+    }
+
+    /**
+     * 厳密に解析する場合、存在しない日付、余分な文字列が続く値は精査エラーが発生すること
+     */
+    @Test
+    public void testStrict() {
+        StrictTestBean bean = new StrictTestBean();
+        bean.value = "2020/05/18";
+        assertThat(validator.validate(bean).size(), is(0));
+        bean.value = "2020/02/29";
+        assertThat(validator.validate(bean).size(), is(0));
+
+        bean.value = "2020/02/30";
+        assertThat(validator.validate(bean).size(), is(1));
+        bean.value = "2020/13/01";
+        assertThat(validator.validate(bean).size(), is(1));
+        bean.value = "2020/05/18abc";
+        assertThat(validator.validate(bean).size(), is(1));
+        bean.value = "abc";
+        assertThat(validator.validate(bean).size(), is(1));
+        bean.value = "";
+        assertThat(validator.validate(bean).size(), is(1));
+    }
+
+    /**
+     * 複数のスレッドから同時にチェックできること
+     */
+    @Test
+    public void testConcurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 8; i++) {
+                final int day = i + 1;
+                results.add(executor.submit(() -> {
+                    int violations = 0;
+                    for (int j = 0; j < 200; j++) {
+                        StrictTestBean bean = new StrictTestBean();
+                        bean.value = "2020/05/0" + day;
+                        violations += validator.validate(bean).size();
+                        bean.value = "2020/02/3" + (day % 2);
+                        violations += validator.validate(bean).size();
+                    }
+                    return violations;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get(), is(200));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static class StrictTestBean {
+        @ParseDate(datePattern = "yyyy/MM/dd", strict = true)
+        private String value;
+    }
+
     private static class ValueTestBean {
         @ParseDate(datePattern = "yyyy/MM/dd")
         private String value;
@@ -6,9 +6,11 @@ import java.util.Arrays;
 
 import org.junit.Test;
 
+import nablarch.core.ThreadContext;
 import nablarch.core.repository.SystemRepository;
 import nablarch.fw.web.HttpResponse;
 import nablarch.fw.web.handler.HttpResponseHandler;
+import oscana.s2n.common.S2NConstants;
 import oscana.s2n.testCommon.S2NNablarchTestCase;
 
 /**
@@ -79,6 +81,87 @@ public class ValidateTargetTest extends S2NNablarchTestCase {
 
     }
 
+    /**
+     * 対象メソッドの場合のみtrueを戻すこと
+     */
+    @Test
+    public void testIsTarget_methodName() {
+        ValidateTargetForTest validateTargetForTest = new ValidateTargetForTest();
+        validateTargetForTest.setTargets("targetMethod1, targetMethod2");
+        try {
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, "targetMethod1");
+            assertTrue(validateTargetForTest.isTarget());
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, new String("targetMethod2"));
+            assertTrue(validateTargetForTest.isTarget());
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, "targetMethod3");
+            assertFalse(validateTargetForTest.isTarget());
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, "unknownMethod");
+            assertFalse(validateTargetForTest.isTarget());
+
+            // 他のバリデータの対象メソッドは影響しないこと
+            ValidateTargetForTest other = new ValidateTargetForTest();
+            other.setTargets("targetMethod3");
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, "targetMethod3");
+            assertTrue(other.isTarget());
+            assertFalse(validateTargetForTest.isTarget());
+
+            // 対象メソッドは追加できること
+            validateTargetForTest.setTargets("targetMethod3");
+            assertTrue(validateTargetForTest.isTarget());
+        } finally {
+            ThreadContext.clear();
+        }
+    }
+
+    /**
+     * スレッドコンテキストにActionメソッド名の番号が格納されている場合、番号で判定すること
+     */
+    @Test
+    public void testIsTarget_methodId() {
+        ValidateTargetForTest validateTargetForTest = new ValidateTargetForTest();
+        validateTargetForTest.setTargets("targetMethod1");
+        try {
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID,
+                    ValidateTarget.findMethodId("targetMethod1"));
+            assertTrue(validateTargetForTest.isTarget());
+
+            ValidateTargetForTest other = new ValidateTargetForTest();
+            other.setTargets("otherTargetMethod");
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID,
+                    ValidateTarget.findMethodId("otherTargetMethod"));
+            assertFalse(validateTargetForTest.isTarget());
+            assertSame(ValidateTarget.findMethodId("targetMethod1"),
+                    ValidateTarget.findMethodId(new String("targetMethod1")));
+        } finally {
+            ThreadContext.clear();
+        }
+    }
+
+    /**
+     * 対象メソッドに指定されていないメソッド名には番号が割り当てられず、対象外と判定されること
+     */
+    @Test
+    public void testIsTarget_unassignedMethod() {
+        ValidateTargetForTest validateTargetForTest = new ValidateTargetForTest();
+        validateTargetForTest.setTargets("targetMethod1");
+        try {
+            assertNull(ValidateTarget.findMethodId("requestOnlyMethod"));
+            assertNull(ValidateTarget.findMethodId(null));
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_NAME, "requestOnlyMethod");
+            ThreadContext.setObject(S2NConstants.THREAD_CONTEXT_KEY_CALL_METHOD_ID,
+                    ValidateTarget.findMethodId("requestOnlyMethod"));
+            assertFalse(validateTargetForTest.isTarget());
+            assertNull(ValidateTarget.findMethodId("requestOnlyMethod"));
+
+            // バインド後に初期化されたバリデータの対象メソッドは、Actionメソッド名で判定されること
+            ValidateTargetForTest lateInitialized = new ValidateTargetForTest();
+            lateInitialized.setTargets("requestOnlyMethod");
+            assertTrue(lateInitialized.isTarget());
+        } finally {
+            ThreadContext.clear();
+        }
+    }
+
     public class ValidateTargetForTest extends ValidateTarget {
 
     }